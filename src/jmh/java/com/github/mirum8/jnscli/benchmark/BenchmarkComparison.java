@@ -0,0 +1,157 @@
+package com.github.mirum8.jnscli.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Compares two JMH JSON result files. A benchmark counts as regressed when its score got worse by more than
+ * {@link #THRESHOLD} and the error intervals of the two runs do not overlap, so that noise is not reported.
+ * <p>
+ * Can also be run on its own: {@code BenchmarkComparison <baseline.json> <results.json>}, exits with 1 on regressions.
+ */
+public class BenchmarkComparison {
+    static final double THRESHOLD = 0.10;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final List<Row> rows;
+
+    private BenchmarkComparison(List<Row> rows) {
+        this.rows = rows;
+    }
+
+    record Result(String benchmark, String mode, Map<String, String> params, Metric primaryMetric) {
+        String key() {
+            if (params == null || params.isEmpty()) {
+                return benchmark;
+            }
+            return benchmark + new TreeMap<>(params).entrySet().stream()
+                .map(param -> param.getKey() + "=" + param.getValue())
+                .collect(Collectors.joining(", ", " [", "]"));
+        }
+
+        /**
+         * Throughput is better when higher, all the time based modes are better when lower.
+         */
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    record Metric(double score, double scoreError, String scoreUnit) {
+        double low() {
+            return Double.isNaN(scoreError) ? score : score - scoreError;
+        }
+
+        double high() {
+            return Double.isNaN(scoreError) ? score : score + scoreError;
+        }
+    }
+
+    enum Verdict {
+        REGRESSION, IMPROVEMENT, UNCHANGED, NEW, REMOVED
+    }
+
+    record Row(String key, String unit, Metric baseline, Metric current, double change, Verdict verdict) {
+    }
+
+    public static BenchmarkComparison compare(Path baseline, Path current) throws IOException {
+        Map<String, Result> baselineResults = read(baseline);
+        Map<String, Result> currentResults = read(current);
+        List<Row> rows = new ArrayList<>();
+        for (Result result : currentResults.values()) {
+            Result previous = baselineResults.get(result.key());
+            rows.add(previous == null
+                ? new Row(result.key(), result.primaryMetric().scoreUnit(), null, result.primaryMetric(), Double.NaN, Verdict.NEW)
+                : compare(previous, result));
+        }
+        baselineResults.values().stream()
+            .filter(result -> !currentResults.containsKey(result.key()))
+            .forEach(result -> rows.add(new Row(result.key(), result.primaryMetric().scoreUnit(), result.primaryMetric(), null, Double.NaN, Verdict.REMOVED)));
+        return new BenchmarkComparison(rows);
+    }
+
+    private static Row compare(Result baseline, Result current) {
+        Metric before = baseline.primaryMetric();
+        Metric after = current.primaryMetric();
+        double change = before.score() == 0 ? 0 : (after.score() - before.score()) / before.score();
+        // a positive improvement means faster, whatever the mode
+        double improvement = current.higherIsBetter() ? change : -change;
+        boolean overlapping = after.low() <= before.high() && before.low() <= after.high();
+        Verdict verdict;
+        if (overlapping || Math.abs(improvement) <= THRESHOLD) {
+            verdict = Verdict.UNCHANGED;
+        } else {
+            verdict = improvement < 0 ? Verdict.REGRESSION : Verdict.IMPROVEMENT;
+        }
+        return new Row(current.key(), after.scoreUnit(), before, after, change, verdict);
+    }
+
+    private static Map<String, Result> read(Path path) throws IOException {
+        Result[] results = objectMapper.readValue(path.toFile(), Result[].class);
+        Map<String, Result> byKey = new LinkedHashMap<>();
+        for (Result result : results) {
+            byKey.put(result.key(), result);
+        }
+        return byKey;
+    }
+
+    public boolean hasRegressions() {
+        return rows.stream().anyMatch(row -> row.verdict() == Verdict.REGRESSION);
+    }
+
+    List<Row> rows() {
+        return rows;
+    }
+
+    public String toMarkdown() {
+        StringBuilder report = new StringBuilder("# Benchmark comparison\n\n");
+        long regressions = rows.stream().filter(row -> row.verdict() == Verdict.REGRESSION).count();
+        report.append(regressions == 0 ? "No regressions" : regressions + " regression(s)")
+            .append(String.format(Locale.ROOT, " (threshold %.0f%%)%n%n", THRESHOLD * 100));
+        report.append("| Benchmark | Unit | Baseline | Current | Change | Verdict |\n");
+        report.append("|---|---|---:|---:|---:|---|\n");
+        for (Row row : rows) {
+            report.append("| ").append(row.key())
+                .append(" | ").append(row.unit())
+                .append(" | ").append(format(row.baseline()))
+                .append(" | ").append(format(row.current()))
+                .append(" | ").append(Double.isNaN(row.change()) ? "" : String.format(Locale.ROOT, "%+.1f%%", row.change() * 100))
+                .append(" | ").append(row.verdict())
+                .append(" |\n");
+        }
+        return report.toString();
+    }
+
+    private static String format(Metric metric) {
+        if (metric == null) {
+            return "";
+        }
+        return Double.isNaN(metric.scoreError())
+            ? String.format(Locale.ROOT, "%.3f", metric.score())
+            : String.format(Locale.ROOT, "%.3f ± %.3f", metric.score(), metric.scoreError());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <results.json>");
+            System.exit(2);
+        }
+        BenchmarkComparison comparison = compare(Path.of(args[0]), Path.of(args[1]));
+        System.out.println(comparison.toMarkdown());
+        if (comparison.hasRegressions()) {
+            System.exit(1);
+        }
+    }
+}
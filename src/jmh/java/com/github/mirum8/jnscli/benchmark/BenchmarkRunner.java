@@ -0,0 +1,51 @@
+package com.github.mirum8.jnscli.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Runs the benchmarks selected by {@code -Djmh.include}, writes the JMH results to {@code <jmh.output>/results.json}
+ * and compares them with the baseline from {@code -Djmh.baseline}, if there is one.
+ * With {@code -Djmh.saveBaseline=true} the results of the run become the new baseline.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = System.getProperty("jmh.include", ".*");
+        Path outputDirectory = Path.of(System.getProperty("jmh.output", "target/jmh"));
+        Path baseline = Path.of(System.getProperty("jmh.baseline", "benchmarks/baseline.json"));
+        boolean saveBaseline = Boolean.parseBoolean(System.getProperty("jmh.saveBaseline", "false"));
+
+        Files.createDirectories(outputDirectory);
+        Path results = outputDirectory.resolve("results.json");
+        Options options = new OptionsBuilder()
+            .include(include)
+            .resultFormat(ResultFormatType.JSON)
+            .result(results.toString())
+            .build();
+        new Runner(options).run();
+
+        if (Files.exists(baseline)) {
+            BenchmarkComparison comparison = BenchmarkComparison.compare(baseline, results);
+            Path report = outputDirectory.resolve("comparison.md");
+            Files.writeString(report, comparison.toMarkdown());
+            System.out.println(comparison.toMarkdown());
+            System.out.println("Comparison report: " + report);
+        } else {
+            System.out.println("No baseline at " + baseline + ", run with -Djmh.saveBaseline=true to create one");
+        }
+        if (saveBaseline) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(results, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Saved baseline: " + baseline);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.mirum8.jnscli.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Recorded Jenkins responses standing in for a live server, so the benchmarks run offline.
+ */
+public final class Fixtures {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Fixtures() {
+    }
+
+    public static String read(String resource) {
+        try (InputStream inputStream = Fixtures.class.getClassLoader().getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IllegalArgumentException("Fixture not found: " + resource);
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Grows a recorded response to the given number of array elements by repeating the recorded ones,
+     * the text field {@code uniqueField} of each copy gets a numeric suffix to keep the elements distinct.
+     */
+    public static String amplify(String resource, String arrayField, String uniqueField, int size) {
+        try {
+            ObjectNode root = (ObjectNode) objectMapper.readTree(read(resource));
+            ArrayNode recorded = (ArrayNode) root.get(arrayField);
+            ArrayNode amplified = objectMapper.createArrayNode();
+            for (int i = 0; i < size; i++) {
+                ObjectNode element = recorded.get(i % recorded.size()).deepCopy();
+                JsonNode unique = element.get(uniqueField);
+                if (unique != null && unique.isTextual()) {
+                    element.put(uniqueField, unique.asText() + "-" + i);
+                } else if (unique != null && unique.isInt()) {
+                    element.put(uniqueField, i);
+                }
+                amplified.add(element);
+            }
+            root.set(arrayField, amplified);
+            return objectMapper.writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static HttpResponse<String> response(String url, String body) {
+        return new RecordedResponse(URI.create(url), body);
+    }
+
+    private record RecordedResponse(URI uri, String body) implements HttpResponse<String> {
+        @Override
+        public int statusCode() {
+            return 200;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return HttpRequest.newBuilder(uri).build();
+        }
+
+        @Override
+        public Optional<HttpResponse<String>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return HttpHeaders.of(Map.of(), (name, value) -> true);
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.mirum8.jnscli.build.parameters.activechoises;
+
+import com.github.mirum8.jnscli.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extraction from the recorded build pages of both Active Choices plugin versions used by the tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActiveChoiceExtractorBenchmark {
+
+    private final ActiveChoiceExtractor extractor = new ActiveChoiceExtractor();
+    private String htmlV1;
+    private String htmlV2;
+
+    @Setup
+    public void setUp() {
+        htmlV1 = Fixtures.read("html/active_choice_v1.html");
+        htmlV2 = Fixtures.read("html/active_choice_v2.html");
+    }
+
+    @Benchmark
+    public ActiveChoice pluginV1() {
+        return extractor.getActiveChoice("ACTIVE_CHOICE_2", htmlV1);
+    }
+
+    @Benchmark
+    public ActiveChoice pluginV2() {
+        return extractor.getActiveChoice("ACTIVE_CHOICE", htmlV2);
+    }
+
+    @Benchmark
+    public ActiveChoice notFound() {
+        return extractor.getActiveChoice("MISSING", htmlV2);
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.mirum8.jnscli.common;
+
+import com.github.mirum8.jnscli.context.JobsContext;
+import com.github.mirum8.jnscli.jenkins.Job;
+import com.github.mirum8.jnscli.settings.SettingsProperties;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Completion of job arguments against a catalog of the given size, the words cover top level names, folder levels and
+ * ids. The clock is fixed, so the snapshot is built once per trial and never refreshed while measuring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobCatalogBenchmark {
+
+    @Param({"1000", "10000"})
+    int jobs;
+
+    @Param({"", "team-1", "team-17/service-", "team-17/service-217/", "%12", "zzz"})
+    String word;
+
+    private Path directory;
+    private JobCatalog catalog;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("jns-benchmark");
+        SettingsProperties settingsProperties = new SettingsProperties(directory.toString());
+        JobsContext jobsContext = new JobsContext(settingsProperties);
+        jobsContext.refreshJobIds(IntStream.range(0, jobs)
+            .mapToObj(i -> new Job("hudson.model.FreeStyleProject", "team-" + i % 50 + "/service-" + i % 400 + "/build-" + i,
+                "http://localhost:8080/job/build-" + i + "/", "blue"))
+            .toList(), false);
+        SettingsService settingsService = new SettingsService(settingsProperties, props -> Optional.empty());
+        catalog = new JobCatalog(jobsContext, settingsService, Clock.fixed(Instant.EPOCH, ZoneOffset.UTC), Runnable::run);
+        catalog.complete("");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<JobCatalog.Candidate> complete() {
+        return catalog.complete(word);
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.mirum8.jnscli.context;
+
+import com.github.mirum8.jnscli.jenkins.Job;
+import com.github.mirum8.jnscli.model.JobDescriptor;
+import com.github.mirum8.jnscli.settings.SettingsProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Job lookups against a mapping of the given size, the mapping is written once per trial to a temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobsContextBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int mappingLines;
+
+    private Path directory;
+    private JobsContext jobsContext;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("jns-benchmark");
+        jobsContext = new JobsContext(new SettingsProperties(directory.toString()));
+        List<Job> jobs = IntStream.rangeClosed(1, mappingLines)
+            .mapToObj(i -> new Job("org.jenkinsci.plugins.workflow.job.WorkflowJob", "job-" + i, "http://localhost:8080/job/job-" + i + "/", "blue"))
+            .toList();
+        jobsContext.refreshJobIds(jobs, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<JobDescriptor> findJobById() {
+        return jobsContext.findJobById(ThreadLocalRandom.current().nextInt(1, mappingLines + 1));
+    }
+
+    @Benchmark
+    public Optional<JobDescriptor> findJobByName() {
+        return jobsContext.findJobByName("job-" + ThreadLocalRandom.current().nextInt(1, mappingLines + 1));
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.mirum8.jnscli.jenkins;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.mirum8.jnscli.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialization of large {@code /api/json} payloads through {@link JenkinsApiUtils#getBody}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonDeserializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int size;
+
+    private final ObjectMapper objectMapper = JenkinsApiUtils.createObjectMapper();
+    private HttpResponse<String> viewAllResponse;
+    private HttpResponse<String> workflowJobResponse;
+
+    @Setup
+    public void setUp() {
+        viewAllResponse = Fixtures.response("http://localhost:8080/api/json",
+            Fixtures.amplify("fixtures/view-all.json", "jobs", "name", size));
+        workflowJobResponse = Fixtures.response("http://localhost:8080/job/backend-build/api/json",
+            Fixtures.amplify("fixtures/workflow-job.json", "builds", "number", size));
+    }
+
+    @Benchmark
+    public ViewAll viewAll() {
+        return JenkinsApiUtils.getBody(viewAllResponse, ViewAll.class, objectMapper);
+    }
+
+    @Benchmark
+    public WorkflowJob workflowJob() {
+        return JenkinsApiUtils.getBody(workflowJobResponse, WorkflowJob.class, objectMapper);
+    }
+}
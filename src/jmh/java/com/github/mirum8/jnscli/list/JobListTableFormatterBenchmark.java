@@ -0,0 +1,51 @@
+package com.github.mirum8.jnscli.list;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobListTableFormatterBenchmark {
+    private static final List<Symbol> SYMBOLS = List.of(
+        new Symbol.Single("✔"), new Symbol.Single("✘"), new Symbol.Single("!"),
+        new Symbol.Double("✔A"), new Symbol.Single("D"), new Symbol.Single("N"));
+
+    @Param({"100", "1000", "10000"})
+    int rows;
+
+    private final JobListTableFormatter formatter = new JobListTableFormatter();
+    private List<JobRow> jobs;
+
+    @Setup
+    public void setUp() {
+        jobs = IntStream.rangeClosed(1, rows)
+            .mapToObj(i -> JobRow.builder()
+                .id(i)
+                .color(SYMBOLS.get(i % SYMBOLS.size()))
+                .name("folder-" + (i % 17) + "/job-" + i)
+                .build())
+            .toList();
+    }
+
+    @Benchmark
+    public List<String> createJobTable() {
+        return formatter.createJobTable(jobs);
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.mirum8.jnscli.shell;
+
+import org.jline.terminal.Terminal;
+import org.jline.terminal.impl.DumbTerminal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Re-rendering of a frame where a single line changes, like a progress bar, to a terminal that discards the output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RefreshableMultilineRendererBenchmark {
+
+    @Param({"10", "100"})
+    int lines;
+
+    private Terminal terminal;
+    private RefreshableMultilineRenderer renderer;
+    private List<List<String>> frames;
+    private int frame;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        terminal = new DumbTerminal(InputStream.nullInputStream(), OutputStream.nullOutputStream());
+        renderer = new RefreshableMultilineRenderer(terminal);
+        frames = IntStream.range(0, 100)
+            .mapToObj(progress -> IntStream.range(0, lines)
+                .mapToObj(line -> line == lines - 1
+                    ? "  [" + "#".repeat(progress / 5) + " ".repeat(20 - progress / 5) + "] " + progress + "%"
+                    : "  Stage " + line + "  ✔  " + (line * 7 % 60) + "s")
+                .toList())
+            .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        terminal.close();
+    }
+
+    @Benchmark
+    public void render() {
+        renderer.render(frames.get(frame));
+        frame = (frame + 1) % frames.size();
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.mirum8.jnscli;
 
 import com.github.mirum8.jnscli.settings.SettingsProperties;
+import com.github.mirum8.jnscli.trace.TraceProperties;
 import org.jline.utils.AttributedString;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -8,17 +9,46 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.shell.command.annotation.CommandScan;
 import org.springframework.shell.jline.PromptProvider;
 
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 @SpringBootApplication
 @CommandScan
 @EnableConfigurationProperties(SettingsProperties.class)
 public class JshellApplication implements PromptProvider {
 
+    private static final String TRACE_FLAG = "--trace";
+    private static final String PROMPT = "jns:>";
+
+    private final TraceProperties traceProperties;
+    private final AtomicBoolean firstPrompt = new AtomicBoolean(true);
+
+    public JshellApplication(TraceProperties traceProperties) {
+        this.traceProperties = traceProperties;
+    }
+
     public static void main(String[] args) {
-        SpringApplication.run(JshellApplication.class, args);
+        SpringApplication application = new SpringApplication(JshellApplication.class);
+        // --trace is a global flag, it is not passed on to the command
+        if (Arrays.asList(args).contains(TRACE_FLAG)) {
+            application.setDefaultProperties(Map.of("app.trace.enabled", "true"));
+            args = Arrays.stream(args).filter(arg -> !arg.equals(TRACE_FLAG)).toArray(String[]::new);
+        }
+        application.run(args);
     }
 
+    /**
+     * With {@code --trace}, the first prompt is preceded by the time since the process started.
+     */
     @Override
     public AttributedString getPrompt() {
-        return new AttributedString("jns:>");
+        if (firstPrompt.getAndSet(false) && traceProperties.enabled()) {
+            return ProcessHandle.current().info().startInstant()
+                .map(start -> new AttributedString("Time to prompt: " + (Instant.now().toEpochMilli() - start.toEpochMilli()) + " ms\n" + PROMPT))
+                .orElseGet(() -> new AttributedString(PROMPT));
+        }
+        return new AttributedString(PROMPT);
     }
 }
@@ -1,7 +1,9 @@
 package com.github.mirum8.jnscli.abort;
 
+import com.github.mirum8.jnscli.common.JobIdValueProvider;
 import org.springframework.shell.command.annotation.Command;
 import org.springframework.shell.command.annotation.Option;
+import org.springframework.shell.command.annotation.OptionValues;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -14,7 +16,7 @@ public class AbortCommand {
     }
 
     @Command(command = "abort", description = "Abort a job on Jenkins server")
-    public void abort(String jobId, @Option(shortNames = 'b', longNames = "buildNumber") Integer buildNumber) {
+    public void abort(@OptionValues(provider = JobIdValueProvider.NAME) String jobId, @Option(shortNames = 'b', longNames = "buildNumber") Integer buildNumber) {
         if (buildNumber == null) {
             abortService.abort(jobId);
         } else {
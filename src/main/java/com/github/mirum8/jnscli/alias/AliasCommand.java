@@ -1,6 +1,8 @@
 package com.github.mirum8.jnscli.alias;
 
+import com.github.mirum8.jnscli.common.JobIdValueProvider;
 import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.OptionValues;
 import org.springframework.stereotype.Component;
 
 @Command(group = "alias", description = "Alias Commands", command = "alias")
@@ -13,7 +15,7 @@ public class AliasCommand {
     }
 
     @Command(command = "add", description = "Add alias")
-    public void add(String aliasName, String jobIdOrUrl) {
+    public void add(String aliasName, @OptionValues(provider = JobIdValueProvider.NAME) String jobIdOrUrl) {
         aliasService.add(aliasName, jobIdOrUrl);
     }
 
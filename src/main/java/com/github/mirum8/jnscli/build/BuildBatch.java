@@ -0,0 +1,124 @@
+package com.github.mirum8.jnscli.build;
+
+import com.github.mirum8.jnscli.jenkins.QueueItem;
+import com.github.mirum8.jnscli.jenkins.QueueItemLocation;
+import com.github.mirum8.jnscli.util.ParallelFetcher;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Builds started together by {@code build-many}.
+ * <p>
+ * All triggers are sent concurrently, the queue items they return are then followed by a single poll loop over a
+ * {@link QueueTracker}, instead of one wait loop per build. The state of each entry is written by the trigger or poll
+ * and read by the status table at any time.
+ */
+class BuildBatch {
+    enum State {
+        PENDING,
+        QUEUED,
+        STARTED,
+        FAILED
+    }
+
+    static final class Entry {
+        private final BuildRequest request;
+        private volatile State state = State.PENDING;
+        private volatile String detail = "";
+        private volatile QueueItemLocation queueItemLocation;
+        private volatile Integer buildNumber;
+
+        private Entry(BuildRequest request) {
+            this.request = request;
+        }
+
+        BuildRequest request() {
+            return request;
+        }
+
+        State state() {
+            return state;
+        }
+
+        String detail() {
+            return detail;
+        }
+
+        Optional<Integer> buildNumber() {
+            return Optional.ofNullable(buildNumber);
+        }
+
+        private void queued(QueueItemLocation location, String why) {
+            queueItemLocation = location;
+            detail = why != null ? why : "";
+            state = State.QUEUED;
+        }
+
+        private void started(int number) {
+            buildNumber = number;
+            detail = "";
+            state = State.STARTED;
+        }
+
+        private void failed(String reason) {
+            detail = reason != null ? reason : "";
+            state = State.FAILED;
+        }
+    }
+
+    private final List<Entry> entries;
+
+    BuildBatch(List<BuildRequest> requests) {
+        this.entries = requests.stream().map(Entry::new).toList();
+    }
+
+    List<Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * Triggers all builds, a failed trigger fails its entry only.
+     *
+     * @param trigger starts the build of a request and returns its queue item
+     */
+    void triggerAll(Function<BuildRequest, QueueItemLocation> trigger) {
+        ParallelFetcher.fetchAll(entries, entry -> {
+            try {
+                entry.queued(trigger.apply(entry.request()), null);
+            } catch (RuntimeException e) {
+                entry.failed(e.getMessage());
+            }
+            return entry;
+        });
+    }
+
+    /**
+     * Updates the builds that have not started yet from the last known state of their queue items.
+     *
+     * @param lookup the queue item of a location, empty when it is not known yet
+     */
+    BuildBatch poll(Function<QueueItemLocation, Optional<QueueItem>> lookup) {
+        entries.stream()
+            .filter(entry -> entry.state() == State.QUEUED)
+            .forEach(entry -> lookup.apply(entry.queueItemLocation).ifPresent(queueItem -> {
+                if (queueItem.cancelled()) {
+                    entry.failed("Cancelled in the queue");
+                } else if (queueItem.executable() != null) {
+                    entry.started(queueItem.executable().number());
+                } else {
+                    entry.queued(entry.queueItemLocation, queueItem.why());
+                }
+            }));
+        return this;
+    }
+
+    long count(State state) {
+        return entries.stream().filter(entry -> entry.state() == state).count();
+    }
+
+    boolean isDone() {
+        return count(State.PENDING) == 0 && count(State.QUEUED) == 0;
+    }
+}
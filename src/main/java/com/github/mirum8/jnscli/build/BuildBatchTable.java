@@ -0,0 +1,111 @@
+package com.github.mirum8.jnscli.build;
+
+import com.github.mirum8.jnscli.runner.ProgressBar;
+import com.github.mirum8.jnscli.shell.TextColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.mirum8.jnscli.shell.TextFormatter.colored;
+
+/**
+ * Live status of a {@link BuildBatch}, one row per build. Renders the state of the entries, without requests of its own.
+ */
+class BuildBatchTable implements ProgressBar {
+    private static final char[] SPINNER_CHARS = new char[]{'⠋', '⠙', '⠹', '⠸', '⠼', '⠴', '⠦', '⠧', '⠇', '⠏'};
+    private static final int MAX_JOB_WIDTH = 40;
+    private static final int MAX_PARAMETERS_WIDTH = 40;
+    private static final int MAX_DETAIL_WIDTH = 60;
+
+    private final BuildBatch batch;
+    private int spinCounter;
+
+    BuildBatchTable(BuildBatch batch) {
+        this.batch = batch;
+    }
+
+    @Override
+    public List<String> running() {
+        char spinner = SPINNER_CHARS[spinCounter];
+        spinCounter = (spinCounter + 1) % SPINNER_CHARS.length;
+        List<String> lines = new ArrayList<>();
+        lines.add(spinner + " " + summary());
+        lines.addAll(rows(spinner));
+        return lines;
+    }
+
+    @Override
+    public int refreshIntervalMillis() {
+        return 200;
+    }
+
+    @Override
+    public List<String> completed() {
+        return rows(' ');
+    }
+
+    @Override
+    public List<String> failed() {
+        return rows(' ');
+    }
+
+    String summary() {
+        String summary = "Started " + batch.count(BuildBatch.State.STARTED) + " of " + batch.entries().size() + " builds";
+        long queued = batch.count(BuildBatch.State.QUEUED);
+        long failed = batch.count(BuildBatch.State.FAILED);
+        if (queued > 0) {
+            summary += ", " + queued + " queued";
+        }
+        if (failed > 0) {
+            summary += ", " + failed + " failed";
+        }
+        return summary;
+    }
+
+    private List<String> rows(char spinner) {
+        List<BuildBatch.Entry> entries = batch.entries();
+        int jobWidth = width(entries.stream().map(entry -> entry.request().jobId()).toList(), MAX_JOB_WIDTH);
+        int parametersWidth = width(entries.stream().map(entry -> parameters(entry.request())).toList(), MAX_PARAMETERS_WIDTH);
+        return entries.stream()
+            .map(entry -> "  " + symbol(entry.state(), spinner) + " "
+                + pad(entry.request().jobId(), jobWidth) + "  "
+                + pad(parameters(entry.request()), parametersWidth) + "  "
+                + truncate(status(entry), MAX_DETAIL_WIDTH))
+            .toList();
+    }
+
+    private static String symbol(BuildBatch.State state, char spinner) {
+        return switch (state) {
+            case PENDING -> " ";
+            case QUEUED -> colored(String.valueOf(spinner), TextColor.YELLOW);
+            case STARTED -> colored("✓", TextColor.GREEN);
+            case FAILED -> colored("✗", TextColor.RED);
+        };
+    }
+
+    private static String status(BuildBatch.Entry entry) {
+        return switch (entry.state()) {
+            case PENDING -> "waiting";
+            case QUEUED -> entry.detail().isEmpty() ? "queued" : "queued: " + entry.detail();
+            case STARTED -> entry.buildNumber().map(number -> "started #" + number).orElse("started");
+            case FAILED -> entry.detail().isEmpty() ? "failed" : entry.detail();
+        };
+    }
+
+    private static String parameters(BuildRequest request) {
+        return String.join(" ", request.parameters());
+    }
+
+    private static int width(List<String> values, int max) {
+        return Math.min(max, values.stream().mapToInt(String::length).max().orElse(0));
+    }
+
+    private static String pad(String value, int width) {
+        String truncated = truncate(value, width);
+        return truncated + " ".repeat(width - truncated.length());
+    }
+
+    private static String truncate(String value, int width) {
+        return value.length() <= width ? value : value.substring(0, Math.max(0, width - 1)) + "…";
+    }
+}
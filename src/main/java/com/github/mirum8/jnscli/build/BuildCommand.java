@@ -1,8 +1,10 @@
 package com.github.mirum8.jnscli.build;
 
+import com.github.mirum8.jnscli.common.JobIdValueProvider;
 import org.springframework.shell.command.CommandRegistration;
 import org.springframework.shell.command.annotation.Command;
 import org.springframework.shell.command.annotation.Option;
+import org.springframework.shell.command.annotation.OptionValues;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -11,13 +13,15 @@ import java.util.List;
 @Command(group = "Build Commands", description = "Build Commands")
 public class BuildCommand {
     private final BuildService buildService;
+    private final BuildManyService buildManyService;
 
-    public BuildCommand(BuildService buildService) {
+    public BuildCommand(BuildService buildService, BuildManyService buildManyService) {
         this.buildService = buildService;
+        this.buildManyService = buildManyService;
     }
 
     @Command(command = "build", description = "Build a job on Jenkins server")
-    public void build(String jobId,
+    public void build(@OptionValues(provider = JobIdValueProvider.NAME) String jobId,
                       @Option(longNames = "quiet", shortNames = 'q') boolean quiet,
                       @Option(longNames = "log", shortNames = 'l') boolean showLog,
                       @Option(arity = CommandRegistration.OptionArity.ZERO_OR_MORE, longNames = "params", shortNames = 'p') List<String> parameters,
@@ -25,4 +29,12 @@ public class BuildCommand {
         buildService.build(jobId, !quiet, !quiet && showLog, parameters, useAi);
 
     }
+
+    @Command(command = "build-many", description = "Build several jobs at once")
+    public void buildMany(@OptionValues(provider = JobIdValueProvider.NAME) @Option(arity = CommandRegistration.OptionArity.ZERO_OR_MORE, longNames = "jobs", shortNames = 'j', description = "Jobs to build") List<String> jobIds,
+                          @Option(longNames = "file", shortNames = 'f', description = "File with a job and its parameters per line") String file,
+                          @Option(arity = CommandRegistration.OptionArity.ZERO_OR_MORE, longNames = "params", shortNames = 'p', description = "Parameters for every job") List<String> parameters,
+                          @Option(longNames = "rate", shortNames = 'r', defaultValue = "5", description = "Maximum number of builds triggered per second") Double rate) {
+        buildManyService.buildMany(jobIds, file, parameters, rate);
+    }
 }
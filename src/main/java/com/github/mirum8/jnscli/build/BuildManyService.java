@@ -0,0 +1,115 @@
+package com.github.mirum8.jnscli.build;
+
+import com.github.mirum8.jnscli.common.JobDescriptorProvider;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
+import com.github.mirum8.jnscli.jenkins.QueueItemLocation;
+import com.github.mirum8.jnscli.jenkins.WorkflowJob;
+import com.github.mirum8.jnscli.model.JobDescriptor;
+import com.github.mirum8.jnscli.runner.CommandParameters;
+import com.github.mirum8.jnscli.runner.CommandRunner;
+import com.github.mirum8.jnscli.shell.TextColor;
+import com.github.mirum8.jnscli.util.RateLimiter;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.github.mirum8.jnscli.shell.TextFormatter.colored;
+import static com.github.mirum8.jnscli.util.FileUtil.resolveHomeDir;
+
+@Service
+class BuildManyService {
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(2);
+    private static final int QUEUE_TIMEOUT_SECONDS = 90;
+
+    private final JenkinsAPI jenkinsAPI;
+    private final JobDescriptorProvider jobDescriptorProvider;
+    private final CommandRunner commandRunner;
+
+    BuildManyService(JenkinsAPI jenkinsAPI, JobDescriptorProvider jobDescriptorProvider, CommandRunner commandRunner) {
+        this.jenkinsAPI = jenkinsAPI;
+        this.jobDescriptorProvider = jobDescriptorProvider;
+        this.commandRunner = commandRunner;
+    }
+
+    /**
+     * Starts the given jobs and the ones listed in the file, and waits until all of them have left the queue.
+     *
+     * @param jobIds          jobs to start with the shared parameters only
+     * @param file            file with one job and its parameters per line
+     * @param parameters      parameters in key=value format shared by all jobs
+     * @param buildsPerSecond maximum rate at which builds are triggered
+     */
+    void buildMany(List<String> jobIds, String file, List<String> parameters, double buildsPerSecond) {
+        List<BuildRequest> requests = readRequests(jobIds, file).stream()
+            .map(request -> request.withDefaults(parameters))
+            .toList();
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("No jobs to build, pass --jobs or --file");
+        }
+        RateLimiter rateLimiter = new RateLimiter(buildsPerSecond);
+        BuildBatch batch = new BuildBatch(requests);
+        BuildBatchTable table = new BuildBatchTable(batch);
+        QueueTracker queueTracker = new QueueTracker(jenkinsAPI);
+        commandRunner.run(() -> batch.triggerAll(request -> trigger(request, rateLimiter, queueTracker)), CommandParameters.<BuildBatch>builder()
+            .withProgressBar(table)
+            .withCompletionChecker(() -> batch.poll(queueTracker.refresh()::item))
+            .withCheckInterval(() -> POLL_INTERVAL)
+            .withSuccessWhen(result -> result.isDone() && result.count(BuildBatch.State.FAILED) == 0)
+            .withFailureWhen(result -> result.isDone() && result.count(BuildBatch.State.FAILED) > 0)
+            .onSuccess(result -> colored("✓ ", TextColor.GREEN) + table.summary())
+            .onFailure(result -> colored("✗ ", TextColor.RED) + table.summary())
+            .withTimeout(QUEUE_TIMEOUT_SECONDS)
+            .onTimeoutError(() -> colored("✗ ", TextColor.RED) + table.summary() + ", gave up waiting for the queue")
+            .build());
+    }
+
+    private List<BuildRequest> readRequests(List<String> jobIds, String file) {
+        List<BuildRequest> requests = new ArrayList<>();
+        if (jobIds != null) {
+            jobIds.forEach(jobId -> requests.add(new BuildRequest(jobId, List.of())));
+        }
+        if (file != null && !file.isBlank()) {
+            try {
+                Files.readAllLines(Path.of(resolveHomeDir(file))).stream()
+                    .map(BuildRequest::parse)
+                    .flatMap(Optional::stream)
+                    .forEach(requests::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return requests;
+    }
+
+    private QueueItemLocation trigger(BuildRequest request, RateLimiter rateLimiter, QueueTracker queueTracker) {
+        JobDescriptor job = jobDescriptorProvider.get(request.jobId())
+            .orElseThrow(() -> new IllegalArgumentException("Job " + request.jobId() + " not found"));
+        WorkflowJob workflowJob = jenkinsAPI.getWorkflowJob(job.url());
+        if (!workflowJob.buildable()) {
+            throw new IllegalArgumentException("The job is not buildable");
+        }
+        List<WorkflowJob.Property.ParameterDefinition> parameterDefinitions = workflowJob.property().stream()
+            .map(WorkflowJob.Property::parameterDefinitions)
+            .filter(Objects::nonNull)
+            .flatMap(List::stream)
+            .toList();
+        if (parameterDefinitions.stream().anyMatch(definition -> definition.type().equals("FileParameterDefinition"))) {
+            throw new IllegalArgumentException("File parameters are not supported, use jns build");
+        }
+        rateLimiter.acquire();
+        // parameters that are not given take their default values
+        QueueItemLocation location = parameterDefinitions.isEmpty() && request.parameters().isEmpty()
+            ? jenkinsAPI.runJob(job.url())
+            : jenkinsAPI.runJob(job.url(), request.parameters());
+        queueTracker.track(location);
+        return location;
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.mirum8.jnscli.build;
+
+import com.github.mirum8.jnscli.eta.BuildEstimate;
+import com.github.mirum8.jnscli.eta.DurationEstimate;
+import com.github.mirum8.jnscli.jenkins.PipelineAPI;
+import com.github.mirum8.jnscli.jenkins.WorkflowRun;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shared poll of a running pipeline build. Each {@link #refresh()} issues a single {@code wfapi/describe} request,
+ * the progress bar and the completion check both read the resulting snapshot.
+ * <p>
+ * The poll interval adapts to the build: when the {@link BuildEstimate} tells how long the running stage takes, the poll
+ * is scheduled at half of the predicted remaining time and runs at {@link #MIN_INTERVAL} close to the predicted end.
+ * Without a prediction, or once a stage runs longer than predicted, the interval doubles on every poll that sees no
+ * progress, up to {@link #MAX_INTERVAL}, and drops back to the minimum when the next stage starts.
+ */
+public class BuildPoll {
+    private static final Logger log = Logger.getLogger(BuildPoll.class.getName());
+    static final Duration MIN_INTERVAL = Duration.ofSeconds(1);
+    static final Duration MAX_INTERVAL = Duration.ofSeconds(15);
+    private static final Duration NEAR_END = Duration.ofSeconds(10);
+
+    private final PipelineAPI pipelineAPI;
+    private final String jobUrl;
+    private final int buildNumber;
+    private final Supplier<BuildEstimate> estimateSupplier;
+    private final Clock clock;
+
+    private volatile WorkflowRun snapshot;
+    private BuildEstimate estimate;
+    private Duration backoff = MIN_INTERVAL;
+
+    /**
+     * @param estimate estimate of the build from earlier builds, loaded on first use
+     */
+    public BuildPoll(PipelineAPI pipelineAPI, String jobUrl, int buildNumber, Supplier<BuildEstimate> estimate) {
+        this(pipelineAPI, jobUrl, buildNumber, estimate, Clock.systemUTC());
+    }
+
+    BuildPoll(PipelineAPI pipelineAPI, String jobUrl, int buildNumber, Supplier<BuildEstimate> estimate, Clock clock) {
+        this.pipelineAPI = pipelineAPI;
+        this.jobUrl = jobUrl;
+        this.buildNumber = buildNumber;
+        this.estimateSupplier = estimate;
+        this.clock = clock;
+    }
+
+    public WorkflowRun refresh() {
+        WorkflowRun run = pipelineAPI.getJobBuildDescription(jobUrl, buildNumber);
+        WorkflowRun previous = snapshot;
+        backoff = previous != null && Objects.equals(runningStage(previous).map(WorkflowRun.Stage::id), runningStage(run).map(WorkflowRun.Stage::id))
+            ? min(backoff.multipliedBy(2), MAX_INTERVAL)
+            : MIN_INTERVAL;
+        snapshot = run;
+        return run;
+    }
+
+    /**
+     * The last fetched state of the build, without a request.
+     */
+    public Optional<WorkflowRun> snapshot() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    /**
+     * Expected stages and durations of the build. Empty for the first build and when the estimate could not be
+     * loaded, so that the progress bar keeps rendering without one.
+     */
+    public synchronized BuildEstimate estimate() {
+        if (estimate == null) {
+            estimate = buildNumber > 1 ? loadEstimate() : BuildEstimate.NONE;
+        }
+        return estimate;
+    }
+
+    private BuildEstimate loadEstimate() {
+        try {
+            return estimateSupplier.get();
+        } catch (RuntimeException e) {
+            log.log(Level.FINE, "Could not estimate build " + buildNumber + " of " + jobUrl, e);
+            return BuildEstimate.NONE;
+        }
+    }
+
+    public Duration nextInterval() {
+        WorkflowRun run = snapshot;
+        if (run == null) {
+            return MIN_INTERVAL;
+        }
+        Optional<Duration> remaining = runningStage(run).flatMap(this::predictRemaining);
+        if (remaining.isEmpty() || remaining.get().isNegative()) {
+            return backoff;
+        }
+        if (remaining.get().compareTo(NEAR_END) <= 0) {
+            return MIN_INTERVAL;
+        }
+        return max(MIN_INTERVAL, min(remaining.get().dividedBy(2), MAX_INTERVAL));
+    }
+
+    private Optional<Duration> predictRemaining(WorkflowRun.Stage stage) {
+        long elapsed = clock.millis() - stage.startTimeMillis();
+        return estimate().stage(stage.name())
+            .map(DurationEstimate::medianMillis)
+            .map(expected -> Duration.ofMillis(expected - elapsed));
+    }
+
+    private static Optional<WorkflowRun.Stage> runningStage(WorkflowRun run) {
+        if (run.stages() == null) {
+            return Optional.empty();
+        }
+        return run.stages().stream()
+            .filter(stage -> "IN_PROGRESS".equals(stage.status()))
+            .findFirst();
+    }
+
+    private static Duration min(Duration first, Duration second) {
+        return first.compareTo(second) <= 0 ? first : second;
+    }
+
+    private static Duration max(Duration first, Duration second) {
+        return first.compareTo(second) >= 0 ? first : second;
+    }
+}
@@ -1,6 +1,6 @@
 package com.github.mirum8.jnscli.build;
 
-import com.github.mirum8.jnscli.jenkins.PipelineAPI;
+import com.github.mirum8.jnscli.eta.BuildEstimate;
 import com.github.mirum8.jnscli.jenkins.WorkflowRun;
 import com.github.mirum8.jnscli.runner.ProgressBar;
 
@@ -8,47 +8,48 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 
+/**
+ * Renders the stages of a build from the snapshot of a {@link BuildPoll}, without requests of its own. The progress of a
+ * stage is its running time against the median duration of the stage in earlier builds.
+ */
 public class BuildProgressBar implements ProgressBar {
     private static final long DEFAULT_STAGE_DURATION = 60000L;
 
-    private final PipelineAPI pipelineAPI;
-    private final String jobUrl;
-    private final int buildNumber;
-    private List<WorkflowRun.Stage> previousBuildStages;
+    private final BuildPoll buildPoll;
 
-    public BuildProgressBar(PipelineAPI pipelineAPI, String jobUrl, int buildNumber) {
-        this.pipelineAPI = pipelineAPI;
-        this.jobUrl = jobUrl;
-        this.buildNumber = buildNumber;
+    public BuildProgressBar(BuildPoll buildPoll) {
+        this.buildPoll = buildPoll;
     }
 
     @Override
     public List<String> running() {
-        if (buildNumber == 1) {
-            return runningMessageForFirstBuild();
+        if (buildPoll.estimate().stages().isEmpty()) {
+            return buildPoll.snapshot()
+                .map(this::runningMessageForFirstBuild)
+                .orElse(List.of());
         }
-        return showProgressForStages(jobUrl, buildNumber);
+        return showProgressForStages();
     }
 
     @Override
     public int refreshIntervalMillis() {
-        return 5000;
+        return 1000;
     }
 
-    private List<String> runningMessageForFirstBuild() {
-        WorkflowRun workflowRun = pipelineAPI.getJobBuildDescription(jobUrl, 1);
+    private List<String> runningMessageForFirstBuild(WorkflowRun workflowRun) {
         return workflowRun.stages().stream()
             .map(stage -> getProgressBar(stage, DEFAULT_STAGE_DURATION))
             .toList();
     }
 
-    private String getProgressBar(WorkflowRun.Stage stage, Long previousDuration) {
+    private String getProgressBar(WorkflowRun.Stage stage, long expectedDuration) {
         if (stage.status().equals("SUCCESS")) {
             return PercentageBar.of(100, stage.name());
         } else {
-            long percentage = (new Date().getTime() - stage.startTimeMillis()) * 100 / previousDuration;
+            long percentage = (new Date().getTime() - stage.startTimeMillis()) * 100 / Math.max(1, expectedDuration);
             if (percentage > 100) {
                 percentage = 99;
             }
@@ -56,34 +57,32 @@ public class BuildProgressBar implements ProgressBar {
         }
     }
 
-    private List<WorkflowRun.Stage> getPreviousBuildStages() {
-        if (previousBuildStages == null) {
-            previousBuildStages = pipelineAPI.getJobBuildDescription(jobUrl, buildNumber - 1).stages();
-        }
-        return previousBuildStages;
-    }
-
-    private String getZeroProgressBar(WorkflowRun.Stage stage) {
+    private String getZeroProgressBar(BuildEstimate.StageEstimate stage) {
         return PercentageBar.of(0, stage.name());
     }
 
-    private List<String> showProgressForStages(String jobName, int buildNumber) {
-        List<String> initialProgressBar = getPreviousBuildStages().stream()
+    private List<String> showProgressForStages() {
+        List<BuildEstimate.StageEstimate> expectedStages = buildPoll.estimate().stages();
+        List<String> initialProgressBar = expectedStages.stream()
             .map(this::getZeroProgressBar)
             .toList();
+        Optional<WorkflowRun> snapshot = buildPoll.snapshot();
+        if (snapshot.isEmpty()) {
+            return initialProgressBar;
+        }
         boolean reset = false;
         List<String> updatedProgressBars = new ArrayList<>(initialProgressBar);
-        var workflowRun = pipelineAPI.getJobBuildDescription(jobName, buildNumber);
+        var workflowRun = snapshot.get();
         for (int i = 0; i < workflowRun.stages().size(); i++) {
-            if (previousBuildStages.size() <= i) {
+            if (expectedStages.size() <= i) {
                 reset = true;
             }
             // if the stage name is different, reset the progress bars
-            if (!reset && !previousBuildStages.get(i).name().equals(workflowRun.stages().get(i).name())) {
+            if (!reset && !expectedStages.get(i).name().equals(workflowRun.stages().get(i).name())) {
                 updatedProgressBars = updatedProgressBars.subList(0, i + 1);
                 reset = true;
             }
-            long duration = !reset ? previousBuildStages.get(i).durationMillis() : DEFAULT_STAGE_DURATION;
+            long duration = !reset ? expectedDuration(expectedStages.get(i)) : DEFAULT_STAGE_DURATION;
             if (i < updatedProgressBars.size()) {
                 updatedProgressBars.set(i, getProgressBar(workflowRun.stages().get(i), duration));
             } else {
@@ -93,20 +92,31 @@ public class BuildProgressBar implements ProgressBar {
         return updatedProgressBars;
     }
 
+    private static long expectedDuration(BuildEstimate.StageEstimate stage) {
+        return stage.duration() != null ? stage.duration().medianMillis() : DEFAULT_STAGE_DURATION;
+    }
+
     @Override
     public List<String> completed() {
-        return pipelineAPI.getJobBuildDescription(jobUrl, buildNumber).stages().stream()
-            .map(stage -> PercentageBar.of(100, stage.name()))
+        // a build paused for input also ends the progress, its paused stage is not complete
+        return lastStages().stream()
+            .map(stage -> PercentageBar.of(Objects.equals(stage.status(), "PAUSED_PENDING_INPUT") ? 99 : 100, stage.name()))
             .toList();
     }
 
     @Override
     public List<String> failed() {
-        return pipelineAPI.getJobBuildDescription(jobUrl, buildNumber).stages().stream()
+        return lastStages().stream()
             .map(this::getProgressBarOnError)
             .toList();
     }
 
+    private List<WorkflowRun.Stage> lastStages() {
+        return buildPoll.snapshot()
+            .map(WorkflowRun::stages)
+            .orElse(List.of());
+    }
+
     private String getProgressBarOnError(WorkflowRun.Stage stage) {
         return Objects.equals(stage.status(), "SUCCESS") ? PercentageBar.of(100, stage.name()) : PercentageBar.error(99, stage.name());
     }
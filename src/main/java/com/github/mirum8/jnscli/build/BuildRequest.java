@@ -0,0 +1,52 @@
+package com.github.mirum8.jnscli.build;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A build started by {@code build-many}: the job and its parameters in {@code key=value} format.
+ */
+record BuildRequest(String jobId, List<String> parameters) {
+    private static final String COMMENT = "#";
+
+    /**
+     * Parses a line of a build file, the job followed by its parameters, separated by whitespace.
+     * Blank lines and lines starting with {@code #} are skipped.
+     */
+    static Optional<BuildRequest> parse(String line) {
+        String trimmed = line.strip();
+        if (trimmed.isEmpty() || trimmed.startsWith(COMMENT)) {
+            return Optional.empty();
+        }
+        String[] tokens = trimmed.split("\\s+");
+        List<String> parameters = Arrays.asList(tokens).subList(1, tokens.length);
+        parameters.stream()
+            .filter(parameter -> !parameter.contains("="))
+            .findFirst()
+            .ifPresent(parameter -> {
+                throw new IllegalArgumentException("Parameter " + parameter + " of job " + tokens[0] + " is not in key=value format");
+            });
+        return Optional.of(new BuildRequest(tokens[0], List.copyOf(parameters)));
+    }
+
+    /**
+     * Adds the parameters shared by all jobs; the ones of this request win.
+     */
+    BuildRequest withDefaults(List<String> defaults) {
+        if (defaults == null || defaults.isEmpty()) {
+            return this;
+        }
+        Map<String, String> merged = new LinkedHashMap<>();
+        defaults.forEach(parameter -> merged.put(name(parameter), parameter));
+        parameters.forEach(parameter -> merged.put(name(parameter), parameter));
+        return new BuildRequest(jobId, List.copyOf(merged.values()));
+    }
+
+    private static String name(String parameter) {
+        int separator = parameter.indexOf('=');
+        return separator < 0 ? parameter : parameter.substring(0, separator);
+    }
+}
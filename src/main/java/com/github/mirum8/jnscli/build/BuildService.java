@@ -6,8 +6,9 @@ import com.github.mirum8.jnscli.build.parameters.ParameterService;
 import com.github.mirum8.jnscli.common.JobDescriptorProvider;
 import com.github.mirum8.jnscli.context.JobType;
 import com.github.mirum8.jnscli.diagnose.ErrorService;
+import com.github.mirum8.jnscli.eta.EtaService;
 import com.github.mirum8.jnscli.jenkins.*;
-import com.github.mirum8.jnscli.jenkins.QueueItem.QueueItemType;
+import com.github.mirum8.jnscli.log.LogService;
 import com.github.mirum8.jnscli.model.JobDescriptor;
 import com.github.mirum8.jnscli.runner.CommandParameters;
 import com.github.mirum8.jnscli.runner.CommandRunner;
@@ -16,7 +17,7 @@ import com.github.mirum8.jnscli.runner.Spinner;
 import com.github.mirum8.jnscli.shell.ShellPrinter;
 import com.github.mirum8.jnscli.shell.ShellPrompter;
 import com.github.mirum8.jnscli.shell.TextColor;
-import com.github.mirum8.jnscli.util.Threads;
+import com.github.mirum8.jnscli.util.ParallelFetcher;
 import org.springframework.stereotype.Service;
 
 import java.nio.file.Path;
@@ -28,6 +29,7 @@ import java.util.stream.Collectors;
 
 import static com.github.mirum8.jnscli.jenkins.Status.*;
 import static com.github.mirum8.jnscli.shell.TextFormatter.colored;
+import static com.github.mirum8.jnscli.util.Statuses.getColored;
 import static java.util.stream.Collectors.toMap;
 
 @Service
@@ -47,6 +49,8 @@ class BuildService {
     private final AiService aiService;
     private final PipelineAPI pipelineAPI;
     private final ErrorService errorService;
+    private final LogService logService;
+    private final EtaService etaService;
 
     BuildService(ShellPrinter shellPrinter,
                  JenkinsAPI jenkinsAPI,
@@ -57,7 +61,9 @@ class BuildService {
                  JobDescriptorProvider jobDescriptorProvider,
                  AiService aiService,
                  PipelineAPI pipelineAPI,
-                 ErrorService errorService) {
+                 ErrorService errorService,
+                 LogService logService,
+                 EtaService etaService) {
         this.shellPrinter = shellPrinter;
         this.jenkinsAPI = jenkinsAPI;
         this.shellPrompter = shellPrompter;
@@ -68,6 +74,8 @@ class BuildService {
         this.aiService = aiService;
         this.pipelineAPI = pipelineAPI;
         this.errorService = errorService;
+        this.logService = logService;
+        this.etaService = etaService;
     }
 
     void build(String jobId, boolean progress, boolean showLog, List<String> parameters, boolean useAi) {
@@ -89,7 +97,7 @@ class BuildService {
             ? promptParameters(workflowJob, parameters)
             : Map.of();
 
-        Result<Void> result = workflowJob.property().stream()
+        QueueItemLocation queueItemLocation = workflowJob.property().stream()
             .map(WorkflowJob.Property::parameterDefinitions)
             .filter(Objects::nonNull)
             .flatMap(List::stream)
@@ -98,7 +106,13 @@ class BuildService {
             .map(parameterDefinition -> startJobWithFile(job, filledParameters, parameterDefinition))
             .orElseGet(() -> startJob(job, filledParameters));
 
-        int buildNumber = workflowJob.nextBuildNumber();
+        QueueTracker queueTracker = new QueueTracker(jenkinsAPI).track(queueItemLocation);
+        Result<Void> result = showStartingJobStatus(job, queueTracker, queueItemLocation);
+        // falls back to the next build number when the build did not leave the queue in time
+        int buildNumber = queueTracker.buildNumber(queueItemLocation).orElse(workflowJob.nextBuildNumber());
+        if (queueTracker.item(queueItemLocation).filter(QueueItem::cancelled).isPresent()) {
+            return;
+        }
         if (result instanceof Result.Failure) {
             shellPrinter.println(getErrorMessage(job, buildNumber, useAi));
             shellPrinter.println(FINISHED_PREFIX + jenkinsAPI.getJobBuildInfo(job.url(), buildNumber).status().name());
@@ -106,12 +120,22 @@ class BuildService {
         }
         if (progress && !showLog) {
             if (job.type() == JobType.WORKFLOW) {
-                commandRunner.showProgress(CommandParameters.<BuildInfo>builder()
-                    .withProgressBar(new BuildProgressBar(pipelineAPI, job.url(), buildNumber))
-                    .withCompletionChecker(() -> jenkinsAPI.getJobBuildInfo(job.url(), buildNumber))
-                    .withSuccessWhen(buildInfo -> buildInfo.status() == Status.SUCCESS)
-                    .withFailureWhen(buildInfo -> buildInfo.status() == FAILED || buildInfo.status() == FAILURE || buildInfo.status() == ABORTED)
-                    .onSuccess(ignored -> FINISHED_PREFIX + colored(SUCCESS.name(), TextColor.GREEN))
+                BuildPoll buildPoll = new BuildPoll(pipelineAPI, job.url(), buildNumber,
+                    () -> etaService.estimate(job.url(), buildNumber));
+                // loaded here rather than on the thread that renders the progress bar
+                buildPoll.estimate();
+                commandRunner.showProgress(CommandParameters.<WorkflowRun>builder()
+                    .withProgressBar(new BuildProgressBar(buildPoll))
+                    .withCompletionChecker(buildPoll::refresh)
+                    .withCheckInterval(buildPoll::nextInterval)
+                    // a build waiting for input is not finished, but nothing happens until it is answered in Jenkins
+                    .withSuccessWhen(workflowRun -> workflowRun.status() == Status.SUCCESS || workflowRun.status() == UNSTABLE
+                        || workflowRun.status() == PAUSED_PENDING_INPUT)
+                    .withFailureWhen(workflowRun -> workflowRun.status() == FAILED || workflowRun.status() == FAILURE
+                        || workflowRun.status() == ABORTED || workflowRun.status() == NOT_BUILT)
+                    .onSuccess(workflowRun -> workflowRun.status() == PAUSED_PENDING_INPUT
+                        ? colored("Waiting for input: ", TextColor.YELLOW) + job.url() + "/" + buildNumber + "/input"
+                        : FINISHED_PREFIX + getColored(workflowRun.status()))
                     .onFailure(ignored -> getErrorMessage(job, buildNumber, useAi))
                     .build());
             } else {
@@ -129,7 +153,7 @@ class BuildService {
             }
         }
         if (showLog) {
-            showConsoleText(job.url(), buildNumber);
+            logService.follow(job.url(), buildNumber);
         }
     }
 
@@ -141,11 +165,12 @@ class BuildService {
         record RunWithBuildInfo(Run run, BuildInfo buildInfo) {
         }
 
-        List<RunWithBuildInfo> runningBuilds = pipelineAPI.getJobRuns(job.url())
+        List<Run> runningRuns = pipelineAPI.getJobRuns(job.url())
             .stream()
             .filter(run -> run.status().equals(IN_PROGRESS))
-            .map(run -> new RunWithBuildInfo(run, jenkinsAPI.getJobBuildInfo(job.url(), run.id())))
             .toList();
+        List<RunWithBuildInfo> runningBuilds = ParallelFetcher.fetchAll(runningRuns,
+            run -> new RunWithBuildInfo(run, jenkinsAPI.getJobBuildInfo(job.url(), run.id())));
 
         if (runningBuilds.isEmpty()) {
             return NOT_ABORT;
@@ -193,17 +218,6 @@ class BuildService {
             .collect(Collectors.joining("\n"));
     }
 
-    private void showConsoleText(String jobUrl, int buildNumber) {
-        long start = 0;
-        ProgressiveConsoleText progressiveConsoleText;
-        do {
-            progressiveConsoleText = jenkinsAPI.getProgressiveConsoleText(jobUrl, buildNumber, start);
-            shellPrinter.print(progressiveConsoleText.text());
-            start = progressiveConsoleText.nextStart();
-            Threads.sleepSecs(3);
-        } while (progressiveConsoleText.hasMoreData());
-    }
-
     private Map<String, String> promptParameters(WorkflowJob workflowJob, List<String> parameters) {
         return parameterService.prompt(workflowJob, parameters);
     }
@@ -213,15 +227,14 @@ class BuildService {
         return useAi ? colored("AI analysis: ", TextColor.MAGENTA) + aiService.analyzeLog(errors) : "Errors:\n" + errors;
     }
 
-    private Result<Void> startJob(JobDescriptor job, Map<String, String> parameters) {
+    private QueueItemLocation startJob(JobDescriptor job, Map<String, String> parameters) {
         String jobUrl = job.url();
-        QueueItemLocation queueItemLocation = parameters != null && !parameters.isEmpty()
+        return parameters != null && !parameters.isEmpty()
             ? jenkinsAPI.runJob(jobUrl, parameters.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).toList())
             : jenkinsAPI.runJob(jobUrl);
-        return showStartingJobStatus(job, queueItemLocation);
     }
 
-    private Result<Void> startJobWithFile(JobDescriptor job, Map<String, String> filledParameters, WorkflowJob.Property.ParameterDefinition fileParameter) {
+    private QueueItemLocation startJobWithFile(JobDescriptor job, Map<String, String> filledParameters, WorkflowJob.Property.ParameterDefinition fileParameter) {
         String fileName = fileParameter.name();
         String filePath = filledParameters.get(fileName);
         Objects.requireNonNull(filePath, "File parameter " + fileName + " is not filled");
@@ -229,17 +242,17 @@ class BuildService {
             .filter(e -> !e.getKey().equals(fileName))
             .map(e -> e.getKey() + "=" + e.getValue())
             .toList();
-        QueueItemLocation queueItemLocation = jenkinsAPI.runJobWithFileParam(job.url(), fileName, Path.of(filePath), parameters);
-        return showStartingJobStatus(job, queueItemLocation);
+        return jenkinsAPI.runJobWithFileParam(job.url(), fileName, Path.of(filePath), parameters);
     }
 
-    private Result<Void> showStartingJobStatus(JobDescriptor job, QueueItemLocation queueItemLocation) {
+    private Result<Void> showStartingJobStatus(JobDescriptor job, QueueTracker queueTracker, QueueItemLocation queueItemLocation) {
         return commandRunner.showProgress(CommandParameters.<QueueItem>builder()
-            .withProgressBar(Spinner.builder().runningMessage("Starting job " + job.name())
-                .completeMessage("Job " + job.name() + " started")
-                .build())
-            .withCompletionChecker(() -> jenkinsAPI.getQueueItem(queueItemLocation.url()))
-            .withSuccessWhen(queueItem -> queueItem != null && QueueItemType.LEFT_ITEM == queueItem.type())
+            .withProgressBar(Spinner.builder().runningMessage("Starting job " + job.name()).build())
+            .withCompletionChecker(() -> queueTracker.refresh().item(queueItemLocation).orElse(null))
+            .withSuccessWhen(queueItem -> QueueTracker.hasLeft(queueItem) && !queueItem.cancelled())
+            .withFailureWhen(queueItem -> queueItem != null && queueItem.cancelled())
+            .onSuccess(queueItem -> colored("✓ ", TextColor.GREEN) + "Job " + job.name() + " started: #" + queueItem.executable().number())
+            .onFailure(queueItem -> colored("✗ ", TextColor.RED) + "Job " + job.name() + " was cancelled in the queue")
             .withTimeout(90)
             .onTimeoutError(() -> colored("✗ ", TextColor.RED) + "Job " + job.name() + " failed to start.")
             .build());
@@ -0,0 +1,90 @@
+package com.github.mirum8.jnscli.build;
+
+import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPIException;
+import com.github.mirum8.jnscli.jenkins.QueueItem;
+import com.github.mirum8.jnscli.jenkins.QueueItem.QueueItemType;
+import com.github.mirum8.jnscli.jenkins.QueueItemLocation;
+import com.github.mirum8.jnscli.util.ParallelFetcher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Follows the queue items of triggered builds until they leave the queue, for any number of builds at once.
+ * <p>
+ * Every {@link #refresh()} reads the whole queue in a single request. Only items that are no longer in it are looked
+ * up one by one, to learn the build they started; Jenkins keeps left items for a few minutes. The build number comes
+ * from the item itself, the next build number of the job may already belong to a build started by someone else.
+ */
+class QueueTracker {
+    private static final Logger log = Logger.getLogger(QueueTracker.class.getName());
+
+    private final JenkinsAPI jenkinsAPI;
+    private final Map<Long, QueueItemLocation> tracked = new ConcurrentHashMap<>();
+    private final Map<Long, QueueItem> items = new ConcurrentHashMap<>();
+
+    QueueTracker(JenkinsAPI jenkinsAPI) {
+        this.jenkinsAPI = jenkinsAPI;
+    }
+
+    QueueTracker track(QueueItemLocation location) {
+        tracked.put(location.id(), location);
+        return this;
+    }
+
+    QueueTracker refresh() {
+        List<Long> pending = tracked.keySet().stream()
+            .filter(id -> !hasLeft(items.get(id)))
+            .toList();
+        if (pending.isEmpty()) {
+            return this;
+        }
+        Map<Long, QueueItem> queue = jenkinsAPI.getQueue().items().stream()
+            .collect(Collectors.toMap(QueueItem::id, Function.identity(), (first, second) -> first));
+        List<Long> left = pending.stream()
+            .filter(id -> !queue.containsKey(id))
+            .toList();
+        pending.stream()
+            .filter(queue::containsKey)
+            .forEach(id -> items.put(id, queue.get(id)));
+        ParallelFetcher.fetchAll(left, id -> {
+            try {
+                items.put(id, jenkinsAPI.getQueueItem(tracked.get(id).url()));
+            } catch (JenkinsAPIException e) {
+                // looked up again on the next refresh
+                log.fine("Failed to read queue item " + id + ": " + e.getMessage());
+            }
+            return id;
+        });
+        return this;
+    }
+
+    /**
+     * The last known state of the item, without a request.
+     */
+    Optional<QueueItem> item(QueueItemLocation location) {
+        return Optional.ofNullable(items.get(location.id()));
+    }
+
+    /**
+     * Number of the build started by the item, once it left the queue.
+     */
+    Optional<Integer> buildNumber(QueueItemLocation location) {
+        return item(location)
+            .map(QueueItem::executable)
+            .map(QueueItem.Executable::number);
+    }
+
+    /**
+     * Whether the item started a build or was cancelled. A left item may not report its build yet.
+     */
+    static boolean hasLeft(QueueItem item) {
+        return item != null && item.type() == QueueItemType.LEFT_ITEM && (item.executable() != null || item.cancelled());
+    }
+}
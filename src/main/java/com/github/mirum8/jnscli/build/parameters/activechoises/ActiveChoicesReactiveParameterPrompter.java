@@ -2,7 +2,7 @@ package com.github.mirum8.jnscli.build.parameters.activechoises;
 
 import com.github.mirum8.jnscli.build.parameters.DynamicReferencedParameterPrompter;
 import com.github.mirum8.jnscli.http.HttpMethod;
-import com.github.mirum8.jnscli.http.HttpRequestBuilder;
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
 import com.github.mirum8.jnscli.jenkins.WorkflowJob;
 import com.github.mirum8.jnscli.shell.ShellPrompter;
 import org.springframework.stereotype.Component;
@@ -26,15 +26,15 @@ public class ActiveChoicesReactiveParameterPrompter implements DynamicReferenced
 
     private final ShellPrompter shellPrompter;
     private final HttpClient httpClient;
-    private final HttpRequestBuilder httpRequestBuilder;
+    private final HttpRequestFactory requestFactory;
     private final ActiveChoiceExtractor activeChoiceExtractor;
 
     private String activeChoiceHtml;
 
-    public ActiveChoicesReactiveParameterPrompter(ShellPrompter shellPrompter, HttpClient httpClient, HttpRequestBuilder httpRequestBuilder, ActiveChoiceExtractor activeChoiceExtractor) {
+    public ActiveChoicesReactiveParameterPrompter(ShellPrompter shellPrompter, HttpClient httpClient, HttpRequestFactory requestFactory, ActiveChoiceExtractor activeChoiceExtractor) {
         this.shellPrompter = shellPrompter;
         this.httpClient = httpClient;
-        this.httpRequestBuilder = httpRequestBuilder;
+        this.requestFactory = requestFactory;
         this.activeChoiceExtractor = activeChoiceExtractor;
     }
 
@@ -58,8 +58,7 @@ public class ActiveChoicesReactiveParameterPrompter implements DynamicReferenced
         try {
             String path = "/$stapler/bound/script/$stapler/bound/" + activeChoice.uid() + "?var=cascadeChoiceParameter&methods=doUpdate,getChoicesForUI";
             HttpResponse<String> response = httpClient.send(
-                httpRequestBuilder.method(HttpMethod.GET)
-                    .path(path)
+                requestFactory.newRequestToPath(HttpMethod.GET, path)
                     .header("Accept", "*/*")
                     .build(),
                 HttpResponse.BodyHandlers.ofString()
@@ -86,8 +85,7 @@ public class ActiveChoicesReactiveParameterPrompter implements DynamicReferenced
     List<String> getChoices(ActiveChoice activeChoice, String crumb) {
         try {
             HttpResponse<String> response = httpClient.send(
-                httpRequestBuilder.method(HttpMethod.POST)
-                    .path("/$stapler/bound/" + activeChoice.uid() + "/getChoicesForUI")
+                requestFactory.newRequestToPath(HttpMethod.POST, "/$stapler/bound/" + activeChoice.uid() + "/getChoicesForUI")
                     .header("Content-Type", "application/x-stapler-method-invocation;charset=UTF-8")
                     .header("Crumb", crumb)
                     .header("Jenkins-Crumb", crumb)
@@ -124,11 +122,10 @@ public class ActiveChoicesReactiveParameterPrompter implements DynamicReferenced
         try {
             String path = "/$stapler/bound/" + activeChoice.uid() + "/doUpdate";
             HttpResponse<String> response = httpClient.send(
-                httpRequestBuilder.method(HttpMethod.POST)
+                requestFactory.newRequestToPath(HttpMethod.POST, path)
                     .header("Content-Type", "application/x-stapler-method-invocation;charset=UTF-8")
                     .header("Crumb", crumb)
                     .header("Jenkins-Crumb", crumb)
-                    .path(path)
                     .body(HttpRequest.BodyPublishers.ofString(body))
                     .build(),
                 HttpResponse.BodyHandlers.ofString()
@@ -160,7 +157,7 @@ public class ActiveChoicesReactiveParameterPrompter implements DynamicReferenced
         }
         try {
             HttpResponse<String> response = httpClient.send(
-                httpRequestBuilder.method(HttpMethod.GET).url(job.url() + "build?delay=0sec").build(),
+                requestFactory.newRequest(HttpMethod.GET, job.url() + "build?delay=0sec").build(),
                 HttpResponse.BodyHandlers.ofString()
             );
             if (response.statusCode() != 405) {
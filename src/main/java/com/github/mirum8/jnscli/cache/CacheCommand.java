@@ -0,0 +1,24 @@
+package com.github.mirum8.jnscli.cache;
+
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.stereotype.Component;
+
+@Command(group = "cache", description = "Cache Commands", command = "cache")
+@Component
+public class CacheCommand {
+    private final CacheService cacheService;
+
+    public CacheCommand(CacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @Command(command = "stats", description = "Show response cache hit/miss counts")
+    public void stats() {
+        cacheService.stats();
+    }
+
+    @Command(command = "clear", description = "Remove all cached responses")
+    public void clear() {
+        cacheService.clear();
+    }
+}
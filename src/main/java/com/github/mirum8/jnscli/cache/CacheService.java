@@ -0,0 +1,46 @@
+package com.github.mirum8.jnscli.cache;
+
+import com.github.mirum8.jnscli.http.ResponseCache;
+import com.github.mirum8.jnscli.shell.ShellPrinter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CacheService {
+    private static final String ROW_FORMAT = "%-14s %10s %10s";
+
+    private final ResponseCache responseCache;
+    private final ShellPrinter shellPrinter;
+
+    public CacheService(ResponseCache responseCache, ShellPrinter shellPrinter) {
+        this.responseCache = responseCache;
+        this.shellPrinter = shellPrinter;
+    }
+
+    void stats() {
+        ResponseCache.Stats stats = responseCache.stats();
+        ResponseCache.Counters session = stats.session();
+        ResponseCache.Counters total = stats.total();
+        shellPrinter.println("Directory: " + stats.directory());
+        shellPrinter.println("Entries: " + stats.entries() + " (" + megabytes(stats.sizeBytes()) + " of " + megabytes(stats.maxSizeBytes()) + ")");
+        shellPrinter.println();
+        shellPrinter.println(String.format(ROW_FORMAT, "", "session", "total"));
+        shellPrinter.println(String.format(ROW_FORMAT, "Hits", session.hits(), total.hits()));
+        shellPrinter.println(String.format(ROW_FORMAT, "Revalidated", session.revalidations(), total.revalidations()));
+        shellPrinter.println(String.format(ROW_FORMAT, "Misses", session.misses(), total.misses()));
+        shellPrinter.println(String.format(ROW_FORMAT, "Evictions", session.evictions(), total.evictions()));
+        shellPrinter.println(String.format(ROW_FORMAT, "Hit ratio", percent(session.hitRatio()), percent(total.hitRatio())));
+    }
+
+    void clear() {
+        responseCache.clear();
+        shellPrinter.println("Response cache cleared");
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static String percent(double ratio) {
+        return Math.round(ratio * 100) + "%";
+    }
+}
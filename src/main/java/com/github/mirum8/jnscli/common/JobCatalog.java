@@ -0,0 +1,215 @@
+package com.github.mirum8.jnscli.common;
+
+import com.github.mirum8.jnscli.context.JobsContext;
+import com.github.mirum8.jnscli.model.JobDescriptor;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Everything a job argument can be completed to: the {@code %N} ids and names of the job mapping, the folder paths
+ * in these names and the aliases. Completion reads an immutable snapshot held in memory and never waits for a file or
+ * Jenkins.
+ * <p>
+ * The snapshot is built from the local mapping and settings on first use, or earlier with
+ * {@link #refreshInBackground()}. A completion on a snapshot older than {@link #REFRESH_INTERVAL_MILLIS} answers from
+ * it and rebuilds it on a virtual thread, so a mapping changed by {@code list} shows up from the next completion on.
+ */
+@Component
+public class JobCatalog {
+    private static final Logger log = Logger.getLogger(JobCatalog.class.getName());
+    static final long REFRESH_INTERVAL_MILLIS = 2000;
+    static final int MAX_CANDIDATES = 100;
+
+    private final JobsContext jobsContext;
+    private final SettingsService settingsService;
+    private final Clock clock;
+    private final Executor refreshExecutor;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public JobCatalog(JobsContext jobsContext, SettingsService settingsService) {
+        this(jobsContext, settingsService, Clock.systemDefaultZone(), task -> Thread.ofVirtual().name("job-catalog-refresh").start(task));
+    }
+
+    JobCatalog(JobsContext jobsContext, SettingsService settingsService, Clock clock, Executor refreshExecutor) {
+        this.jobsContext = jobsContext;
+        this.settingsService = settingsService;
+        this.clock = clock;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    public enum Kind {
+        JOB, FOLDER, ALIAS, ID
+    }
+
+    /**
+     * @param value       text the argument is completed to
+     * @param description job name of an id, id of a job name, url of an alias
+     */
+    public record Candidate(String value, String description, Kind kind) {
+        /**
+         * Folder paths end with a slash and are completed further, everything else is a complete argument.
+         */
+        public boolean complete() {
+            return kind != Kind.FOLDER;
+        }
+    }
+
+    /**
+     * Candidates starting with the word, ignoring case, in alphabetical order. Only the next level of a folder path
+     * is proposed: {@code team/} completes to {@code team/app} and {@code team/libs/} but not to
+     * {@code team/libs/core}. Ids are only proposed once the word starts with {@code %}.
+     */
+    public List<Candidate> complete(String word) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            try {
+                current = refresh();
+            } catch (RuntimeException e) {
+                log.log(Level.FINE, "Could not load the job catalog", e);
+                return List.of();
+            }
+        } else if (clock.millis() - current.builtAtMillis >= REFRESH_INTERVAL_MILLIS) {
+            refreshInBackground();
+        }
+        return current.complete(word == null ? "" : word, MAX_CANDIDATES);
+    }
+
+    /**
+     * Rebuilds the snapshot on another thread unless a rebuild is already running.
+     */
+    public void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    log.log(Level.FINE, "Could not refresh the job catalog", e);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    private Snapshot refresh() {
+        List<JobDescriptor> jobs = jobsContext.allJobs();
+        Map<String, String> aliases = settingsService.readSettings().aliases();
+        Snapshot current = snapshot;
+        // both sources return the same instance while unchanged, the entries are only sorted again after a change
+        Snapshot updated = current != null && current.jobs == jobs && current.aliases == aliases
+            ? current.checkedAt(clock.millis())
+            : Snapshot.of(jobs, aliases, clock.millis());
+        snapshot = updated;
+        return updated;
+    }
+
+    /**
+     * Candidates sorted by their lower-cased value, so the candidates of a word are a range found by binary search.
+     */
+    private static final class Snapshot {
+        private final List<JobDescriptor> jobs;
+        private final Map<String, String> aliases;
+        private final String[] keys;
+        private final Candidate[] candidates;
+        private final long builtAtMillis;
+
+        private Snapshot(List<JobDescriptor> jobs, Map<String, String> aliases, String[] keys, Candidate[] candidates, long builtAtMillis) {
+            this.jobs = jobs;
+            this.aliases = aliases;
+            this.keys = keys;
+            this.candidates = candidates;
+            this.builtAtMillis = builtAtMillis;
+        }
+
+        static Snapshot of(List<JobDescriptor> jobs, Map<String, String> aliases, long builtAtMillis) {
+            List<Candidate> candidates = new ArrayList<>(jobs.size() * 2 + aliases.size());
+            TreeSet<String> folders = new TreeSet<>();
+            for (JobDescriptor job : jobs) {
+                candidates.add(new Candidate("%" + job.id(), job.name(), Kind.ID));
+                candidates.add(new Candidate(job.name(), "%" + job.id(), Kind.JOB));
+                for (int slash = job.name().indexOf('/'); slash >= 0; slash = job.name().indexOf('/', slash + 1)) {
+                    folders.add(job.name().substring(0, slash + 1));
+                }
+            }
+            folders.forEach(folder -> candidates.add(new Candidate(folder, "folder", Kind.FOLDER)));
+            aliases.forEach((alias, url) -> candidates.add(new Candidate(alias, url, Kind.ALIAS)));
+
+            List<Keyed> sorted = candidates.stream()
+                .map(candidate -> new Keyed(key(candidate.value()), candidate))
+                .sorted(Comparator.comparing(Keyed::key).thenComparing(keyed -> keyed.candidate().kind()))
+                .toList();
+            return new Snapshot(jobs, aliases, sorted.stream().map(Keyed::key).toArray(String[]::new),
+                sorted.stream().map(Keyed::candidate).toArray(Candidate[]::new), builtAtMillis);
+        }
+
+        Snapshot checkedAt(long millis) {
+            return new Snapshot(jobs, aliases, keys, candidates, millis);
+        }
+
+        List<Candidate> complete(String word, int limit) {
+            String prefix = key(word);
+            boolean ids = prefix.startsWith("%");
+            List<Candidate> result = new ArrayList<>();
+            int i = lowerBound(prefix);
+            while (i < keys.length && keys[i].startsWith(prefix) && result.size() < limit) {
+                int slash = keys[i].indexOf('/', prefix.length());
+                if (slash >= 0 && slash < keys[i].length() - 1) {
+                    // a job or folder deeper in a folder, skip the whole folder, its path is a candidate of its own
+                    i = lowerBound(keys[i].substring(0, slash) + (char) ('/' + 1));
+                    continue;
+                }
+                if (!ids && candidates[i].kind() == Kind.ID) {
+                    // ids sort together before the names, skip all of them
+                    i = lowerBound("%" + (char) ('9' + 1));
+                    continue;
+                }
+                boolean typedFolder = candidates[i].kind() == Kind.FOLDER && keys[i].length() == prefix.length();
+                if (!typedFolder) {
+                    result.add(candidates[i]);
+                }
+                i++;
+            }
+            return result;
+        }
+
+        private int lowerBound(String key) {
+            int position = Arrays.binarySearch(keys, key);
+            if (position < 0) {
+                return -position - 1;
+            }
+            while (position > 0 && keys[position - 1].equals(key)) {
+                position--;
+            }
+            return position;
+        }
+
+        private static String key(String value) {
+            return value.toLowerCase(Locale.ROOT);
+        }
+
+        private record Keyed(String key, Candidate candidate) {
+        }
+    }
+}
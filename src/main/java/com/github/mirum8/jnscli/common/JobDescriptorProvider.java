@@ -1,39 +1,82 @@
 package com.github.mirum8.jnscli.common;
 
 import com.github.mirum8.jnscli.alias.AliasService;
+import com.github.mirum8.jnscli.context.JobSearchIndex;
 import com.github.mirum8.jnscli.context.JobType;
 import com.github.mirum8.jnscli.context.JobsContext;
 import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
 import com.github.mirum8.jnscli.model.JobDescriptor;
+import com.github.mirum8.jnscli.shell.ShellPrinter;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static com.github.mirum8.jnscli.util.Strings.isJobNumber;
 
 @Component
 public class JobDescriptorProvider {
+    private static final int MAX_AMBIGUOUS_SHOWN = 5;
+
     private final AliasService aliasService;
     private final JenkinsAPI jenkinsAPI;
     private final JobsContext jobsContext;
+    private final JobSearchIndex jobSearchIndex;
+    private final ShellPrinter shellPrinter;
 
-    public JobDescriptorProvider(AliasService aliasService, JenkinsAPI jenkinsAPI, JobsContext jobsContext) {
+    public JobDescriptorProvider(AliasService aliasService, JenkinsAPI jenkinsAPI, JobsContext jobsContext,
+                                 JobSearchIndex jobSearchIndex, ShellPrinter shellPrinter) {
         this.aliasService = aliasService;
         this.jenkinsAPI = jenkinsAPI;
         this.jobsContext = jobsContext;
+        this.jobSearchIndex = jobSearchIndex;
+        this.shellPrinter = shellPrinter;
     }
 
     public Optional<JobDescriptor> get(String jobId) {
-        return isJobNumber(jobId) ? getJobDescriptorUrlById(jobId) : getJobDescriptorByName(jobId);
+        Optional<JobDescriptor> job = isJobNumber(jobId) ? getJobDescriptorUrlById(jobId) : getJobDescriptorByName(jobId);
+        job.ifPresent(jobSearchIndex::recordUse);
+        return job;
     }
 
+    /**
+     * Looks a name up as an alias, as an exact name of the mapping, as the last path segment of a single name of the
+     * mapping, on Jenkins for top-level jobs that were never listed, and only then as a part of a single name of the
+     * mapping. The job a fragment resolved to is printed.
+     *
+     * @throws IllegalArgumentException when the name is not a job on Jenkins and part of several job names
+     */
     private Optional<JobDescriptor> getJobDescriptorByName(String jobName) {
-        return aliasService.getJobUrl(jobName)
+        Optional<JobDescriptor> known = aliasService.getJobUrl(jobName)
             .map(url -> JobDescriptor.builder().name(jobName).url(url).alias(jobName).build())
-            .or(() -> jobsContext.findJobByName(jobName))
-            .or(() -> jenkinsAPI.getJobs()
-                .stream().filter(job -> job.name().equals(jobName))
-                .findFirst().map(job -> JobDescriptor.builder().name(job.name()).url(job.url()).type(JobType.fromName(job.aClass())).build()));
+            .or(() -> jobsContext.findJobByName(jobName));
+        if (known.isPresent()) {
+            return known;
+        }
+        List<JobSearchIndex.Match> matches = jobSearchIndex.bestMatches(jobName, MAX_AMBIGUOUS_SHOWN + 1);
+        if (matches.size() == 1 && matches.getFirst().kind().compareTo(JobSearchIndex.Kind.SEGMENT) <= 0) {
+            return Optional.of(resolved(jobName, matches.getFirst()));
+        }
+        Optional<JobDescriptor> unlisted = jenkinsAPI.findJob(jobName)
+            .map(job -> JobDescriptor.builder().name(job.name()).url(job.url()).type(JobType.fromName(job.aClass())).build());
+        if (unlisted.isPresent()) {
+            return unlisted;
+        }
+        if (matches.size() > 1) {
+            String candidates = matches.stream()
+                .limit(MAX_AMBIGUOUS_SHOWN)
+                .map(match -> "%" + match.job().id() + " " + match.job().name())
+                .collect(Collectors.joining(", "));
+            throw new IllegalArgumentException("Job " + jobName + " is ambiguous, it matches " + candidates
+                + (matches.size() > MAX_AMBIGUOUS_SHOWN ? " and more" : ""));
+        }
+        return matches.stream().findFirst().map(match -> resolved(jobName, match));
+    }
+
+    private JobDescriptor resolved(String fragment, JobSearchIndex.Match match) {
+        shellPrinter.println("Job " + fragment + " resolved to %" + match.job().id() + " " + match.job().name());
+        return match.job();
     }
 
     private Optional<JobDescriptor> getJobDescriptorUrlById(String jobId) {
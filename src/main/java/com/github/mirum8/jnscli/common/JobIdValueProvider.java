@@ -0,0 +1,48 @@
+package com.github.mirum8.jnscli.common;
+
+import org.springframework.shell.CompletionContext;
+import org.springframework.shell.CompletionProposal;
+import org.springframework.shell.completion.CompletionProvider;
+import org.springframework.shell.standard.ValueProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Tab completion of job arguments from the {@link JobCatalog}. Used with {@code @OptionValues(provider = NAME)} on
+ * {@code @Command} methods and with {@code @ShellOption(valueProvider = JobIdValueProvider.class)}.
+ */
+@Component(JobIdValueProvider.NAME)
+public class JobIdValueProvider implements ValueProvider, CompletionProvider {
+    public static final String NAME = "jobIdValueProvider";
+
+    private final JobCatalog jobCatalog;
+
+    public JobIdValueProvider(JobCatalog jobCatalog) {
+        this.jobCatalog = jobCatalog;
+    }
+
+    @Override
+    public List<CompletionProposal> complete(CompletionContext context) {
+        return jobCatalog.complete(context.currentWordUpToCursor()).stream()
+            .map(JobIdValueProvider::proposal)
+            .toList();
+    }
+
+    @Override
+    public List<CompletionProposal> apply(CompletionContext context) {
+        return complete(context);
+    }
+
+    private static CompletionProposal proposal(JobCatalog.Candidate candidate) {
+        return new CompletionProposal(candidate.value())
+            .description(candidate.description())
+            .category(switch (candidate.kind()) {
+                case JOB -> "Jobs";
+                case FOLDER -> "Folders";
+                case ALIAS -> "Aliases";
+                case ID -> "Ids";
+            })
+            .complete(candidate.complete());
+    }
+}
@@ -0,0 +1,278 @@
+package com.github.mirum8.jnscli.context;
+
+import com.github.mirum8.jnscli.model.JobDescriptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Binary store of the job id mapping, loaded once per process and reloaded only when another process changed the file.
+ * Lookups by id index an array directly, lookups by name go through a hash index.
+ * <p>
+ * Records are only ever appended. Each one carries its length and a CRC32 checksum, so a record torn by an interrupted
+ * write is detected, ignored and cut off by the next append.
+ * <pre>
+ * file    := magic:int version:byte record*
+ * record  := length:int crc32:int payload
+ * payload := id:int string(name) string(url) string(type)
+ * string  := length:int bytes   (UTF-8)
+ * </pre>
+ */
+class JobMappingStore {
+    private static final int MAGIC = 0x4A4E534D;
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + 1;
+    private static final int RECORD_PREFIX_SIZE = 2 * Integer.BYTES;
+
+    private final Path path;
+    private final Path legacyPath;
+
+    // jobsById[id - 1]
+    private JobDescriptor[] jobsById = new JobDescriptor[0];
+    private Map<String, JobDescriptor> jobsByName = new HashMap<>();
+    private int maxId;
+    // all jobs ordered by id, built on demand and dropped whenever the mapping changes
+    private List<JobDescriptor> jobs;
+    private long validLength;
+    private long loadedSize = -1;
+    private FileTime loadedModifiedTime;
+
+    JobMappingStore(Path path, Path legacyPath) {
+        this.path = path;
+        this.legacyPath = legacyPath;
+    }
+
+    synchronized Optional<JobDescriptor> findById(int id) {
+        refreshIfChanged();
+        return id >= 1 && id <= jobsById.length ? Optional.ofNullable(jobsById[id - 1]) : Optional.empty();
+    }
+
+    synchronized Optional<JobDescriptor> findByName(String name) {
+        refreshIfChanged();
+        return Optional.ofNullable(jobsByName.get(name));
+    }
+
+    synchronized int maxId() {
+        refreshIfChanged();
+        return maxId;
+    }
+
+    /**
+     * All jobs ordered by id. The same list instance is returned until the mapping changes.
+     */
+    synchronized List<JobDescriptor> all() {
+        refreshIfChanged();
+        if (jobs == null) {
+            jobs = Arrays.stream(jobsById).filter(Objects::nonNull).toList();
+        }
+        return jobs;
+    }
+
+    /**
+     * Replaces the whole mapping.
+     */
+    synchronized void replace(List<JobDescriptor> jobs) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(content);
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        for (JobDescriptor job : jobs) {
+            writeRecord(output, job);
+        }
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        Files.write(tmp, content.toByteArray());
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(legacyPath);
+        reset();
+        jobs.forEach(this::index);
+        validLength = content.size();
+        rememberFileState();
+    }
+
+    /**
+     * Appends jobs to the mapping with a single write.
+     */
+    synchronized void append(List<JobDescriptor> jobs) throws IOException {
+        refreshIfChanged();
+        if (!Files.exists(path)) {
+            replace(jobs);
+            return;
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(content);
+        for (JobDescriptor job : jobs) {
+            writeRecord(output, job);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            // drops a torn record left by an interrupted append
+            channel.truncate(validLength);
+            channel.position(validLength);
+            ByteBuffer buffer = ByteBuffer.wrap(content.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        jobs.forEach(this::index);
+        validLength += content.size();
+        rememberFileState();
+    }
+
+    private void refreshIfChanged() {
+        try {
+            if (!Files.exists(path)) {
+                if (Files.exists(legacyPath)) {
+                    migrateLegacy();
+                } else if (loadedSize != -1) {
+                    reset();
+                    loadedSize = -1;
+                }
+                return;
+            }
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (attributes.size() != loadedSize || !attributes.lastModifiedTime().equals(loadedModifiedTime)) {
+                load();
+            }
+        } catch (NoSuchFileException e) {
+            reset();
+        } catch (IOException e) {
+            throw new IllegalStateException("Error reading mapping file: " + e);
+        }
+    }
+
+    private void load() throws IOException {
+        reset();
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a job mapping file: " + path);
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported job mapping version " + version + ": " + path);
+        }
+        validLength = HEADER_SIZE;
+        while (buffer.remaining() >= RECORD_PREFIX_SIZE) {
+            int length = buffer.getInt();
+            int crc = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice(buffer.position(), length);
+            if (checksum(payload.duplicate()) != crc) {
+                break;
+            }
+            Optional<JobDescriptor> job = readPayload(payload);
+            if (job.isEmpty()) {
+                break;
+            }
+            index(job.get());
+            buffer.position(buffer.position() + length);
+            validLength = buffer.position();
+        }
+        rememberFileState();
+    }
+
+    private void migrateLegacy() throws IOException {
+        List<JobDescriptor> jobs = new ArrayList<>();
+        for (String line : Files.readAllLines(legacyPath)) {
+            String[] parts = line.split(";");
+            if (parts.length == 4) {
+                jobs.add(JobDescriptor.builder()
+                    .id(Integer.parseInt(parts[0]))
+                    .name(parts[1])
+                    .url(parts[2])
+                    .type(JobType.valueOf(parts[3]))
+                    .build());
+            }
+        }
+        replace(jobs);
+    }
+
+    private void index(JobDescriptor job) {
+        if (job.id() > jobsById.length) {
+            jobsById = Arrays.copyOf(jobsById, Math.max(job.id(), jobsById.length * 2));
+        }
+        jobsById[job.id() - 1] = job;
+        // like the text mapping, the first job with a given name wins
+        jobsByName.putIfAbsent(job.name(), job);
+        maxId = Math.max(maxId, job.id());
+        jobs = null;
+    }
+
+    private void reset() {
+        jobsById = new JobDescriptor[0];
+        jobsByName = new HashMap<>();
+        maxId = 0;
+        jobs = null;
+        validLength = 0;
+    }
+
+    private void rememberFileState() throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        loadedSize = attributes.size();
+        loadedModifiedTime = attributes.lastModifiedTime();
+    }
+
+    private static void writeRecord(DataOutputStream output, JobDescriptor job) throws IOException {
+        byte[] name = job.name().getBytes(StandardCharsets.UTF_8);
+        byte[] url = job.url().getBytes(StandardCharsets.UTF_8);
+        byte[] type = job.type().name().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(4 * Integer.BYTES + name.length + url.length + type.length)
+            .putInt(job.id())
+            .putInt(name.length).put(name)
+            .putInt(url.length).put(url)
+            .putInt(type.length).put(type)
+            .flip();
+        output.writeInt(payload.remaining());
+        output.writeInt(checksum(payload.duplicate()));
+        output.write(payload.array());
+    }
+
+    private static Optional<JobDescriptor> readPayload(ByteBuffer payload) {
+        try {
+            int id = payload.getInt();
+            String name = readString(payload);
+            String url = readString(payload);
+            JobType type = JobType.valueOf(readString(payload));
+            if (id < 1) {
+                return Optional.empty();
+            }
+            return Optional.of(JobDescriptor.builder().id(id).name(name).url(url).type(type).build());
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(ByteBuffer payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        return (int) crc32.getValue();
+    }
+}
@@ -0,0 +1,323 @@
+package com.github.mirum8.jnscli.context;
+
+import com.github.mirum8.jnscli.model.JobDescriptor;
+import com.github.mirum8.jnscli.settings.SettingsProperties;
+import com.github.mirum8.jnscli.util.FileUtil;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Case-insensitive search over the names and folder paths of all jobs in the job mapping, without asking Jenkins.
+ * <p>
+ * Every name is split into trigrams, a query of three or more characters only looks at the names that contain all of
+ * its trigrams. Matches are ranked by how well they match, an exact name before an exact last path segment, a prefix
+ * and any other substring, then by when the job was last used. When no name contains the query, names sharing at
+ * least half of its trigrams are returned as fuzzy matches, which covers most typos.
+ * <p>
+ * The index is built from the mapping on first use and rebuilt whenever the mapping changes.
+ */
+@Component
+public class JobSearchIndex {
+    private static final Logger log = Logger.getLogger(JobSearchIndex.class.getName());
+    public static final String RECENT_FILENAME = "recent";
+    private static final double FUZZY_MIN_SHARED_TRIGRAMS = 0.5;
+    private static final Comparator<Ranked> RANKING = Comparator.comparing(Ranked::kind)
+        .thenComparingInt(ranked -> -ranked.sharedTrigrams())
+        .thenComparingLong(ranked -> -ranked.lastUsedMillis())
+        .thenComparingInt(ranked -> ranked.job().name().length())
+        .thenComparing(ranked -> ranked.job().name());
+
+    private final JobsContext jobsContext;
+    private final RecentJobs recentJobs;
+    private final Clock clock;
+    private Snapshot snapshot;
+
+    @Autowired
+    public JobSearchIndex(JobsContext jobsContext, SettingsProperties settingsProperties) {
+        this(jobsContext, Path.of(FileUtil.resolveHomeDir(settingsProperties.directory()), RECENT_FILENAME), Clock.systemDefaultZone());
+    }
+
+    JobSearchIndex(JobsContext jobsContext, Path recentFile, Clock clock) {
+        this.jobsContext = jobsContext;
+        this.recentJobs = new RecentJobs(recentFile);
+        this.clock = clock;
+    }
+
+    /**
+     * How a name matches a query, best first.
+     */
+    public enum Kind {
+        EXACT, SEGMENT, PREFIX, SUBSTRING, FUZZY
+    }
+
+    /**
+     * @param lastUsedMillis when a command last used the job, 0 when never
+     */
+    public record Match(JobDescriptor job, Kind kind, long lastUsedMillis) {
+    }
+
+    /**
+     * @return at most {@code limit} matches, best first
+     */
+    public List<Match> search(String query, int limit) {
+        return top(candidates(normalize(query)), limit);
+    }
+
+    /**
+     * Matches of the best kind a query has, leaving out fuzzy ones. A single result is the job the query unambiguously
+     * refers to.
+     */
+    public List<Match> bestMatches(String query, int limit) {
+        List<Ranked> candidates = candidates(normalize(query));
+        Kind best = candidates.stream().map(Ranked::kind).min(Comparator.naturalOrder()).orElse(Kind.FUZZY);
+        if (best == Kind.FUZZY) {
+            return List.of();
+        }
+        return top(candidates.stream().filter(ranked -> ranked.kind() == best).toList(), limit);
+    }
+
+    /**
+     * Ranks the job higher in later searches. The use is kept in memory until {@link #flush()}.
+     */
+    public void recordUse(JobDescriptor job) {
+        recentJobs.recordUse(job.url(), clock.millis());
+    }
+
+    /**
+     * Writes the uses recorded since the last flush, once when the shell exits rather than for every job a command
+     * looks up.
+     */
+    @PreDestroy
+    public void flush() {
+        try {
+            recentJobs.flush();
+        } catch (UncheckedIOException e) {
+            log.log(Level.FINE, "Could not write recent jobs", e);
+        }
+    }
+
+    private List<Ranked> candidates(String query) {
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        Snapshot index = snapshot();
+        Map<String, Long> lastUsed = recentJobs.all();
+        List<Ranked> candidates = new ArrayList<>();
+        for (int position : index.containing(query)) {
+            JobDescriptor job = index.jobs.get(position);
+            candidates.add(new Ranked(job, kind(index.names[position], query), 0, lastUsed.getOrDefault(job.url(), 0L)));
+        }
+        if (candidates.isEmpty()) {
+            int[] shared = index.sharedTrigrams(query);
+            int required = Math.max(1, (int) Math.ceil(Snapshot.trigrams(query).length * FUZZY_MIN_SHARED_TRIGRAMS));
+            for (int position = 0; position < shared.length; position++) {
+                if (shared[position] >= required) {
+                    JobDescriptor job = index.jobs.get(position);
+                    candidates.add(new Ranked(job, Kind.FUZZY, shared[position], lastUsed.getOrDefault(job.url(), 0L)));
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Best {@code limit} candidates in order, without sorting all of them.
+     */
+    private static List<Match> top(List<Ranked> candidates, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Ranked> worstFirst = new PriorityQueue<>(RANKING.reversed());
+        for (Ranked candidate : candidates) {
+            worstFirst.add(candidate);
+            if (worstFirst.size() > limit) {
+                worstFirst.poll();
+            }
+        }
+        List<Ranked> best = new ArrayList<>(worstFirst);
+        best.sort(RANKING);
+        return best.stream()
+            .map(ranked -> new Match(ranked.job(), ranked.kind(), ranked.lastUsedMillis()))
+            .toList();
+    }
+
+    private synchronized Snapshot snapshot() {
+        List<JobDescriptor> jobs = jobsContext.allJobs();
+        if (snapshot == null || snapshot.jobs != jobs) {
+            snapshot = new Snapshot(jobs);
+        }
+        return snapshot;
+    }
+
+    private static Kind kind(String name, String query) {
+        if (name.equals(query)) {
+            return Kind.EXACT;
+        }
+        int segment = name.lastIndexOf('/') + 1;
+        if (name.startsWith(query, segment)) {
+            return name.length() - segment == query.length() ? Kind.SEGMENT : Kind.PREFIX;
+        }
+        return name.startsWith(query) ? Kind.PREFIX : Kind.SUBSTRING;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param sharedTrigrams trigrams of the query the name contains, only counted for fuzzy matches
+     */
+    private record Ranked(JobDescriptor job, Kind kind, int sharedTrigrams, long lastUsedMillis) {
+    }
+
+    /**
+     * Trigram index over the lower-cased names of one version of the job mapping.
+     * <p>
+     * Characters are folded into 6 bits, so a trigram is an 18-bit number and the posting lists of all trigrams fit in
+     * two flat arrays: the positions of the names containing trigram {@code t} are
+     * {@code positions[offsets[t]..offsets[t + 1])}, ascending. Rare characters share codes, names found through
+     * a trigram are therefore always checked against the query itself.
+     */
+    private static final class Snapshot {
+        private static final int CHARACTER_BITS = 6;
+        private static final int TRIGRAMS = 1 << 3 * CHARACTER_BITS;
+
+        private final List<JobDescriptor> jobs;
+        private final String[] names;
+        private final int[] offsets = new int[TRIGRAMS + 1];
+        private final int[] positions;
+
+        Snapshot(List<JobDescriptor> jobs) {
+            this.jobs = jobs;
+            this.names = jobs.stream().map(job -> normalize(job.name())).toArray(String[]::new);
+            int[][] nameTrigrams = new int[names.length][];
+            for (int position = 0; position < names.length; position++) {
+                nameTrigrams[position] = trigrams(names[position]);
+                for (int trigram : nameTrigrams[position]) {
+                    offsets[trigram + 1]++;
+                }
+            }
+            for (int trigram = 0; trigram < TRIGRAMS; trigram++) {
+                offsets[trigram + 1] += offsets[trigram];
+            }
+            positions = new int[offsets[TRIGRAMS]];
+            int[] next = Arrays.copyOf(offsets, TRIGRAMS);
+            for (int position = 0; position < names.length; position++) {
+                for (int trigram : nameTrigrams[position]) {
+                    positions[next[trigram]++] = position;
+                }
+            }
+        }
+
+        /**
+         * Positions of the names containing the query, ascending.
+         */
+        int[] containing(String query) {
+            int[] candidates = null;
+            if (query.length() >= 3) {
+                int[] trigrams = trigrams(query);
+                Arrays.sort(trigrams);
+                for (int trigram : trigrams) {
+                    int[] postings = Arrays.copyOfRange(positions, offsets[trigram], offsets[trigram + 1]);
+                    candidates = candidates == null ? postings : intersect(candidates, postings);
+                    if (candidates.length == 0) {
+                        return candidates;
+                    }
+                }
+            }
+            int[] matching = new int[candidates == null ? names.length : candidates.length];
+            int size = 0;
+            for (int i = 0; i < matching.length; i++) {
+                int position = candidates == null ? i : candidates[i];
+                if (names[position].contains(query)) {
+                    matching[size++] = position;
+                }
+            }
+            return Arrays.copyOf(matching, size);
+        }
+
+        /**
+         * Number of the query's trigrams each name contains.
+         */
+        int[] sharedTrigrams(String query) {
+            int[] shared = new int[names.length];
+            for (int trigram : trigrams(query)) {
+                for (int i = offsets[trigram]; i < offsets[trigram + 1]; i++) {
+                    shared[positions[i]]++;
+                }
+            }
+            return shared;
+        }
+
+        /**
+         * Distinct trigrams of a text.
+         */
+        static int[] trigrams(String text) {
+            if (text.length() < 3) {
+                return new int[0];
+            }
+            int[] trigrams = new int[text.length() - 2];
+            int trigram = code(text.charAt(0)) << CHARACTER_BITS | code(text.charAt(1));
+            for (int i = 0; i < trigrams.length; i++) {
+                trigram = (trigram << CHARACTER_BITS | code(text.charAt(i + 2))) & (TRIGRAMS - 1);
+                trigrams[i] = trigram;
+            }
+            Arrays.sort(trigrams);
+            int distinct = 0;
+            for (int i = 0; i < trigrams.length; i++) {
+                if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                    trigrams[distinct++] = trigrams[i];
+                }
+            }
+            return Arrays.copyOf(trigrams, distinct);
+        }
+
+        private static int code(char c) {
+            if (c >= 'a' && c <= 'z') {
+                return c - 'a' + 1;
+            }
+            if (c >= '0' && c <= '9') {
+                return c - '0' + 27;
+            }
+            return switch (c) {
+                case '-' -> 37;
+                case '_' -> 38;
+                case '/' -> 39;
+                case '.' -> 40;
+                case ' ' -> 41;
+                default -> 42 + c % 22;
+            };
+        }
+
+        private static int[] intersect(int[] left, int[] right) {
+            int[] result = new int[Math.min(left.length, right.length)];
+            int size = 0;
+            for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+                if (left[i] < right[j]) {
+                    i++;
+                } else if (left[i] > right[j]) {
+                    j++;
+                } else {
+                    result[size++] = left[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(result, size);
+        }
+    }
+}
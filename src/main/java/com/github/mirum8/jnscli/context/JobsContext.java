@@ -7,87 +7,69 @@ import com.github.mirum8.jnscli.util.FileUtil;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import static java.nio.file.StandardOpenOption.APPEND;
-
 @Component
 public class JobsContext {
-    public static final String MAPPING_FILENAME = "mapping";
-    private final Path mappingFilePath;
+    public static final String MAPPING_FILENAME = "mapping.bin";
+    /**
+     * Text mapping ({@code id;name;url;type} per line) used by older versions, migrated on first access.
+     */
+    public static final String LEGACY_MAPPING_FILENAME = "mapping";
+    private final JobMappingStore mappingStore;
 
     public JobsContext(SettingsProperties settingsProperties) {
-        String configDirectory = FileUtil.resolveHomeDir(settingsProperties.directory());
-        this.mappingFilePath = Paths.get(configDirectory + FileSystems.getDefault().getSeparator() + MAPPING_FILENAME);
+        Path configDirectory = Path.of(FileUtil.resolveHomeDir(settingsProperties.directory()));
+        this.mappingStore = new JobMappingStore(configDirectory.resolve(MAPPING_FILENAME), configDirectory.resolve(LEGACY_MAPPING_FILENAME));
     }
 
     public void refreshJobIds(Collection<Job> jobs, boolean append) {
         try {
-            if (!mappingFilePath.toFile().exists()) {
-                Files.createFile(mappingFilePath);
-            }
             AtomicInteger nextId = append
-                ? new AtomicInteger(getLinesAmount(mappingFilePath) + 1)
+                ? new AtomicInteger(mappingStore.maxId() + 1)
                 : new AtomicInteger(1);
-            List<String> lines = jobs.stream()
-                .map(job -> String.join(";", String.valueOf(nextId.getAndIncrement()), job.name(), job.url(), JobType.fromName(job.aClass()).name()))
+            List<JobDescriptor> descriptors = jobs.stream()
+                .map(job -> JobDescriptor.builder()
+                    .id(nextId.getAndIncrement())
+                    .name(job.name())
+                    .url(job.url())
+                    .type(JobType.fromName(job.aClass()))
+                    .build())
                 .toList();
             if (append) {
-                Files.write(mappingFilePath, lines, APPEND);
+                mappingStore.append(descriptors);
             } else {
-                Files.write(mappingFilePath, lines);
+                mappingStore.replace(descriptors);
             }
         } catch (IOException e) {
             throw new IllegalStateException("Error writing mapping file: " + e);
         }
     }
 
-    private int getLinesAmount(Path path) throws IOException {
-        try (var lines = Files.lines(path)) {
-            return (int) lines.count();
-        }
+    /**
+     * Highest id in the mapping, the jobs of an appending {@link #refreshJobIds} get the ids after it.
+     */
+    public int maxId() {
+        return mappingStore.maxId();
+    }
+
+    /**
+     * All jobs of the mapping ordered by id. The same list instance is returned as long as the mapping is unchanged.
+     */
+    public List<JobDescriptor> allJobs() {
+        return mappingStore.all();
     }
 
     public Optional<JobDescriptor> findJobById(int id) {
-        try {
-            List<String> lines = Files.readAllLines(mappingFilePath);
-            for (String line : lines) {
-                String[] parts = line.split(";");
-                if (parts.length == 4 && Integer.parseInt(parts[0]) == id) {
-                    return Optional.of(new JobDescriptor(id, parts[1], parts[2], JobType.valueOf(parts[3]), null));
-                }
-            }
-        } catch (IOException e) {
-            throw new IllegalStateException("Error reading mapping file: " + e);
-        }
-        return Optional.empty();
+        return mappingStore.findById(id);
     }
 
     public Optional<JobDescriptor> findJobByName(String name) {
-        try {
-            List<String> lines = Files.readAllLines(mappingFilePath);
-            for (String line : lines) {
-                String[] parts = line.split(";");
-                if (parts.length == 4 && parts[1].equals(name)) {
-                    return Optional.of(JobDescriptor.builder()
-                        .id(Integer.parseInt(parts[0]))
-                        .name(parts[1])
-                        .url(parts[2])
-                        .type(JobType.valueOf(parts[3]))
-                        .build());
-                }
-            }
-        } catch (IOException e) {
-            throw new IllegalStateException("Error reading mapping file: " + e);
-        }
-        return Optional.empty();
+        return mappingStore.findByName(name);
     }
 
 }
@@ -0,0 +1,106 @@
+package com.github.mirum8.jnscli.context;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * When jobs were last used by a command, keyed by job URL, so the ranking survives a new job listing.
+ * <p>
+ * Only the latest {@link #MAX_ENTRIES} jobs are kept, one {@code millis<TAB>url} line each. Uses are kept in memory
+ * and written together by {@link #flush()}. The file is read again before the write, so concurrent shells lose at most
+ * their own latest uses.
+ */
+class RecentJobs {
+    static final int MAX_ENTRIES = 500;
+
+    private final Path path;
+    private final Map<String, Long> pending = new HashMap<>();
+    private Map<String, Long> lastUsed;
+
+    RecentJobs(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * @return time each job was last used in epoch milliseconds by job URL, including the uses not written yet
+     */
+    synchronized Map<String, Long> all() {
+        if (lastUsed == null) {
+            lastUsed = Collections.unmodifiableMap(newest(read()));
+        }
+        return lastUsed;
+    }
+
+    synchronized void recordUse(String jobUrl, long millis) {
+        pending.merge(jobUrl, millis, Math::max);
+        Map<String, Long> entries = new HashMap<>(all());
+        entries.merge(jobUrl, millis, Math::max);
+        lastUsed = Collections.unmodifiableMap(newest(entries));
+    }
+
+    /**
+     * Writes the pending uses merged with the file, does nothing when there are none.
+     */
+    synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, Long> entries = newest(read());
+        StringBuilder content = new StringBuilder();
+        entries.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .forEach(entry -> content.append(entry.getValue()).append('\t').append(entry.getKey()).append('\n'));
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+            Files.writeString(tmp, content, StandardCharsets.UTF_8);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing recent jobs", e);
+        }
+        pending.clear();
+        lastUsed = Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Merges the pending uses into the entries and keeps the newest {@link #MAX_ENTRIES}.
+     */
+    private Map<String, Long> newest(Map<String, Long> entries) {
+        pending.forEach((url, millis) -> entries.merge(url, millis, Math::max));
+        return entries.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .limit(MAX_ENTRIES)
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private Map<String, Long> read() {
+        Map<String, Long> entries = new HashMap<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                int separator = line.indexOf('\t');
+                if (separator > 0) {
+                    try {
+                        entries.merge(line.substring(separator + 1), Long.parseLong(line.substring(0, separator)), Math::max);
+                    } catch (NumberFormatException e) {
+                        // skips a line edited by hand
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading recent jobs", e);
+        }
+        return entries;
+    }
+}
@@ -1,7 +1,9 @@
 package com.github.mirum8.jnscli.diagnose;
 
+import com.github.mirum8.jnscli.common.JobIdValueProvider;
 import org.springframework.shell.command.annotation.Command;
 import org.springframework.shell.command.annotation.Option;
+import org.springframework.shell.command.annotation.OptionValues;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -15,7 +17,7 @@ public class ErrorCommand {
     }
 
     @Command(command = "error", description = "Get error for the last or specific build")
-    void error(String jobId,
+    void error(@OptionValues(provider = JobIdValueProvider.NAME) String jobId,
                @Option(longNames = "buildNumber", shortNames = 'b') Integer buildNumber,
                @Option(longNames = "myBuild", shortNames = 'm') boolean myBuild,
                @Option(longNames = "ai", description = "Analyze errors with AI") boolean useAi) {
@@ -3,6 +3,8 @@ package com.github.mirum8.jnscli.diagnose;
 import com.github.mirum8.jnscli.ai.AiService;
 import com.github.mirum8.jnscli.common.JobDescriptorProvider;
 import com.github.mirum8.jnscli.context.JobType;
+import com.github.mirum8.jnscli.history.BuildHistoryService;
+import com.github.mirum8.jnscli.history.BuildRecord;
 import com.github.mirum8.jnscli.jenkins.*;
 import com.github.mirum8.jnscli.model.JobDescriptor;
 import com.github.mirum8.jnscli.settings.SettingsService;
@@ -10,7 +12,7 @@ import com.github.mirum8.jnscli.shell.ShellPrinter;
 import org.springframework.stereotype.Component;
 
 import java.util.Comparator;
-import java.util.List;
+import java.util.function.Predicate;
 
 import static com.github.mirum8.jnscli.shell.TextColor.CYAN;
 import static com.github.mirum8.jnscli.shell.TextColor.MAGENTA;
@@ -25,19 +27,22 @@ public class ErrorService {
     private final SettingsService settingsService;
     private final ShellPrinter shellPrinter;
     private final JobDescriptorProvider jobDescriptorProvider;
+    private final BuildHistoryService buildHistoryService;
 
     public ErrorService(AiService aiService,
                         JenkinsAPI jenkinsAPI,
                         PipelineAPI pipelineAPI,
                         SettingsService settingsService,
                         ShellPrinter shellPrinter,
-                        JobDescriptorProvider jobDescriptorProvider) {
+                        JobDescriptorProvider jobDescriptorProvider,
+                        BuildHistoryService buildHistoryService) {
         this.aiService = aiService;
         this.jenkinsAPI = jenkinsAPI;
         this.pipelineAPI = pipelineAPI;
         this.settingsService = settingsService;
         this.shellPrinter = shellPrinter;
         this.jobDescriptorProvider = jobDescriptorProvider;
+        this.buildHistoryService = buildHistoryService;
     }
 
     public void getError(String jobId, Integer buildNumber, boolean myBuild, boolean useAi) {
@@ -77,47 +82,36 @@ public class ErrorService {
 
     private BuildInfo findLatestBuildByCurrentUser(JobDescriptor job) {
         String currentUser = settingsService.readSettings().username();
-        if (job.type() == JobType.WORKFLOW) {
-            List<Run> runs = pipelineAPI.getJobRuns(job.url());
-            return runs.stream()
-                .sorted(Comparator.comparingInt(Run::id).reversed())
-                .limit(5)
-                .map(run -> jenkinsAPI.getJobBuildInfo(job.url(), run.id()))
-                .filter(run -> run.status() != Status.SUCCESS)
-                .filter(buildInfo -> buildInfo.startedBy().map(startedBy -> startedBy.equals(currentUser)).orElse(false))
-                .findFirst().orElse(null);
-        } else {
-            WorkflowJob workflowJob = jenkinsAPI.getWorkflowJob(job.url());
-            return workflowJob.builds().stream()
-                .sorted(Comparator.comparingInt(WorkflowJob.Build::number).reversed())
-                .limit(5)
-                .map(build -> jenkinsAPI.getJobBuildInfo(job.url(), build.number()))
-                .filter(buildInfo -> buildInfo.status() != Status.SUCCESS)
-                .filter(buildInfo -> buildInfo.startedBy().map(startedBy -> startedBy.equals(currentUser)).orElse(false))
-                .findFirst().orElse(null);
+        if (buildHistoryService.isSynced(job.url())) {
+            return findInHistory(job, build -> build.result() != Status.SUCCESS && currentUser.equals(build.startedBy()));
         }
+        return findFirstRecentBuild(job, buildInfo -> buildInfo.status() != Status.SUCCESS
+            && buildInfo.startedBy().map(startedBy -> startedBy.equals(currentUser)).orElse(false));
     }
 
     private BuildInfo findLastFailedBuild(JobDescriptor job) {
-        if (job.type() == JobType.WORKFLOW) {
-            List<Run> runs = pipelineAPI.getJobRuns(job.url());
-            return runs.stream()
-                .sorted(Comparator.comparingInt(Run::id).reversed())
-                .limit(5)
-                .map(run -> jenkinsAPI.getJobBuildInfo(job.url(), run.id()))
-                .filter(buildInfo -> buildInfo.status() != Status.SUCCESS)
-                .findFirst()
-                .orElse(null);
-        } else {
-            WorkflowJob workflowJob = jenkinsAPI.getWorkflowJob(job.url());
-            return workflowJob.builds().stream()
-                .sorted(Comparator.comparingInt(WorkflowJob.Build::number).reversed())
-                .limit(5)
-                .map(build -> jenkinsAPI.getJobBuildInfo(job.url(), build.number()))
-                .filter(buildInfo -> buildInfo.status() != Status.SUCCESS)
-                .findFirst()
-                .orElse(null);
+        if (buildHistoryService.isSynced(job.url())) {
+            return findInHistory(job, build -> build.result() != Status.SUCCESS);
         }
+        return findFirstRecentBuild(job, buildInfo -> buildInfo.status() != Status.SUCCESS);
+    }
+
+    /**
+     * Searches the whole synced history instead of the latest few builds, which needs a request for the builds since
+     * the last sync only.
+     */
+    private BuildInfo findInHistory(JobDescriptor job, Predicate<BuildRecord> filter) {
+        return buildHistoryService.findLatest(job, filter)
+            .map(build -> jenkinsAPI.getJobBuildInfo(job.url(), build.number()))
+            .orElse(null);
+    }
+
+    private BuildInfo findFirstRecentBuild(JobDescriptor job, Predicate<BuildInfo> filter) {
+        return jenkinsAPI.getJobBuilds(job.url(), 5).stream()
+            .sorted(Comparator.comparingInt(BuildInfo::number).reversed())
+            .filter(filter)
+            .findFirst()
+            .orElse(null);
     }
 
     public String getErrors(JobDescriptor job, int buildNumber) {
@@ -134,7 +128,7 @@ public class ErrorService {
                     .filter(stageFlowNode -> !stageFlowNode.status().equals(Status.SUCCESS.name()))
                     .findFirst()
                     .map(stageFlowNode -> pipelineAPI.getNodeLog(job.url(), workflowRun.id(), stageFlowNode.id()).text()))
-                .orElse(jenkinsAPI.getConsoleText(job.url(), buildNumber));
+                .orElseGet(() -> jenkinsAPI.getConsoleText(job.url(), buildNumber));
         } else {
             return jenkinsAPI.getConsoleText(job.url(), buildNumber);
         }
@@ -0,0 +1,24 @@
+package com.github.mirum8.jnscli.eta;
+
+import com.github.mirum8.jnscli.jenkins.Run;
+import com.github.mirum8.jnscli.jenkins.Status;
+
+import java.util.List;
+
+/**
+ * Durations of a finished pipeline build and of its stages, as kept in the {@link DurationHistoryStore}.
+ */
+public record BuildDurations(int number, Status status, long startTimeMillis, long durationMillis, List<Stage> stages) {
+
+    public record Stage(String name, Status status, long durationMillis) {
+    }
+
+    static BuildDurations of(Run run) {
+        List<Stage> stages = run.stages() == null
+            ? List.of()
+            : run.stages().stream()
+                .map(stage -> new Stage(stage.name(), stage.status(), stage.durationMillis()))
+                .toList();
+        return new BuildDurations(run.id(), run.status(), run.startTimeMillis(), run.durationMillis(), stages);
+    }
+}
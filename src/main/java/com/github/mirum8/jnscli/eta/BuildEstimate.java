@@ -0,0 +1,111 @@
+package com.github.mirum8.jnscli.eta;
+
+import com.github.mirum8.jnscli.jenkins.Status;
+import com.github.mirum8.jnscli.jenkins.WorkflowRun;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Expected stages of the next build of a job with their estimated durations.
+ * <p>
+ * The stages are those of the latest successful build, or of the latest build when none succeeded. Stage durations
+ * come from the builds in which the stage succeeded, the total from successful builds only, since failed and aborted
+ * builds stop early.
+ *
+ * @param stages stages in the order they run
+ * @param total  duration of the whole build, null without a successful build
+ */
+public record BuildEstimate(List<StageEstimate> stages, DurationEstimate total) {
+    public static final BuildEstimate NONE = new BuildEstimate(List.of(), null);
+
+    /**
+     * @param duration null when the stage never succeeded
+     */
+    public record StageEstimate(String name, DurationEstimate duration) {
+    }
+
+    /**
+     * Time left until a running build finishes.
+     *
+     * @param medianMillis expected time left
+     * @param p90Millis    time left when every remaining stage takes as long as its 90th percentile
+     */
+    public record Remaining(long medianMillis, long p90Millis) {
+    }
+
+    /**
+     * @param builds finished builds, newest first
+     */
+    static BuildEstimate of(List<BuildDurations> builds) {
+        List<BuildDurations.Stage> layout = builds.stream()
+            .filter(build -> build.status() == Status.SUCCESS)
+            .findFirst()
+            .or(() -> builds.stream().findFirst())
+            .map(BuildDurations::stages)
+            .orElse(List.of());
+        List<StageEstimate> stages = layout.stream()
+            .map(stage -> new StageEstimate(stage.name(), DurationEstimate.of(stageDurations(builds, stage.name())).orElse(null)))
+            .toList();
+        DurationEstimate total = DurationEstimate.of(builds.stream()
+                .filter(build -> build.status() == Status.SUCCESS)
+                .map(BuildDurations::durationMillis)
+                .toList())
+            .orElse(null);
+        return new BuildEstimate(stages, total);
+    }
+
+    private static List<Long> stageDurations(List<BuildDurations> builds, String name) {
+        return builds.stream()
+            .filter(build -> build.status() != Status.ABORTED)
+            .flatMap(build -> build.stages().stream())
+            .filter(stage -> stage.status() == Status.SUCCESS && stage.name().equals(name))
+            .map(BuildDurations.Stage::durationMillis)
+            .toList();
+    }
+
+    public Optional<DurationEstimate> stage(String name) {
+        return stages.stream()
+            .filter(stage -> stage.name().equals(name))
+            .findFirst()
+            .map(StageEstimate::duration);
+    }
+
+    public boolean isEmpty() {
+        return stages.isEmpty() && total == null;
+    }
+
+    /**
+     * Adds up the estimates of the stages that are still running or to come, a running stage is expected to take at
+     * least as long as it already does. Without estimates of all stages the total duration of the build is used.
+     *
+     * @return time left, or empty when there is nothing to estimate from
+     */
+    public Optional<Remaining> remaining(WorkflowRun run, long nowMillis) {
+        List<WorkflowRun.Stage> runStages = run.stages() == null ? List.of() : run.stages();
+        if (!stages.isEmpty() && stages.stream().allMatch(stage -> stage.duration() != null)) {
+            long median = 0;
+            long p90 = 0;
+            for (StageEstimate expected : stages) {
+                Optional<WorkflowRun.Stage> current = runStages.stream()
+                    .filter(stage -> stage.name().equals(expected.name()))
+                    .findFirst();
+                String status = current.map(WorkflowRun.Stage::status).orElse(Status.NOT_EXECUTED.name());
+                if (Status.IN_PROGRESS.name().equals(status)) {
+                    long elapsed = nowMillis - current.get().startTimeMillis();
+                    median += Math.max(0, expected.duration().medianMillis() - elapsed);
+                    p90 += Math.max(0, expected.duration().p90Millis() - elapsed);
+                } else if (Status.NOT_EXECUTED.name().equals(status)) {
+                    median += expected.duration().medianMillis();
+                    p90 += expected.duration().p90Millis();
+                }
+            }
+            return Optional.of(new Remaining(median, p90));
+        }
+        if (total != null) {
+            long elapsed = nowMillis - run.startTimeMillis();
+            return Optional.of(new Remaining(Math.max(0, total.medianMillis() - elapsed), Math.max(0, total.p90Millis() - elapsed)));
+        }
+        return Optional.empty();
+    }
+}
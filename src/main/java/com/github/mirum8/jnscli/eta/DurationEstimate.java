@@ -0,0 +1,59 @@
+package com.github.mirum8.jnscli.eta;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Expected duration of a build or stage: median and 90th percentile of the most recent durations.
+ * <p>
+ * Durations far off the median, like a stage that hung until a timeout or was skipped, are dropped first. A duration is
+ * an outlier when it is more than {@link #OUTLIER_THRESHOLD} median absolute deviations away from the median, but never
+ * when it is within 10% of the median, otherwise identical durations would turn any other one into an outlier.
+ *
+ * @param samples number of durations the estimate is based on, without the outliers
+ */
+public record DurationEstimate(long medianMillis, long p90Millis, int samples) {
+    static final int MAX_SAMPLES = 30;
+    private static final double OUTLIER_THRESHOLD = 3.5;
+    // makes the median absolute deviation comparable to a standard deviation
+    private static final double MAD_SCALE = 1.4826;
+    private static final double MIN_SPREAD = 0.1;
+
+    /**
+     * @param durationsMillis durations newest first, only the latest {@link #MAX_SAMPLES} are used
+     * @return the estimate, or empty without durations
+     */
+    public static Optional<DurationEstimate> of(List<Long> durationsMillis) {
+        long[] recent = durationsMillis.stream()
+            .limit(MAX_SAMPLES)
+            .mapToLong(Long::longValue)
+            .sorted()
+            .toArray();
+        if (recent.length == 0) {
+            return Optional.empty();
+        }
+        double median = median(recent);
+        long[] deviations = Arrays.stream(recent)
+            .map(duration -> Math.round(Math.abs(duration - median)))
+            .sorted()
+            .toArray();
+        double spread = Math.max(OUTLIER_THRESHOLD * MAD_SCALE * median(deviations), MIN_SPREAD * median);
+        long[] kept = Arrays.stream(recent)
+            .filter(duration -> Math.abs(duration - median) <= spread)
+            .toArray();
+        return Optional.of(new DurationEstimate(Math.round(median(kept)), percentile(kept, 0.9), kept.length));
+    }
+
+    private static double median(long[] sorted) {
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+
+    /**
+     * Nearest-rank percentile.
+     */
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.mirum8.jnscli.eta;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Finished builds of a job, oldest first.
+ *
+ * @param syncedUpTo the next sync asks Jenkins for the builds after this one
+ */
+public record DurationHistory(int syncedUpTo, List<BuildDurations> builds) {
+    public static final DurationHistory EMPTY = new DurationHistory(0, List.of());
+
+    /**
+     * Adds newly finished builds, a build already in the history is replaced. Only the latest {@code maxBuilds} are kept.
+     */
+    DurationHistory merge(List<BuildDurations> finished, int syncedUpTo, int maxBuilds) {
+        Map<Integer, BuildDurations> byNumber = new TreeMap<>();
+        builds.forEach(build -> byNumber.put(build.number(), build));
+        finished.forEach(build -> byNumber.put(build.number(), build));
+        List<BuildDurations> merged = new ArrayList<>(byNumber.values());
+        return new DurationHistory(syncedUpTo, List.copyOf(merged.subList(Math.max(0, merged.size() - maxBuilds), merged.size())));
+    }
+
+    /**
+     * Builds started before the given one, newest first.
+     */
+    List<BuildDurations> newestFirstBefore(int buildNumber) {
+        return builds.stream()
+            .filter(build -> build.number() < buildNumber)
+            .sorted(Comparator.comparingInt(BuildDurations::number).reversed())
+            .toList();
+    }
+}
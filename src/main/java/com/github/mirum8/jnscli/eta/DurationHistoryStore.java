@@ -0,0 +1,156 @@
+package com.github.mirum8.jnscli.eta;
+
+import com.github.mirum8.jnscli.jenkins.Status;
+import com.github.mirum8.jnscli.settings.SettingsProperties;
+import com.github.mirum8.jnscli.util.FileUtil;
+import com.github.mirum8.jnscli.util.StatusCodes;
+import com.github.mirum8.jnscli.util.VarInts;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Build and stage durations of pipeline jobs, one binary file per job under {@code <config dir>/durations}.
+ * <p>
+ * Stage names are written once per file and referenced by index. Build numbers and start times are stored as deltas
+ * to the previous build and all numbers as variable-length integers, so a build with five stages takes about 35 bytes
+ * and the latest {@link #MAX_BUILDS} builds of a job stay below 200 KB. A file of another format version
+ * is treated as empty and rewritten on the next sync.
+ */
+@Component
+public class DurationHistoryStore {
+    public static final String HISTORY_DIRECTORY = "durations";
+    static final int MAX_BUILDS = 5000;
+    private static final String FILE_EXTENSION = ".bin";
+    private static final int MAGIC = 0x4A4E5344;
+    private static final int VERSION = 1;
+
+    private final Path directory;
+
+    @Autowired
+    public DurationHistoryStore(SettingsProperties settingsProperties) {
+        this(Path.of(FileUtil.resolveHomeDir(settingsProperties.directory()), HISTORY_DIRECTORY));
+    }
+
+    DurationHistoryStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public synchronized DurationHistory load(String jobUrl) {
+        Path path = file(jobUrl);
+        if (!Files.exists(path)) {
+            return DurationHistory.EMPTY;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (input.readInt() != MAGIC || input.readUnsignedByte() != VERSION) {
+                return DurationHistory.EMPTY;
+            }
+            return read(input);
+        } catch (EOFException e) {
+            return DurationHistory.EMPTY;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading build durations of " + jobUrl, e);
+        }
+    }
+
+    public synchronized void save(String jobUrl, DurationHistory history) {
+        Path path = file(jobUrl);
+        try {
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                output.writeInt(MAGIC);
+                output.writeByte(VERSION);
+                write(output, history);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing build durations of " + jobUrl, e);
+        }
+    }
+
+    private static void write(DataOutput output, DurationHistory history) throws IOException {
+        Map<String, Integer> names = new LinkedHashMap<>();
+        history.builds().forEach(build -> build.stages().forEach(stage -> names.putIfAbsent(stage.name(), names.size())));
+        VarInts.write(output, history.syncedUpTo());
+        VarInts.write(output, names.size());
+        for (String name : names.keySet()) {
+            output.writeUTF(name);
+        }
+        VarInts.write(output, history.builds().size());
+        int previousNumber = 0;
+        long previousStart = 0;
+        for (BuildDurations build : history.builds()) {
+            VarInts.write(output, build.number() - previousNumber);
+            output.writeByte(StatusCodes.code(build.status()));
+            VarInts.writeSigned(output, build.startTimeMillis() - previousStart);
+            VarInts.write(output, Math.max(0, build.durationMillis()));
+            VarInts.write(output, build.stages().size());
+            for (BuildDurations.Stage stage : build.stages()) {
+                VarInts.write(output, names.get(stage.name()));
+                output.writeByte(StatusCodes.code(stage.status()));
+                VarInts.write(output, Math.max(0, stage.durationMillis()));
+            }
+            previousNumber = build.number();
+            previousStart = build.startTimeMillis();
+        }
+    }
+
+    private static DurationHistory read(DataInput input) throws IOException {
+        int syncedUpTo = (int) VarInts.read(input);
+        String[] names = new String[(int) VarInts.read(input)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = input.readUTF();
+        }
+        int count = (int) VarInts.read(input);
+        List<BuildDurations> builds = new ArrayList<>(count);
+        int number = 0;
+        long start = 0;
+        for (int i = 0; i < count; i++) {
+            number += (int) VarInts.read(input);
+            Status status = StatusCodes.status(input.readUnsignedByte());
+            start += VarInts.readSigned(input);
+            long duration = VarInts.read(input);
+            int stageCount = (int) VarInts.read(input);
+            List<BuildDurations.Stage> stages = new ArrayList<>(stageCount);
+            for (int j = 0; j < stageCount; j++) {
+                String name = names[(int) VarInts.read(input)];
+                stages.add(new BuildDurations.Stage(name, StatusCodes.status(input.readUnsignedByte()), VarInts.read(input)));
+            }
+            builds.add(new BuildDurations(number, status, start, duration, List.copyOf(stages)));
+        }
+        return new DurationHistory(syncedUpTo, List.copyOf(builds));
+    }
+
+    private Path file(String jobUrl) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jobUrl.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest, 0, 8) + FILE_EXTENSION);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.mirum8.jnscli.eta;
+
+import com.github.mirum8.jnscli.common.JobIdValueProvider;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.OptionValues;
+import org.springframework.stereotype.Component;
+
+@Component
+@Command(group = "ETA Commands", description = "ETA Commands", command = "eta")
+public class EtaCommand {
+    private final EtaService etaService;
+
+    public EtaCommand(EtaService etaService) {
+        this.etaService = etaService;
+    }
+
+    @Command(description = "Show the expected stage durations of a pipeline job and the time left of its running builds")
+    public void eta(@OptionValues(provider = JobIdValueProvider.NAME) String jobId) {
+        etaService.eta(jobId);
+    }
+}
@@ -0,0 +1,165 @@
+package com.github.mirum8.jnscli.eta;
+
+import com.github.mirum8.jnscli.common.JobDescriptorProvider;
+import com.github.mirum8.jnscli.context.JobType;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPIException;
+import com.github.mirum8.jnscli.jenkins.PipelineAPI;
+import com.github.mirum8.jnscli.jenkins.Run;
+import com.github.mirum8.jnscli.jenkins.WorkflowRun;
+import com.github.mirum8.jnscli.model.JobDescriptor;
+import com.github.mirum8.jnscli.shell.ShellPrinter;
+import com.github.mirum8.jnscli.shell.TextColor;
+import com.github.mirum8.jnscli.util.Durations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.github.mirum8.jnscli.shell.TextFormatter.colored;
+
+/**
+ * Keeps the {@link DurationHistoryStore} of pipeline jobs up to date and estimates build durations from it.
+ */
+@Service
+public class EtaService {
+    private static final Logger log = Logger.getLogger(EtaService.class.getName());
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final String ROW_FORMAT = "  %-30s %9s %9s %7s";
+
+    private final PipelineAPI pipelineAPI;
+    private final DurationHistoryStore store;
+    private final JobDescriptorProvider jobDescriptorProvider;
+    private final ShellPrinter shellPrinter;
+    private final Clock clock;
+
+    @Autowired
+    EtaService(PipelineAPI pipelineAPI, DurationHistoryStore store, JobDescriptorProvider jobDescriptorProvider, ShellPrinter shellPrinter) {
+        this(pipelineAPI, store, jobDescriptorProvider, shellPrinter, Clock.systemDefaultZone());
+    }
+
+    EtaService(PipelineAPI pipelineAPI, DurationHistoryStore store, JobDescriptorProvider jobDescriptorProvider, ShellPrinter shellPrinter, Clock clock) {
+        this.pipelineAPI = pipelineAPI;
+        this.store = store;
+        this.jobDescriptorProvider = jobDescriptorProvider;
+        this.shellPrinter = shellPrinter;
+        this.clock = clock;
+    }
+
+    /**
+     * Result of a sync.
+     *
+     * @param running runs that have not finished yet, newest first
+     */
+    record Synced(DurationHistory history, List<Run> running) {
+    }
+
+    /**
+     * Adds the builds finished since the last sync to the history, with a single {@code wfapi/runs} request.
+     * <p>
+     * The next sync starts before the oldest build that is still running, so it is added once it finished.
+     * <p>
+     * Jenkins returns only the latest 10 runs and {@code wfapi/runs} cannot be paged, so when more builds finished
+     * since the last sync, the older ones are never added. The estimate only needs recent builds, it is not worth a
+     * {@code wfapi/describe} request for each of them.
+     */
+    Synced sync(String jobUrl) {
+        DurationHistory history = store.load(jobUrl);
+        List<Run> runs = pipelineAPI.getJobRunsSince(jobUrl, history.syncedUpTo());
+        List<BuildDurations> finished = runs.stream()
+            .filter(run -> run.id() != null && run.status() != null && run.status().isFinal())
+            .map(BuildDurations::of)
+            .toList();
+        List<Run> running = runs.stream()
+            .filter(run -> run.id() != null && (run.status() == null || !run.status().isFinal()))
+            .toList();
+        int syncedUpTo = running.stream()
+            .mapToInt(run -> run.id() - 1)
+            .min()
+            .orElse(Math.max(history.syncedUpTo(), finished.stream().mapToInt(BuildDurations::number).max().orElse(0)));
+        if (finished.isEmpty() && syncedUpTo == history.syncedUpTo()) {
+            return new Synced(history, running);
+        }
+        DurationHistory updated = history.merge(finished, syncedUpTo, DurationHistoryStore.MAX_BUILDS);
+        store.save(jobUrl, updated);
+        return new Synced(updated, running);
+    }
+
+    /**
+     * Estimate for a build from the builds before it. Falls back to the stored history when Jenkins cannot be asked
+     * for the latest builds, and to no history when the stored one cannot be read or written.
+     */
+    public BuildEstimate estimate(String jobUrl, int buildNumber) {
+        DurationHistory history;
+        try {
+            history = sync(jobUrl).history();
+        } catch (JenkinsAPIException e) {
+            log.log(Level.FINE, "Could not sync build durations of " + jobUrl, e);
+            history = loadOrEmpty(jobUrl);
+        } catch (UncheckedIOException e) {
+            log.log(Level.FINE, "Could not read or write build durations of " + jobUrl, e);
+            history = DurationHistory.EMPTY;
+        }
+        return BuildEstimate.of(history.newestFirstBefore(buildNumber));
+    }
+
+    private DurationHistory loadOrEmpty(String jobUrl) {
+        try {
+            return store.load(jobUrl);
+        } catch (UncheckedIOException e) {
+            log.log(Level.FINE, "Could not read build durations of " + jobUrl, e);
+            return DurationHistory.EMPTY;
+        }
+    }
+
+    public void eta(String jobId) {
+        JobDescriptor job = jobDescriptorProvider.get(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Job " + jobId + " not found"));
+        if (job.type() != JobType.WORKFLOW && job.type() != JobType.UNKNOWN) {
+            throw new IllegalArgumentException("Stage durations are only available for pipeline jobs");
+        }
+        Synced synced = sync(job.url());
+        List<BuildDurations> builds = synced.history().newestFirstBefore(Integer.MAX_VALUE);
+        if (builds.isEmpty()) {
+            shellPrinter.println("No finished builds of " + job.name() + " yet");
+            return;
+        }
+        BuildEstimate estimate = BuildEstimate.of(builds);
+        shellPrinter.println(colored("Job " + job.name(), TextColor.CYAN) + ", " + builds.size() + " builds in history");
+        shellPrinter.println(String.format(ROW_FORMAT, "Stage", "Median", "p90", "Builds"));
+        estimate.stages().forEach(stage -> shellPrinter.println(row(stage.name(), stage.duration())));
+        shellPrinter.println(row("Total", estimate.total()));
+
+        synced.running().stream()
+            .sorted(Comparator.comparingInt(Run::id))
+            .forEach(run -> printRemaining(job, run.id(), BuildEstimate.of(synced.history().newestFirstBefore(run.id()))));
+    }
+
+    private void printRemaining(JobDescriptor job, int buildNumber, BuildEstimate estimate) {
+        WorkflowRun run = pipelineAPI.getJobBuildDescription(job.url(), buildNumber);
+        long now = clock.millis();
+        Optional<BuildEstimate.Remaining> remaining = estimate.remaining(run, now);
+        String prefix = colored("#" + buildNumber, TextColor.YELLOW) + " is running for " + Durations.format(now - run.startTimeMillis());
+        if (remaining.isEmpty()) {
+            shellPrinter.println(prefix);
+            return;
+        }
+        String finishesAt = TIME_FORMATTER.format(Instant.ofEpochMilli(now + remaining.get().medianMillis()).atZone(ZoneId.systemDefault()));
+        shellPrinter.println(prefix + ", about " + Durations.format(remaining.get().medianMillis()) + " left"
+            + " (p90 " + Durations.format(remaining.get().p90Millis()) + "), done around " + finishesAt);
+    }
+
+    private static String row(String name, DurationEstimate estimate) {
+        return estimate == null
+            ? String.format(ROW_FORMAT, name, "-", "-", 0)
+            : String.format(ROW_FORMAT, name, Durations.format(estimate.medianMillis()), Durations.format(estimate.p90Millis()), estimate.samples());
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.mirum8.jnscli.find;
+
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+import org.springframework.stereotype.Component;
+
+@Component
+@Command(group = "Find Commands", description = "Find Commands", command = "find")
+public class FindCommand {
+    private final FindService findService;
+
+    public FindCommand(FindService findService) {
+        this.findService = findService;
+    }
+
+    @Command(description = "Find known jobs by a part of their name or folder path, recently used jobs first")
+    public void find(String fragment,
+                     @Option(longNames = "limit", shortNames = 'l', description = "Maximum number of jobs to show", defaultValue = "20") Integer limit) {
+        findService.find(fragment, limit);
+    }
+}
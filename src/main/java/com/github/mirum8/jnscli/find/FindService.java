@@ -0,0 +1,47 @@
+package com.github.mirum8.jnscli.find;
+
+import com.github.mirum8.jnscli.context.JobSearchIndex;
+import com.github.mirum8.jnscli.shell.ShellPrinter;
+import com.github.mirum8.jnscli.shell.TextColor;
+import com.github.mirum8.jnscli.util.Durations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.List;
+
+import static com.github.mirum8.jnscli.shell.TextFormatter.colored;
+
+@Service
+class FindService {
+    private static final String ROW_FORMAT = "  %-7s %s";
+
+    private final JobSearchIndex jobSearchIndex;
+    private final ShellPrinter shellPrinter;
+    private final Clock clock;
+
+    @Autowired
+    FindService(JobSearchIndex jobSearchIndex, ShellPrinter shellPrinter) {
+        this(jobSearchIndex, shellPrinter, Clock.systemDefaultZone());
+    }
+
+    FindService(JobSearchIndex jobSearchIndex, ShellPrinter shellPrinter, Clock clock) {
+        this.jobSearchIndex = jobSearchIndex;
+        this.shellPrinter = shellPrinter;
+        this.clock = clock;
+    }
+
+    void find(String fragment, int limit) {
+        List<JobSearchIndex.Match> matches = jobSearchIndex.search(fragment, limit);
+        if (matches.isEmpty()) {
+            shellPrinter.println("No jobs match " + fragment + ", run 'list' to update the known jobs");
+            return;
+        }
+        if (matches.getFirst().kind() == JobSearchIndex.Kind.FUZZY) {
+            shellPrinter.println(colored("No job name contains " + fragment + ", similar names:", TextColor.YELLOW));
+        }
+        long now = clock.millis();
+        matches.forEach(match -> shellPrinter.println(String.format(ROW_FORMAT, "%" + match.job().id(), match.job().name())
+            + (match.lastUsedMillis() > 0 ? colored("  used " + Durations.format(now - match.lastUsedMillis()) + " ago", TextColor.CYAN) : "")));
+    }
+}
@@ -0,0 +1,259 @@
+package com.github.mirum8.jnscli.history;
+
+import com.github.mirum8.jnscli.common.JobDescriptorProvider;
+import com.github.mirum8.jnscli.context.JobType;
+import com.github.mirum8.jnscli.jenkins.BuildInfo;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPIException;
+import com.github.mirum8.jnscli.jenkins.PipelineAPI;
+import com.github.mirum8.jnscli.jenkins.Status;
+import com.github.mirum8.jnscli.jenkins.WorkflowRun;
+import com.github.mirum8.jnscli.model.JobDescriptor;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import com.github.mirum8.jnscli.shell.ShellPrinter;
+import com.github.mirum8.jnscli.shell.TextColor;
+import com.github.mirum8.jnscli.util.Durations;
+import com.github.mirum8.jnscli.util.ParallelFetcher;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.github.mirum8.jnscli.shell.TextFormatter.colored;
+import static com.github.mirum8.jnscli.util.Statuses.getColored;
+
+/**
+ * Keeps the {@link BuildHistoryStore} up to date and answers queries over the synced builds without asking Jenkins.
+ */
+@Service
+public class BuildHistoryService {
+    private static final Logger log = Logger.getLogger(BuildHistoryService.class.getName());
+    public static final int DEFAULT_DEPTH = 500;
+    // stage durations cost a request per build, older builds of a first sync are kept without them
+    static final int MAX_STAGE_FETCHES = 100;
+    // builds since the last sync looked at by findLatest
+    static final int RECENT_BUILDS = 20;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+    private static final String ROW_FORMAT = "  %-8s %-10s %-16s %9s  %s";
+
+    private final JenkinsAPI jenkinsAPI;
+    private final PipelineAPI pipelineAPI;
+    private final BuildHistoryStore store;
+    private final JobDescriptorProvider jobDescriptorProvider;
+    private final SettingsService settingsService;
+    private final ShellPrinter shellPrinter;
+
+    BuildHistoryService(JenkinsAPI jenkinsAPI,
+                        PipelineAPI pipelineAPI,
+                        BuildHistoryStore store,
+                        JobDescriptorProvider jobDescriptorProvider,
+                        SettingsService settingsService,
+                        ShellPrinter shellPrinter) {
+        this.jenkinsAPI = jenkinsAPI;
+        this.pipelineAPI = pipelineAPI;
+        this.store = store;
+        this.jobDescriptorProvider = jobDescriptorProvider;
+        this.settingsService = settingsService;
+        this.shellPrinter = shellPrinter;
+    }
+
+    /**
+     * Result of a sync.
+     *
+     * @param added number of builds added to the history
+     */
+    record Synced(BuildTable table, int added) {
+    }
+
+    /**
+     * Syncs a job, or every job of a folder.
+     */
+    void sync(String jobId, int depth) {
+        JobDescriptor job = jobDescriptorProvider.get(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Job " + jobId + " not found"));
+        List<JobDescriptor> jobs = job.type() == JobType.FOLDER
+            ? jenkinsAPI.getFolderJobs(job.url()).jobs().stream()
+            .filter(folderJob -> JobType.fromName(folderJob.aClass()) != JobType.FOLDER)
+            .map(folderJob -> JobDescriptor.builder().name(folderJob.name()).url(folderJob.url()).type(JobType.fromName(folderJob.aClass())).build())
+            .toList()
+            : List.of(job);
+        for (JobDescriptor syncedJob : jobs) {
+            Synced synced = sync(syncedJob.url(), syncedJob.type(), depth);
+            shellPrinter.println(colored(syncedJob.name(), TextColor.CYAN) + ": " + synced.added() + " new builds, "
+                + synced.table().size() + " in history");
+        }
+    }
+
+    /**
+     * Adds the builds finished since the last sync to the history. Only builds newer than the last synced one are
+     * downloaded, at most {@code depth} of them.
+     * <p>
+     * The next sync starts before the oldest build that is still running, so it is added once it finished.
+     */
+    Synced sync(String jobUrl, JobType type, int depth) {
+        BuildTable table = store.load(jobUrl);
+        List<BuildInfo> builds = jenkinsAPI.getJobBuildsNewerThan(jobUrl, table.syncedUpTo(), depth);
+        List<BuildInfo> finished = builds.stream()
+            .filter(build -> build.result() != null)
+            .toList();
+        int syncedUpTo = builds.stream()
+            .filter(build -> build.result() == null)
+            .mapToInt(build -> build.number() - 1)
+            .min()
+            .orElse(Math.max(table.syncedUpTo(), finished.stream().mapToInt(BuildInfo::number).max().orElse(0)));
+        if (finished.isEmpty() && syncedUpTo == table.syncedUpTo() && store.exists(jobUrl)) {
+            return new Synced(table, 0);
+        }
+        List<BuildRecord> records = type == JobType.WORKFLOW
+            ? withStages(jobUrl, finished)
+            : finished.stream().map(build -> BuildRecord.of(build, List.of())).toList();
+        BuildTable updated = table.merge(records, syncedUpTo, BuildHistoryStore.MAX_BUILDS);
+        store.save(jobUrl, updated);
+        return new Synced(updated, records.size());
+    }
+
+    private List<BuildRecord> withStages(String jobUrl, List<BuildInfo> newestFirst) {
+        List<BuildInfo> described = newestFirst.subList(0, Math.min(MAX_STAGE_FETCHES, newestFirst.size()));
+        List<List<BuildRecord.StageDuration>> stages = ParallelFetcher.fetchAll(described, build -> stages(jobUrl, build.number()));
+        return Stream.concat(
+                IntStream.range(0, described.size()).mapToObj(i -> BuildRecord.of(described.get(i), stages.get(i))),
+                newestFirst.stream().skip(described.size()).map(build -> BuildRecord.of(build, List.of())))
+            .toList();
+    }
+
+    private List<BuildRecord.StageDuration> stages(String jobUrl, int buildNumber) {
+        try {
+            WorkflowRun run = pipelineAPI.getJobBuildDescription(jobUrl, buildNumber);
+            return run.stages() == null
+                ? List.of()
+                : run.stages().stream()
+                .map(stage -> new BuildRecord.StageDuration(stage.name(), status(stage.status()), stage.durationMillis()))
+                .toList();
+        } catch (JenkinsAPIException e) {
+            log.log(Level.FINE, "Could not get the stages of build " + buildNumber + " of " + jobUrl, e);
+            return List.of();
+        }
+    }
+
+    private static Status status(String name) {
+        return Arrays.stream(Status.values())
+            .filter(status -> status.name().equals(name))
+            .findFirst()
+            .orElse(null);
+    }
+
+    /**
+     * @return whether the job was synced before, so that {@link #findLatest} only needs to ask for the newest builds
+     */
+    public boolean isSynced(String jobUrl) {
+        return store.exists(jobUrl);
+    }
+
+    /**
+     * Returns the newest build matching the filter, looking at the builds since the last sync first and then at the
+     * synced history. Builds since the last sync are asked for in one request without their stages, at most
+     * {@link #RECENT_BUILDS}, and running builds are among them with no result. The history is not written, builds
+     * beyond that limit are only seen after the next {@code sync}.
+     */
+    public Optional<BuildRecord> findLatest(JobDescriptor job, Predicate<BuildRecord> filter) {
+        BuildTable table = store.load(job.url());
+        Optional<BuildRecord> recent = jenkinsAPI.getJobBuildsNewerThan(job.url(), table.syncedUpTo(), RECENT_BUILDS).stream()
+            .map(build -> BuildRecord.of(build, List.of()))
+            .filter(filter)
+            .findFirst();
+        if (recent.isPresent()) {
+            return recent;
+        }
+        for (int row = table.size() - 1; row >= 0; row--) {
+            BuildRecord record = table.record(row);
+            if (filter.test(record)) {
+                return Optional.of(record);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Prints the newest builds matching the filters and a summary over all matching builds, from the synced history
+     * only.
+     *
+     * @param parameters {@code NAME=VALUE} pairs a build must have been started with
+     */
+    void history(String jobId, boolean mine, boolean failed, List<String> parameters, int limit) {
+        JobDescriptor job = jobDescriptorProvider.get(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Job " + jobId + " not found"));
+        if (!store.exists(job.url())) {
+            throw new IllegalStateException("No build history of " + job.name() + ", run 'sync " + jobId + "' first");
+        }
+        Map<String, String> expectedParameters = parseParameters(parameters);
+        String user = mine ? settingsService.readSettings().username() : null;
+        BuildTable table = store.load(job.url());
+
+        int matched = 0;
+        int failures = 0;
+        List<Long> successfulDurations = new ArrayList<>();
+        List<String> rows = new ArrayList<>();
+        for (int row = table.size() - 1; row >= 0; row--) {
+            if (failed && !BuildRecord.isFailure(table.result(row))
+                || user != null && !user.equals(table.startedBy(row))
+                || !expectedParameters.isEmpty() && !table.parameters(row).entrySet().containsAll(expectedParameters.entrySet())) {
+                continue;
+            }
+            matched++;
+            if (BuildRecord.isFailure(table.result(row))) {
+                failures++;
+            } else if (table.result(row) == Status.SUCCESS) {
+                successfulDurations.add(table.duration(row));
+            }
+            if (rows.size() < limit) {
+                rows.add(String.format(ROW_FORMAT, "#" + table.number(row), getColored(table.result(row)),
+                    TIME_FORMATTER.format(Instant.ofEpochMilli(table.timestamp(row))),
+                    Durations.format(table.duration(row)), table.startedBy(row) == null ? "-" : table.startedBy(row)));
+            }
+        }
+        if (matched == 0) {
+            shellPrinter.println("No builds of " + job.name() + " match, " + table.size() + " builds in history");
+            return;
+        }
+        shellPrinter.println(colored("Job " + job.name(), TextColor.CYAN) + ", " + matched + " of " + table.size() + " builds in history match");
+        shellPrinter.println(String.format(ROW_FORMAT, "Build", "Result", "Started", "Duration", "Started by"));
+        rows.forEach(shellPrinter::println);
+        shellPrinter.println(String.format("Failure rate: %.1f%% (%d of %d)", 100.0 * failures / matched, failures, matched));
+        if (!successfulDurations.isEmpty()) {
+            shellPrinter.println("Median duration of successful builds: " + Durations.format(median(successfulDurations)));
+        }
+    }
+
+    private static long median(List<Long> values) {
+        long[] sorted = values.stream().mapToLong(Long::longValue).sorted().toArray();
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private static Map<String, String> parseParameters(List<String> parameters) {
+        Map<String, String> parsed = new LinkedHashMap<>();
+        if (parameters == null) {
+            return parsed;
+        }
+        for (String parameter : parameters) {
+            int separator = parameter.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected a parameter as NAME=VALUE, got " + parameter);
+            }
+            parsed.put(parameter.substring(0, separator), parameter.substring(separator + 1));
+        }
+        return parsed;
+    }
+}
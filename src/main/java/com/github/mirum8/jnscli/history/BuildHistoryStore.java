@@ -0,0 +1,113 @@
+package com.github.mirum8.jnscli.history;
+
+import com.github.mirum8.jnscli.settings.SettingsProperties;
+import com.github.mirum8.jnscli.util.FileUtil;
+import com.github.mirum8.jnscli.util.VarInts;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Synced build history of jobs, one {@link BuildTable} per job under {@code <config dir>/history}.
+ * <p>
+ * A file holds the number of the last synced build, the number of builds and the encoded columns one after another,
+ * each prefixed with its length. A file of another format version is treated as empty and rewritten on the next sync.
+ */
+@Component
+public class BuildHistoryStore {
+    public static final String HISTORY_DIRECTORY = "history";
+    static final int MAX_BUILDS = 10_000;
+    private static final String FILE_EXTENSION = ".cols";
+    private static final int MAGIC = 0x4A4E5348;
+    private static final int VERSION = 1;
+
+    private final Path directory;
+
+    @Autowired
+    public BuildHistoryStore(SettingsProperties settingsProperties) {
+        this(Path.of(FileUtil.resolveHomeDir(settingsProperties.directory()), HISTORY_DIRECTORY));
+    }
+
+    BuildHistoryStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return whether the job was synced at least once
+     */
+    public boolean exists(String jobUrl) {
+        return Files.exists(file(jobUrl));
+    }
+
+    public synchronized BuildTable load(String jobUrl) {
+        Path path = file(jobUrl);
+        if (!Files.exists(path)) {
+            return BuildTable.EMPTY;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (input.readInt() != MAGIC || input.readUnsignedByte() != VERSION) {
+                return BuildTable.EMPTY;
+            }
+            int syncedUpTo = (int) VarInts.read(input);
+            int size = (int) VarInts.read(input);
+            byte[][] columns = new byte[BuildTable.Column.values().length][];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = new byte[(int) VarInts.read(input)];
+                input.readFully(columns[i]);
+            }
+            return new BuildTable(syncedUpTo, size, columns);
+        } catch (EOFException e) {
+            return BuildTable.EMPTY;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading build history of " + jobUrl, e);
+        }
+    }
+
+    public synchronized void save(String jobUrl, BuildTable table) {
+        Path path = file(jobUrl);
+        try {
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                output.writeInt(MAGIC);
+                output.writeByte(VERSION);
+                VarInts.write(output, table.syncedUpTo());
+                VarInts.write(output, table.size());
+                for (BuildTable.Column column : BuildTable.Column.values()) {
+                    byte[] bytes = table.column(column);
+                    VarInts.write(output, bytes.length);
+                    output.write(bytes);
+                }
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing build history of " + jobUrl, e);
+        }
+    }
+
+    private Path file(String jobUrl) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jobUrl.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest, 0, 8) + FILE_EXTENSION);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.mirum8.jnscli.history;
+
+import com.github.mirum8.jnscli.jenkins.BuildInfo;
+import com.github.mirum8.jnscli.jenkins.Status;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A finished build as kept in the local build history.
+ *
+ * @param startedBy user id of the user who started the build, null when it was started otherwise
+ * @param stages    stage durations, empty for jobs that are not pipelines
+ */
+public record BuildRecord(int number, Status result, long timestamp, long duration, String startedBy,
+                          Map<String, String> parameters, List<StageDuration> stages) {
+
+    public record StageDuration(String name, Status status, long durationMillis) {
+    }
+
+    static BuildRecord of(BuildInfo build, List<StageDuration> stages) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        build.parameters().forEach(parameter -> parameters.put(parameter.name(), Objects.requireNonNullElse(parameter.value(), "")));
+        return new BuildRecord(build.number(), build.result(),
+            Objects.requireNonNullElse(build.timestamp(), 0L), Objects.requireNonNullElse(build.duration(), 0L),
+            build.startedBy().orElse(null), Collections.unmodifiableMap(parameters), stages);
+    }
+
+    public boolean failed() {
+        return isFailure(result);
+    }
+
+    static boolean isFailure(Status result) {
+        return result == Status.FAILURE || result == Status.FAILED;
+    }
+}
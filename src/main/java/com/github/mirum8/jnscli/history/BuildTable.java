@@ -0,0 +1,326 @@
+package com.github.mirum8.jnscli.history;
+
+import com.github.mirum8.jnscli.jenkins.Status;
+import com.github.mirum8.jnscli.util.StatusCodes;
+import com.github.mirum8.jnscli.util.VarInts;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Build history of a job in columnar form, ordered by build number: every field is encoded into a block of its own
+ * and a block is only decoded when a query reads the field. The failure rate needs the results only, the last failed
+ * build of a user the results and users, the parameters and stages are decoded only when asked for.
+ * <p>
+ * Numbers are stored as deltas to the previous build, timestamps as zig-zag deltas and all numbers as variable-length
+ * integers. Results and stage statuses take a byte. Users, parameters and stage names refer by index to a dictionary
+ * of strings at the start of their block, so a parameter value repeated in every build is stored once.
+ * <p>
+ * Not thread-safe, a table belongs to one query.
+ */
+public final class BuildTable {
+    enum Column {NUMBER, RESULT, TIMESTAMP, DURATION, STARTED_BY, PARAMETERS, STAGES}
+
+    static final BuildTable EMPTY = of(0, List.of());
+
+    private final int syncedUpTo;
+    private final int size;
+    private final byte[][] columns;
+
+    private int[] numbers;
+    private Status[] results;
+    private long[] timestamps;
+    private long[] durations;
+    private String[] startedBy;
+    private List<Map<String, String>> parameters;
+    private List<List<BuildRecord.StageDuration>> stages;
+
+    BuildTable(int syncedUpTo, int size, byte[][] columns) {
+        if (columns.length != Column.values().length) {
+            throw new IllegalArgumentException("Expected " + Column.values().length + " columns, got " + columns.length);
+        }
+        this.syncedUpTo = syncedUpTo;
+        this.size = size;
+        this.columns = columns;
+    }
+
+    /**
+     * @param syncedUpTo the next sync asks Jenkins for the builds after this one
+     */
+    static BuildTable of(int syncedUpTo, List<BuildRecord> records) {
+        List<BuildRecord> sorted = records.stream().sorted(Comparator.comparingInt(BuildRecord::number)).toList();
+        byte[][] columns = new byte[Column.values().length][];
+        columns[Column.NUMBER.ordinal()] = encode(output -> {
+            int previous = 0;
+            for (BuildRecord record : sorted) {
+                VarInts.write(output, record.number() - previous);
+                previous = record.number();
+            }
+        });
+        columns[Column.RESULT.ordinal()] = encode(output -> {
+            for (BuildRecord record : sorted) {
+                output.writeByte(StatusCodes.code(record.result()));
+            }
+        });
+        columns[Column.TIMESTAMP.ordinal()] = encode(output -> {
+            long previous = 0;
+            for (BuildRecord record : sorted) {
+                VarInts.writeSigned(output, record.timestamp() - previous);
+                previous = record.timestamp();
+            }
+        });
+        columns[Column.DURATION.ordinal()] = encode(output -> {
+            for (BuildRecord record : sorted) {
+                VarInts.write(output, Math.max(0, record.duration()));
+            }
+        });
+        columns[Column.STARTED_BY.ordinal()] = encode(output -> {
+            Map<String, Integer> dictionary = dictionary(sorted, record -> record.startedBy() == null ? List.of() : List.of(record.startedBy()));
+            writeDictionary(output, dictionary);
+            for (BuildRecord record : sorted) {
+                // 0 stands for a build not started by a user
+                VarInts.write(output, record.startedBy() == null ? 0 : dictionary.get(record.startedBy()) + 1);
+            }
+        });
+        columns[Column.PARAMETERS.ordinal()] = encode(output -> {
+            Map<String, Integer> dictionary = dictionary(sorted, record -> record.parameters().entrySet().stream()
+                .flatMap(parameter -> Stream.of(parameter.getKey(), parameter.getValue()))
+                .toList());
+            writeDictionary(output, dictionary);
+            for (BuildRecord record : sorted) {
+                VarInts.write(output, record.parameters().size());
+                for (Map.Entry<String, String> parameter : record.parameters().entrySet()) {
+                    VarInts.write(output, dictionary.get(parameter.getKey()));
+                    VarInts.write(output, dictionary.get(parameter.getValue()));
+                }
+            }
+        });
+        columns[Column.STAGES.ordinal()] = encode(output -> {
+            Map<String, Integer> dictionary = dictionary(sorted, record -> record.stages().stream().map(BuildRecord.StageDuration::name).toList());
+            writeDictionary(output, dictionary);
+            for (BuildRecord record : sorted) {
+                VarInts.write(output, record.stages().size());
+                for (BuildRecord.StageDuration stage : record.stages()) {
+                    VarInts.write(output, dictionary.get(stage.name()));
+                    output.writeByte(StatusCodes.code(stage.status()));
+                    VarInts.write(output, Math.max(0, stage.durationMillis()));
+                }
+            }
+        });
+        return new BuildTable(syncedUpTo, sorted.size(), columns);
+    }
+
+    /**
+     * Adds newly synced builds, a build already in the table is replaced. Only the latest {@code maxBuilds} are kept.
+     */
+    BuildTable merge(List<BuildRecord> newer, int syncedUpTo, int maxBuilds) {
+        Map<Integer, BuildRecord> byNumber = new TreeMap<>();
+        records().forEach(record -> byNumber.put(record.number(), record));
+        newer.forEach(record -> byNumber.put(record.number(), record));
+        List<BuildRecord> merged = new ArrayList<>(byNumber.values());
+        return of(syncedUpTo, merged.subList(Math.max(0, merged.size() - maxBuilds), merged.size()));
+    }
+
+    int syncedUpTo() {
+        return syncedUpTo;
+    }
+
+    byte[] column(Column column) {
+        return columns[column.ordinal()];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int number(int row) {
+        if (numbers == null) {
+            numbers = decode(Column.NUMBER, input -> {
+                int[] decoded = new int[size];
+                int previous = 0;
+                for (int i = 0; i < size; i++) {
+                    previous += (int) VarInts.read(input);
+                    decoded[i] = previous;
+                }
+                return decoded;
+            });
+        }
+        return numbers[row];
+    }
+
+    public Status result(int row) {
+        if (results == null) {
+            results = decode(Column.RESULT, input -> {
+                Status[] decoded = new Status[size];
+                for (int i = 0; i < size; i++) {
+                    decoded[i] = StatusCodes.status(input.readUnsignedByte());
+                }
+                return decoded;
+            });
+        }
+        return results[row];
+    }
+
+    public long timestamp(int row) {
+        if (timestamps == null) {
+            timestamps = decode(Column.TIMESTAMP, input -> {
+                long[] decoded = new long[size];
+                long previous = 0;
+                for (int i = 0; i < size; i++) {
+                    previous += VarInts.readSigned(input);
+                    decoded[i] = previous;
+                }
+                return decoded;
+            });
+        }
+        return timestamps[row];
+    }
+
+    public long duration(int row) {
+        if (durations == null) {
+            durations = decode(Column.DURATION, input -> {
+                long[] decoded = new long[size];
+                for (int i = 0; i < size; i++) {
+                    decoded[i] = VarInts.read(input);
+                }
+                return decoded;
+            });
+        }
+        return durations[row];
+    }
+
+    public String startedBy(int row) {
+        if (startedBy == null) {
+            startedBy = decode(Column.STARTED_BY, input -> {
+                String[] dictionary = readDictionary(input);
+                String[] decoded = new String[size];
+                for (int i = 0; i < size; i++) {
+                    int index = (int) VarInts.read(input);
+                    decoded[i] = index == 0 ? null : dictionary[index - 1];
+                }
+                return decoded;
+            });
+        }
+        return startedBy[row];
+    }
+
+    public Map<String, String> parameters(int row) {
+        if (parameters == null) {
+            parameters = decode(Column.PARAMETERS, input -> {
+                String[] dictionary = readDictionary(input);
+                List<Map<String, String>> decoded = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    int count = (int) VarInts.read(input);
+                    Map<String, String> values = new LinkedHashMap<>();
+                    for (int j = 0; j < count; j++) {
+                        values.put(dictionary[(int) VarInts.read(input)], dictionary[(int) VarInts.read(input)]);
+                    }
+                    decoded.add(Collections.unmodifiableMap(values));
+                }
+                return decoded;
+            });
+        }
+        return parameters.get(row);
+    }
+
+    public List<BuildRecord.StageDuration> stages(int row) {
+        if (stages == null) {
+            stages = decode(Column.STAGES, input -> {
+                String[] dictionary = readDictionary(input);
+                List<List<BuildRecord.StageDuration>> decoded = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    int count = (int) VarInts.read(input);
+                    List<BuildRecord.StageDuration> values = new ArrayList<>(count);
+                    for (int j = 0; j < count; j++) {
+                        values.add(new BuildRecord.StageDuration(dictionary[(int) VarInts.read(input)],
+                            StatusCodes.status(input.readUnsignedByte()), VarInts.read(input)));
+                    }
+                    decoded.add(List.copyOf(values));
+                }
+                return decoded;
+            });
+        }
+        return stages.get(row);
+    }
+
+    public BuildRecord record(int row) {
+        return new BuildRecord(number(row), result(row), timestamp(row), duration(row), startedBy(row), parameters(row), stages(row));
+    }
+
+    public List<BuildRecord> records() {
+        List<BuildRecord> records = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            records.add(record(row));
+        }
+        return records;
+    }
+
+    @FunctionalInterface
+    private interface ColumnWriter {
+        void write(DataOutput output) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader<T> {
+        T read(DataInput input) throws IOException;
+    }
+
+    private static byte[] encode(ColumnWriter writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            writer.write(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private <T> T decode(Column column, ColumnReader<T> reader) {
+        try {
+            return reader.read(new DataInputStream(new ByteArrayInputStream(columns[column.ordinal()])));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupted " + column.name().toLowerCase() + " column of the build history", e);
+        }
+    }
+
+    private static Map<String, Integer> dictionary(List<BuildRecord> records, Function<BuildRecord, List<String>> values) {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        records.forEach(record -> values.apply(record).forEach(value -> dictionary.putIfAbsent(value, dictionary.size())));
+        return dictionary;
+    }
+
+    private static void writeDictionary(DataOutput output, Map<String, Integer> dictionary) throws IOException {
+        VarInts.write(output, dictionary.size());
+        for (String value : dictionary.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            VarInts.write(output, bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    private static String[] readDictionary(DataInput input) throws IOException {
+        String[] dictionary = new String[(int) VarInts.read(input)];
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] bytes = new byte[(int) VarInts.read(input)];
+            input.readFully(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return dictionary;
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.mirum8.jnscli.history;
+
+import com.github.mirum8.jnscli.common.JobIdValueProvider;
+import org.springframework.shell.command.CommandRegistration;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+import org.springframework.shell.command.annotation.OptionValues;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Command(group = "History Commands", description = "History Commands")
+public class HistoryCommand {
+    private final BuildHistoryService buildHistoryService;
+
+    public HistoryCommand(BuildHistoryService buildHistoryService) {
+        this.buildHistoryService = buildHistoryService;
+    }
+
+    @Command(command = "sync", description = "Download the builds of a job, or of all jobs in a folder, since the last sync into the local history")
+    public void sync(@OptionValues(provider = JobIdValueProvider.NAME) String jobId,
+                     @Option(longNames = "depth", shortNames = 'd', description = "Maximum number of builds to download per job",
+                         defaultValue = "500") Integer depth) {
+        buildHistoryService.sync(jobId, depth);
+    }
+
+    @Command(command = "history", description = "Query the synced builds of a job")
+    public void history(@OptionValues(provider = JobIdValueProvider.NAME) String jobId,
+                        @Option(longNames = "mine", shortNames = 'm', description = "Only builds started by you") boolean mine,
+                        @Option(longNames = "failed", shortNames = 'f', description = "Only failed builds") boolean failed,
+                        @Option(longNames = "param", shortNames = 'p', description = "Only builds started with the parameter NAME=VALUE",
+                            arity = CommandRegistration.OptionArity.ZERO_OR_MORE) List<String> parameters,
+                        @Option(longNames = "limit", shortNames = 'l', description = "Number of builds to list", defaultValue = "10") Integer limit) {
+        buildHistoryService.history(jobId, mine, failed, parameters, limit);
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.mirum8.jnscli.http;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Stops sending requests to a host that is down, e.g. while Jenkins restarts, so that commands fail right away
+ * instead of waiting through timeouts and retries.
+ * <p>
+ * After {@code failureThreshold} consecutive failures (connection errors, timeouts, {@code 502}-{@code 504}) the breaker
+ * opens and requests fail without being sent. Once {@code openDuration} has passed, a single request is let through:
+ * the breaker closes when it succeeds and opens again when it fails.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * @param retryAt when the next request is let through, {@code null} unless the breaker is open
+     */
+    public record Snapshot(String host, State state, int consecutiveFailures, Instant retryAt) {
+    }
+
+    private final String host;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Consumer<Snapshot> onChange;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant retryAt;
+
+    public CircuitBreaker(String host, int failureThreshold, Duration openDuration) {
+        this(host, failureThreshold, openDuration, null, snapshot -> {
+        });
+    }
+
+    /**
+     * @param restored state left by an earlier process, {@code null} to start closed
+     * @param onChange receives the new state after every change
+     */
+    public CircuitBreaker(String host, int failureThreshold, Duration openDuration, Snapshot restored, Consumer<Snapshot> onChange) {
+        this.host = host;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.onChange = onChange;
+        if (restored != null && restored.consecutiveFailures() > 0) {
+            state = restored.state() == State.CLOSED || restored.retryAt() == null ? State.CLOSED : State.OPEN;
+            consecutiveFailures = restored.consecutiveFailures();
+            retryAt = state == State.OPEN ? restored.retryAt() : null;
+        }
+    }
+
+    /**
+     * Claims the permission to send a request.
+     *
+     * @throws CircuitOpenException when the host is considered down
+     */
+    public synchronized void acquirePermission() {
+        switch (state) {
+            case CLOSED -> {
+            }
+            case OPEN, HALF_OPEN -> {
+                Instant now = Instant.now();
+                if (now.isBefore(retryAt)) {
+                    throw new CircuitOpenException(snapshot());
+                }
+                // the probe request; if it never reports back, another one is let through after openDuration
+                state = State.HALF_OPEN;
+                retryAt = now.plus(openDuration);
+                onChange.accept(snapshot());
+            }
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (state == State.CLOSED && consecutiveFailures == 0) {
+            return;
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        retryAt = null;
+        onChange.accept(snapshot());
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            retryAt = Instant.now().plus(openDuration);
+        }
+        onChange.accept(snapshot());
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(host, state, consecutiveFailures, state == State.CLOSED ? null : retryAt);
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.mirum8.jnscli.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * State of the circuit breakers kept between processes, one file per host. A host that was found down by one command
+ * is not asked again by the next one until its breaker lets a request through.
+ * <p>
+ * Only breakers with failures have a file. Failures to read or write are never fatal: the breaker starts closed.
+ */
+public class CircuitBreakerStore {
+    private static final Logger log = Logger.getLogger(CircuitBreakerStore.class.getName());
+    private static final String EXTENSION = ".properties";
+
+    private final Path directory;
+
+    public CircuitBreakerStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public Optional<CircuitBreaker.Snapshot> read(String host) {
+        return read(path(host));
+    }
+
+    public void write(CircuitBreaker.Snapshot snapshot) {
+        Path path = path(snapshot.host());
+        try {
+            if (snapshot.consecutiveFailures() == 0) {
+                Files.deleteIfExists(path);
+                return;
+            }
+            Properties properties = new Properties();
+            properties.setProperty("host", snapshot.host());
+            properties.setProperty("state", snapshot.state().name());
+            properties.setProperty("consecutiveFailures", String.valueOf(snapshot.consecutiveFailures()));
+            if (snapshot.retryAt() != null) {
+                properties.setProperty("retryAt", String.valueOf(snapshot.retryAt().toEpochMilli()));
+            }
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(tmp)) {
+                properties.store(outputStream, null);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.log(Level.FINE, "Failed to write circuit breaker state " + path, e);
+        }
+    }
+
+    /**
+     * Hosts with a stored state.
+     */
+    public List<String> hosts() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<String> hosts = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+                .forEach(path -> read(path).ifPresent(snapshot -> hosts.add(snapshot.host())));
+        } catch (IOException e) {
+            log.log(Level.FINE, "Failed to list circuit breaker states in " + directory, e);
+        }
+        return hosts;
+    }
+
+    private Optional<CircuitBreaker.Snapshot> read(Path path) {
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            properties.load(inputStream);
+            String retryAt = properties.getProperty("retryAt");
+            return Optional.of(new CircuitBreaker.Snapshot(
+                Objects.requireNonNull(properties.getProperty("host")),
+                CircuitBreaker.State.valueOf(properties.getProperty("state")),
+                Integer.parseInt(properties.getProperty("consecutiveFailures")),
+                retryAt != null ? Instant.ofEpochMilli(Long.parseLong(retryAt)) : null));
+        } catch (IOException | RuntimeException e) {
+            log.log(Level.FINE, "Ignoring unreadable circuit breaker state " + path, e);
+            return Optional.empty();
+        }
+    }
+
+    private Path path(String host) {
+        return directory.resolve(host.replaceAll("[^A-Za-z0-9.-]", "_") + EXTENSION);
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.mirum8.jnscli.http;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide circuit breakers, one per host. Once a {@link CircuitBreakerStore} is set, breakers start from the state
+ * stored by earlier processes and store every change.
+ */
+public final class CircuitBreakers {
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(15);
+
+    private static final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private static volatile CircuitBreakerStore store;
+
+    private CircuitBreakers() {
+    }
+
+    /**
+     * Breakers created before are not stored.
+     */
+    public static void persistIn(CircuitBreakerStore circuitBreakerStore) {
+        store = circuitBreakerStore;
+    }
+
+    public static CircuitBreaker forUrl(String url) {
+        String host;
+        try {
+            host = String.valueOf(URI.create(url).getAuthority());
+        } catch (IllegalArgumentException e) {
+            host = url;
+        }
+        return forHost(host);
+    }
+
+    private static CircuitBreaker forHost(String host) {
+        return breakers.computeIfAbsent(host, name -> {
+            CircuitBreakerStore current = store;
+            if (current == null) {
+                return new CircuitBreaker(name, FAILURE_THRESHOLD, OPEN_DURATION);
+            }
+            return new CircuitBreaker(name, FAILURE_THRESHOLD, OPEN_DURATION, current.read(name).orElse(null), current::write);
+        });
+    }
+
+    /**
+     * Breakers of this process and of the hosts in the store.
+     */
+    public static List<CircuitBreaker.Snapshot> snapshots() {
+        CircuitBreakerStore current = store;
+        if (current != null) {
+            current.hosts().forEach(CircuitBreakers::forHost);
+        }
+        return breakers.values().stream()
+            .map(CircuitBreaker::snapshot)
+            .sorted(Comparator.comparing(CircuitBreaker.Snapshot::host))
+            .toList();
+    }
+}
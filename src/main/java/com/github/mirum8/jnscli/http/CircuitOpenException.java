@@ -0,0 +1,18 @@
+package com.github.mirum8.jnscli.http;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public class CircuitOpenException extends RuntimeException {
+    private final transient CircuitBreaker.Snapshot snapshot;
+
+    public CircuitOpenException(CircuitBreaker.Snapshot snapshot) {
+        super(snapshot.host() + " is unavailable after " + snapshot.consecutiveFailures() + " failed requests, next attempt in "
+            + Math.max(1, Duration.between(Instant.now(), snapshot.retryAt()).toSeconds()) + "s");
+        this.snapshot = snapshot;
+    }
+
+    public CircuitBreaker.Snapshot snapshot() {
+        return snapshot;
+    }
+}
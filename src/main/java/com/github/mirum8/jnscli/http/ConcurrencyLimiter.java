@@ -0,0 +1,95 @@
+package com.github.mirum8.jnscli.http;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive limit of concurrent requests to one host (additive increase, multiplicative decrease).
+ * <p>
+ * Every response within the latency threshold raises the limit by {@code 1/limit}, i.e. by one per round of requests.
+ * A rejected ({@code 429}/{@code 503}), timed out or slow response halves it. Responses to requests that were sent
+ * before the last decrease are not counted again, so a burst of slow responses halves the limit only once.
+ */
+public class ConcurrencyLimiter {
+    private final HttpProperties.Limiter settings;
+    private final long latencyThresholdNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos = System.nanoTime();
+
+    public ConcurrencyLimiter(HttpProperties.Limiter settings) {
+        this.settings = settings;
+        this.latencyThresholdNanos = settings.latencyThreshold().toNanos();
+        this.limit = settings.initialLimit();
+    }
+
+    /**
+     * Waits until a request may be sent.
+     *
+     * @return start time of the request, to be passed to {@link #release}
+     */
+    public long acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                released.await();
+            }
+            inFlight++;
+            return System.nanoTime();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param startNanos the value returned by {@link #acquire()}
+     * @param overloaded whether the server rejected the request or did not answer in time
+     */
+    public void release(long startNanos, boolean overloaded) {
+        release(startNanos, System.nanoTime() - startNanos, overloaded);
+    }
+
+    /**
+     * @param startNanos   the value returned by {@link #acquire()}
+     * @param latencyNanos time the server took to answer, compared with the latency threshold
+     * @param overloaded   whether the server rejected the request or did not answer in time
+     */
+    public void release(long startNanos, long latencyNanos, boolean overloaded) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            inFlight--;
+            if (overloaded || latencyNanos > latencyThresholdNanos) {
+                if (startNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(settings.minLimit(), limit / 2);
+                    lastDecreaseNanos = now;
+                }
+            } else {
+                limit = Math.min(settings.maxLimit(), limit + 1 / limit);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
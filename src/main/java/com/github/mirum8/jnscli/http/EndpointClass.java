@@ -0,0 +1,30 @@
+package com.github.mirum8.jnscli.http;
+
+/**
+ * Classes of Jenkins endpoints with different response times, each with its own request timeout.
+ */
+public enum EndpointClass {
+    /**
+     * JSON metadata: jobs, builds, stages, queue items.
+     */
+    METADATA,
+    /**
+     * Console and stage logs, which can take minutes to download.
+     */
+    LOG,
+    /**
+     * Requests that change state on the server: triggering and aborting builds.
+     */
+    ACTION;
+
+    public static EndpointClass of(HttpMethod method, String url) {
+        if (method != HttpMethod.GET) {
+            return ACTION;
+        }
+        String path = url.contains("?") ? url.substring(0, url.indexOf('?')) : url;
+        if (path.endsWith("/consoleText") || path.endsWith("/logText/progressiveText") || path.endsWith("/wfapi/log")) {
+            return LOG;
+        }
+        return METADATA;
+    }
+}
@@ -1,27 +1,63 @@
 package com.github.mirum8.jnscli.http;
 
+import com.github.mirum8.jnscli.settings.SettingsProperties;
 import com.github.mirum8.jnscli.settings.SettingsService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 
 import java.net.CookieManager;
 import java.net.CookiePolicy;
 import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+
+import static com.github.mirum8.jnscli.util.FileUtil.resolveHomeDir;
 
 @Configuration
+@EnableConfigurationProperties(HttpProperties.class)
 public class HttpClientConfiguration {
+    private static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    @Bean
+    HttpRequestFactory httpRequestFactory(SettingsService settingsService, HttpProperties httpProperties) {
+        return new HttpRequestFactory(settingsService, Objects.requireNonNullElse(httpProperties.timeouts(), HttpProperties.Timeouts.DEFAULT));
+    }
+
+    @Bean
+    ResponseCache responseCache(SettingsProperties settingsProperties) {
+        return new ResponseCache(Path.of(resolveHomeDir(settingsProperties.directory()), "cache"), ResponseCache.DEFAULT_MAX_SIZE_BYTES);
+    }
+
     @Bean
-    HttpRequestBuilder httpRequestBuilder(SettingsService settingsService) {
-        return new HttpRequestBuilder(settingsService);
+    CircuitBreakerStore circuitBreakerStore(SettingsProperties settingsProperties) {
+        CircuitBreakerStore store = new CircuitBreakerStore(Path.of(resolveHomeDir(settingsProperties.directory()), "breakers"));
+        CircuitBreakers.persistIn(store);
+        return store;
     }
 
+    /**
+     * One client shared by all commands, so that connections are reused. HTTP/2 is preferred and requests to a host
+     * go through a single multiplexed connection where Jenkins supports it.
+     */
     @Bean
-    public HttpClient httpClient() {
+    @DependsOn("circuitBreakerStore")
+    public HttpClient httpClient(HttpProperties httpProperties) {
+        // read once by the connection pool of the JDK client, must be set before the first client is built
+        if (httpProperties.keepAlive() != null && System.getProperty(KEEP_ALIVE_PROPERTY) == null) {
+            System.setProperty(KEEP_ALIVE_PROPERTY, String.valueOf(httpProperties.keepAlive().toSeconds()));
+        }
         CookieManager cookieManager = new CookieManager();
         cookieManager.setCookiePolicy(CookiePolicy.ACCEPT_ALL);
-        return HttpClient.newBuilder()
-            .cookieHandler(cookieManager)
-            .connectTimeout(java.time.Duration.ofSeconds(60))
-            .build();
+        HttpClient.Builder builder = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .cookieHandler(cookieManager);
+        if (httpProperties.connectTimeout() != null) {
+            builder.connectTimeout(httpProperties.connectTimeout());
+        }
+        return new LimitingHttpClient(builder.build(), Objects.requireNonNullElse(httpProperties.limiter(), HttpProperties.Limiter.DEFAULT));
     }
 }
@@ -0,0 +1,41 @@
+package com.github.mirum8.jnscli.http;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param keepAlive how long idle connections are kept, shorter than the idle timeout of Jenkins (30s by default),
+ *                  so that a connection is never reused just as the server closes it
+ */
+@ConfigurationProperties("app.http")
+public record HttpProperties(
+    Duration connectTimeout,
+    Duration keepAlive,
+    Timeouts timeouts,
+    Limiter limiter
+) {
+    /**
+     * Request timeouts by endpoint class, see {@link EndpointClass}.
+     */
+    public record Timeouts(Duration metadata, Duration log, Duration action) {
+        public static final Timeouts DEFAULT = new Timeouts(Duration.ofSeconds(10), Duration.ofMinutes(2), Duration.ofSeconds(30));
+
+        public Duration of(EndpointClass endpointClass) {
+            return switch (endpointClass) {
+                case METADATA -> metadata;
+                case LOG -> log;
+                case ACTION -> action;
+            };
+        }
+    }
+
+    /**
+     * Bounds of the adaptive per-host concurrency limit, see {@link ConcurrencyLimiter}.
+     *
+     * @param latencyThreshold responses slower than this count as a sign of an overloaded server
+     */
+    public record Limiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold) {
+        public static final Limiter DEFAULT = new Limiter(8, 1, 32, Duration.ofSeconds(3));
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.mirum8.jnscli.http;
+
+import com.github.mirum8.jnscli.settings.Settings;
+import com.github.mirum8.jnscli.settings.SettingsService;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Creates requests to Jenkins with the credentials of the current settings. The factory is immutable and shared,
+ * each request gets its own {@link Builder}, so requests can be built from any number of threads.
+ * <p>
+ * The {@code Authorization} header is encoded once per settings, not per request.
+ */
+public class HttpRequestFactory {
+    private static final String PATH_DELIMITER = "/";
+    private static final String USER_AGENT = "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/126.0.0.0 Safari/537.36";
+
+    private final SettingsService settingsService;
+    private final HttpProperties.Timeouts timeouts;
+    private volatile Credentials credentials;
+
+    private record Credentials(Settings settings, String server, String authorization) {
+        static Credentials of(Settings settings) {
+            String token = settings.username() + ":" + settings.key();
+            return new Credentials(settings, settings.server(),
+                "Basic " + Base64.getEncoder().encodeToString(token.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        boolean isFor(Settings other) {
+            return settings == other || Objects.equals(settings.server(), other.server())
+                && Objects.equals(settings.username(), other.username()) && Objects.equals(settings.key(), other.key());
+        }
+    }
+
+    public HttpRequestFactory(SettingsService settingsService) {
+        this(settingsService, HttpProperties.Timeouts.DEFAULT);
+    }
+
+    public HttpRequestFactory(SettingsService settingsService, HttpProperties.Timeouts timeouts) {
+        this.settingsService = settingsService;
+        this.timeouts = timeouts;
+    }
+
+    public Builder newRequest(HttpMethod method, String url) {
+        return new Builder(method, url, credentials());
+    }
+
+    /**
+     * @param path path relative to the Jenkins server, e.g. {@code /$stapler/bound/...}
+     */
+    public Builder newRequestToPath(HttpMethod method, String path) {
+        Credentials current = credentials();
+        if (!path.startsWith(PATH_DELIMITER) && !current.server().endsWith(PATH_DELIMITER)) {
+            path = PATH_DELIMITER + path;
+        }
+        return new Builder(method, current.server() + path, current);
+    }
+
+    private Credentials credentials() {
+        Settings settings = settingsService.readSettings();
+        Credentials current = credentials;
+        if (current == null || !current.isFor(settings)) {
+            current = Credentials.of(settings);
+            credentials = current;
+        }
+        return current;
+    }
+
+    /**
+     * Builder of a single request, not shared between threads.
+     */
+    public final class Builder {
+        private final HttpMethod method;
+        private final HttpRequest.Builder requestBuilder = HttpRequest.newBuilder();
+        private HttpRequest.BodyPublisher bodyPublisher = HttpRequest.BodyPublishers.noBody();
+
+        private Builder(HttpMethod method, String url, Credentials credentials) {
+            this.method = method;
+            URI uri;
+            try {
+                uri = new URI(url);
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException(e);
+            }
+            requestBuilder.uri(uri)
+                .timeout(timeouts.of(EndpointClass.of(method, url)))
+                .header("Authorization", credentials.authorization())
+                .header("User-Agent", USER_AGENT);
+            // HTTP/2 is negotiated over TLS only, a cleartext upgrade attempt just adds headers Jenkins ignores
+            if ("http".equalsIgnoreCase(uri.getScheme())) {
+                requestBuilder.version(HttpClient.Version.HTTP_1_1);
+            }
+        }
+
+        public Builder header(String name, String value) {
+            requestBuilder.setHeader(name, value);
+            return this;
+        }
+
+        public Builder body(HttpRequest.BodyPublisher bodyPublisher) {
+            this.bodyPublisher = bodyPublisher;
+            return this;
+        }
+
+        public HttpRequest build() {
+            return switch (method) {
+                case GET -> requestBuilder.GET().build();
+                case POST -> requestBuilder.POST(bodyPublisher).build();
+                case PUT -> requestBuilder.PUT(bodyPublisher).build();
+                case DELETE -> requestBuilder.DELETE().build();
+            };
+        }
+    }
+}
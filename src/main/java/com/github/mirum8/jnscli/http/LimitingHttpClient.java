@@ -0,0 +1,192 @@
+package com.github.mirum8.jnscli.http;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * HTTP client that keeps the number of concurrent requests to each host within an adaptive {@link ConcurrencyLimiter},
+ * so that parallel commands back off when Jenkins is busy. Everything else is delegated.
+ * <p>
+ * A permit is held until the response headers arrive; bodies handled as streams are read after the permit is released.
+ * The latency given to the limiter is the time to the response headers, also for bodies read before the release, so
+ * that downloading a large console log does not count as a slow server.
+ */
+public class LimitingHttpClient extends HttpClient {
+    private final HttpClient delegate;
+    private final HttpProperties.Limiter settings;
+    private final Map<String, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public LimitingHttpClient(HttpClient delegate, HttpProperties.Limiter settings) {
+        this.delegate = delegate;
+        this.settings = settings;
+    }
+
+    public ConcurrencyLimiter limiter(URI uri) {
+        return limiters.computeIfAbsent(String.valueOf(uri.getAuthority()), host -> new ConcurrencyLimiter(settings));
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        ConcurrencyLimiter limiter = limiter(request.uri());
+        long start = limiter.acquire();
+        HeadersTimer<T> timer = new HeadersTimer<>(responseBodyHandler);
+        boolean overloaded = false;
+        try {
+            HttpResponse<T> response = delegate.send(request, timer);
+            overloaded = isOverloaded(response.statusCode());
+            return response;
+        } catch (HttpTimeoutException e) {
+            overloaded = true;
+            throw e;
+        } finally {
+            limiter.release(start, timer.latencyNanos(start), overloaded);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(request, responseBodyHandler, null);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler, HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        ConcurrencyLimiter limiter = limiter(request.uri());
+        long start;
+        try {
+            start = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        HeadersTimer<T> timer = new HeadersTimer<>(responseBodyHandler);
+        return delegate.sendAsync(request, timer, pushPromiseHandler)
+            .whenComplete((response, error) -> limiter.release(start, timer.latencyNanos(start),
+                response != null ? isOverloaded(response.statusCode()) : isTimeout(error)));
+    }
+
+    /**
+     * Notes when the response headers arrived, the body is handled after that.
+     */
+    private static final class HeadersTimer<T> implements HttpResponse.BodyHandler<T> {
+        private final HttpResponse.BodyHandler<T> delegate;
+        private volatile boolean received;
+        private volatile long receivedNanos;
+
+        private HeadersTimer(HttpResponse.BodyHandler<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpResponse.BodySubscriber<T> apply(HttpResponse.ResponseInfo responseInfo) {
+            receivedNanos = System.nanoTime();
+            received = true;
+            return delegate.apply(responseInfo);
+        }
+
+        /**
+         * Time to the response headers, or until now when no response arrived.
+         */
+        long latencyNanos(long startNanos) {
+            return (received ? receivedNanos : System.nanoTime()) - startNanos;
+        }
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        return error instanceof HttpTimeoutException || error != null && error.getCause() instanceof HttpTimeoutException;
+    }
+
+    private static boolean isOverloaded(int statusCode) {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+
+    @Override
+    public WebSocket.Builder newWebSocketBuilder() {
+        return delegate.newWebSocketBuilder();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public boolean awaitTermination(Duration duration) throws InterruptedException {
+        return delegate.awaitTermination(duration);
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public void shutdownNow() {
+        delegate.shutdownNow();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,294 @@
+package com.github.mirum8.jnscli.http;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache of Jenkins GET responses.
+ * <p>
+ * Immutable entries (e.g. finished builds) are served without a network call, other entries are revalidated with
+ * {@code If-None-Match}/{@code If-Modified-Since}. The total size of the cache is bounded, the least recently used
+ * entries are evicted first. Cache failures are never fatal: an unreadable entry is treated as a miss.
+ */
+public class ResponseCache implements AutoCloseable {
+    private static final Logger log = Logger.getLogger(ResponseCache.class.getName());
+
+    public static final long DEFAULT_MAX_SIZE_BYTES = 64L * 1024 * 1024;
+    private static final String ENTRY_EXTENSION = ".json";
+    private static final String STATS_FILENAME = "stats.properties";
+
+    private final Path directory;
+    private final long maxSizeBytes;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // entry file name -> entry size, in access order
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+    private boolean indexLoaded;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ResponseCache(Path directory, long maxSizeBytes) {
+        this.directory = directory;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    public record Entry(String url, String etag, String lastModified, boolean immutable, String body) {
+        public static Entry of(String url, HttpResponse<String> response, boolean immutable) {
+            return new Entry(url,
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null),
+                immutable,
+                response.body());
+        }
+
+        public Map<String, String> conditionalHeaders() {
+            Map<String, String> headers = new HashMap<>();
+            if (etag != null) {
+                headers.put("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                headers.put("If-Modified-Since", lastModified);
+            }
+            return headers;
+        }
+
+        boolean isRevalidatable() {
+            return etag != null || lastModified != null;
+        }
+    }
+
+    public record Counters(long hits, long revalidations, long misses, long evictions) {
+        public Counters plus(Counters other) {
+            return new Counters(hits + other.hits, revalidations + other.revalidations, misses + other.misses, evictions + other.evictions);
+        }
+
+        /**
+         * Share of requests answered from the cache, including revalidated ones.
+         */
+        public double hitRatio() {
+            long requests = hits + revalidations + misses;
+            return requests == 0 ? 0 : (double) (hits + revalidations) / requests;
+        }
+    }
+
+    public record Stats(Path directory, int entries, long sizeBytes, long maxSizeBytes, Counters session, Counters total) {
+    }
+
+    public synchronized Optional<Entry> get(String url) {
+        loadIndex();
+        String fileName = fileName(url);
+        if (!index.containsKey(fileName)) {
+            return Optional.empty();
+        }
+        Path path = directory.resolve(fileName);
+        try {
+            Entry entry = objectMapper.readValue(path.toFile(), Entry.class);
+            if (!url.equals(entry.url())) {
+                return Optional.empty();
+            }
+            // marks the entry as recently used, both in memory and for the next runs
+            index.get(fileName);
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(entry);
+        } catch (IOException e) {
+            log.log(Level.FINE, "Dropping unreadable cache entry " + path, e);
+            remove(fileName);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the entry unless it could never be reused: mutable responses without validators are always refetched.
+     */
+    public synchronized void put(Entry entry) {
+        if (!entry.immutable() && !entry.isRevalidatable()) {
+            return;
+        }
+        loadIndex();
+        String fileName = fileName(entry.url());
+        Path path = directory.resolve(fileName);
+        try {
+            Files.createDirectories(directory);
+            byte[] content = objectMapper.writeValueAsBytes(entry);
+            Path tmp = Files.createTempFile(directory, fileName, ".tmp");
+            Files.write(tmp, content);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Long previousSize = index.put(fileName, (long) content.length);
+            totalSize += content.length - (previousSize != null ? previousSize : 0);
+            evictIfNeeded();
+        } catch (IOException e) {
+            log.log(Level.FINE, "Failed to write cache entry " + path, e);
+        }
+    }
+
+    public void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    public void recordRevalidation() {
+        revalidations.incrementAndGet();
+    }
+
+    public void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    public synchronized Stats stats() {
+        loadIndex();
+        Counters session = sessionCounters();
+        return new Stats(directory, index.size(), totalSize, maxSizeBytes, session, readPersistedCounters().plus(session));
+    }
+
+    public synchronized void clear() {
+        loadIndex();
+        List.copyOf(index.keySet()).forEach(this::remove);
+    }
+
+    /**
+     * Adds the counters of this session to the persisted totals.
+     */
+    @Override
+    public synchronized void close() {
+        Counters session = sessionCounters();
+        if (session.equals(new Counters(0, 0, 0, 0))) {
+            return;
+        }
+        Counters total = readPersistedCounters().plus(session);
+        Properties properties = new Properties();
+        properties.setProperty("hits", String.valueOf(total.hits()));
+        properties.setProperty("revalidations", String.valueOf(total.revalidations()));
+        properties.setProperty("misses", String.valueOf(total.misses()));
+        properties.setProperty("evictions", String.valueOf(total.evictions()));
+        try {
+            Files.createDirectories(directory);
+            try (OutputStream outputStream = Files.newOutputStream(directory.resolve(STATS_FILENAME))) {
+                properties.store(outputStream, null);
+            }
+            hits.set(0);
+            revalidations.set(0);
+            misses.set(0);
+            evictions.set(0);
+        } catch (IOException e) {
+            log.log(Level.FINE, "Failed to write cache stats", e);
+        }
+    }
+
+    private Counters sessionCounters() {
+        return new Counters(hits.get(), revalidations.get(), misses.get(), evictions.get());
+    }
+
+    private Counters readPersistedCounters() {
+        Path statsFile = directory.resolve(STATS_FILENAME);
+        if (!Files.exists(statsFile)) {
+            return new Counters(0, 0, 0, 0);
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(statsFile)) {
+            properties.load(inputStream);
+            return new Counters(
+                Long.parseLong(properties.getProperty("hits", "0")),
+                Long.parseLong(properties.getProperty("revalidations", "0")),
+                Long.parseLong(properties.getProperty("misses", "0")),
+                Long.parseLong(properties.getProperty("evictions", "0")));
+        } catch (IOException | NumberFormatException e) {
+            log.log(Level.FINE, "Failed to read cache stats", e);
+            return new Counters(0, 0, 0, 0);
+        }
+    }
+
+    private void loadIndex() {
+        if (indexLoaded) {
+            return;
+        }
+        indexLoaded = true;
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(ENTRY_EXTENSION))
+                .sorted(Comparator.comparing(ResponseCache::lastModified))
+                .forEach(path -> {
+                    long size = path.toFile().length();
+                    index.put(path.getFileName().toString(), size);
+                    totalSize += size;
+                });
+        } catch (IOException e) {
+            log.log(Level.FINE, "Failed to list cache directory " + directory, e);
+        }
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<String> eldest = index.keySet().iterator();
+        while (totalSize > maxSizeBytes && eldest.hasNext()) {
+            String fileName = eldest.next();
+            totalSize -= index.get(fileName);
+            eldest.remove();
+            deleteQuietly(directory.resolve(fileName));
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(String fileName) {
+        Long size = index.remove(fileName);
+        if (size != null) {
+            totalSize -= size;
+        }
+        deleteQuietly(directory.resolve(fileName));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.log(Level.FINE, "Failed to delete cache entry " + path, e);
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String fileName(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest) + ENTRY_EXTENSION;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.mirum8.jnscli.http;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * When and how often a failed Jenkins request is sent again.
+ * <p>
+ * Requests that are not idempotent, like triggering a build, are only repeated when Jenkins cannot have processed
+ * them: the connection was never established or the request was rejected with {@code 429}/{@code 503}. A timeout
+ * after the request was sent is never retried for them, the build may already be queued.
+ *
+ * @param maxAttempts   attempts including the first one
+ * @param baseDelay     delay before the first retry, doubled for every further retry
+ * @param maxDelay      upper bound of the backoff
+ * @param maxRetryAfter longest {@code Retry-After} that is waited for, the request fails right away on a longer one
+ * @param idempotent    whether sending the request twice has the same effect as sending it once
+ * @param retryStatuses response statuses worth another attempt
+ */
+public record RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay, Duration maxRetryAfter,
+                          boolean idempotent, Set<Integer> retryStatuses) {
+    public static final Set<Integer> UNAVAILABLE_STATUSES = Set.of(502, 503, 504);
+
+    private static final RetryPolicy METADATA = new RetryPolicy(4, Duration.ofMillis(250), Duration.ofSeconds(4),
+        Duration.ofSeconds(30), true, Set.of(429, 502, 503, 504));
+    private static final RetryPolicy LOG = new RetryPolicy(3, Duration.ofMillis(500), Duration.ofSeconds(4),
+        Duration.ofSeconds(30), true, Set.of(429, 502, 503, 504));
+    private static final RetryPolicy IDEMPOTENT_ACTION = new RetryPolicy(3, Duration.ofMillis(500), Duration.ofSeconds(4),
+        Duration.ofSeconds(10), true, Set.of(429, 502, 503, 504));
+    private static final RetryPolicy ACTION = new RetryPolicy(3, Duration.ofMillis(500), Duration.ofSeconds(4),
+        Duration.ofSeconds(10), false, Set.of(429, 503));
+
+    public static RetryPolicy of(HttpMethod method, String url) {
+        return switch (EndpointClass.of(method, url)) {
+            case METADATA -> METADATA;
+            case LOG -> LOG;
+            case ACTION -> isIdempotentAction(url) ? IDEMPOTENT_ACTION : ACTION;
+        };
+    }
+
+    /**
+     * Aborting a build twice has the same effect as aborting it once.
+     */
+    private static boolean isIdempotentAction(String url) {
+        String path = url.contains("?") ? url.substring(0, url.indexOf('?')) : url;
+        return path.endsWith("/stop") || path.endsWith("/term") || path.endsWith("/kill");
+    }
+
+    /**
+     * Connection failures are always retried, the request never reached Jenkins. Timeouts and dropped connections
+     * only for idempotent requests.
+     */
+    public boolean retriesOn(IOException e) {
+        return idempotent || e instanceof ConnectException || e instanceof HttpConnectTimeoutException;
+    }
+
+    public boolean retriesOn(int statusCode) {
+        return retryStatuses.contains(statusCode);
+    }
+
+    /**
+     * Delay before the given retry, with full jitter so that concurrent clients do not retry in lockstep.
+     * A {@code Retry-After} of the server takes precedence.
+     *
+     * @param retry      number of the retry, starting with 1
+     * @param retryAfter value of the {@code Retry-After} header, if any
+     * @return the delay, or empty when the server asks to wait longer than {@link #maxRetryAfter}
+     */
+    public Optional<Duration> delay(int retry, String retryAfter) {
+        long jitterMillis = ThreadLocalRandom.current().nextLong(baseDelay.toMillis() + 1);
+        Optional<Duration> requested = parseRetryAfter(retryAfter);
+        if (requested.isPresent()) {
+            return requested.get().compareTo(maxRetryAfter) > 0
+                ? Optional.empty()
+                : Optional.of(requested.get().plusMillis(jitterMillis));
+        }
+        long capMillis = Math.min(maxDelay.toMillis(), baseDelay.toMillis() << Math.min(retry - 1, 20));
+        return Optional.of(Duration.ofMillis(ThreadLocalRandom.current().nextLong(capMillis + 1)));
+    }
+
+    /**
+     * @param value delay in seconds or an HTTP date
+     */
+    static Optional<Duration> parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim()))));
+        } catch (NumberFormatException e) {
+            try {
+                Duration untilDate = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return Optional.of(untilDate.isNegative() ? Duration.ZERO : untilDate);
+            } catch (DateTimeParseException ignored) {
+                return Optional.empty();
+            }
+        }
+    }
+}
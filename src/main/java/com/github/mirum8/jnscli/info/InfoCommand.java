@@ -1,7 +1,9 @@
 package com.github.mirum8.jnscli.info;
 
+import com.github.mirum8.jnscli.common.JobIdValueProvider;
 import org.springframework.shell.command.annotation.Command;
 import org.springframework.shell.command.annotation.Option;
+import org.springframework.shell.command.annotation.OptionValues;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -14,7 +16,7 @@ public class InfoCommand {
     }
 
     @Command(description = "Get information about a job")
-    public void info(String jobId,
+    public void info(@OptionValues(provider = JobIdValueProvider.NAME) String jobId,
                      @Option(longNames = "buildNumber", shortNames = 'b') Integer buildNumber,
                      @Option(longNames = "includeSuccess", shortNames = 's') boolean includeSuccess,
                      @Option(longNames = "includeFailed", shortNames = 'f') boolean includeFailed,
@@ -25,7 +27,7 @@ public class InfoCommand {
     }
 
     @Command(command = "builds", description = "Get information about job builds")
-    public void builds(String jobId,
+    public void builds(@OptionValues(provider = JobIdValueProvider.NAME) String jobId,
                        @Option(longNames = "includeSuccess", shortNames = 's') boolean includeSuccess,
                        @Option(longNames = "includeFailed", shortNames = 'f') boolean includeFailed,
                        @Option(longNames = "includeRunning", shortNames = 'r') boolean includeRunning,
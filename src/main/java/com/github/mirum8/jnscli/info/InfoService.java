@@ -12,6 +12,8 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.github.mirum8.jnscli.shell.TextFormatter.colored;
@@ -24,14 +26,14 @@ public class InfoService {
     private final JenkinsAPI jenkinsAPI;
     private final ShellPrinter shellPrinter;
     private final JobDescriptorProvider jobDescriptorProvider;
-    private final String userName;
+    private final SettingsService settingsService;
     private final PipelineAPI pipelineAPI;
 
     public InfoService(JenkinsAPI jenkinsAPI, ShellPrinter shellPrinter, JobDescriptorProvider jobDescriptorProvider, SettingsService settingsService, PipelineAPI pipelineAPI) {
         this.jenkinsAPI = jenkinsAPI;
         this.shellPrinter = shellPrinter;
         this.jobDescriptorProvider = jobDescriptorProvider;
-        this.userName = settingsService.readSettings().username();
+        this.settingsService = settingsService;
         this.pipelineAPI = pipelineAPI;
     }
 
@@ -65,6 +67,7 @@ public class InfoService {
         }
         if (includeRunning) {
             statuses.add(Status.IN_PROGRESS);
+            statuses.add(Status.PAUSED_PENDING_INPUT);
         }
         return statuses;
     }
@@ -72,21 +75,31 @@ public class InfoService {
     private void printJobInfo(JobDescriptor job, Set<Status> statuses, Integer limit, boolean onlyMyBuilds) {
         WorkflowJob wj = jenkinsAPI.getWorkflowJob(job.url());
         printGeneralJobInfo(job, wj);
-        printBuildInfo(statuses, limit, onlyMyBuilds, job, wj);
+        printBuildInfo(statuses, limit, onlyMyBuilds, job);
     }
 
     private void printWorkflowJobBuilds(JobDescriptor job, Set<Status> statuses, int limit, boolean onlyMyBuilds) {
         StringBuilder sb = new StringBuilder();
         sb.append(colored("Last builds:\n", TextColor.CYAN));
+        if (limit <= 0) {
+            sb.append("  No builds found.\n");
+            shellPrinter.println(sb.toString());
+            return;
+        }
 
         record RunWithBuildInfo(Run run, BuildInfo buildInfo) {
         }
 
-        List<Run> builds = pipelineAPI.getJobRuns(job.url());
-        List<RunWithBuildInfo> filteredBuilds = builds.stream()
+        String userName = settingsService.readSettings().username();
+        List<Run> builds = pipelineAPI.getJobRuns(job.url()).stream()
             .filter(build -> statuses.contains(build.status()))
-            .map(run -> new RunWithBuildInfo(run, jenkinsAPI.getJobBuildInfo(job.url(), run.id())))
-            .sorted(Comparator.<RunWithBuildInfo>comparingInt(r -> r.buildInfo.number()).reversed())
+            .sorted(Comparator.comparingInt(Run::id).reversed())
+            .toList();
+        // without the user filter only the first builds are printed, with it any of them may be
+        Map<Integer, BuildInfo> buildInfos = getBuildInfos(job, onlyMyBuilds ? builds : builds.subList(0, Math.min(limit, builds.size())));
+        List<RunWithBuildInfo> filteredBuilds = builds.stream()
+            .map(run -> new RunWithBuildInfo(run, Optional.ofNullable(buildInfos.get(run.id()))
+                .orElseGet(() -> jenkinsAPI.getJobBuildInfo(job.url(), run.id()))))
             .filter(r -> !onlyMyBuilds || r.buildInfo().startedBy().isPresent() && r.buildInfo().startedBy().get().equals(userName))
             .limit(limit)
             .toList();
@@ -103,6 +116,19 @@ public class InfoService {
         shellPrinter.println(sb.toString());
     }
 
+    /**
+     * Fetches the details of the given runs in one request. The build history is read newest first and only until all
+     * of them arrived, builds in between that are not among them are skipped, whatever their numbers.
+     */
+    private Map<Integer, BuildInfo> getBuildInfos(JobDescriptor job, List<Run> runs) {
+        if (runs.isEmpty()) {
+            return Map.of();
+        }
+        Set<Integer> numbers = runs.stream().map(Run::id).collect(Collectors.toSet());
+        return jenkinsAPI.getJobBuilds(job.url(), build -> numbers.contains(build.number()), numbers.size()).stream()
+            .collect(Collectors.toMap(BuildInfo::number, Function.identity(), (first, second) -> first));
+    }
+
     private void printGeneralJobInfo(JobDescriptor job, WorkflowJob wj) {
         StringBuilder sb = new StringBuilder();
         sb.append(colored("Job Information:\n", TextColor.YELLOW));
@@ -175,34 +201,36 @@ public class InfoService {
     public void builds(String jobId, boolean includeSuccess, boolean includeFailed, boolean includeRunning, Integer limit, boolean onlyMyBuilds) {
         JobDescriptor job = jobDescriptorProvider.get(jobId)
             .orElseThrow(() -> new IllegalArgumentException("Job " + jobId + " not found"));
-        printBuildInfo(includeBuildStatuses(includeSuccess, includeFailed, includeRunning), limit, onlyMyBuilds, job, null);
+        printBuildInfo(includeBuildStatuses(includeSuccess, includeFailed, includeRunning), limit, onlyMyBuilds, job);
     }
 
-    private void printBuildInfo(Set<Status> statuses, Integer limit, boolean onlyMyBuilds, JobDescriptor job, WorkflowJob wj) {
+    private void printBuildInfo(Set<Status> statuses, Integer limit, boolean onlyMyBuilds, JobDescriptor job) {
         switch (job.type()) {
             case WORKFLOW -> printWorkflowJobBuilds(job, statuses, limit, onlyMyBuilds);
-            case FREESTYLE -> printFreestyleJobBuilds(job, statuses, limit, onlyMyBuilds, wj != null ? wj
-                : jenkinsAPI.getWorkflowJob(job.url()));
+            case FREESTYLE -> printFreestyleJobBuilds(job, statuses, limit, onlyMyBuilds);
             default -> throw new IllegalArgumentException("Unsupported job type: " + job.type());
         }
     }
 
-    private void printFreestyleJobBuilds(JobDescriptor job, Set<Status> statuses, Integer limit, boolean onlyMyBuilds, WorkflowJob wj) {
+    private void printFreestyleJobBuilds(JobDescriptor job, Set<Status> statuses, Integer limit, boolean onlyMyBuilds) {
         StringBuilder sb = new StringBuilder();
         sb.append(colored("Last builds:\n", TextColor.CYAN));
 
-        List<BuildInfo> filteredBuilds = wj.builds().stream()
-            .sorted(Comparator.comparingInt(WorkflowJob.Build::number).reversed())
-            .map(build -> jenkinsAPI.getJobBuildInfo(job.url(), build.number()))
-            .filter(buildInfo -> statuses.contains(buildInfo.result()))
-            .filter(build -> !onlyMyBuilds || build.startedBy().isPresent() && build.startedBy().get().equals(userName))
+        String userName = settingsService.readSettings().username();
+        boolean filtered = onlyMyBuilds || !statuses.containsAll(EnumSet.allOf(Status.class));
+        Predicate<BuildInfo> filter = build -> statuses.contains(build.result())
+            && (!onlyMyBuilds || build.startedBy().isPresent() && build.startedBy().get().equals(userName));
+        List<BuildInfo> builds = filtered ? jenkinsAPI.getJobBuilds(job.url(), filter, limit) : jenkinsAPI.getJobBuilds(job.url(), limit);
+        List<BuildInfo> filteredBuilds = builds.stream()
+            .sorted(Comparator.comparingInt(BuildInfo::number).reversed())
+            .filter(filter)
             .limit(limit)
             .toList();
 
         if (!filteredBuilds.isEmpty()) {
             for (BuildInfo filteredBuild : filteredBuilds) {
                 sb.append("----------------------------------------\n");
-                sb.append(getBuildSummary(filteredBuild, jenkinsAPI.getJobBuildInfo(job.url(), filteredBuild.number())));
+                sb.append(getBuildSummary(filteredBuild, filteredBuild));
             }
         } else {
             sb.append("  No builds found.\n");
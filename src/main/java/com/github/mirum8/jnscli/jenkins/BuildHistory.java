@@ -0,0 +1,11 @@
+package com.github.mirum8.jnscli.jenkins;
+
+import java.util.List;
+
+/**
+ * Builds of a job together with their details, fetched with a single {@code tree=} request.
+ */
+public record BuildHistory(
+    List<BuildInfo> builds
+) {
+}
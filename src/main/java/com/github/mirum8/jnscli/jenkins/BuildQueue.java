@@ -0,0 +1,11 @@
+package com.github.mirum8.jnscli.jenkins;
+
+import java.util.List;
+
+/**
+ * Items waiting in the build queue. Items that left the queue are not listed.
+ */
+public record BuildQueue(
+    List<QueueItem> items
+) {
+}
@@ -2,35 +2,45 @@ package com.github.mirum8.jnscli.jenkins;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.mirum8.jnscli.http.HttpMethod;
-import com.github.mirum8.jnscli.http.HttpRequestBuilder;
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
+import com.github.mirum8.jnscli.http.ResponseCache;
 import com.github.mirum8.jnscli.settings.Settings;
 import com.github.mirum8.jnscli.settings.SettingsService;
 import org.springframework.stereotype.Component;
 
+import java.io.OutputStream;
 import java.net.http.HttpClient;
 import java.net.http.HttpResponse;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 @Component
 public class JenkinsAPI {
     private final ObjectMapper objectMapper;
     private final HttpClient httpClient;
-    private final HttpRequestBuilder httpRequestBuilder;
+    private final HttpRequestFactory requestFactory;
     private final SettingsService settingsService;
+    private final ResponseCache responseCache;
 
     public JenkinsAPI(HttpClient httpClient,
-                      HttpRequestBuilder httpRequestBuilder,
-                      SettingsService settingsService) {
-        this.httpRequestBuilder = httpRequestBuilder;
+                      HttpRequestFactory requestFactory,
+                      SettingsService settingsService,
+                      ResponseCache responseCache) {
+        this.requestFactory = requestFactory;
         this.httpClient = httpClient;
         this.settingsService = settingsService;
+        this.responseCache = responseCache;
         this.objectMapper = JenkinsApiUtils.createObjectMapper();
     }
 
     public CheckConnectionResult checkConnection(Settings settings) {
         try {
-            JenkinsApiUtils.sendRequest(HttpMethod.GET, settings.server() + JenkinsApiUtils.API_JSON, httpRequestBuilder, httpClient);
+            JenkinsApiUtils.sendRequest(HttpMethod.GET, settings.server() + JenkinsApiUtils.API_JSON, Map.of(), HttpResponse.BodyHandlers.discarding(),
+                requestFactory, httpClient);
             return new CheckConnectionResult(CheckConnectionResult.Status.SUCCESS, "Connection to Jenkins server " + settings.server() + " was successful");
         } catch (Exception e) {
             return new CheckConnectionResult(CheckConnectionResult.Status.FAILURE, e.getMessage());
@@ -38,21 +48,92 @@ public class JenkinsAPI {
     }
 
     public BuildInfo getJobBuildInfo(String jobUrl, int buildNumber) {
-        String url = jobUrl + "/" + buildNumber + JenkinsApiUtils.API_JSON;
-        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.GET, url, httpRequestBuilder, httpClient);
-        return JenkinsApiUtils.getBody(response, BuildInfo.class, objectMapper);
+        String url = TreeProjection.of(BuildInfo.class).apply(jobUrl + "/" + buildNumber + JenkinsApiUtils.API_JSON);
+        return JenkinsApiUtils.getCachedBody(url, BuildInfo.class, buildInfo -> buildInfo.result() != null,
+            responseCache, objectMapper, requestFactory, httpClient);
+    }
+
+    /**
+     * Returns the details of the latest builds of a job (newest first) in a single request.
+     *
+     * @param jobUrl job URL
+     * @param limit  maximum number of builds to return
+     */
+    public List<BuildInfo> getJobBuilds(String jobUrl, int limit) {
+        return getJobBuilds(jobUrl, TreeProjection.of(BuildHistory.class).limit("builds", limit));
+    }
+
+    /**
+     * Returns the latest builds of a job (newest first) that match the filter. The build history is read as it is
+     * received and the download stops once {@code limit} builds matched.
+     */
+    public List<BuildInfo> getJobBuilds(String jobUrl, Predicate<BuildInfo> filter, int limit) {
+        String url = TreeProjection.of(BuildHistory.class).apply(jobUrl + JenkinsApiUtils.API_JSON);
+        return JenkinsApiUtils.getStreamedBody(url,
+            JsonBodyHandlers.ofArrayElements("builds", objectMapper.constructType(BuildInfo.class), filter, limit, objectMapper),
+            requestFactory, httpClient);
+    }
+
+    /**
+     * Returns the builds newer than the given one (newest first), at most {@code depth}. Unlike {@code builds}, which
+     * Jenkins caps at 100, {@code allBuilds} reaches back to the oldest kept build. The download stops at the first
+     * build that is not newer.
+     */
+    public List<BuildInfo> getJobBuildsNewerThan(String jobUrl, int buildNumber, int depth) {
+        String url = TreeProjection.of(AllBuilds.class).limit("allBuilds", depth).apply(jobUrl + JenkinsApiUtils.API_JSON);
+        return JenkinsApiUtils.getStreamedBody(url,
+            JsonBodyHandlers.ofArrayElementsWhile("allBuilds", objectMapper.constructType(BuildInfo.class), build -> build.number() > buildNumber, objectMapper),
+            requestFactory, httpClient);
+    }
+
+    private record AllBuilds(List<BuildInfo> allBuilds) {
+    }
+
+    private List<BuildInfo> getJobBuilds(String jobUrl, TreeProjection projection) {
+        String url = projection.apply(jobUrl + JenkinsApiUtils.API_JSON);
+        BuildHistory buildHistory = getRevalidatedBody(url, BuildHistory.class);
+        return buildHistory != null && buildHistory.builds() != null ? buildHistory.builds() : List.of();
     }
 
     public List<Job> getJobs() {
         Settings settings = settingsService.readSettings();
-        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.GET, settings.server() + "/view/all/api/json", httpRequestBuilder, httpClient);
-        ViewAll viewAll = JenkinsApiUtils.getBody(response, ViewAll.class, objectMapper);
+        String url = TreeProjection.of(ViewAll.class).apply(settings.server() + "/view/all" + JenkinsApiUtils.API_JSON);
+        ViewAll viewAll = getRevalidatedBody(url, ViewAll.class);
         return viewAll != null && viewAll.jobs() != null ? viewAll.jobs() : List.of();
     }
 
+    /**
+     * Looks up a top-level job by name. The job list is read as it is received and the download stops at the job.
+     */
+    public Optional<Job> findJob(String name) {
+        Settings settings = settingsService.readSettings();
+        String url = TreeProjection.of(ViewAll.class).apply(settings.server() + "/view/all" + JenkinsApiUtils.API_JSON);
+        List<Job> jobs = JenkinsApiUtils.getStreamedBody(url,
+            JsonBodyHandlers.ofArrayElements("jobs", objectMapper.constructType(Job.class), job -> name.equals(job.name()), 1, objectMapper),
+            requestFactory, httpClient);
+        return jobs.stream().findFirst();
+    }
+
+    /**
+     * Reads the state of several jobs of a view or folder in one request. The listing is read as it is received and
+     * the download stops once all the jobs were found.
+     *
+     * @param parentUrl URL of the view or folder, e.g. {@code <server>/view/all}
+     * @param jobNames  names of the jobs within the parent
+     */
+    public List<JobOverview> getJobOverviews(String parentUrl, Set<String> jobNames) {
+        String url = TreeProjection.of(JobOverviews.class).apply(parentUrl + JenkinsApiUtils.API_JSON);
+        return JenkinsApiUtils.getStreamedBody(url,
+            JsonBodyHandlers.ofArrayElements("jobs", objectMapper.constructType(JobOverview.class), job -> jobNames.contains(job.name()), jobNames.size(), objectMapper),
+            requestFactory, httpClient);
+    }
+
+    private record JobOverviews(List<JobOverview> jobs) {
+    }
+
     public QueueItemLocation runJob(String jobUrl) {
         String url = jobUrl + "/build";
-        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.POST, url, httpRequestBuilder, httpClient);
+        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.POST, url, requestFactory, httpClient);
         return JenkinsApiUtils.getQueueItemLocation(response);
     }
 
@@ -61,43 +142,59 @@ public class JenkinsAPI {
         if (parameters != null && !parameters.isEmpty()) {
             url += "?" + String.join("&", parameters);
         }
-        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.POST, url, httpRequestBuilder, httpClient);
+        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.POST, url, requestFactory, httpClient);
         return JenkinsApiUtils.getQueueItemLocation(response);
     }
 
     public QueueItemLocation runJobWithFileParam(String jobUrl, String fileParamName, Path filePath, List<String> parameters) {
-        return JenkinsApiUtils.runJobWithFileParam(jobUrl, fileParamName, filePath, parameters, httpRequestBuilder, httpClient);
+        return JenkinsApiUtils.runJobWithFileParam(jobUrl, fileParamName, filePath, parameters, requestFactory, httpClient);
     }
 
     public void abortJob(String jobUrl, int buildNumber) {
         String url = jobUrl + "/" + buildNumber + "/stop";
-        JenkinsApiUtils.sendRequest(HttpMethod.POST, url, httpRequestBuilder, httpClient);
+        JenkinsApiUtils.sendRequest(HttpMethod.POST, url, requestFactory, httpClient);
     }
 
     public WorkflowJob getWorkflowJob(String jobUrl) {
-        String url = jobUrl + JenkinsApiUtils.API_JSON;
-        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.GET, url, httpRequestBuilder, httpClient);
-        return JenkinsApiUtils.getBody(response, WorkflowJob.class, objectMapper);
+        String url = TreeProjection.of(WorkflowJob.class).apply(jobUrl + JenkinsApiUtils.API_JSON);
+        return getRevalidatedBody(url, WorkflowJob.class);
     }
 
     public Folder getFolderJobs(String folderUrl) {
-        String url = folderUrl + JenkinsApiUtils.API_JSON;
-        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.GET, url, httpRequestBuilder, httpClient);
-        return JenkinsApiUtils.getBody(response, Folder.class, objectMapper);
+        String url = TreeProjection.of(Folder.class).apply(folderUrl + JenkinsApiUtils.API_JSON);
+        return getRevalidatedBody(url, Folder.class);
+    }
+
+    /**
+     * Reads all items waiting in the queue in one request.
+     */
+    public BuildQueue getQueue() {
+        String url = TreeProjection.of(BuildQueue.class).apply(settingsService.readSettings().server() + "/queue" + JenkinsApiUtils.API_JSON);
+        return JenkinsApiUtils.getStreamedBody(url, JsonBodyHandlers.ofJson(objectMapper.constructType(BuildQueue.class), objectMapper),
+            requestFactory, httpClient);
     }
 
     public QueueItem getQueueItem(String url) {
-        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.GET, url + JenkinsApiUtils.API_JSON, httpRequestBuilder, httpClient);
-        return JenkinsApiUtils.getBody(response, QueueItem.class, objectMapper);
+        String queueItemUrl = TreeProjection.of(QueueItem.class).apply(url + JenkinsApiUtils.API_JSON);
+        return JenkinsApiUtils.getStreamedBody(queueItemUrl, JsonBodyHandlers.ofJson(objectMapper.constructType(QueueItem.class), objectMapper),
+            requestFactory, httpClient);
     }
 
     public String getConsoleText(String jobUrl, int buildNumber) {
         String url = jobUrl + "/" + buildNumber + "/consoleText";
-        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.GET, url, httpRequestBuilder, httpClient);
+        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.GET, url, requestFactory, httpClient);
         return response.body();
     }
 
-    public ProgressiveConsoleText getProgressiveConsoleText(String jobUrl, int buildNumber, Long start) {
-        return JenkinsApiUtils.getProgressiveConsoleText(jobUrl, buildNumber, start, httpRequestBuilder, httpClient);
+    public void streamConsoleText(String jobUrl, int buildNumber, OutputStream sink) {
+        JenkinsApiUtils.streamConsoleText(jobUrl, buildNumber, sink, requestFactory, httpClient);
+    }
+
+    public ProgressiveConsoleText streamProgressiveConsoleText(String jobUrl, int buildNumber, long start, OutputStream sink) {
+        return JenkinsApiUtils.streamProgressiveConsoleText(jobUrl, buildNumber, start, sink, requestFactory, httpClient);
+    }
+
+    private <T> T getRevalidatedBody(String url, Class<T> clazz) {
+        return JenkinsApiUtils.getCachedBody(url, clazz, body -> false, responseCache, objectMapper, requestFactory, httpClient);
     }
 }
@@ -2,20 +2,34 @@ package com.github.mirum8.jnscli.jenkins;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.mirum8.jnscli.http.CircuitBreaker;
+import com.github.mirum8.jnscli.http.CircuitBreakers;
+import com.github.mirum8.jnscli.http.CircuitOpenException;
 import com.github.mirum8.jnscli.http.HttpMethod;
-import com.github.mirum8.jnscli.http.HttpRequestBuilder;
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
+import com.github.mirum8.jnscli.http.ResponseCache;
+import com.github.mirum8.jnscli.http.RetryPolicy;
+import com.github.mirum8.jnscli.trace.RequestSpan;
+import com.github.mirum8.jnscli.trace.Tracer;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 public class JenkinsApiUtils {
@@ -26,66 +40,172 @@ public class JenkinsApiUtils {
 
     public static final String API_JSON = "/api/json";
     private static final String BOUNDARY = "ZeeBoundX12345AbCdEf";
-    private static final int MAX_RETRY_ATTEMPTS = 3;
-    private static final long INITIAL_RETRY_DELAY_MS = 1000;
+    private static final int CONSOLE_BUFFER_SIZE = 8192;
 
     public static ObjectMapper createObjectMapper() {
         return new ObjectMapper()
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     }
 
-    public static HttpResponse<String> sendRequest(HttpMethod httpMethod, String url, HttpRequestBuilder httpRequestBuilder, HttpClient httpClient) {
-        int attempts = 0;
-        while (attempts < MAX_RETRY_ATTEMPTS) {
+    public static HttpResponse<String> sendRequest(HttpMethod httpMethod, String url, HttpRequestFactory requestFactory, HttpClient httpClient) {
+        return sendRequest(httpMethod, url, Map.of(), requestFactory, httpClient);
+    }
+
+    public static HttpResponse<String> sendRequest(HttpMethod httpMethod, String url, Map<String, String> headers, HttpRequestFactory requestFactory, HttpClient httpClient) {
+        return sendRequest(httpMethod, url, headers, HttpResponse.BodyHandlers.ofString(), requestFactory, httpClient);
+    }
+
+    public static <T> HttpResponse<T> sendRequest(HttpMethod httpMethod, String url, Map<String, String> headers, HttpResponse.BodyHandler<T> bodyHandler, HttpRequestFactory requestFactory, HttpClient httpClient) {
+        return sendRequest(httpMethod, url, headers, HttpRequest.BodyPublishers.noBody(), bodyHandler, requestFactory, httpClient);
+    }
+
+    public static <T> HttpResponse<T> sendRequest(HttpMethod httpMethod, String url, Map<String, String> headers, HttpRequest.BodyPublisher body, HttpResponse.BodyHandler<T> bodyHandler, HttpRequestFactory requestFactory, HttpClient httpClient) {
+        RequestSpan span = Tracer.startRequest(httpMethod.name(), url);
+        try {
+            return sendWithRetries(httpMethod, url, headers, body, span.counting(bodyHandler), span, requestFactory, httpClient);
+        } finally {
+            span.finish();
+        }
+    }
+
+    private static <T> HttpResponse<T> sendWithRetries(HttpMethod httpMethod, String url, Map<String, String> headers, HttpRequest.BodyPublisher body, HttpResponse.BodyHandler<T> bodyHandler, RequestSpan span, HttpRequestFactory requestFactory, HttpClient httpClient) {
+        url = url.replace(" ", "%20");
+        RetryPolicy retryPolicy = RetryPolicy.of(httpMethod, url);
+        CircuitBreaker circuitBreaker = CircuitBreakers.forUrl(url);
+        for (int attempt = 1; ; attempt++) {
             try {
-                return send(httpMethod, url, httpRequestBuilder, httpClient);
-            } catch (HttpTimeoutException e) {
-                if (attempts < MAX_RETRY_ATTEMPTS - 1) {
-                    attempts++;
-                    long delay = calculateExponentialBackoff(attempts);
-                    log.warning("Request failed. Retrying in " + delay + "ms...");
-                    try {
-                        Thread.sleep(delay);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new JenkinsAPIException("Retry interrupted", ie);
-                    }
-                } else {
-                    throw new JenkinsAPIException("Max retry attempts reached", e);
+                circuitBreaker.acquirePermission();
+            } catch (CircuitOpenException e) {
+                throw new JenkinsAPIException(e.getMessage(), e);
+            }
+            HttpResponse<T> response;
+            try {
+                response = send(httpMethod, url, headers, body, bodyHandler, requestFactory, httpClient);
+            } catch (IOException e) {
+                circuitBreaker.recordFailure();
+                if (attempt >= retryPolicy.maxAttempts() || !retryPolicy.retriesOn(e)) {
+                    throw new JenkinsAPIException(attempt > 1 ? "Max retry attempts reached" : e.getMessage(), e);
+                }
+                waitBeforeRetry(url, attempt, retryPolicy.delay(attempt, null).orElseThrow(), span);
+                continue;
+            }
+
+            int statusCode = response.statusCode();
+            span.status(statusCode);
+            if (RetryPolicy.UNAVAILABLE_STATUSES.contains(statusCode)) {
+                circuitBreaker.recordFailure();
+            } else {
+                circuitBreaker.recordSuccess();
+            }
+            if (statusCode < 400) {
+                return response;
+            }
+            closeBody(response);
+            if (attempt < retryPolicy.maxAttempts() && retryPolicy.retriesOn(statusCode)) {
+                Optional<Duration> delay = retryPolicy.delay(attempt, response.headers().firstValue("Retry-After").orElse(null));
+                if (delay.isPresent()) {
+                    waitBeforeRetry(url, attempt, delay.get(), span);
+                    continue;
                 }
             }
+            throw new JenkinsAPIException("HTTP: " + statusCode + "; URL: " + url);
         }
-        throw new JenkinsAPIException("Max retry attempts reached");
     }
 
-    private static HttpResponse<String> send(HttpMethod httpMethod, String url, HttpRequestBuilder httpRequestBuilder, HttpClient httpClient) throws HttpTimeoutException {
-        url = url.replace(" ", "%20");
+    private static <T> HttpResponse<T> send(HttpMethod httpMethod, String url, Map<String, String> headers, HttpRequest.BodyPublisher body, HttpResponse.BodyHandler<T> bodyHandler, HttpRequestFactory requestFactory, HttpClient httpClient) throws IOException {
+        HttpRequestFactory.Builder requestBuilder = requestFactory.newRequest(httpMethod, url).body(body);
+        headers.forEach(requestBuilder::header);
         try {
-            HttpRequest request = httpRequestBuilder
-                .url(url)
-                .method(httpMethod)
-                .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() >= 400) {
-                throw new JenkinsAPIException("HTTP: " + response.statusCode() + "; URL: " + url);
-            }
-            return response;
-        } catch (HttpTimeoutException e) {
-            throw e;
-        } catch (IOException e) {
-            throw new JenkinsAPIException(e);
+            return httpClient.send(requestBuilder.build(), bodyHandler);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new JenkinsAPIException(e);
         }
     }
 
+    private static void waitBeforeRetry(String url, int attempt, Duration delay, RequestSpan span) {
+        span.retries(attempt);
+        log.warning("Request to " + url + " failed. Retrying in " + delay.toMillis() + "ms...");
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JenkinsAPIException("Retry interrupted", e);
+        }
+    }
+
+    private static void closeBody(HttpResponse<?> response) {
+        if (response.body() instanceof InputStream stream) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                log.fine("Failed to close response body: " + e.getMessage());
+            }
+        }
+    }
+
     public static <T> T getBody(HttpResponse<String> response, Class<T> clazz, ObjectMapper objectMapper) {
+        long start = System.nanoTime();
         try {
             return objectMapper.readValue(response.body(), clazz);
         } catch (JsonProcessingException e) {
             throw new JenkinsAPIException(e);
+        } finally {
+            Tracer.recordParse(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * GETs the url and deserializes the body while it is being received, see {@link JsonBodyHandlers}.
+     * The recorded parse time includes waiting for the body.
+     */
+    public static <T> T getStreamedBody(String url, HttpResponse.BodyHandler<Supplier<T>> bodyHandler, HttpRequestFactory requestFactory, HttpClient httpClient) {
+        HttpResponse<Supplier<T>> response = sendRequest(HttpMethod.GET, url, Map.of(), bodyHandler, requestFactory, httpClient);
+        long start = System.nanoTime();
+        try {
+            return response.body().get();
+        } finally {
+            Tracer.recordParse(System.nanoTime() - start);
+        }
+    }
+
+    public static <T> T getCachedBody(String url, Class<T> clazz, Predicate<T> isImmutable, ResponseCache responseCache, ObjectMapper objectMapper, HttpRequestFactory requestFactory, HttpClient httpClient) {
+        return getCachedBody(url, objectMapper.constructType(clazz), isImmutable, responseCache, objectMapper, requestFactory, httpClient);
+    }
+
+    /**
+     * GETs the url through the response cache. Immutable entries are returned without a network call,
+     * other entries are revalidated with a conditional request.
+     *
+     * @param isImmutable whether the response will never change on the server, e.g. the build is finished
+     */
+    public static <T> T getCachedBody(String url, JavaType type, Predicate<T> isImmutable, ResponseCache responseCache, ObjectMapper objectMapper, HttpRequestFactory requestFactory, HttpClient httpClient) {
+        Optional<ResponseCache.Entry> cached = responseCache.get(url);
+        if (cached.isPresent() && cached.get().immutable()) {
+            responseCache.recordHit();
+            Tracer.recordCacheHit(url);
+            return readBody(cached.get().body(), type, objectMapper);
+        }
+        Map<String, String> headers = cached.map(ResponseCache.Entry::conditionalHeaders).orElse(Map.of());
+        HttpResponse<String> response = sendRequest(HttpMethod.GET, url, headers, requestFactory, httpClient);
+        if (response.statusCode() == 304 && cached.isPresent()) {
+            responseCache.recordRevalidation();
+            return readBody(cached.get().body(), type, objectMapper);
+        }
+        responseCache.recordMiss();
+        T body = readBody(response.body(), type, objectMapper);
+        responseCache.put(ResponseCache.Entry.of(url, response, body != null && isImmutable.test(body)));
+        return body;
+    }
+
+    private static <T> T readBody(String body, JavaType type, ObjectMapper objectMapper) {
+        long start = System.nanoTime();
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new JenkinsAPIException(e);
+        } finally {
+            Tracer.recordParse(System.nanoTime() - start);
         }
     }
 
@@ -97,7 +217,7 @@ public class JenkinsApiUtils {
         return new QueueItemLocation(location);
     }
 
-    public static QueueItemLocation runJobWithFileParam(String jobUrl, String fileParamName, Path filePath, List<String> parameters, HttpRequestBuilder httpRequestBuilder, HttpClient httpClient) {
+    public static QueueItemLocation runJobWithFileParam(String jobUrl, String fileParamName, Path filePath, List<String> parameters, HttpRequestFactory requestFactory, HttpClient httpClient) {
         String url = jobUrl + "/buildWithParameters";
 
         if (parameters != null && !parameters.isEmpty()) {
@@ -105,13 +225,10 @@ public class JenkinsApiUtils {
         }
 
         try {
-            httpRequestBuilder
-                .url(url)
-                .method(HttpMethod.POST)
-                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
-                .body(buildMultipartBody(fileParamName, filePath));
-
-            HttpResponse<String> response = sendRequest(HttpMethod.POST, url, httpRequestBuilder, httpClient);
+            HttpResponse<String> response = sendRequest(HttpMethod.POST, url,
+                Map.of("Content-Type", "multipart/form-data; boundary=" + BOUNDARY),
+                buildMultipartBody(fileParamName, filePath),
+                HttpResponse.BodyHandlers.ofString(), requestFactory, httpClient);
             if (response.statusCode() != 200 && response.statusCode() != 201) {
                 throw new JenkinsAPIException("Failed to run job with file parameter, status code: " + response.statusCode());
             }
@@ -138,24 +255,39 @@ public class JenkinsApiUtils {
         }
     }
 
-    public static ProgressiveConsoleText getProgressiveConsoleText(String jobUrl, int buildNumber, Long start, HttpRequestBuilder httpRequestBuilder, HttpClient httpClient) {
-        StringBuilder urlBuilder = new StringBuilder(jobUrl)
-            .append("/").append(buildNumber)
-            .append("/logText/progressiveText");
-
-        if (start != null) {
-            urlBuilder.append("?start=").append(start);
-        }
-
-        String url = urlBuilder.toString();
-        HttpResponse<String> response = sendRequest(HttpMethod.GET, url, httpRequestBuilder, httpClient);
+    /**
+     * Copies the console output starting at byte {@code start} to the sink as it arrives, through a fixed-size buffer,
+     * without decoding it.
+     */
+    public static ProgressiveConsoleText streamProgressiveConsoleText(String jobUrl, int buildNumber, long start, OutputStream sink, HttpRequestFactory requestFactory, HttpClient httpClient) {
+        String url = jobUrl + "/" + buildNumber + "/logText/progressiveText?start=" + start;
+        HttpResponse<InputStream> response = streamRequest(url, sink, requestFactory, httpClient);
 
         boolean hasMoreData = Boolean.parseBoolean(response.headers().firstValue("X-More-Data").orElse("false"));
-        long nextStart = Long.parseLong(response.headers().firstValue("X-Text-Size").orElse("0"));
-        return new ProgressiveConsoleText(response.body(), hasMoreData, nextStart);
+        long nextStart = Long.parseLong(response.headers().firstValue("X-Text-Size").orElse(String.valueOf(start)));
+        return new ProgressiveConsoleText(hasMoreData, nextStart);
     }
 
-    private static long calculateExponentialBackoff(int attempt) {
-        return JenkinsApiUtils.INITIAL_RETRY_DELAY_MS * (long) Math.pow(2, (attempt - 1));
+    /**
+     * Copies the whole console output of a build to the sink through a fixed-size buffer, without decoding it.
+     */
+    public static void streamConsoleText(String jobUrl, int buildNumber, OutputStream sink, HttpRequestFactory requestFactory, HttpClient httpClient) {
+        streamRequest(jobUrl + "/" + buildNumber + "/consoleText", sink, requestFactory, httpClient);
     }
+
+    private static HttpResponse<InputStream> streamRequest(String url, OutputStream sink, HttpRequestFactory requestFactory, HttpClient httpClient) {
+        HttpResponse<InputStream> response = sendRequest(HttpMethod.GET, url, Map.of(), HttpResponse.BodyHandlers.ofInputStream(), requestFactory, httpClient);
+        try (InputStream body = response.body()) {
+            byte[] buffer = new byte[CONSOLE_BUFFER_SIZE];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                sink.write(buffer, 0, read);
+            }
+            sink.flush();
+        } catch (IOException e) {
+            throw new JenkinsAPIException(e);
+        }
+        return response;
+    }
+
 }
@@ -0,0 +1,28 @@
+package com.github.mirum8.jnscli.jenkins;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A job and its last build as listed by a view or folder, read for many jobs in a single request.
+ */
+public record JobOverview(
+    @JsonProperty("_class")
+    String aClass,
+    String name,
+    String url,
+    String color,
+    LastBuild lastBuild
+) {
+    /**
+     * @param estimatedDuration expected duration in milliseconds as estimated by Jenkins, {@code -1} when unknown
+     */
+    public record LastBuild(
+        int number,
+        long timestamp,
+        long duration,
+        long estimatedDuration,
+        boolean building,
+        String result
+    ) {
+    }
+}
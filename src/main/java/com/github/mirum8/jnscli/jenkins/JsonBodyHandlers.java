@@ -0,0 +1,106 @@
+package com.github.mirum8.jnscli.jenkins;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Body handlers that deserialize JSON straight from the response stream, without holding the body as a string.
+ * <p>
+ * Parsing is deferred to {@link Supplier#get()}, so that it runs on the calling thread and not on the executor of the
+ * HTTP client. The stream is closed once parsing ends; when it ends early the rest of the body is not downloaded.
+ * Error responses are discarded, the body of such a response is {@code null}.
+ */
+public final class JsonBodyHandlers {
+    private JsonBodyHandlers() {
+    }
+
+    public static <T> HttpResponse.BodyHandler<Supplier<T>> ofJson(JavaType type, ObjectMapper objectMapper) {
+        return streaming(body -> objectMapper.readValue(body, type));
+    }
+
+    /**
+     * Reads the elements of the top-level array {@code field} one at a time and stops reading the body as soon as
+     * {@code limit} elements passed the filter, e.g. the first N failed builds or the one job with a given name.
+     * Other top-level fields are skipped.
+     */
+    public static <E> HttpResponse.BodyHandler<Supplier<List<E>>> ofArrayElements(String field, JavaType elementType, Predicate<? super E> filter, int limit, ObjectMapper objectMapper) {
+        return streaming(body -> {
+            try (JsonParser parser = objectMapper.createParser(body)) {
+                return readArrayElements(parser, field, elementType, filter, false, limit, objectMapper);
+            }
+        });
+    }
+
+    /**
+     * Reads the elements of the top-level array {@code field} as long as they match {@code condition} and stops reading
+     * the body at the first one that does not, e.g. at the first build that is already known of a newest-first list.
+     */
+    public static <E> HttpResponse.BodyHandler<Supplier<List<E>>> ofArrayElementsWhile(String field, JavaType elementType, Predicate<? super E> condition, ObjectMapper objectMapper) {
+        return streaming(body -> {
+            try (JsonParser parser = objectMapper.createParser(body)) {
+                return readArrayElements(parser, field, elementType, condition, true, Integer.MAX_VALUE, objectMapper);
+            }
+        });
+    }
+
+    private static <E> List<E> readArrayElements(JsonParser parser, String field, JavaType elementType, Predicate<? super E> filter,
+                                                 boolean stopAtMismatch, int limit, ObjectMapper objectMapper) throws IOException {
+        List<E> elements = new ArrayList<>();
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JenkinsAPIException("Expected a JSON object, got " + parser.currentToken());
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!field.equals(name)) {
+                parser.skipChildren();
+                continue;
+            }
+            if (value != JsonToken.START_ARRAY) {
+                return elements;
+            }
+            while (elements.size() < limit && parser.nextToken() != JsonToken.END_ARRAY) {
+                E element = objectMapper.readValue(parser, elementType);
+                if (filter.test(element)) {
+                    elements.add(element);
+                } else if (stopAtMismatch) {
+                    break;
+                }
+            }
+            return elements;
+        }
+        return elements;
+    }
+
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+
+    private static <T> HttpResponse.BodyHandler<Supplier<T>> streaming(BodyReader<T> reader) {
+        return responseInfo -> {
+            if (responseInfo.statusCode() >= 400) {
+                return HttpResponse.BodySubscribers.replacing(() -> null);
+            }
+            Function<InputStream, Supplier<T>> deferred = body -> () -> {
+                try (body) {
+                    return reader.read(body);
+                } catch (IOException e) {
+                    throw new JenkinsAPIException(e);
+                }
+            };
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofInputStream(), deferred);
+        };
+    }
+}
@@ -1,55 +1,59 @@
 package com.github.mirum8.jnscli.jenkins;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.mirum8.jnscli.http.HttpMethod;
-import com.github.mirum8.jnscli.http.HttpRequestBuilder;
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
+import com.github.mirum8.jnscli.http.ResponseCache;
 import org.springframework.stereotype.Component;
 
 import java.net.http.HttpClient;
-import java.net.http.HttpResponse;
 import java.util.List;
 
 @Component
 public class PipelineAPI {
     private final ObjectMapper objectMapper;
     private final HttpClient httpClient;
-    private final HttpRequestBuilder httpRequestBuilder;
+    private final HttpRequestFactory requestFactory;
+    private final ResponseCache responseCache;
 
     public PipelineAPI(HttpClient httpClient,
-                       HttpRequestBuilder httpRequestBuilder) {
-        this.httpRequestBuilder = httpRequestBuilder;
+                       HttpRequestFactory requestFactory,
+                       ResponseCache responseCache) {
+        this.requestFactory = requestFactory;
         this.httpClient = httpClient;
+        this.responseCache = responseCache;
         this.objectMapper = JenkinsApiUtils.createObjectMapper();
     }
 
     public WorkflowRun getJobBuildDescription(String jobUrl, int buildNumber) {
         String url = jobUrl + "/" + buildNumber + "/wfapi/describe";
-        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.GET, url, httpRequestBuilder, httpClient);
-        return JenkinsApiUtils.getBody(response, WorkflowRun.class, objectMapper);
+        return JenkinsApiUtils.getCachedBody(url, WorkflowRun.class, run -> run.status() != null && run.status().isFinal(),
+            responseCache, objectMapper, requestFactory, httpClient);
     }
 
     public List<Run> getJobRuns(String jobUrl) {
         String url = jobUrl.endsWith("/") ? jobUrl + "wfapi/runs" : jobUrl + "/wfapi/runs";
-        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.GET, url, httpRequestBuilder, httpClient);
-        try {
-            return objectMapper.readValue(response.body(), new TypeReference<>() {
-            });
-        } catch (JsonProcessingException e) {
-            throw new JenkinsAPIException(e);
-        }
+        return JenkinsApiUtils.getCachedBody(url, objectMapper.getTypeFactory().constructCollectionType(List.class, Run.class),
+            runs -> false, responseCache, objectMapper, requestFactory, httpClient);
+    }
+
+    /**
+     * Runs newer than the given build, newest first. Jenkins returns at most the latest 10 runs.
+     */
+    public List<Run> getJobRunsSince(String jobUrl, int buildNumber) {
+        String url = (jobUrl.endsWith("/") ? jobUrl + "wfapi/runs" : jobUrl + "/wfapi/runs") + "?since=%23" + buildNumber;
+        return JenkinsApiUtils.getStreamedBody(url, JsonBodyHandlers.ofJson(objectMapper.getTypeFactory().constructCollectionType(List.class, Run.class), objectMapper),
+            requestFactory, httpClient);
     }
 
     public StageDescription getStageDescription(String jobUrl, long buildNumber, String stageId) {
         String url = jobUrl + "/" + buildNumber + "/execution/node/" + stageId + "/wfapi/describe";
-        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.GET, url, httpRequestBuilder, httpClient);
-        return JenkinsApiUtils.getBody(response, StageDescription.class, objectMapper);
+        return JenkinsApiUtils.getStreamedBody(url, JsonBodyHandlers.ofJson(objectMapper.constructType(StageDescription.class), objectMapper),
+            requestFactory, httpClient);
     }
 
     public NodeLog getNodeLog(String jobUrl, long buildNumber, String nodeId) {
         String url = jobUrl + "/" + buildNumber + "/execution/node/" + nodeId + "/wfapi/log";
-        HttpResponse<String> response = JenkinsApiUtils.sendRequest(HttpMethod.GET, url, httpRequestBuilder, httpClient);
-        return JenkinsApiUtils.getBody(response, NodeLog.class, objectMapper);
+        return JenkinsApiUtils.getStreamedBody(url, JsonBodyHandlers.ofJson(objectMapper.constructType(NodeLog.class), objectMapper),
+            requestFactory, httpClient);
     }
 }
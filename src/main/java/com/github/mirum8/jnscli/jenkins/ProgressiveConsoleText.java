@@ -1,4 +1,10 @@
 package com.github.mirum8.jnscli.jenkins;
 
-public record ProgressiveConsoleText(String text, boolean hasMoreData, long nextStart) {
+/**
+ * State of the console log after a progressive read.
+ *
+ * @param hasMoreData whether the build is still writing to the log
+ * @param nextStart   byte offset to continue reading from
+ */
+public record ProgressiveConsoleText(boolean hasMoreData, long nextStart) {
 }
@@ -11,6 +11,8 @@ public record QueueItem(
     String why,
     String url,
     Task task,
+    Executable executable,
+    boolean cancelled,
     @JsonProperty("_class")
     String aClass
 ) {
@@ -18,6 +20,15 @@ public record QueueItem(
         return QueueItemType.getForClass(aClass);
     }
 
+    /**
+     * The build a left item started, {@code null} while the item is in the queue.
+     */
+    public record Executable(
+        int number,
+        String url
+    ) {
+    }
+
     public record Task(
         String name,
         String url,
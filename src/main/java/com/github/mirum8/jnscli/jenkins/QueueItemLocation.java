@@ -1,4 +1,19 @@
 package com.github.mirum8.jnscli.jenkins;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 public record QueueItemLocation(String url) {
+    private static final Pattern ITEM_ID = Pattern.compile("/queue/item/(\\d+)/?$");
+
+    /**
+     * The id of the queue item, taken from the location Jenkins returned, e.g. {@code .../queue/item/42/}.
+     */
+    public long id() {
+        Matcher matcher = ITEM_ID.matcher(url);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Not a queue item location: " + url);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
 }
@@ -6,15 +6,17 @@ public record Run(
     Integer id,
     String name,
     Status status,
+    long startTimeMillis,
+    long durationMillis,
     List<Stage> stages
 ) implements Build {
 
     public record Stage(
         String id,
         String name,
-        Status status
+        Status status,
+        long startTimeMillis,
+        long durationMillis
     ) {
     }
 }
-
-
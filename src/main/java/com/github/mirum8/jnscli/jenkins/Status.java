@@ -7,4 +7,26 @@ public enum Status {
     ABORTED,
     FAILED,
     FAILURE,
+    /**
+     * Finished, but with test failures or other problems that do not fail the build.
+     */
+    UNSTABLE,
+    /**
+     * Finished without running, e.g. a stage skipped by a failure before it.
+     */
+    NOT_BUILT,
+    /**
+     * Waiting for an {@code input} step to be answered in Jenkins.
+     */
+    PAUSED_PENDING_INPUT;
+
+    /**
+     * Whether a build or a stage with this status can no longer change.
+     */
+    public boolean isFinal() {
+        return switch (this) {
+            case SUCCESS, ABORTED, FAILED, FAILURE, UNSTABLE, NOT_BUILT -> true;
+            case NOT_EXECUTED, IN_PROGRESS, PAUSED_PENDING_INPUT -> false;
+        };
+    }
 }
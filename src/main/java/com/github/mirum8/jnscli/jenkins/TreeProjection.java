@@ -0,0 +1,111 @@
+package com.github.mirum8.jnscli.jenkins;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds a Jenkins {@code tree=} query from the record a response is deserialized into,
+ * so that Jenkins only sends the fields the CLI actually reads.
+ * <p>
+ * Example: {@code TreeProjection.of(BuildHistory.class).limit("builds", 5)} produces
+ * {@code builds[number,displayName,...,actions[parameters[name,value],causes[...]],result]{0,5}}.
+ */
+public final class TreeProjection {
+    private static final Map<Class<?>, Map<String, String>> FIELDS_CACHE = new ConcurrentHashMap<>();
+
+    private final Class<?> type;
+    private final Map<String, String> ranges;
+
+    private TreeProjection(Class<?> type, Map<String, String> ranges) {
+        this.type = type;
+        this.ranges = ranges;
+    }
+
+    public static TreeProjection of(Class<?> type) {
+        if (!type.isRecord()) {
+            throw new IllegalArgumentException("Tree projection can only be derived from a record: " + type.getName());
+        }
+        return new TreeProjection(type, Map.of());
+    }
+
+    /**
+     * Limits a top-level list field to its first {@code count} elements.
+     */
+    public TreeProjection limit(String field, int count) {
+        if (!fields(type).containsKey(field)) {
+            throw new IllegalArgumentException("Unknown field " + field + " in " + type.getSimpleName());
+        }
+        Map<String, String> updatedRanges = new LinkedHashMap<>(ranges);
+        updatedRanges.put(field, "{0," + count + "}");
+        return new TreeProjection(type, Map.copyOf(updatedRanges));
+    }
+
+    public String tree() {
+        StringJoiner joiner = new StringJoiner(",");
+        fields(type).forEach((name, subTree) -> joiner.add(name + subTree + ranges.getOrDefault(name, "")));
+        return joiner.toString();
+    }
+
+    /**
+     * Appends the encoded {@code tree} parameter to the given URL.
+     */
+    public String apply(String url) {
+        return url + (url.contains("?") ? "&" : "?") + "tree=" + URLEncoder.encode(tree(), StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> fields(Class<?> type) {
+        return FIELDS_CACHE.computeIfAbsent(type, t -> describe(t, new HashSet<>()));
+    }
+
+    private static Map<String, String> describe(Class<?> type, Set<Class<?>> visiting) {
+        visiting.add(type);
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (RecordComponent component : type.getRecordComponents()) {
+            String name = jsonName(component);
+            // Jenkins adds _class to every object on its own
+            if (name.startsWith("_")) {
+                continue;
+            }
+            Class<?> valueType = valueType(component.getGenericType());
+            Map<String, String> subFields = valueType != null && valueType.isRecord() && !visiting.contains(valueType)
+                ? describe(valueType, visiting)
+                : Map.of();
+            if (subFields.isEmpty()) {
+                fields.put(name, "");
+            } else {
+                StringJoiner joiner = new StringJoiner(",", "[", "]");
+                subFields.forEach((subName, subTree) -> joiner.add(subName + subTree));
+                fields.put(name, joiner.toString());
+            }
+        }
+        visiting.remove(type);
+        return fields;
+    }
+
+    private static String jsonName(RecordComponent component) {
+        JsonProperty jsonProperty = component.getAccessor().getAnnotation(JsonProperty.class);
+        return jsonProperty != null && !jsonProperty.value().isEmpty() ? jsonProperty.value() : component.getName();
+    }
+
+    private static Class<?> valueType(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return clazz;
+        }
+        if (type instanceof ParameterizedType parameterizedType && parameterizedType.getRawType() instanceof Class<?> raw
+            && Iterable.class.isAssignableFrom(raw)) {
+            return valueType(parameterizedType.getActualTypeArguments()[0]);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.mirum8.jnscli.list;
+
+import com.github.mirum8.jnscli.context.JobType;
+import com.github.mirum8.jnscli.jenkins.Job;
+import com.github.mirum8.jnscli.util.ParallelFetcher;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Lists the jobs of nested folders with one request per folder.
+ * <p>
+ * There is no barrier between the levels of the tree: a folder is requested as soon as its parent was listed and a
+ * request slot is free, so a large or slow folder only holds up its own subtree. At most {@code parallelism} folders
+ * are requested at a time. The listings are handed to the calling thread in the order they complete, which keeps the
+ * consumer single-threaded.
+ */
+class FolderCrawler {
+    private final Function<String, List<Job>> folderJobs;
+    private final int maxDepth;
+    private final int parallelism;
+
+    /**
+     * @param folderJobs jobs of the folder with the given URL
+     * @param maxDepth   levels of the tree to list, the given top-level jobs being the first
+     */
+    FolderCrawler(Function<String, List<Job>> folderJobs, int maxDepth) {
+        this(folderJobs, maxDepth, ParallelFetcher.DEFAULT_PARALLELISM);
+    }
+
+    FolderCrawler(Function<String, List<Job>> folderJobs, int maxDepth, int parallelism) {
+        this.folderJobs = folderJobs;
+        this.maxDepth = maxDepth;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    private record Folder(Job job, int depth) {
+    }
+
+    private record Listing(List<Job> jobs, int depth) {
+    }
+
+    /**
+     * Passes the top-level jobs and then the jobs of every folder below them to {@code onListed}, named by their path
+     * from the top level, e.g. {@code folder/subfolder/job}.
+     */
+    void crawl(List<Job> topLevel, Consumer<List<Job>> onListed) {
+        Deque<Folder> pending = new ArrayDeque<>();
+        onListed.accept(topLevel);
+        enqueueFolders(pending, topLevel, 1);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try (executor) {
+            CompletionService<Listing> completed = new ExecutorCompletionService<>(executor);
+            int inFlight = 0;
+            while (!pending.isEmpty() || inFlight > 0) {
+                while (inFlight < parallelism && !pending.isEmpty()) {
+                    Folder folder = pending.poll();
+                    completed.submit(() -> list(folder));
+                    inFlight++;
+                }
+                Listing listing = await(completed.take());
+                inFlight--;
+                onListed.accept(listing.jobs());
+                enqueueFolders(pending, listing.jobs(), listing.depth());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while listing folders", e);
+        } finally {
+            // lets close() return right away when a folder failed
+            executor.shutdownNow();
+        }
+    }
+
+    private Listing list(Folder folder) {
+        List<Job> jobs = folderJobs.apply(folder.job().url()).stream()
+            .map(job -> job.copyWithName(folder.job().name() + "/" + job.name()))
+            .toList();
+        return new Listing(jobs, folder.depth() + 1);
+    }
+
+    private void enqueueFolders(Deque<Folder> pending, List<Job> jobs, int depth) {
+        if (depth >= maxDepth) {
+            return;
+        }
+        jobs.stream()
+            .filter(job -> JobType.fromName(job.aClass()) == JobType.FOLDER)
+            .forEach(job -> pending.add(new Folder(job, depth)));
+    }
+
+    private static Listing await(Future<Listing> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while listing folders", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
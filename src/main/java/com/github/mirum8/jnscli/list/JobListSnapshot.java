@@ -0,0 +1,79 @@
+package com.github.mirum8.jnscli.list;
+
+import com.github.mirum8.jnscli.jenkins.Job;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The top-level jobs of the last listing with their state at that time, so the interactive shell can show them
+ * without waiting for Jenkins. One {@code class<TAB>color<TAB>name<TAB>url} line per job, in listing order.
+ */
+class JobListSnapshot {
+    private static final String SEPARATOR = "\t";
+    private static final String NONE = "-";
+
+    private final Path path;
+
+    JobListSnapshot(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * @param listedAtMillis when the jobs were listed
+     */
+    record Listed(List<Job> jobs, long listedAtMillis) {
+    }
+
+    Optional<Listed> read() {
+        try {
+            long listedAt = Files.getLastModifiedTime(path).toMillis();
+            List<Job> jobs = new ArrayList<>();
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(SEPARATOR, 4);
+                if (fields.length == 4) {
+                    jobs.add(new Job(value(fields[0]), fields[2], fields[3], value(fields[1])));
+                }
+            }
+            return Optional.of(new Listed(List.copyOf(jobs), listedAt));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading the last job list", e);
+        }
+    }
+
+    void write(List<Job> jobs) {
+        StringBuilder content = new StringBuilder();
+        for (Job job : jobs) {
+            content.append(field(job.aClass())).append(SEPARATOR)
+                .append(field(job.color())).append(SEPARATOR)
+                .append(job.name()).append(SEPARATOR)
+                .append(job.url()).append('\n');
+        }
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+            Files.writeString(tmp, content, StandardCharsets.UTF_8);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing the last job list", e);
+        }
+    }
+
+    private static String field(String value) {
+        return value == null || value.isEmpty() ? NONE : value;
+    }
+
+    private static String value(String field) {
+        return field.equals(NONE) ? null : field;
+    }
+}
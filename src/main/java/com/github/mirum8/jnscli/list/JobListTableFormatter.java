@@ -13,14 +13,14 @@ import static com.github.mirum8.jnscli.shell.TextFormatter.colored;
 
 @Component
 class JobListTableFormatter {
+    private static final List<String> HEADERS = Arrays.asList("ID", "St", "Name");
+    // column widths of a table printed row by row, before all the rows are known
+    private static final int[] STREAMED_WIDTHS = {5, 2, 40};
 
     List<String> createJobTable(List<JobRow> jobs) {
-        List<String> headers = Arrays.asList("ID", "St", "Name");
+        List<String> headers = HEADERS;
         List<List<Object>> rows = jobs.stream()
-            .map(row -> List.of(
-                String.valueOf(row.id()),
-                colorize(row.color()),
-                row.name()))
+            .map(this::cells)
             .toList();
         int[] maxLengths = new int[headers.size()];
         for (int i = 0; i < headers.size(); i++) {
@@ -41,7 +41,7 @@ class JobListTableFormatter {
         }
 
         try {
-            int lineSize = Arrays.stream(maxLengths).sum() + maxLengths.length * 2 + 1;
+            int lineSize = lineSize(maxLengths);
             List<String> result = new ArrayList<>();
             result.add(formatLine(lineSize));
             result.add(formatHeaders(headers, maxLengths));
@@ -56,6 +56,29 @@ class JobListTableFormatter {
         }
     }
 
+    List<String> createStreamedHeader() {
+        return List.of(formatLine(lineSize(STREAMED_WIDTHS)), formatHeaders(HEADERS, STREAMED_WIDTHS));
+    }
+
+    String createStreamedRow(JobRow job) {
+        return formatRow(cells(job).stream().map(RowItem::new).toList(), STREAMED_WIDTHS);
+    }
+
+    String createStreamedFooter() {
+        return formatLine(lineSize(STREAMED_WIDTHS));
+    }
+
+    private List<Object> cells(JobRow row) {
+        return List.of(
+            String.valueOf(row.id()),
+            colorize(row.color()),
+            row.name());
+    }
+
+    private static int lineSize(int[] maxLengths) {
+        return Arrays.stream(maxLengths).sum() + maxLengths.length * 2 + 1;
+    }
+
     private String formatLine(int lengthSum) {
         return "  " + "-".repeat(lengthSum);
     }
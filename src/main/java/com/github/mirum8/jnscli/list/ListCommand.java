@@ -1,5 +1,6 @@
 package com.github.mirum8.jnscli.list;
 
+import com.github.mirum8.jnscli.common.JobIdValueProvider;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellOption;
@@ -13,8 +14,12 @@ public class ListCommand {
     }
 
     @ShellMethod(key = "list", value = "List all jobs on Jenkins server")
-    public void list(@ShellOption(defaultValue = ShellOption.NULL, help = "folder name") String folderName) {
-        if (folderName != null) {
+    public void list(@ShellOption(defaultValue = ShellOption.NULL, help = "folder name", valueProvider = JobIdValueProvider.class) String folderName,
+                     @ShellOption(value = {"--recursive", "-r"}, help = "include the jobs of nested folders") boolean recursive,
+                     @ShellOption(value = {"--depth", "-d"}, defaultValue = ShellOption.NULL, help = "levels of folders to list with --recursive") Integer depth) {
+        if (recursive) {
+            listService.listJobsRecursively(folderName, depth);
+        } else if (folderName != null) {
             listService.listJobs(folderName);
         } else {
             listService.listJobs();
@@ -22,6 +27,6 @@ public class ListCommand {
     }
 
     public void list() {
-        list(null);
+        list(null, false, null);
     }
 }
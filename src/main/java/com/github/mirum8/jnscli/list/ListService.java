@@ -3,61 +3,159 @@ package com.github.mirum8.jnscli.list;
 import com.github.mirum8.jnscli.common.JobDescriptorProvider;
 import com.github.mirum8.jnscli.context.JobType;
 import com.github.mirum8.jnscli.context.JobsContext;
+import com.github.mirum8.jnscli.jenkins.Folder;
 import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
 import com.github.mirum8.jnscli.jenkins.Job;
 import com.github.mirum8.jnscli.model.JobDescriptor;
+import com.github.mirum8.jnscli.settings.SettingsProperties;
 import com.github.mirum8.jnscli.shell.RefreshableMultilineRenderer;
+import com.github.mirum8.jnscli.shell.ShellPrinter;
+import com.github.mirum8.jnscli.shell.TextColor;
+import com.github.mirum8.jnscli.util.Durations;
+import com.github.mirum8.jnscli.util.FileUtil;
 import org.springframework.stereotype.Service;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+
+import static com.github.mirum8.jnscli.shell.TextFormatter.colored;
 
 @Service
 public class ListService {
+    public static final String JOB_LIST_FILENAME = "joblist";
+
     private final JenkinsAPI jenkinsAPI;
     private final JobsContext jobsContext;
     private final JobListTableFormatter jobListTableFormatter;
     private final RefreshableMultilineRenderer refreshableMultilineRenderer;
     private final JobDescriptorProvider jobDescriptorProvider;
+    private final ShellPrinter shellPrinter;
+    private final JobListSnapshot jobListSnapshot;
 
     public ListService(JenkinsAPI jenkinsAPI,
                        JobsContext jobsContext,
                        JobListTableFormatter jobListTableFormatter,
                        RefreshableMultilineRenderer refreshableMultilineRenderer,
-                       JobDescriptorProvider jobDescriptorProvider) {
+                       JobDescriptorProvider jobDescriptorProvider,
+                       ShellPrinter shellPrinter,
+                       SettingsProperties settingsProperties) {
         this.jenkinsAPI = jenkinsAPI;
         this.jobDescriptorProvider = jobDescriptorProvider;
+        this.shellPrinter = shellPrinter;
         this.jobsContext = jobsContext;
         this.jobListTableFormatter = jobListTableFormatter;
         this.refreshableMultilineRenderer = refreshableMultilineRenderer;
+        this.jobListSnapshot = new JobListSnapshot(Path.of(FileUtil.resolveHomeDir(settingsProperties.directory()), JOB_LIST_FILENAME));
     }
 
     public void listJobs() {
         List<Job> jobs = jenkinsAPI.getJobs();
         jobsContext.refreshJobIds(jobs, false);
+        jobListSnapshot.write(jobs);
         renderJobList(jobs);
     }
 
+    /**
+     * Shows the jobs of the last listing with the ids they have now, without asking Jenkins.
+     *
+     * @return false when the jobs were never listed
+     */
+    public boolean listLastJobs() {
+        Optional<JobListSnapshot.Listed> listed = jobListSnapshot.read();
+        if (listed.isEmpty()) {
+            return false;
+        }
+        renderJobList(listed.get().jobs());
+        long age = Math.max(0, System.currentTimeMillis() - listed.get().listedAtMillis());
+        shellPrinter.println(colored("Listed " + Durations.format(age) + " ago, refreshing in the background", TextColor.YELLOW));
+        return true;
+    }
+
+    /**
+     * Lists the jobs again without printing them. The ids shown by {@link #listLastJobs()} may already be typed, so
+     * they are kept until the next {@link #listJobs()}: only jobs that are new get the ids after the highest one.
+     *
+     * @return whether a job was added or removed since the last listing
+     */
+    public boolean refreshJobs() {
+        List<String> shown = jobListSnapshot.read().map(listed -> names(listed.jobs())).orElse(List.of());
+        List<Job> jobs = jenkinsAPI.getJobs();
+        List<Job> added = jobs.stream()
+            .filter(job -> jobsContext.findJobByName(job.name()).isEmpty())
+            .toList();
+        if (!added.isEmpty()) {
+            jobsContext.refreshJobIds(added, true);
+        }
+        jobListSnapshot.write(jobs);
+        return !names(jobs).equals(shown);
+    }
+
+    private static List<String> names(List<Job> jobs) {
+        return jobs.stream().map(Job::name).sorted().toList();
+    }
+
     public void listJobs(String folderId) {
+        JobDescriptor jobDescriptor = getFolder(folderId);
+        List<Job> jobs = getFolderJobs(jobDescriptor);
+        jobsContext.refreshJobIds(jobs, true);
+        renderJobList(jobs);
+    }
+
+    /**
+     * Lists all jobs, or all jobs of a folder, including the jobs of nested folders. Rows are printed as soon as their
+     * folder was listed and the job ids are written in one update once the whole tree was listed, so an interrupted
+     * listing leaves the previous ids in place.
+     *
+     * @param maxDepth levels of folders to list, unlimited when null
+     */
+    public void listJobsRecursively(String folderId, Integer maxDepth) {
+        if (maxDepth != null && maxDepth < 1) {
+            throw new IllegalArgumentException("Depth must be at least 1");
+        }
+        JobDescriptor folder = folderId == null ? null : getFolder(folderId);
+        List<Job> topLevel = folder == null ? jenkinsAPI.getJobs() : getFolderJobs(folder);
+        // the same ids refreshJobIds assigns: consecutive in the order the jobs were listed
+        int firstId = folder == null ? 1 : jobsContext.maxId() + 1;
+        List<Job> jobs = new ArrayList<>();
+        jobListTableFormatter.createStreamedHeader().forEach(shellPrinter::println);
+        new FolderCrawler(this::getFolderJobs, maxDepth == null ? Integer.MAX_VALUE : maxDepth)
+            .crawl(topLevel, listed -> {
+                for (Job job : listed) {
+                    shellPrinter.println(jobListTableFormatter.createStreamedRow(toRow(job, firstId + jobs.size())));
+                    jobs.add(job);
+                }
+            });
+        jobsContext.refreshJobIds(jobs, folder != null);
+        shellPrinter.println(jobListTableFormatter.createStreamedFooter());
+        shellPrinter.println("  " + jobs.size() + " jobs");
+    }
+
+    private JobDescriptor getFolder(String folderId) {
         JobDescriptor jobDescriptor = jobDescriptorProvider.get(folderId)
             .orElseThrow(() -> new IllegalArgumentException("Folder " + folderId + " not found"));
         if (jobDescriptor.type() != JobType.FOLDER) {
             throw new IllegalArgumentException("Job with id " + folderId + " is not a folder");
         }
-        List<Job> jobs = jenkinsAPI.getFolderJobs(jobDescriptor.url()).jobs().stream()
-            .map(job -> job.copyWithName(jobDescriptor.name() + "/" + job.name()))
+        return jobDescriptor;
+    }
+
+    private List<Job> getFolderJobs(JobDescriptor folder) {
+        return getFolderJobs(folder.url()).stream()
+            .map(job -> job.copyWithName(folder.name() + "/" + job.name()))
             .toList();
-        jobsContext.refreshJobIds(jobs, true);
-        renderJobList(jobs);
+    }
+
+    private List<Job> getFolderJobs(String folderUrl) {
+        Folder folder = jenkinsAPI.getFolderJobs(folderUrl);
+        return folder == null || folder.jobs() == null ? List.of() : folder.jobs();
     }
 
     private void renderJobList(List<Job> jobs) {
         List<JobRow> jobRows = jobs.stream()
-            .map(job -> JobRow.builder()
-                .id(jobsContext.findJobByName(job.name()).map(JobDescriptor::id).orElse(0))
-                .name(JobType.fromName(job.aClass()) == JobType.FOLDER ? "\33[1m" + job.name() + "\33[0m" : job.name())
-                .color(getColor(job.color(), JobType.fromName(job.aClass())))
-                .build())
+            .map(job -> toRow(job, jobsContext.findJobByName(job.name()).map(JobDescriptor::id).orElse(0)))
             .sorted(Comparator.comparingInt(JobRow::id))
             .toList();
 
@@ -65,6 +163,14 @@ public class ListService {
         refreshableMultilineRenderer.render(tableRows);
     }
 
+    private JobRow toRow(Job job, int id) {
+        return JobRow.builder()
+            .id(id)
+            .name(JobType.fromName(job.aClass()) == JobType.FOLDER ? "\33[1m" + job.name() + "\33[0m" : job.name())
+            .color(getColor(job.color(), JobType.fromName(job.aClass())))
+            .build();
+    }
+
     private Symbol getColor(String color, JobType jobType) {
         if (color == null) {
             return getColorFromJobType(jobType);
@@ -0,0 +1,134 @@
+package com.github.mirum8.jnscli.log;
+
+import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
+import com.github.mirum8.jnscli.settings.SettingsProperties;
+import com.github.mirum8.jnscli.util.FileUtil;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.DataFormatException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Local archive of console logs, one deflate-compressed file per build under {@code <config dir>/logs}.
+ * Only finished builds are kept, their logs never change. Logs of running builds are downloaded to a temporary file.
+ */
+@Component
+public class LogArchive {
+    public static final String ARCHIVE_DIRECTORY = "logs";
+    private static final String LOG_EXTENSION = ".log.z";
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final JenkinsAPI jenkinsAPI;
+
+    public LogArchive(SettingsProperties settingsProperties, JenkinsAPI jenkinsAPI) {
+        this.directory = Path.of(FileUtil.resolveHomeDir(settingsProperties.directory()), ARCHIVE_DIRECTORY);
+        this.jenkinsAPI = jenkinsAPI;
+    }
+
+    /**
+     * A compressed console log on disk.
+     *
+     * @param downloaded whether the log was downloaded by this call
+     * @param temporary  whether the file is not part of the archive and has to be deleted after use
+     */
+    public record ArchivedLog(int buildNumber, Path path, boolean downloaded, boolean temporary) {
+    }
+
+    @FunctionalInterface
+    public interface LineConsumer {
+        void accept(int lineNumber, String line);
+    }
+
+    /**
+     * Returns the log of a build, downloading it only when it is not archived yet.
+     *
+     * @param finished whether the build is finished, logs of running builds are not archived
+     */
+    public ArchivedLog get(String jobUrl, int buildNumber, boolean finished) throws IOException {
+        Path path = jobDirectory(jobUrl).resolve(buildNumber + LOG_EXTENSION);
+        if (finished && Files.exists(path)) {
+            return new ArchivedLog(buildNumber, path, false, false);
+        }
+        Files.createDirectories(path.getParent());
+        Path tmp = Files.createTempFile(path.getParent(), String.valueOf(buildNumber), ".tmp");
+        try (OutputStream output = new DeflaterOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            jenkinsAPI.streamConsoleText(jobUrl, buildNumber, output);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        if (!finished) {
+            return new ArchivedLog(buildNumber, tmp, true, true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new ArchivedLog(buildNumber, path, true, false);
+    }
+
+    /**
+     * Decompresses a log straight from a memory mapping of its file and passes it on line by line.
+     */
+    public static void forEachLine(Path path, LineConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path)) {
+            MappedByteBuffer compressed = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                byte[] chunk = new byte[CHUNK_SIZE];
+                ByteArrayOutputStream line = new ByteArrayOutputStream();
+                int lineNumber = 0;
+                while (!inflater.finished()) {
+                    int length = inflater.inflate(chunk);
+                    if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    int lineStart = 0;
+                    for (int i = 0; i < length; i++) {
+                        if (chunk[i] == '\n') {
+                            line.write(chunk, lineStart, i - lineStart);
+                            consumer.accept(++lineNumber, decode(line));
+                            line.reset();
+                            lineStart = i + 1;
+                        }
+                    }
+                    line.write(chunk, lineStart, length - lineStart);
+                }
+                if (line.size() > 0) {
+                    consumer.accept(++lineNumber, decode(line));
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupted log archive " + path, e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    private static String decode(ByteArrayOutputStream line) {
+        String decoded = line.toString(StandardCharsets.UTF_8);
+        return decoded.endsWith("\r") ? decoded.substring(0, decoded.length() - 1) : decoded;
+    }
+
+    private Path jobDirectory(String jobUrl) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jobUrl.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest, 0, 8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.mirum8.jnscli.log;
+
+import com.github.mirum8.jnscli.common.JobIdValueProvider;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+import org.springframework.shell.command.annotation.OptionValues;
+import org.springframework.stereotype.Component;
+
+@Component
+@Command(group = "Log Commands", description = "Log Commands", command = "log")
+public class LogCommand {
+    private final LogService logService;
+
+    public LogCommand(LogService logService) {
+        this.logService = logService;
+    }
+
+    @Command(description = "Print the console log of the last or specific build")
+    public void log(@OptionValues(provider = JobIdValueProvider.NAME) String jobId,
+                    @Option(longNames = "buildNumber", shortNames = 'b') Integer buildNumber,
+                    @Option(longNames = "follow", shortNames = 'f', description = "Keep printing the log until the build finishes") boolean follow) {
+        logService.log(jobId, buildNumber, follow);
+    }
+
+    @Command(command = "grep", description = "Search the console logs of the last builds")
+    public void grep(@OptionValues(provider = JobIdValueProvider.NAME) String jobId,
+                     String regex,
+                     @Option(longNames = "last", shortNames = 'n', defaultValue = "10") Integer last,
+                     @Option(longNames = "ignoreCase", shortNames = 'i') boolean ignoreCase) {
+        logService.grep(jobId, regex, last, ignoreCase);
+    }
+}
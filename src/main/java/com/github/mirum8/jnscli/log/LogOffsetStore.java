@@ -0,0 +1,69 @@
+package com.github.mirum8.jnscli.log;
+
+import com.github.mirum8.jnscli.settings.SettingsProperties;
+import com.github.mirum8.jnscli.util.FileUtil;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Remembers how much of a build log has already been printed, so that following the log can resume after a restart.
+ */
+@Component
+public class LogOffsetStore {
+    public static final String OFFSETS_FILENAME = "log-offsets";
+
+    private final Path offsetsFilePath;
+
+    public LogOffsetStore(SettingsProperties settingsProperties) {
+        this.offsetsFilePath = Path.of(FileUtil.resolveHomeDir(settingsProperties.directory()), OFFSETS_FILENAME);
+    }
+
+    public synchronized Optional<Long> get(String jobUrl, int buildNumber) {
+        return Optional.ofNullable(read().getProperty(key(jobUrl, buildNumber)))
+            .map(Long::parseLong);
+    }
+
+    public synchronized void save(String jobUrl, int buildNumber, long offset) {
+        Properties offsets = read();
+        offsets.setProperty(key(jobUrl, buildNumber), String.valueOf(offset));
+        write(offsets);
+    }
+
+    public synchronized void remove(String jobUrl, int buildNumber) {
+        Properties offsets = read();
+        if (offsets.remove(key(jobUrl, buildNumber)) != null) {
+            write(offsets);
+        }
+    }
+
+    private Properties read() {
+        Properties offsets = new Properties();
+        if (Files.exists(offsetsFilePath)) {
+            try (InputStream inputStream = Files.newInputStream(offsetsFilePath)) {
+                offsets.load(inputStream);
+            } catch (IOException e) {
+                throw new IllegalStateException("Error reading log offsets file", e);
+            }
+        }
+        return offsets;
+    }
+
+    private void write(Properties offsets) {
+        try (OutputStream outputStream = Files.newOutputStream(offsetsFilePath)) {
+            offsets.store(outputStream, null);
+        } catch (IOException e) {
+            throw new IllegalStateException("Error writing log offsets file", e);
+        }
+    }
+
+    private static String key(String jobUrl, int buildNumber) {
+        return jobUrl + "#" + buildNumber;
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.mirum8.jnscli.log;
+
+import com.github.mirum8.jnscli.common.JobDescriptorProvider;
+import com.github.mirum8.jnscli.jenkins.BuildInfo;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
+import com.github.mirum8.jnscli.jenkins.ProgressiveConsoleText;
+import com.github.mirum8.jnscli.jenkins.WorkflowJob;
+import com.github.mirum8.jnscli.model.JobDescriptor;
+import com.github.mirum8.jnscli.shell.ShellPrinter;
+import com.github.mirum8.jnscli.shell.TextColor;
+import com.github.mirum8.jnscli.util.ParallelFetcher;
+import com.github.mirum8.jnscli.util.Threads;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.github.mirum8.jnscli.shell.TextFormatter.colored;
+
+@Service
+public class LogService {
+    private static final Duration MIN_POLL_INTERVAL = Duration.ofMillis(500);
+    private static final Duration MAX_POLL_INTERVAL = Duration.ofSeconds(5);
+
+    private final JobDescriptorProvider jobDescriptorProvider;
+    private final JenkinsAPI jenkinsAPI;
+    private final LogOffsetStore logOffsetStore;
+    private final LogArchive logArchive;
+    private final ShellPrinter shellPrinter;
+
+    public LogService(JobDescriptorProvider jobDescriptorProvider,
+                      JenkinsAPI jenkinsAPI,
+                      LogOffsetStore logOffsetStore,
+                      LogArchive logArchive,
+                      ShellPrinter shellPrinter) {
+        this.jobDescriptorProvider = jobDescriptorProvider;
+        this.jenkinsAPI = jenkinsAPI;
+        this.logOffsetStore = logOffsetStore;
+        this.logArchive = logArchive;
+        this.shellPrinter = shellPrinter;
+    }
+
+    void log(String jobId, Integer buildNumber, boolean follow) {
+        JobDescriptor job = jobDescriptorProvider.get(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Job " + jobId + " not found"));
+        Integer number = buildNumber != null ? buildNumber : lastBuildNumber(job.url());
+        if (number == null) {
+            shellPrinter.println("No builds found.");
+            return;
+        }
+        if (follow) {
+            follow(job.url(), number);
+        } else {
+            jenkinsAPI.streamProgressiveConsoleText(job.url(), number, 0, shellPrinter.output());
+        }
+    }
+
+    private Integer lastBuildNumber(String jobUrl) {
+        WorkflowJob workflowJob = jenkinsAPI.getWorkflowJob(jobUrl);
+        return workflowJob.lastBuild() == null ? null : workflowJob.lastBuild().number();
+    }
+
+    /**
+     * Streams the log to the terminal until the build finishes. The printed offset is persisted after every chunk,
+     * following the same build again continues where the previous run stopped.
+     * Polls quickly while the log grows and backs off while it is idle.
+     */
+    public void follow(String jobUrl, int buildNumber) {
+        long start = logOffsetStore.get(jobUrl, buildNumber).orElse(0L);
+        if (start > 0) {
+            shellPrinter.println(colored("Resuming from byte " + start, TextColor.CYAN));
+        }
+        OutputStream output = shellPrinter.output();
+        Duration interval = MIN_POLL_INTERVAL;
+        while (true) {
+            ProgressiveConsoleText progressiveConsoleText = jenkinsAPI.streamProgressiveConsoleText(jobUrl, buildNumber, start, output);
+            boolean receivedData = progressiveConsoleText.nextStart() > start;
+            start = progressiveConsoleText.nextStart();
+            if (!progressiveConsoleText.hasMoreData()) {
+                logOffsetStore.remove(jobUrl, buildNumber);
+                return;
+            }
+            logOffsetStore.save(jobUrl, buildNumber, start);
+            interval = receivedData ? MIN_POLL_INTERVAL : min(interval.multipliedBy(2), MAX_POLL_INTERVAL);
+            Threads.sleepMillis(interval.toMillis());
+        }
+    }
+
+    /**
+     * Searches the logs of the last builds. Logs missing from the archive are downloaded concurrently, the scans run
+     * in parallel on all cores and matching lines are printed as soon as they are found.
+     */
+    void grep(String jobId, String regex, int last, boolean ignoreCase) {
+        Pattern pattern = Pattern.compile(regex, ignoreCase ? Pattern.CASE_INSENSITIVE : 0);
+        JobDescriptor job = jobDescriptorProvider.get(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Job " + jobId + " not found"));
+        List<BuildInfo> builds = jenkinsAPI.getJobBuilds(job.url(), last);
+
+        AtomicInteger matches = new AtomicInteger();
+        AtomicInteger downloads = new AtomicInteger();
+        try (ExecutorService downloadExecutor = Executors.newFixedThreadPool(ParallelFetcher.DEFAULT_PARALLELISM, Thread.ofVirtual().factory());
+             ExecutorService scanExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())) {
+            CompletableFuture<?>[] scans = builds.stream()
+                .map(build -> CompletableFuture
+                    .supplyAsync(() -> getLog(job.url(), build), downloadExecutor)
+                    .thenAcceptAsync(log -> {
+                        if (log.downloaded()) {
+                            downloads.incrementAndGet();
+                        }
+                        matches.addAndGet(scan(log, pattern));
+                    }, scanExecutor))
+                .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(scans).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+        shellPrinter.println(matches.get() + " matching lines in " + builds.size() + " builds (" + downloads.get() + " downloaded)");
+    }
+
+    private LogArchive.ArchivedLog getLog(String jobUrl, BuildInfo build) {
+        try {
+            return logArchive.get(jobUrl, build.number(), build.result() != null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int scan(LogArchive.ArchivedLog log, Pattern pattern) {
+        AtomicInteger matches = new AtomicInteger();
+        String buildPrefix = colored("#" + log.buildNumber(), TextColor.YELLOW);
+        try {
+            LogArchive.forEachLine(log.path(), (lineNumber, line) -> {
+                Matcher matcher = pattern.matcher(line);
+                if (matcher.find()) {
+                    matches.incrementAndGet();
+                    String highlighted = matcher.replaceAll(match -> Matcher.quoteReplacement(colored(match.group(), TextColor.RED)));
+                    shellPrinter.println(buildPrefix + ":" + lineNumber + ": " + highlighted);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (log.temporary()) {
+                deleteQuietly(log);
+            }
+        }
+        return matches.get();
+    }
+
+    private static void deleteQuietly(LogArchive.ArchivedLog log) {
+        try {
+            Files.deleteIfExists(log.path());
+        } catch (IOException ignored) {
+            // may still be mapped on some platforms, the file lives in the archive directory and is small
+        }
+    }
+
+    private static Duration min(Duration first, Duration second) {
+        return first.compareTo(second) <= 0 ? first : second;
+    }
+}
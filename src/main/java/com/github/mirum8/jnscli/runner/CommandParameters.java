@@ -1,5 +1,6 @@
 package com.github.mirum8.jnscli.runner;
 
+import java.time.Duration;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -7,6 +8,7 @@ import java.util.function.Supplier;
 public record CommandParameters<C>(
         ProgressBar progressBar,
         Supplier<C> completionChecker,
+        Supplier<Duration> checkInterval,
         Predicate<C> successWhen,
         Predicate<C> failureWhen,
         Function<C, String> onSuccess,
@@ -21,6 +23,7 @@ public record CommandParameters<C>(
     public static class OperationParametersBuilder<C> {
         private ProgressBar progressBar;
         private Supplier<C> completionChecker = () -> null;
+        private Supplier<Duration> checkInterval = () -> Duration.ofSeconds(5);
         private Predicate<C> successWhen = value -> true;
         private Predicate<C> failureWhen = value -> false;
         private Function<C, String> onSuccess = value -> null;
@@ -38,6 +41,14 @@ public record CommandParameters<C>(
             return this;
         }
 
+        /**
+         * Delay between two completion checks, asked again before every wait.
+         */
+        public OperationParametersBuilder<C> withCheckInterval(Supplier<Duration> checkInterval) {
+            this.checkInterval = checkInterval;
+            return this;
+        }
+
         public OperationParametersBuilder<C> withSuccessWhen(Predicate<C> successWhen) {
             this.successWhen = successWhen;
             return this;
@@ -72,6 +83,7 @@ public record CommandParameters<C>(
             return new CommandParameters<>(
                     progressBar,
                     completionChecker,
+                    checkInterval,
                     successWhen,
                     failureWhen,
                     onSuccess,
@@ -1,6 +1,7 @@
 package com.github.mirum8.jnscli.runner;
 
 import com.github.mirum8.jnscli.shell.RefreshableMultilineRenderer;
+import com.github.mirum8.jnscli.trace.Tracer;
 import com.github.mirum8.jnscli.util.Threads;
 import org.springframework.stereotype.Component;
 
@@ -25,6 +26,8 @@ public class CommandRunner {
             R result = operation.call();
             Result<C> chekingResult = processUntilCompleteOrTimeout(commandParameters);
             progressBarExecutor.shutdown();
+            // waits for a frame in progress, a late spinner frame must not be rendered after the final one
+            progressBarExecutor.awaitTermination(1, TimeUnit.SECONDS);
             return switch (chekingResult) {
                 case Result.Success<?> success -> {
                     processSuccess(commandParameters, (C) success.value());
@@ -62,18 +65,21 @@ public class CommandRunner {
             ? Instant.now().plusSeconds(commandParameters.timeout())
             : Instant.MAX;
 
-        while (true) {
-            if (timeout.isBefore(Instant.now())) {
-                return new Result.Failure<>(null);
-            }
-            C checkResult = commandParameters.completionChecker().get();
-            if (commandParameters.successWhen().test(checkResult)) {
-                return new Result.Success<>(checkResult);
-            }
-            if (commandParameters.failureWhen().test(checkResult)) {
-                return new Result.Failure<>(checkResult);
+        try (Tracer.PhaseSpan phase = Tracer.startPhase("wait for completion")) {
+            while (true) {
+                if (timeout.isBefore(Instant.now())) {
+                    return new Result.Failure<>(null);
+                }
+                phase.poll();
+                C checkResult = commandParameters.completionChecker().get();
+                if (commandParameters.successWhen().test(checkResult)) {
+                    return new Result.Success<>(checkResult);
+                }
+                if (commandParameters.failureWhen().test(checkResult)) {
+                    return new Result.Failure<>(checkResult);
+                }
+                Threads.sleepMillis(commandParameters.checkInterval().get().toMillis());
             }
-            Threads.sleepSecs(5);
         }
     }
 
@@ -25,7 +25,7 @@ public class SettingsService {
 
     private final AiSettingsProvider aiSettingsProvider;
 
-    private Settings settings;
+    private volatile Settings settings;
 
     public SettingsService(SettingsProperties properties, AiSettingsProvider aiSettingsProvider) {
         this.aiSettingsProvider = aiSettingsProvider;
@@ -59,13 +59,15 @@ public class SettingsService {
         String aliasesString = prop.getProperty(PROPERTIES_ALIASES, "");
         Map<String, String> aliases = parseAliasesString(aliasesString);
 
-        return new Settings(
+        // kept until the next write, requests read the settings every time
+        settings = new Settings(
             prop.getProperty(PROPERTIES_SERVER, ""),
             prop.getProperty(PROPERTIES_USERNAME, ""),
             prop.getProperty(PROPERTIES_KEY, ""),
             aliases,
             aiSettingsProvider.getFromProps(prop).orElse(null)
         );
+        return settings;
     }
 
     public void writeSettings(Settings settings) {
@@ -1,18 +1,25 @@
 package com.github.mirum8.jnscli.shell;
 
 import org.jline.terminal.Terminal;
+import org.jline.utils.AttributedString;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import java.io.PrintWriter;
 import java.util.List;
 
 /**
  * Component responsible for rendering output with the ability to refresh the displayed content.
- * Not thread-safe.
+ * <p>
+ * The previous frame is kept and a refresh only emits cursor moves and the spans of the lines that changed, e.g. the
+ * one character of a spinner, so that frames do not flicker and cost little over slow connections. Every frame is
+ * written and flushed at once. Thread-safe, frames of concurrent callers are never interleaved.
  */
 @Component
 public class RefreshableMultilineRenderer {
-    private int linesToRemove;
+    private static final String ESC = "\u001B[";
+
+    private List<AttributedString> frame = List.of();
     private final Terminal terminal;
 
     public RefreshableMultilineRenderer(@Lazy Terminal terminal) {
@@ -27,32 +34,93 @@ public class RefreshableMultilineRenderer {
         render(List.of(lines));
     }
 
-    public void render(List<String> lines) {
-        clean(linesToRemove);
-        linesToRemove = lines.size();
-        for (String s : lines) {
-            terminal.writer().println(s);
+    public synchronized void render(List<String> lines) {
+        List<AttributedString> next = lines.stream().map(AttributedString::fromAnsi).toList();
+        String output = diff(frame, next);
+        if (!output.isEmpty()) {
+            PrintWriter writer = terminal.writer();
+            writer.write(output);
+            writer.flush();
         }
-        terminal.writer().flush();
+        frame = next;
     }
 
-    private void clean(int lineAmount) {
-        if (lineAmount == 0) {
-            return;
-        }
-        // Move the cursor up lineAmount lines
-        terminal.writer().print(String.format("\u001B[%dA", lineAmount));
-        terminal.writer().flush();
-
-        // Delete lineAmount lines
-        terminal.writer().print(String.format("\u001B[%dM", lineAmount));
-        terminal.writer().flush();
+    /**
+     * Forgets the previous frame, the next render starts below it.
+     */
+    public synchronized void reset() {
+        frame = List.of();
     }
 
     /**
-     * Resets the number of lines to remove to zero.
+     * Output that turns the previous frame into the next one. The cursor starts and ends in the first column of the
+     * line below the frame.
      */
-    public void reset() {
-        linesToRemove = 0;
+    static String diff(List<AttributedString> previous, List<AttributedString> next) {
+        StringBuilder output = new StringBuilder();
+        int row = previous.size();
+        int common = Math.min(previous.size(), next.size());
+        for (int i = 0; i < common; i++) {
+            AttributedString before = previous.get(i);
+            AttributedString after = next.get(i);
+            if (before.equals(after)) {
+                continue;
+            }
+            int start = firstDifference(before, after);
+            moveVertically(output, row, i);
+            row = i;
+            output.append(ESC).append(before.subSequence(0, start).columnLength() + 1).append('G');
+            if (before.length() == after.length()) {
+                // same length: only the span up to the last changed character
+                int end = lastDifference(before, after) + 1;
+                output.append(after.subSequence(start, end).toAnsi());
+            } else {
+                output.append(after.subSequence(start, after.length()).toAnsi());
+                if (after.columnLength() < before.columnLength()) {
+                    output.append(ESC).append('K');
+                }
+            }
+        }
+        if (next.size() > previous.size()) {
+            moveVertically(output, row, previous.size());
+            if (!previous.isEmpty()) {
+                output.append('\r');
+            }
+            for (int i = previous.size(); i < next.size(); i++) {
+                output.append(next.get(i).toAnsi()).append('\n');
+            }
+        } else if (next.size() < previous.size()) {
+            moveVertically(output, row, next.size());
+            output.append('\r').append(ESC).append('J');
+        } else if (!output.isEmpty()) {
+            moveVertically(output, row, next.size());
+            output.append('\r');
+        }
+        return output.toString();
+    }
+
+    private static void moveVertically(StringBuilder output, int from, int to) {
+        if (to < from) {
+            output.append(ESC).append(from - to).append('A');
+        } else if (to > from) {
+            output.append(ESC).append(to - from).append('B');
+        }
+    }
+
+    private static int firstDifference(AttributedString before, AttributedString after) {
+        int length = Math.min(before.length(), after.length());
+        int i = 0;
+        while (i < length && before.charAt(i) == after.charAt(i) && before.styleAt(i).equals(after.styleAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int lastDifference(AttributedString before, AttributedString after) {
+        int i = before.length() - 1;
+        while (i >= 0 && before.charAt(i) == after.charAt(i) && before.styleAt(i).equals(after.styleAt(i))) {
+            i--;
+        }
+        return i;
     }
 }
@@ -1,16 +1,21 @@
 package com.github.mirum8.jnscli.shell;
 
+import org.jline.reader.LineReader;
 import org.jline.terminal.Terminal;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import java.io.OutputStream;
+
 @Component
 public class ShellPrinter {
 
     private final Terminal terminal;
+    private final LineReader lineReader;
 
-    public ShellPrinter(@Lazy Terminal terminal) {
+    public ShellPrinter(@Lazy Terminal terminal, @Lazy LineReader lineReader) {
         this.terminal = terminal;
+        this.lineReader = lineReader;
     }
 
     public void println() {
@@ -27,4 +32,20 @@ public class ShellPrinter {
         terminal.writer().print(message);
         terminal.flush();
     }
+
+    /**
+     * Prints a line from a background thread, above the prompt and the input typed so far when the shell is waiting
+     * for a command.
+     */
+    public void printAbove(String message) {
+        lineReader.printAbove(message);
+    }
+
+    /**
+     * Raw terminal output for bytes that are passed through without decoding, e.g. console logs.
+     */
+    public OutputStream output() {
+        terminal.flush();
+        return terminal.output();
+    }
 }
@@ -1,5 +1,6 @@
 package com.github.mirum8.jnscli.start;
 
+import com.github.mirum8.jnscli.common.JobCatalog;
 import com.github.mirum8.jnscli.list.ListService;
 import com.github.mirum8.jnscli.settings.Settings;
 import com.github.mirum8.jnscli.settings.SettingsService;
@@ -7,6 +8,8 @@ import com.github.mirum8.jnscli.shell.ShellPrinter;
 import com.github.mirum8.jnscli.util.FileUtil;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.ApplicationArguments;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.shell.boot.SpringShellProperties;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
@@ -17,23 +20,37 @@ import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
 
 import static com.github.mirum8.jnscli.shell.TextColor.RED;
+import static com.github.mirum8.jnscli.shell.TextColor.YELLOW;
 import static com.github.mirum8.jnscli.shell.TextFormatter.colored;
 
+/**
+ * Shows the job list when jns is started without a command. Beans are created lazily, this one is not, it runs before
+ * the first command or prompt.
+ */
 @Component
+@Lazy(false)
 public class StartingBean implements InitializingBean {
+    private static final Logger log = Logger.getLogger(StartingBean.class.getName());
+
     private final ShellPrinter shellPrinter;
     private final SettingsService settingsService;
     private final ListService listService;
+    private final JobCatalog jobCatalog;
     private final ApplicationArguments applicationArguments;
+    private final SpringShellProperties shellProperties;
 
     public StartingBean(ShellPrinter shellPrinter,
                         SettingsService settingsService,
                         ListService listService,
-                        ApplicationArguments applicationArguments) {
+                        JobCatalog jobCatalog,
+                        ApplicationArguments applicationArguments,
+                        SpringShellProperties shellProperties) {
         this.shellPrinter = shellPrinter;
         this.settingsService = settingsService;
         this.listService = listService;
+        this.jobCatalog = jobCatalog;
         this.applicationArguments = applicationArguments;
+        this.shellProperties = shellProperties;
     }
 
     @Override
@@ -46,12 +63,40 @@ public class StartingBean implements InitializingBean {
             shellPrinter.println(colored("Run 'connect' command to configure your settings", RED));
         } else {
             List<String> nonOptionArgs = applicationArguments.getNonOptionArgs();
-            if (nonOptionArgs.isEmpty()) {
+            if (nonOptionArgs.isEmpty() && shellProperties.getInteractive().isEnabled()) {
+                showJobList();
+            } else if (nonOptionArgs.isEmpty()) {
                 listService.listJobs();
             }
         }
     }
 
+    /**
+     * Shows the jobs of the last listing right away and lists them again in the background. Only the very first
+     * start waits for Jenkins.
+     */
+    private void showJobList() {
+        if (listService.listLastJobs()) {
+            Thread.ofVirtual().name("job-list-refresh").start(this::refreshJobList);
+        } else {
+            listService.listJobs();
+            // ready before the first tab in the interactive shell
+            jobCatalog.refreshInBackground();
+        }
+    }
+
+    private void refreshJobList() {
+        try {
+            if (listService.refreshJobs()) {
+                shellPrinter.printAbove(colored("The job list has changed, run 'list' to see it", YELLOW));
+            }
+        } catch (RuntimeException e) {
+            log.log(Level.FINE, "Could not refresh the job list", e);
+            shellPrinter.printAbove(colored("Could not refresh the job list: " + e.getMessage(), RED));
+        }
+        jobCatalog.refreshInBackground();
+    }
+
     private static void setupLogger() throws IOException {
         Logger rootLogger = Logger.getLogger("");
         rootLogger.setLevel(Level.WARNING);
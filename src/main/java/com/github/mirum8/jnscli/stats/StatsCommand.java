@@ -0,0 +1,21 @@
+package com.github.mirum8.jnscli.stats;
+
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+import org.springframework.stereotype.Component;
+
+@Command(group = "Stats Commands", description = "Stats Commands", command = "stats")
+@Component
+public class StatsCommand {
+    private final StatsService statsService;
+
+    public StatsCommand(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @Command(description = "Show requests and timings of the previous command")
+    public void stats(@Option(longNames = "all", shortNames = 'a', description = "Show a summary of all commands of this session") boolean all,
+                      @Option(longNames = "export", shortNames = 'e', description = "Write the traces of this session to a file in OTLP/JSON") String export) {
+        statsService.stats(all, export);
+    }
+}
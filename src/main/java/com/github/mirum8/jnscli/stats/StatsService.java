@@ -0,0 +1,74 @@
+package com.github.mirum8.jnscli.stats;
+
+import com.github.mirum8.jnscli.http.CircuitBreaker;
+import com.github.mirum8.jnscli.http.CircuitBreakers;
+import com.github.mirum8.jnscli.shell.ShellPrinter;
+import com.github.mirum8.jnscli.trace.CommandTrace;
+import com.github.mirum8.jnscli.trace.OtlpTraceExporter;
+import com.github.mirum8.jnscli.trace.TraceFormatter;
+import com.github.mirum8.jnscli.trace.Tracer;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static com.github.mirum8.jnscli.util.FileUtil.resolveHomeDir;
+
+@Component
+@DependsOn("circuitBreakerStore")
+public class StatsService {
+    private static final String STATS_COMMAND = "stats";
+
+    private final ShellPrinter shellPrinter;
+
+    public StatsService(ShellPrinter shellPrinter) {
+        this.shellPrinter = shellPrinter;
+    }
+
+    void stats(boolean all, String export) {
+        List<CommandTrace> traces = Tracer.history().stream()
+            .filter(trace -> !trace.command().startsWith(STATS_COMMAND))
+            .toList();
+        if (traces.isEmpty()) {
+            shellPrinter.println("No commands recorded yet");
+        } else if (export != null && !export.isBlank()) {
+            Path path = Path.of(resolveHomeDir(export));
+            try {
+                OtlpTraceExporter.append(path, traces.reversed());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            shellPrinter.println("Exported " + traces.size() + " traces to " + path);
+        } else if (all) {
+            TraceFormatter.summary(traces).forEach(shellPrinter::println);
+        } else {
+            TraceFormatter.waterfall(traces.getFirst()).forEach(shellPrinter::println);
+        }
+        if (export == null || export.isBlank()) {
+            printCircuitBreakers();
+        }
+    }
+
+    private void printCircuitBreakers() {
+        List<CircuitBreaker.Snapshot> tripped = CircuitBreakers.snapshots().stream()
+            .filter(snapshot -> snapshot.consecutiveFailures() > 0)
+            .toList();
+        if (tripped.isEmpty()) {
+            return;
+        }
+        shellPrinter.println();
+        shellPrinter.println("Circuit breakers:");
+        for (CircuitBreaker.Snapshot snapshot : tripped) {
+            String line = "  " + snapshot.host() + "  " + snapshot.state() + "  " + snapshot.consecutiveFailures() + " failed requests";
+            if (snapshot.retryAt() != null) {
+                line += ", next attempt in " + Math.max(0, Duration.between(Instant.now(), snapshot.retryAt()).toSeconds()) + "s";
+            }
+            shellPrinter.println(line);
+        }
+    }
+}
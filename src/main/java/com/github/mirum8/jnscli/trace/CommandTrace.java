@@ -0,0 +1,35 @@
+package com.github.mirum8.jnscli.trace;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Everything recorded while a command ran.
+ */
+public record CommandTrace(
+    String command,
+    Instant startedAt,
+    long durationNanos,
+    List<RequestEvent> requests,
+    List<PhaseEvent> phases
+) {
+    public long networkRequests() {
+        return requests.stream().filter(request -> !request.cacheHit()).count();
+    }
+
+    public long cacheHits() {
+        return requests.stream().filter(RequestEvent::cacheHit).count();
+    }
+
+    public long bytes() {
+        return requests.stream().mapToLong(RequestEvent::bytes).sum();
+    }
+
+    public long parseNanos() {
+        return requests.stream().mapToLong(RequestEvent::parseNanos).sum();
+    }
+
+    public int retries() {
+        return requests.stream().mapToInt(RequestEvent::retries).sum();
+    }
+}
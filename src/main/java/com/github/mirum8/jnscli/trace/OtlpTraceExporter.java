@@ -0,0 +1,140 @@
+package com.github.mirum8.jnscli.trace;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes command traces in the OTLP/JSON trace format, one {@code ExportTraceServiceRequest} per line, the same
+ * layout as the file exporter of the OpenTelemetry Collector. The files can be collected from several machines and
+ * fed to any OTLP backend or read line by line with a JSON tool.
+ * <p>
+ * Each command becomes a root span, each request a client span below it. Only URL templates are exported,
+ * no job names or parameter values.
+ */
+public final class OtlpTraceExporter {
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int SPAN_KIND_CLIENT = 3;
+    private static final int STATUS_CODE_ERROR = 2;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final SecureRandom random = new SecureRandom();
+
+    private OtlpTraceExporter() {
+    }
+
+    /**
+     * Appends the traces to the file, one line per trace.
+     */
+    public static void append(Path file, List<CommandTrace> traces) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (CommandTrace trace : traces) {
+            lines.append(toJson(trace)).append('\n');
+        }
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        Files.writeString(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    static String toJson(CommandTrace trace) {
+        String traceId = randomId(16);
+        String rootSpanId = randomId(8);
+        long startNanos = epochNanos(trace.startedAt());
+        String command = trace.command().split("\\s+", 2)[0];
+
+        List<Map<String, Object>> spans = new ArrayList<>();
+        Map<String, Object> root = span(traceId, rootSpanId, null, command, SPAN_KIND_INTERNAL,
+            startNanos, startNanos + trace.durationNanos());
+        root.put("attributes", List.of(
+            attribute("jns.command", command),
+            attribute("jns.requests", trace.networkRequests()),
+            attribute("jns.cache_hits", trace.cacheHits()),
+            attribute("jns.bytes", trace.bytes()),
+            attribute("jns.jackson_nanos", trace.parseNanos())));
+        spans.add(root);
+
+        for (RequestEvent request : trace.requests()) {
+            long requestStart = startNanos + request.startOffsetNanos();
+            Map<String, Object> span = span(traceId, randomId(8), rootSpanId, request.method() + " " + request.urlTemplate(),
+                SPAN_KIND_CLIENT, requestStart, requestStart + request.latencyNanos());
+            span.put("attributes", List.of(
+                attribute("http.request.method", request.method()),
+                attribute("url.template", request.urlTemplate()),
+                attribute("http.response.status_code", request.status()),
+                attribute("http.response.body.size", request.bytes()),
+                attribute("http.request.resend_count", request.retries()),
+                attribute("jns.jackson_nanos", request.parseNanos()),
+                attribute("jns.cache_hit", request.cacheHit())));
+            if (request.status() == 0 || request.status() >= 400) {
+                span.put("status", Map.of("code", STATUS_CODE_ERROR));
+            }
+            spans.add(span);
+        }
+        for (PhaseEvent phase : trace.phases()) {
+            long phaseStart = startNanos + phase.startOffsetNanos();
+            Map<String, Object> span = span(traceId, randomId(8), rootSpanId, phase.name(), SPAN_KIND_INTERNAL,
+                phaseStart, phaseStart + phase.durationNanos());
+            span.put("attributes", List.of(attribute("jns.polls", phase.polls())));
+            spans.add(span);
+        }
+
+        Map<String, Object> request = Map.of("resourceSpans", List.of(Map.of(
+            "resource", Map.of("attributes", List.of(attribute("service.name", "jns"))),
+            "scopeSpans", List.of(Map.of(
+                "scope", Map.of("name", Tracer.class.getPackageName()),
+                "spans", spans)))));
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, Object> span(String traceId, String spanId, String parentSpanId, String name, int kind, long startNanos, long endNanos) {
+        Map<String, Object> span = new LinkedHashMap<>();
+        span.put("traceId", traceId);
+        span.put("spanId", spanId);
+        if (parentSpanId != null) {
+            span.put("parentSpanId", parentSpanId);
+        }
+        span.put("name", name);
+        span.put("kind", kind);
+        // 64-bit integers are strings in OTLP/JSON
+        span.put("startTimeUnixNano", String.valueOf(startNanos));
+        span.put("endTimeUnixNano", String.valueOf(endNanos));
+        return span;
+    }
+
+    private static Map<String, Object> attribute(String key, Object value) {
+        Map<String, Object> attributeValue = switch (value) {
+            case Boolean b -> Map.of("boolValue", b);
+            case Integer i -> Map.of("intValue", String.valueOf(i));
+            case Long l -> Map.of("intValue", String.valueOf(l));
+            default -> Map.of("stringValue", String.valueOf(value));
+        };
+        return Map.of("key", key, "value", attributeValue);
+    }
+
+    private static long epochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static String randomId(int bytes) {
+        byte[] id = new byte[bytes];
+        random.nextBytes(id);
+        return HexFormat.of().formatHex(id);
+    }
+}
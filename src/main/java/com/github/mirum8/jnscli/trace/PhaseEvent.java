@@ -0,0 +1,14 @@
+package com.github.mirum8.jnscli.trace;
+
+/**
+ * A progress loop of a command, e.g. waiting for a build to finish.
+ *
+ * @param polls number of completion checks
+ */
+public record PhaseEvent(
+    String name,
+    long startOffsetNanos,
+    long durationNanos,
+    int polls
+) {
+}
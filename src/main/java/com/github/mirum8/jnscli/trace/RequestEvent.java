@@ -0,0 +1,24 @@
+package com.github.mirum8.jnscli.trace;
+
+/**
+ * One request of a command, or one response served from the cache without a request.
+ *
+ * @param urlTemplate      the URL without host, job names, build numbers and query values, e.g. {@code /job/{job}/{build}/api/json?tree}
+ * @param status           HTTP status, {@code 0} when no response was received
+ * @param bytes            response body size as received, before decoding
+ * @param startOffsetNanos start relative to the start of the command
+ * @param latencyNanos     time until the response was received, including retries
+ * @param parseNanos       time spent deserializing the body with Jackson
+ */
+public record RequestEvent(
+    String method,
+    String urlTemplate,
+    int status,
+    long bytes,
+    long startOffsetNanos,
+    long latencyNanos,
+    int retries,
+    long parseNanos,
+    boolean cacheHit
+) {
+}
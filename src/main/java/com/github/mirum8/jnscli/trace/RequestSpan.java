@@ -0,0 +1,90 @@
+package com.github.mirum8.jnscli.trace;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A request being recorded. The body size is counted as the body is received, so a streamed body is fully accounted
+ * for once it has been read, after {@link #finish()}.
+ */
+public final class RequestSpan {
+    private final String method;
+    private final String url;
+    private final long startNanos;
+    private final boolean cacheHit;
+    private final LongAdder bytes = new LongAdder();
+    private volatile int status;
+    private volatile int retries;
+    private volatile long latencyNanos = -1;
+    private volatile long parseNanos;
+
+    RequestSpan(String method, String url, long startNanos, boolean cacheHit) {
+        this.method = method;
+        this.url = url;
+        this.startNanos = startNanos;
+        this.cacheHit = cacheHit;
+    }
+
+    public void status(int status) {
+        this.status = status;
+    }
+
+    public void retries(int retries) {
+        this.retries = retries;
+    }
+
+    public void finish() {
+        latencyNanos = System.nanoTime() - startNanos;
+    }
+
+    synchronized void addParseNanos(long nanos) {
+        parseNanos += nanos;
+    }
+
+    /**
+     * Wraps the body handler so that the bytes of the body are counted as they arrive.
+     */
+    public <T> HttpResponse.BodyHandler<T> counting(HttpResponse.BodyHandler<T> bodyHandler) {
+        return responseInfo -> new CountingSubscriber<>(bodyHandler.apply(responseInfo), bytes);
+    }
+
+    RequestEvent toEvent(long commandStartNanos) {
+        long latency = latencyNanos >= 0 ? latencyNanos : System.nanoTime() - startNanos;
+        return new RequestEvent(method, UrlTemplates.of(url), status, bytes.sum(), startNanos - commandStartNanos,
+            latency, retries, parseNanos, cacheHit);
+    }
+
+    private record CountingSubscriber<T>(HttpResponse.BodySubscriber<T> delegate, LongAdder bytes) implements HttpResponse.BodySubscriber<T> {
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            for (ByteBuffer item : items) {
+                bytes.add(item.remaining());
+            }
+            delegate.onNext(items);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.mirum8.jnscli.trace;
+
+import org.jline.terminal.Terminal;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.shell.ResultHandlerService;
+import org.springframework.shell.Shell;
+import org.springframework.shell.command.CommandCatalog;
+import org.springframework.shell.config.ShellConversionServiceSupplier;
+import org.springframework.shell.context.ShellContext;
+import org.springframework.shell.exit.ExitCodeMappings;
+
+@Configuration
+@EnableConfigurationProperties(TraceProperties.class)
+public class TraceConfiguration {
+    /**
+     * Takes the place of the shell of the Spring Shell auto-configuration. That one is registered unconditionally under
+     * the name {@code shell}, so this one has another name and is injected instead because it is primary.
+     */
+    @Bean
+    @Primary
+    Shell tracingShell(ResultHandlerService resultHandlerService, CommandCatalog commandRegistry, Terminal terminal,
+                ShellConversionServiceSupplier shellConversionServiceSupplier, ShellContext shellContext,
+                ExitCodeMappings exitCodeMappings, TraceProperties traceProperties) {
+        Shell shell = new TracingShell(resultHandlerService, commandRegistry, terminal, shellContext, exitCodeMappings, traceProperties);
+        shell.setConversionService(shellConversionServiceSupplier.get());
+        return shell;
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.mirum8.jnscli.trace;
+
+import com.github.mirum8.jnscli.shell.TextColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static com.github.mirum8.jnscli.shell.TextFormatter.colored;
+
+/**
+ * Text rendering of command traces: a waterfall of the requests of one command and a table of several commands.
+ */
+public final class TraceFormatter {
+    private static final int BAR_WIDTH = 30;
+    private static final String SUMMARY_FORMAT = "%-28s %9s %8s %6s %10s %9s";
+
+    private TraceFormatter() {
+    }
+
+    public static List<String> waterfall(CommandTrace trace) {
+        List<String> lines = new ArrayList<>();
+        lines.add(colored("Trace: " + trace.command(), TextColor.YELLOW) + "  " + totals(trace));
+        int templateWidth = trace.requests().stream().mapToInt(request -> request.urlTemplate().length()).max().orElse(0);
+        for (RequestEvent request : trace.requests()) {
+            String status = request.cacheHit() ? colored("cache", TextColor.GREEN) : statusColored(request.status());
+            lines.add(String.format(Locale.ROOT, "  %8s  %-4s %s %9s %8s %s  %-" + templateWidth + "s  %s",
+                millis(request.startOffsetNanos()),
+                request.method(),
+                pad(status, request.cacheHit() ? 5 : String.valueOf(request.status()).length()),
+                bytes(request.bytes()),
+                millis(request.latencyNanos()),
+                request.retries() > 0 ? colored("↻" + request.retries(), TextColor.YELLOW) : "  ",
+                request.urlTemplate(),
+                bar(request.startOffsetNanos(), request.latencyNanos(), trace.durationNanos())));
+        }
+        for (PhaseEvent phase : trace.phases()) {
+            lines.add(String.format(Locale.ROOT, "  %8s  %s, %d polls, %s",
+                millis(phase.startOffsetNanos()),
+                colored(phase.name(), TextColor.CYAN),
+                phase.polls(),
+                millis(phase.durationNanos())));
+        }
+        return lines;
+    }
+
+    public static String totals(CommandTrace trace) {
+        return String.format(Locale.ROOT, "%s, %d requests, %d cached, %s, Jackson %s, %d retries",
+            millis(trace.durationNanos()),
+            trace.networkRequests(),
+            trace.cacheHits(),
+            bytes(trace.bytes()),
+            millis(trace.parseNanos()),
+            trace.retries());
+    }
+
+    public static List<String> summary(List<CommandTrace> traces) {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, SUMMARY_FORMAT, "Command", "Duration", "Requests", "Cached", "Received", "Jackson"));
+        for (CommandTrace trace : traces) {
+            String command = trace.command().length() > 28 ? trace.command().substring(0, 27) + "…" : trace.command();
+            lines.add(String.format(Locale.ROOT, SUMMARY_FORMAT,
+                command,
+                millis(trace.durationNanos()),
+                trace.networkRequests(),
+                trace.cacheHits(),
+                bytes(trace.bytes()),
+                millis(trace.parseNanos())));
+        }
+        return lines;
+    }
+
+    static String millis(long nanos) {
+        double millis = nanos / 1_000_000.0;
+        return millis >= 10_000
+            ? String.format(Locale.ROOT, "%.1f s", millis / 1000)
+            : String.format(Locale.ROOT, "%.0f ms", millis);
+    }
+
+    static String bytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Position and length of the request within the command, scaled to {@link #BAR_WIDTH} characters.
+     */
+    static String bar(long startNanos, long durationNanos, long totalNanos) {
+        if (totalNanos <= 0) {
+            return "";
+        }
+        int start = (int) Math.min(BAR_WIDTH - 1, startNanos * BAR_WIDTH / totalNanos);
+        int length = (int) Math.max(1, Math.min(BAR_WIDTH - start, Math.round((double) durationNanos * BAR_WIDTH / totalNanos)));
+        return "|" + " ".repeat(start) + "█".repeat(length) + " ".repeat(BAR_WIDTH - start - length) + "|";
+    }
+
+    private static String statusColored(int status) {
+        String text = String.valueOf(status);
+        if (status == 0 || status >= 400) {
+            return colored(text, TextColor.RED);
+        }
+        return status == 304 ? colored(text, TextColor.GREEN) : text;
+    }
+
+    // colored text is padded by its visible length, the escape codes take no space
+    private static String pad(String text, int visibleLength) {
+        return text + " ".repeat(Math.max(0, 5 - visibleLength));
+    }
+}
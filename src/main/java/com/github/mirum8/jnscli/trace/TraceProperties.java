@@ -0,0 +1,14 @@
+package com.github.mirum8.jnscli.trace;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param enabled whether the waterfall of each command is printed after its output, set by {@code --trace}
+ * @param export  file the trace of each command is appended to in OTLP/JSON, none when empty
+ */
+@ConfigurationProperties("app.trace")
+public record TraceProperties(
+    boolean enabled,
+    String export
+) {
+}
@@ -0,0 +1,147 @@
+package com.github.mirum8.jnscli.trace;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Process-wide recorder of the requests and progress loops of each command. Recording is always on and cheap,
+ * {@code --trace} and {@code jns stats} only decide what is shown.
+ * <p>
+ * The shell marks the command boundaries with {@link #beginCommand(String)} and {@link #endCommand()}. Requests sent
+ * outside a command, e.g. for completion, are kept as a {@value #BACKGROUND} trace.
+ */
+public final class Tracer {
+    public static final String BACKGROUND = "(background)";
+    private static final int HISTORY_SIZE = 20;
+    /**
+     * Requests kept per command. Long running commands like {@code watch} or {@code log --follow} send requests
+     * until they are stopped, only the latest of them are kept.
+     */
+    static final int MAX_REQUESTS = 1000;
+
+    private static final Deque<CommandTrace> history = new ArrayDeque<>();
+    private static final ThreadLocal<RequestSpan> lastRequest = new ThreadLocal<>();
+    private static volatile Recording current = new Recording(BACKGROUND);
+
+    private Tracer() {
+    }
+
+    public static void beginCommand(String command) {
+        Recording background = current;
+        current = new Recording(command);
+        if (!background.isEmpty()) {
+            remember(background.finish());
+        }
+    }
+
+    public static CommandTrace endCommand() {
+        Recording recording = current;
+        current = new Recording(BACKGROUND);
+        CommandTrace trace = recording.finish();
+        remember(trace);
+        return trace;
+    }
+
+    public static RequestSpan startRequest(String method, String url) {
+        RequestSpan span = new RequestSpan(method, url, System.nanoTime(), false);
+        current.add(span);
+        lastRequest.set(span);
+        return span;
+    }
+
+    public static void recordCacheHit(String url) {
+        RequestSpan span = new RequestSpan("GET", url, System.nanoTime(), true);
+        span.status(200);
+        span.finish();
+        current.add(span);
+        lastRequest.set(span);
+    }
+
+    /**
+     * Adds deserialization time to the last request of the calling thread.
+     */
+    public static void recordParse(long nanos) {
+        RequestSpan span = lastRequest.get();
+        if (span != null) {
+            span.addParseNanos(nanos);
+        }
+    }
+
+    public static PhaseSpan startPhase(String name) {
+        return new PhaseSpan(current, name, System.nanoTime());
+    }
+
+    /**
+     * Finished commands, the most recent first.
+     */
+    public static synchronized List<CommandTrace> history() {
+        return List.copyOf(history);
+    }
+
+    public static synchronized Optional<CommandTrace> last() {
+        return Optional.ofNullable(history.peekFirst());
+    }
+
+    private static synchronized void remember(CommandTrace trace) {
+        history.addFirst(trace);
+        while (history.size() > HISTORY_SIZE) {
+            history.removeLast();
+        }
+    }
+
+    public static final class PhaseSpan implements AutoCloseable {
+        private final Recording recording;
+        private final String name;
+        private final long startNanos;
+        private int polls;
+
+        private PhaseSpan(Recording recording, String name, long startNanos) {
+            this.recording = recording;
+            this.name = name;
+            this.startNanos = startNanos;
+        }
+
+        public void poll() {
+            polls++;
+        }
+
+        @Override
+        public void close() {
+            recording.phases.add(new PhaseEvent(name, startNanos - recording.startNanos, System.nanoTime() - startNanos, polls));
+        }
+    }
+
+    private static final class Recording {
+        private final String command;
+        private final Instant startedAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private final Deque<RequestSpan> requests = new ArrayDeque<>();
+        private final Queue<PhaseEvent> phases = new ConcurrentLinkedQueue<>();
+
+        private Recording(String command) {
+            this.command = command;
+        }
+
+        synchronized void add(RequestSpan span) {
+            if (requests.size() == MAX_REQUESTS) {
+                requests.removeFirst();
+            }
+            requests.addLast(span);
+        }
+
+        synchronized boolean isEmpty() {
+            return requests.isEmpty() && phases.isEmpty();
+        }
+
+        synchronized CommandTrace finish() {
+            return new CommandTrace(command, startedAt, System.nanoTime() - startNanos,
+                requests.stream().map(span -> span.toEvent(startNanos)).toList(),
+                List.copyOf(phases));
+        }
+    }
+}
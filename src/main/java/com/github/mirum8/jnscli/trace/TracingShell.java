@@ -0,0 +1,63 @@
+package com.github.mirum8.jnscli.trace;
+
+import org.jline.terminal.Terminal;
+import org.springframework.shell.Input;
+import org.springframework.shell.ResultHandlerService;
+import org.springframework.shell.Shell;
+import org.springframework.shell.command.CommandCatalog;
+import org.springframework.shell.context.ShellContext;
+import org.springframework.shell.exit.ExitCodeMappings;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.github.mirum8.jnscli.util.FileUtil.resolveHomeDir;
+
+/**
+ * Shell that marks the boundaries of each command for the {@link Tracer}, both in interactive and non-interactive
+ * mode.
+ */
+public class TracingShell extends Shell {
+    private static final Logger log = Logger.getLogger(TracingShell.class.getName());
+
+    private final Terminal terminal;
+    private final TraceProperties traceProperties;
+
+    public TracingShell(ResultHandlerService resultHandlerService, CommandCatalog commandRegistry, Terminal terminal,
+                        ShellContext shellContext, ExitCodeMappings exitCodeMappings, TraceProperties traceProperties) {
+        super(resultHandlerService, commandRegistry, terminal, shellContext, exitCodeMappings);
+        this.terminal = terminal;
+        this.traceProperties = traceProperties;
+    }
+
+    @Override
+    protected Object evaluate(Input input) {
+        String command = input.rawText().trim();
+        if (command.isEmpty()) {
+            return super.evaluate(input);
+        }
+        Tracer.beginCommand(command);
+        try {
+            return super.evaluate(input);
+        } finally {
+            report(Tracer.endCommand());
+        }
+    }
+
+    private void report(CommandTrace trace) {
+        if (traceProperties.enabled()) {
+            TraceFormatter.waterfall(trace).forEach(terminal.writer()::println);
+            terminal.flush();
+        }
+        if (traceProperties.export() != null && !traceProperties.export().isBlank()) {
+            try {
+                OtlpTraceExporter.append(Path.of(resolveHomeDir(traceProperties.export())), List.of(trace));
+            } catch (IOException e) {
+                log.log(Level.WARNING, "Failed to export trace", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.mirum8.jnscli.trace;
+
+import java.net.URI;
+import java.util.StringJoiner;
+
+/**
+ * Reduces request URLs to templates, so that requests of different jobs and builds can be grouped and the exported
+ * traces contain no job names or parameter values.
+ */
+final class UrlTemplates {
+    private UrlTemplates() {
+    }
+
+    static String of(String url) {
+        URI uri;
+        try {
+            uri = URI.create(url.replace(" ", "%20"));
+        } catch (IllegalArgumentException e) {
+            return "{invalid}";
+        }
+        StringBuilder template = new StringBuilder();
+        String previous = "";
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            template.append('/');
+            if (previous.equals("job")) {
+                template.append("{job}");
+            } else if (previous.equals("node")) {
+                template.append("{node}");
+            } else if (segment.chars().allMatch(Character::isDigit)) {
+                template.append(previous.equals("item") ? "{id}" : "{build}");
+            } else {
+                template.append(segment);
+            }
+            previous = segment;
+        }
+        if (template.isEmpty()) {
+            template.append('/');
+        }
+        if (uri.getRawQuery() != null) {
+            StringJoiner parameters = new StringJoiner("&", "?", "");
+            for (String parameter : uri.getRawQuery().split("&")) {
+                int separator = parameter.indexOf('=');
+                parameters.add(separator >= 0 ? parameter.substring(0, separator) : parameter);
+            }
+            template.append(parameters);
+        }
+        return template.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.mirum8.jnscli.util;
+
+import java.time.Duration;
+
+public class Durations {
+    private Durations() {
+    }
+
+    /**
+     * Short human-readable form, e.g. {@code 45s}, {@code 3m 20s} or {@code 1h 5m}.
+     */
+    public static String format(long millis) {
+        Duration duration = Duration.ofMillis(millis);
+        if (duration.toHours() > 0) {
+            return duration.toHours() + "h " + duration.toMinutesPart() + "m";
+        }
+        if (duration.toMinutes() > 0) {
+            return duration.toMinutes() + "m " + duration.toSecondsPart() + "s";
+        }
+        return duration.toSeconds() + "s";
+    }
+}
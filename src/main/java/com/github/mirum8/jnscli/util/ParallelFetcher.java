@@ -0,0 +1,84 @@
+package com.github.mirum8.jnscli.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Runs blocking lookups (typically Jenkins API calls) concurrently on virtual threads.
+ * Results are always returned in the order of the source items, no matter in which order the lookups complete.
+ */
+public class ParallelFetcher {
+    public static final int DEFAULT_PARALLELISM = 8;
+
+    private ParallelFetcher() {
+    }
+
+    public static <T, R> List<R> fetchAll(List<T> items, Function<T, R> fetcher) {
+        return fetchOrdered(items, fetcher, result -> true, items.size(), DEFAULT_PARALLELISM);
+    }
+
+    public static <T, R> List<R> fetchOrdered(List<T> items, Function<T, R> fetcher, Predicate<R> filter, int limit) {
+        return fetchOrdered(items, fetcher, filter, limit, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Fetches items in order keeping at most {@code parallelism} lookups in flight.
+     * Once {@code limit} results matching {@code filter} are collected no new lookups are started
+     * and the ones still in flight are cancelled.
+     *
+     * @param items       source items, in the order the results should be returned
+     * @param fetcher     blocking lookup for a single item
+     * @param filter      results not matching the filter are skipped
+     * @param limit       maximum number of results
+     * @param parallelism maximum number of concurrent lookups
+     * @return matching results in the order of the source items
+     */
+    public static <T, R> List<R> fetchOrdered(List<T> items, Function<T, R> fetcher, Predicate<R> filter, int limit, int parallelism) {
+        List<R> results = new ArrayList<>();
+        if (limit <= 0 || items.isEmpty()) {
+            return results;
+        }
+        Deque<Future<R>> inFlight = new ArrayDeque<>();
+        Iterator<T> iterator = items.iterator();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                while (results.size() < limit && (iterator.hasNext() || !inFlight.isEmpty())) {
+                    while (inFlight.size() < Math.max(1, parallelism) && iterator.hasNext()) {
+                        T item = iterator.next();
+                        inFlight.add(executor.submit(() -> fetcher.apply(item)));
+                    }
+                    R result = await(inFlight.poll());
+                    if (filter.test(result)) {
+                        results.add(result);
+                    }
+                }
+            } finally {
+                inFlight.forEach(future -> future.cancel(true));
+            }
+        }
+        return results;
+    }
+
+    private static <R> R await(Future<R> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.mirum8.jnscli.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out operations to at most {@code permitsPerSecond}, e.g. build triggers so that a batch does not flood Jenkins.
+ * Every caller is assigned the next free slot, so concurrent callers are served in order of arrival.
+ */
+public class RateLimiter {
+    private final long intervalNanos;
+    private long nextFreeNanos = System.nanoTime();
+
+    public RateLimiter(double permitsPerSecond) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive: " + permitsPerSecond);
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    /**
+     * Waits for the next slot.
+     */
+    public void acquire() {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextFreeNanos);
+            nextFreeNanos = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the rate limit", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.mirum8.jnscli.util;
+
+import com.github.mirum8.jnscli.jenkins.Status;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One-byte codes of {@link Status} used by the binary stores, {@code 0} stands for no status. A code is never changed
+ * or reused and a new status gets the next free one, so that files written by earlier versions stay readable.
+ */
+public class StatusCodes {
+    private static final Map<Status, Integer> CODES = new EnumMap<>(Map.of(
+        Status.SUCCESS, 1,
+        Status.NOT_EXECUTED, 2,
+        Status.IN_PROGRESS, 3,
+        Status.ABORTED, 4,
+        Status.FAILED, 5,
+        Status.FAILURE, 6,
+        Status.UNSTABLE, 7,
+        Status.NOT_BUILT, 8,
+        Status.PAUSED_PENDING_INPUT, 9));
+    private static final Status[] STATUSES = new Status[CODES.values().stream().mapToInt(Integer::intValue).max().orElse(0) + 1];
+
+    static {
+        CODES.forEach((status, code) -> STATUSES[code] = status);
+    }
+
+    private StatusCodes() {
+    }
+
+    public static int code(Status status) {
+        if (status == null) {
+            return 0;
+        }
+        Integer code = CODES.get(status);
+        if (code == null) {
+            throw new IllegalStateException("No code for status " + status);
+        }
+        return code;
+    }
+
+    /**
+     * @return the status of the code, {@code null} for {@code 0} and for codes of a newer version
+     */
+    public static Status status(int code) {
+        return code <= 0 || code >= STATUSES.length ? null : STATUSES[code];
+    }
+}
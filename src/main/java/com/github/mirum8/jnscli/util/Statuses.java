@@ -13,7 +13,7 @@ public class Statuses {
         return switch (status) {
             case SUCCESS -> colored(status.toString(), TextColor.GREEN);
             case FAILED, FAILURE -> colored(status.toString(), TextColor.RED);
-            case ABORTED, IN_PROGRESS -> colored(status.toString(), TextColor.YELLOW);
+            case ABORTED, IN_PROGRESS, UNSTABLE, PAUSED_PENDING_INPUT -> colored(status.toString(), TextColor.YELLOW);
             default -> status.name();
         };
     }
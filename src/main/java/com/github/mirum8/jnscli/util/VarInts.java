@@ -0,0 +1,43 @@
+package com.github.mirum8.jnscli.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Variable-length encoding of non-negative numbers, 7 bits per byte, used by the binary stores. Signed values, e.g.
+ * deltas, are zig-zag encoded first, so that small negative numbers stay short.
+ */
+public class VarInts {
+    private VarInts() {
+    }
+
+    public static void write(DataOutput output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    public static long read(DataInput input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = input.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length number");
+    }
+
+    public static void writeSigned(DataOutput output, long value) throws IOException {
+        write(output, (value << 1) ^ (value >> 63));
+    }
+
+    public static long readSigned(DataInput input) throws IOException {
+        long value = read(input);
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
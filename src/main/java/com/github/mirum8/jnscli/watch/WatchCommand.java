@@ -0,0 +1,26 @@
+package com.github.mirum8.jnscli.watch;
+
+import com.github.mirum8.jnscli.common.JobIdValueProvider;
+import org.springframework.shell.command.CommandRegistration;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+import org.springframework.shell.command.annotation.OptionValues;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Command(group = "Watch Commands", description = "Watch Commands", command = "watch")
+public class WatchCommand {
+    private final WatchService watchService;
+
+    public WatchCommand(WatchService watchService) {
+        this.watchService = watchService;
+    }
+
+    @Command(description = "Show running builds, current stages and queue waits of several jobs, until q is pressed")
+    public void watch(@OptionValues(provider = JobIdValueProvider.NAME) @Option(arity = CommandRegistration.OptionArity.ZERO_OR_MORE, longNames = "jobs", shortNames = 'j', description = "Jobs or folders to watch, all jobs by default") List<String> jobIds,
+                      @Option(longNames = "interval", shortNames = 'i', defaultValue = "3", description = "Seconds between two polls of Jenkins") Integer interval) {
+        watchService.watch(jobIds, interval);
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.mirum8.jnscli.watch;
+
+import com.github.mirum8.jnscli.build.PercentageBar;
+import com.github.mirum8.jnscli.jenkins.JobOverview;
+import com.github.mirum8.jnscli.shell.TextColor;
+import com.github.mirum8.jnscli.util.Durations;
+import org.jline.utils.AttributedString;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.github.mirum8.jnscli.shell.TextFormatter.bold;
+import static com.github.mirum8.jnscli.shell.TextFormatter.colored;
+
+/**
+ * Lays out a {@link WatchPoller.Snapshot} as a screen of text, one row per job.
+ * <p>
+ * Running builds come first, then queued ones, then the rest in the watched order, so a row only moves when its job
+ * changes state. Elapsed times are computed against {@code now}, so the screen advances between polls.
+ */
+class WatchDashboard {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final int MAX_JOB_WIDTH = 32;
+    private static final int STAGE_WIDTH = 24;
+
+    private WatchDashboard() {
+    }
+
+    static List<String> format(WatchPoller.Snapshot snapshot, Instant now, int width, int height, String error) {
+        List<String> lines = new ArrayList<>();
+        lines.add(header(snapshot, error));
+        if (snapshot != null) {
+            List<WatchPoller.JobState> jobs = snapshot.jobs().stream()
+                .sorted(Comparator.comparingInt(WatchDashboard::rank))
+                .toList();
+            int jobWidth = Math.min(MAX_JOB_WIDTH, jobs.stream().mapToInt(state -> state.job().name().length()).max().orElse(0));
+            // the last line stays empty, a full screen would scroll the header away
+            int visibleRows = height > 0 ? Math.max(0, height - lines.size() - 2) : jobs.size();
+            jobs.stream()
+                .limit(visibleRows)
+                .map(state -> row(state, jobWidth, now))
+                .forEach(lines::add);
+            if (jobs.size() > visibleRows) {
+                lines.add("  … " + (jobs.size() - visibleRows) + " more");
+            }
+        }
+        return lines.stream()
+            .map(line -> width > 0 ? AttributedString.fromAnsi(line).columnSubSequence(0, width).toAnsi() : line)
+            .toList();
+    }
+
+    private static String header(WatchPoller.Snapshot snapshot, String error) {
+        if (snapshot == null) {
+            return error != null ? colored(error, TextColor.RED) : "Loading…";
+        }
+        long running = snapshot.jobs().stream().filter(WatchPoller.JobState::isRunning).count();
+        long queued = snapshot.jobs().stream().filter(WatchPoller.JobState::isQueued).count();
+        String header = bold("Watching " + snapshot.jobs().size() + " jobs") + " · " + running + " running · " + queued + " queued"
+            + " · updated " + LocalTime.ofInstant(snapshot.time(), ZoneId.systemDefault()).format(TIME_FORMAT) + " · q to quit";
+        return error != null ? header + " · " + colored(error, TextColor.RED) : header;
+    }
+
+    private static int rank(WatchPoller.JobState state) {
+        if (state.isRunning()) {
+            return 0;
+        }
+        return state.isQueued() ? 1 : 2;
+    }
+
+    private static String row(WatchPoller.JobState state, int jobWidth, Instant now) {
+        JobOverview.LastBuild lastBuild = state.overview() != null ? state.overview().lastBuild() : null;
+        String name = pad(state.job().name(), jobWidth);
+        if (state.overview() == null) {
+            return "  " + colored("?", TextColor.YELLOW) + " " + name + "  not found";
+        }
+        if (state.isRunning()) {
+            String stage = pad(state.stage() != null ? state.stage().name() : "running", STAGE_WIDTH);
+            long elapsed = Math.max(0, now.toEpochMilli() - lastBuild.timestamp());
+            String time = lastBuild.estimatedDuration() > 0
+                ? Durations.format(elapsed) + " / " + Durations.format(lastBuild.estimatedDuration())
+                : Durations.format(elapsed);
+            String progress = lastBuild.estimatedDuration() > 0
+                ? PercentageBar.of((int) Math.min(99, elapsed * 100 / lastBuild.estimatedDuration()), time)
+                : time;
+            String queue = state.isQueued() ? "  +1 queued" : "";
+            return "  " + colored("▶", TextColor.YELLOW) + " " + name + "  " + pad("#" + lastBuild.number(), 6) + "  " + stage + "  " + progress + queue;
+        }
+        if (state.isQueued()) {
+            long waiting = Math.max(0, now.toEpochMilli() - state.queueItem().inQueueSince());
+            String why = state.queueItem().why() != null ? ": " + state.queueItem().why() : "";
+            return "  " + colored("…", TextColor.CYAN) + " " + name + "  " + pad("", 6) + "  " + pad("queued", STAGE_WIDTH) + "  waiting " + Durations.format(waiting) + why;
+        }
+        if (lastBuild == null) {
+            return "  · " + name + "  never built";
+        }
+        long finishedAgo = Math.max(0, now.toEpochMilli() - lastBuild.timestamp() - lastBuild.duration());
+        return "  " + resultSymbol(lastBuild.result()) + " " + name + "  " + pad("#" + lastBuild.number(), 6) + "  "
+            + pad(String.valueOf(lastBuild.result()), STAGE_WIDTH) + "  took " + Durations.format(lastBuild.duration()) + ", " + Durations.format(finishedAgo) + " ago";
+    }
+
+    private static String resultSymbol(String result) {
+        if (result == null) {
+            return "·";
+        }
+        return switch (result) {
+            case "SUCCESS" -> colored("✓", TextColor.GREEN);
+            case "FAILURE" -> colored("✗", TextColor.RED);
+            case "UNSTABLE", "ABORTED" -> colored("!", TextColor.YELLOW);
+            default -> "·";
+        };
+    }
+
+    private static String pad(String value, int width) {
+        String truncated = value.length() <= width ? value : value.substring(0, Math.max(0, width - 1)) + "…";
+        return truncated + " ".repeat(width - truncated.length());
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.mirum8.jnscli.watch;
+
+import com.github.mirum8.jnscli.context.JobType;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
+import com.github.mirum8.jnscli.jenkins.JobOverview;
+import com.github.mirum8.jnscli.jenkins.PipelineAPI;
+import com.github.mirum8.jnscli.jenkins.QueueItem;
+import com.github.mirum8.jnscli.jenkins.WorkflowRun;
+import com.github.mirum8.jnscli.util.ParallelFetcher;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Polls the state of all watched jobs with as few requests as possible; the single source of data of the dashboard.
+ * <p>
+ * A poll reads the watched jobs of each view or folder in one request, the queue in one request, and the running
+ * stage of every running pipeline build in parallel. Elapsed times are derived from the start of the builds, so the
+ * dashboard can advance them between polls without requests.
+ */
+class WatchPoller {
+    /**
+     * @param overview  the job and its last build, {@code null} if the job is not listed anymore
+     * @param queueItem the oldest queue item of the job, {@code null} if none is waiting
+     * @param stage     the running stage of the last build, {@code null} if it is not running or not a pipeline
+     */
+    record JobState(WatchedJob job, JobOverview overview, QueueItem queueItem, WorkflowRun.Stage stage) {
+        boolean isRunning() {
+            return overview != null && overview.lastBuild() != null && overview.lastBuild().building();
+        }
+
+        boolean isQueued() {
+            return queueItem != null;
+        }
+    }
+
+    record Snapshot(Instant time, List<JobState> jobs) {
+    }
+
+    private final JenkinsAPI jenkinsAPI;
+    private final PipelineAPI pipelineAPI;
+    private final List<WatchedJob> jobs;
+    private final Map<String, Set<String>> jobNamesByParent;
+
+    WatchPoller(JenkinsAPI jenkinsAPI, PipelineAPI pipelineAPI, List<WatchedJob> jobs) {
+        this.jenkinsAPI = jenkinsAPI;
+        this.pipelineAPI = pipelineAPI;
+        this.jobs = List.copyOf(jobs);
+        this.jobNamesByParent = jobs.stream()
+            .collect(Collectors.groupingBy(WatchedJob::parentUrl, LinkedHashMap::new, Collectors.mapping(WatchedJob::name, Collectors.toSet())));
+    }
+
+    Snapshot poll() {
+        Map<String, JobOverview> overviews = ParallelFetcher.fetchAll(List.copyOf(jobNamesByParent.entrySet()),
+                parent -> jenkinsAPI.getJobOverviews(parent.getKey(), parent.getValue())).stream()
+            .flatMap(List::stream)
+            .collect(Collectors.toMap(overview -> trimSlash(overview.url()), overview -> overview, (first, second) -> first));
+        Map<String, QueueItem> queued = jenkinsAPI.getQueue().items().stream()
+            .filter(item -> item.task() != null && item.task().url() != null)
+            .sorted(Comparator.comparingLong(QueueItem::inQueueSince))
+            .collect(Collectors.toMap(item -> trimSlash(item.task().url()), item -> item, (first, second) -> first));
+
+        List<JobState> states = ParallelFetcher.fetchAll(jobs, job -> {
+            JobOverview overview = overviews.get(job.url());
+            WorkflowRun.Stage stage = isRunningPipeline(overview)
+                ? runningStage(pipelineAPI.getJobBuildDescription(job.url(), overview.lastBuild().number())).orElse(null)
+                : null;
+            return new JobState(job, overview, queued.get(job.url()), stage);
+        });
+        return new Snapshot(Instant.now(), states);
+    }
+
+    private static boolean isRunningPipeline(JobOverview overview) {
+        return overview != null && JobType.fromName(overview.aClass()) == JobType.WORKFLOW
+            && overview.lastBuild() != null && overview.lastBuild().building();
+    }
+
+    private static Optional<WorkflowRun.Stage> runningStage(WorkflowRun run) {
+        if (run == null || run.stages() == null) {
+            return Optional.empty();
+        }
+        return run.stages().stream()
+            .filter(stage -> Objects.equals("IN_PROGRESS", stage.status()))
+            .findFirst();
+    }
+
+    private static String trimSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
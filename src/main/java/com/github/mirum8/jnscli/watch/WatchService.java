@@ -0,0 +1,129 @@
+package com.github.mirum8.jnscli.watch;
+
+import com.github.mirum8.jnscli.common.JobDescriptorProvider;
+import com.github.mirum8.jnscli.context.JobType;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
+import com.github.mirum8.jnscli.jenkins.PipelineAPI;
+import com.github.mirum8.jnscli.model.JobDescriptor;
+import com.github.mirum8.jnscli.shell.RefreshableMultilineRenderer;
+import org.jline.terminal.Attributes;
+import org.jline.terminal.Terminal;
+import org.jline.utils.InfoCmp;
+import org.jline.utils.NonBlockingReader;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+@Service
+class WatchService {
+    private static final Duration FRAME_INTERVAL = Duration.ofSeconds(1);
+    private static final int CTRL_C = 3;
+
+    private final JenkinsAPI jenkinsAPI;
+    private final PipelineAPI pipelineAPI;
+    private final JobDescriptorProvider jobDescriptorProvider;
+    private final RefreshableMultilineRenderer refreshableMultilineRenderer;
+    private final Terminal terminal;
+
+    WatchService(JenkinsAPI jenkinsAPI,
+                 PipelineAPI pipelineAPI,
+                 JobDescriptorProvider jobDescriptorProvider,
+                 RefreshableMultilineRenderer refreshableMultilineRenderer,
+                 @Lazy Terminal terminal) {
+        this.jenkinsAPI = jenkinsAPI;
+        this.pipelineAPI = pipelineAPI;
+        this.jobDescriptorProvider = jobDescriptorProvider;
+        this.refreshableMultilineRenderer = refreshableMultilineRenderer;
+        this.terminal = terminal;
+    }
+
+    /**
+     * Shows the dashboard until q is pressed. Jenkins is polled in the background every {@code intervalSeconds},
+     * the screen is redrawn every second from the last poll.
+     */
+    void watch(List<String> jobIds, int intervalSeconds) {
+        WatchPoller poller = new WatchPoller(jenkinsAPI, pipelineAPI, resolveJobs(jobIds));
+        AtomicReference<WatchPoller.Snapshot> snapshot = new AtomicReference<>();
+        AtomicReference<String> error = new AtomicReference<>();
+        try (ScheduledExecutorService pollExecutor = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory())) {
+            pollExecutor.scheduleWithFixedDelay(() -> {
+                try {
+                    snapshot.set(poller.poll());
+                    error.set(null);
+                } catch (RuntimeException e) {
+                    error.set(e.getMessage());
+                }
+            }, 0, Math.max(1, intervalSeconds), TimeUnit.SECONDS);
+            Attributes attributes = enterFullScreen();
+            try {
+                do {
+                    refreshableMultilineRenderer.render(WatchDashboard.format(snapshot.get(), Instant.now(),
+                        terminal.getWidth(), terminal.getHeight(), error.get()));
+                } while (!isQuit(terminal.reader().read(FRAME_INTERVAL.toMillis())));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                refreshableMultilineRenderer.reset();
+                exitFullScreen(attributes);
+                pollExecutor.shutdownNow();
+            }
+        }
+    }
+
+    private List<WatchedJob> resolveJobs(List<String> jobIds) {
+        List<WatchedJob> jobs = jobIds == null || jobIds.isEmpty()
+            ? jenkinsAPI.getJobs().stream()
+            .filter(job -> JobType.fromName(job.aClass()) != JobType.FOLDER)
+            .map(job -> WatchedJob.of(job.url()))
+            .toList()
+            : jobIds.stream()
+            .flatMap(this::resolveJob)
+            .distinct()
+            .toList();
+        if (jobs.isEmpty()) {
+            throw new IllegalArgumentException("No jobs to watch");
+        }
+        return jobs;
+    }
+
+    private Stream<WatchedJob> resolveJob(String jobId) {
+        JobDescriptor job = jobDescriptorProvider.get(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Job " + jobId + " not found"));
+        if (job.type() != JobType.FOLDER) {
+            return Stream.of(WatchedJob.of(job.url()));
+        }
+        return jenkinsAPI.getFolderJobs(job.url()).jobs().stream()
+            .filter(folderJob -> JobType.fromName(folderJob.aClass()) != JobType.FOLDER)
+            .map(folderJob -> WatchedJob.of(folderJob.url()));
+    }
+
+    private Attributes enterFullScreen() {
+        Attributes attributes = terminal.enterRawMode();
+        terminal.puts(InfoCmp.Capability.enter_ca_mode);
+        terminal.puts(InfoCmp.Capability.cursor_invisible);
+        terminal.puts(InfoCmp.Capability.clear_screen);
+        terminal.flush();
+        return attributes;
+    }
+
+    private void exitFullScreen(Attributes attributes) {
+        terminal.puts(InfoCmp.Capability.cursor_visible);
+        terminal.puts(InfoCmp.Capability.exit_ca_mode);
+        terminal.setAttributes(attributes);
+        terminal.flush();
+    }
+
+    private static boolean isQuit(int key) {
+        return key == 'q' || key == 'Q' || key == CTRL_C || key == NonBlockingReader.EOF;
+    }
+}
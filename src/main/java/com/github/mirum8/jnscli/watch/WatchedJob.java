@@ -0,0 +1,33 @@
+package com.github.mirum8.jnscli.watch;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A job on the dashboard.
+ *
+ * @param name      name of the job within its parent, as Jenkins lists it
+ * @param url       URL of the job, without a trailing slash
+ * @param parentUrl URL of the view or folder that lists the job
+ */
+record WatchedJob(String name, String url, String parentUrl) {
+    private static final String JOB_SEGMENT = "/job/";
+
+    /**
+     * Derives the name and parent from the job URL, e.g. {@code <server>/job/folder/job/app} is listed by
+     * {@code <server>/job/folder}. Top-level jobs are listed by {@code <server>/view/all}.
+     */
+    static WatchedJob of(String jobUrl) {
+        String url = jobUrl.endsWith("/") ? jobUrl.substring(0, jobUrl.length() - 1) : jobUrl;
+        int lastSegment = url.lastIndexOf(JOB_SEGMENT);
+        if (lastSegment < 0) {
+            throw new IllegalArgumentException("Not a job URL: " + jobUrl);
+        }
+        String name = URLDecoder.decode(url.substring(lastSegment + JOB_SEGMENT.length()), StandardCharsets.UTF_8);
+        String parentUrl = url.substring(0, lastSegment);
+        if (!parentUrl.contains(JOB_SEGMENT)) {
+            parentUrl += "/view/all";
+        }
+        return new WatchedJob(name, url, parentUrl);
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.mirum8.jnscli.ai;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Both clients against canned provider responses. Besides checking the clients, this runs the JSON mapping of their
+ * libraries, which the tracing agent records into the native image metadata.
+ */
+class AiClientTest {
+    private static final String OLLAMA_RESPONSE = """
+        {"model":"llama3","created_at":"2024-06-01T10:00:00Z","response":"The test stage failed","done":true,\
+        "context":[1,2,3],"total_duration":1200,"load_duration":100,"prompt_eval_count":12,"prompt_eval_duration":300,\
+        "eval_count":5,"eval_duration":800}
+        """;
+    private static final String OPENAI_RESPONSE = """
+        {"id":"chatcmpl-1","object":"chat.completion","created":1717236000,"model":"gpt-4o",\
+        "choices":[{"index":0,"message":{"role":"assistant","content":"The test stage failed"},"finish_reason":"stop"}],\
+        "usage":{"prompt_tokens":12,"completion_tokens":5,"total_tokens":17}}
+        """;
+
+    private final List<String> requests = new ArrayList<>();
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/generate", exchange -> respond(exchange, OLLAMA_RESPONSE));
+        server.createContext("/v1/chat/completions", exchange -> respond(exchange, OPENAI_RESPONSE));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void ollama_generate_returnsResponse() {
+        OllamaClient client = new OllamaClient(new LlmSettings.Ollama(baseUrl(), "llama3"));
+
+        assertThat(client.generate("Why did the build fail?")).isEqualTo("The test stage failed");
+        assertThat(requests).singleElement().asString()
+            .contains("llama3")
+            .contains("Why did the build fail?");
+    }
+
+    @Test
+    void openAI_generate_returnsFirstChoice() {
+        OpenAIClient client = new OpenAIClient(new LlmSettings.OpenAI("gpt-4o", "key", baseUrl() + "/v1/"));
+
+        assertThat(client.generate("Why did the build fail?")).isEqualTo("The test stage failed");
+        assertThat(requests).singleElement().asString()
+            .contains("gpt-4o")
+            .contains("Why did the build fail?");
+    }
+
+    private String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        try (exchange) {
+            requests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] bytes = body.strip().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.mirum8.jnscli.build;
+
+import com.github.mirum8.jnscli.jenkins.QueueItem;
+import com.github.mirum8.jnscli.jenkins.QueueItemLocation;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BuildBatchTest {
+    private static final String WAITING_ITEM = "hudson.model.Queue$WaitingItem";
+    private static final String LEFT_ITEM = "hudson.model.Queue$LeftItem";
+
+    @Test
+    void parse_readsJobAndParametersOfALine() {
+        assertThat(BuildRequest.parse("  deploy ENV=prod  URL=http://host/?a=b ")).contains(
+            new BuildRequest("deploy", List.of("ENV=prod", "URL=http://host/?a=b")));
+        assertThat(BuildRequest.parse("# comment")).isEmpty();
+        assertThat(BuildRequest.parse("   ")).isEmpty();
+        assertThatThrownBy(() -> BuildRequest.parse("deploy prod")).hasMessageContaining("key=value");
+    }
+
+    @Test
+    void withDefaults_keepsParametersOfTheRequest() {
+        BuildRequest request = new BuildRequest("deploy", List.of("ENV=prod"));
+
+        assertThat(request.withDefaults(List.of("ENV=dev", "DRY_RUN=true")).parameters())
+            .containsExactly("ENV=prod", "DRY_RUN=true");
+    }
+
+    @Test
+    void triggerAll_failsOnlyTheEntryThatCouldNotBeTriggered() {
+        BuildBatch batch = new BuildBatch(List.of(request("a"), request("missing"), request("b")));
+
+        batch.triggerAll(request -> {
+            if (request.jobId().equals("missing")) {
+                throw new IllegalArgumentException("Job missing not found");
+            }
+            return location(request.jobId());
+        });
+
+        assertThat(batch.entries()).extracting(BuildBatch.Entry::state)
+            .containsExactly(BuildBatch.State.QUEUED, BuildBatch.State.FAILED, BuildBatch.State.QUEUED);
+        assertThat(batch.entries().get(1).detail()).isEqualTo("Job missing not found");
+        assertThat(batch.isDone()).isFalse();
+    }
+
+    @Test
+    void poll_reportsTheBuildNumberOfLeftItems() {
+        BuildBatch batch = new BuildBatch(List.of(request("a"), request("b"), request("c")));
+        batch.triggerAll(request -> location(request.jobId()));
+        Map<String, QueueItem> queue = new ConcurrentHashMap<>(Map.of(
+            "a", leftItem(17),
+            "b", new QueueItem(2, false, true, false, 0, "Waiting for next available executor", "b", null, null, false, WAITING_ITEM)));
+
+        batch.poll(location -> Optional.ofNullable(queue.get(location.url())));
+        assertThat(batch.entries()).extracting(BuildBatch.Entry::state)
+            .containsExactly(BuildBatch.State.STARTED, BuildBatch.State.QUEUED, BuildBatch.State.QUEUED);
+        assertThat(batch.entries().get(0).buildNumber()).contains(17);
+        assertThat(batch.entries().get(1).detail()).isEqualTo("Waiting for next available executor");
+
+        queue.put("b", leftItem(3));
+        queue.put("c", new QueueItem(3, false, false, false, 0, null, "c", null, null, true, LEFT_ITEM));
+        batch.poll(location -> Optional.ofNullable(queue.get(location.url())));
+
+        assertThat(batch.isDone()).isTrue();
+        assertThat(batch.entries()).extracting(BuildBatch.Entry::state)
+            .containsExactly(BuildBatch.State.STARTED, BuildBatch.State.STARTED, BuildBatch.State.FAILED);
+    }
+
+    private static BuildRequest request(String jobId) {
+        return new BuildRequest(jobId, List.of());
+    }
+
+    private static QueueItemLocation location(String jobId) {
+        return new QueueItemLocation(jobId);
+    }
+
+    private static QueueItem leftItem(int buildNumber) {
+        return new QueueItem(1, false, false, false, 0, null, "", null,
+            new QueueItem.Executable(buildNumber, "http://localhost/job/test/" + buildNumber + "/"), false, LEFT_ITEM);
+    }
+}
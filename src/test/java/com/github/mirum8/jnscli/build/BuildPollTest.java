@@ -0,0 +1,112 @@
+package com.github.mirum8.jnscli.build;
+
+import com.github.mirum8.jnscli.eta.BuildEstimate;
+import com.github.mirum8.jnscli.eta.DurationEstimate;
+import com.github.mirum8.jnscli.jenkins.PipelineAPI;
+import com.github.mirum8.jnscli.jenkins.Status;
+import com.github.mirum8.jnscli.jenkins.WorkflowRun;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BuildPollTest {
+    private static final String JOB_URL = "http://localhost/job/test";
+    private static final long NOW = 1_000_000L;
+
+    private PipelineAPI pipelineAPI;
+    private AtomicInteger estimateLoads;
+    private BuildPoll buildPoll;
+
+    @BeforeEach
+    void setUp() {
+        pipelineAPI = mock(PipelineAPI.class);
+        estimateLoads = new AtomicInteger();
+        BuildEstimate estimate = new BuildEstimate(List.of(
+            new BuildEstimate.StageEstimate("Build", new DurationEstimate(120_000, 150_000, 10)),
+            new BuildEstimate.StageEstimate("Test", new DurationEstimate(30_000, 40_000, 10))), null);
+        buildPoll = new BuildPoll(pipelineAPI, JOB_URL, 2, () -> {
+            estimateLoads.incrementAndGet();
+            return estimate;
+        }, Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+    }
+
+    @Test
+    void nextInterval_isHalfOfPredictedRemainingTime() {
+        when(pipelineAPI.getJobBuildDescription(JOB_URL, 2)).thenReturn(run(Status.IN_PROGRESS,
+            stage("1", "Build", "IN_PROGRESS", NOW - 100_000, 0)));
+
+        buildPoll.refresh();
+
+        assertThat(buildPoll.nextInterval()).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void nextInterval_isMinimalNearPredictedEnd() {
+        when(pipelineAPI.getJobBuildDescription(JOB_URL, 2)).thenReturn(run(Status.IN_PROGRESS,
+            stage("1", "Build", "IN_PROGRESS", NOW - 115_000, 0)));
+
+        buildPoll.refresh();
+
+        assertThat(buildPoll.nextInterval()).isEqualTo(BuildPoll.MIN_INTERVAL);
+    }
+
+    @Test
+    void nextInterval_backsOffWhileStageRunsLongerThanPredicted() {
+        when(pipelineAPI.getJobBuildDescription(JOB_URL, 2)).thenReturn(run(Status.IN_PROGRESS,
+            stage("1", "Build", "IN_PROGRESS", NOW - 300_000, 0)));
+
+        buildPoll.refresh();
+        buildPoll.refresh();
+        buildPoll.refresh();
+
+        assertThat(buildPoll.nextInterval()).isEqualTo(Duration.ofSeconds(4));
+    }
+
+    @Test
+    void estimate_isLoadedOnce() {
+        buildPoll.estimate();
+        buildPoll.estimate();
+
+        assertThat(estimateLoads).hasValue(1);
+    }
+
+    @Test
+    void estimate_isNotLoadedForTheFirstBuild() {
+        BuildPoll firstBuild = new BuildPoll(pipelineAPI, JOB_URL, 1, () -> {
+            estimateLoads.incrementAndGet();
+            return BuildEstimate.NONE;
+        });
+
+        assertThat(firstBuild.estimate().isEmpty()).isTrue();
+        assertThat(estimateLoads).hasValue(0);
+    }
+
+    @Test
+    void estimate_isEmptyWhenLoadingFails() {
+        BuildPoll failing = new BuildPoll(pipelineAPI, JOB_URL, 2, () -> {
+            throw new UncheckedIOException(new IOException("corrupt history"));
+        });
+
+        assertThat(failing.estimate().isEmpty()).isTrue();
+    }
+
+    private static WorkflowRun run(Status status, WorkflowRun.Stage... stages) {
+        return new WorkflowRun(1, "#1", status, 0, 0, 0, 0, 0, List.of(stages));
+    }
+
+    private static WorkflowRun.Stage stage(String id, String name, String status, long start, long duration) {
+        return new WorkflowRun.Stage(id, name, status, start, duration, 0, List.of());
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.mirum8.jnscli.build;
+
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
+import com.github.mirum8.jnscli.http.ResponseCache;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer.Endpoint;
+import com.github.mirum8.jnscli.jenkins.QueueItemLocation;
+import com.github.mirum8.jnscli.settings.Settings;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueueTrackerTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private JenkinsStubServer jenkins;
+    private JenkinsAPI jenkinsAPI;
+
+    @BeforeEach
+    void setUp() {
+        jenkins = JenkinsStubServer.builder().jobs(5).historyDepth(3).queueDelay(Duration.ofMillis(500)).start();
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.readSettings()).thenReturn(new Settings(jenkins.baseUrl(), "user", "key"));
+        jenkinsAPI = new JenkinsAPI(HttpClient.newHttpClient(), new HttpRequestFactory(settingsService), settingsService,
+            new ResponseCache(cacheDirectory, ResponseCache.DEFAULT_MAX_SIZE_BYTES));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jenkins.close();
+    }
+
+    @Test
+    void refresh_readsTheQueueOncePerTickAndEachLeftItemOnce() throws InterruptedException {
+        QueueTracker tracker = new QueueTracker(jenkinsAPI);
+        List<QueueItemLocation> locations = IntStream.rangeClosed(1, 5)
+            .mapToObj(i -> jenkinsAPI.runJob(jenkins.jobUrl("job-" + i)))
+            .peek(tracker::track)
+            .toList();
+        jenkins.resetCounters();
+
+        tracker.refresh();
+        assertThat(locations).allMatch(location -> tracker.buildNumber(location).isEmpty());
+        Thread.sleep(600);
+        tracker.refresh();
+        tracker.refresh();
+
+        assertThat(locations).allMatch(location -> tracker.buildNumber(location).equals(Optional.of(4)));
+        assertThat(jenkins.requestCount(Endpoint.QUEUE)).isEqualTo(2);
+        assertThat(jenkins.requestCount(Endpoint.QUEUE_ITEM)).isEqualTo(5);
+    }
+
+    @Test
+    void buildNumber_isTheBuildStartedByTheItem() throws InterruptedException {
+        String jobUrl = jenkins.jobUrl("job-1");
+        int nextBuildNumber = jenkinsAPI.getWorkflowJob(jobUrl).nextBuildNumber();
+        jenkinsAPI.runJob(jobUrl);
+        QueueItemLocation location = jenkinsAPI.runJob(jobUrl);
+        QueueTracker tracker = new QueueTracker(jenkinsAPI).track(location);
+
+        Thread.sleep(600);
+        tracker.refresh();
+
+        assertThat(tracker.buildNumber(location)).contains(nextBuildNumber + 1);
+    }
+
+    @Test
+    void id_isReadFromTheLocation() {
+        assertThat(new QueueItemLocation("http://jenkins/queue/item/42/").id()).isEqualTo(42);
+        assertThat(new QueueItemLocation("http://jenkins/queue/item/7").id()).isEqualTo(7);
+    }
+}
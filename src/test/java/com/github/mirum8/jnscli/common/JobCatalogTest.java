@@ -0,0 +1,109 @@
+package com.github.mirum8.jnscli.common;
+
+import com.github.mirum8.jnscli.context.JobsContext;
+import com.github.mirum8.jnscli.jenkins.Job;
+import com.github.mirum8.jnscli.settings.Settings;
+import com.github.mirum8.jnscli.settings.SettingsProperties;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JobCatalogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private Clock clock;
+    private JobsContext jobsContext;
+    private JobCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        SettingsProperties settingsProperties = mock(SettingsProperties.class);
+        when(settingsProperties.directory()).thenReturn(tempDir.toString());
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.readSettings()).thenReturn(new Settings("http://example.com", "user", "key",
+            Map.of("prod", "http://example.com/job/backend/job/deploy"), null));
+        jobsContext = new JobsContext(settingsProperties);
+        jobsContext.refreshJobIds(List.of(
+            job("backend"),
+            job("backend/deploy"),
+            job("backend/Deploy-Docs"),
+            job("backend/libs/core"),
+            job("frontend")), false);
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        catalog = new JobCatalog(jobsContext, settingsService, clock, refreshes::add);
+    }
+
+    @Test
+    void complete_proposesTopLevelNamesFoldersAndAliases() {
+        assertThat(values(catalog.complete(""))).containsExactly("backend", "backend/", "frontend", "prod");
+        assertThat(catalog.complete("p")).extracting(JobCatalog.Candidate::kind).containsExactly(JobCatalog.Kind.ALIAS);
+    }
+
+    @Test
+    void complete_proposesOneFolderLevelIgnoringCase() {
+        assertThat(values(catalog.complete("backend/D"))).containsExactly("backend/deploy", "backend/Deploy-Docs");
+        assertThat(values(catalog.complete("backend/"))).containsExactly("backend/deploy", "backend/Deploy-Docs", "backend/libs/");
+        assertThat(catalog.complete("backend/l")).singleElement().satisfies(folder -> {
+            assertThat(folder.kind()).isEqualTo(JobCatalog.Kind.FOLDER);
+            assertThat(folder.complete()).isFalse();
+        });
+    }
+
+    @Test
+    void complete_proposesIdsOnlyAfterPercentSign() {
+        assertThat(catalog.complete("%")).extracting(JobCatalog.Candidate::value).containsExactly("%1", "%2", "%3", "%4", "%5");
+        assertThat(catalog.complete("%2")).extracting(JobCatalog.Candidate::description).containsExactly("backend/deploy");
+        assertThat(catalog.complete("")).noneMatch(candidate -> candidate.kind() == JobCatalog.Kind.ID);
+    }
+
+    @Test
+    void complete_answersFromSnapshotAndRefreshesInBackground() {
+        catalog.complete("");
+        jobsContext.refreshJobIds(List.of(job("new-job")), true);
+
+        assertThat(values(catalog.complete("new"))).isEmpty();
+        assertThat(refreshes).isEmpty();
+
+        when(clock.millis()).thenReturn(JobCatalog.REFRESH_INTERVAL_MILLIS);
+        assertThat(values(catalog.complete("new"))).isEmpty();
+        catalog.complete("new");
+        assertThat(refreshes).hasSize(1);
+
+        refreshes.getFirst().run();
+        assertThat(values(catalog.complete("new"))).containsExactly("new-job");
+    }
+
+    @Test
+    void complete_limitsCandidatesWithManyJobs() {
+        jobsContext.refreshJobIds(IntStream.range(0, 10_000)
+            .mapToObj(i -> job("team-" + i % 50 + "/service-" + i % 400 + "/build-" + i))
+            .toList(), false);
+
+        assertThat(catalog.complete("team-17/service-217/")).hasSize(25);
+        assertThat(catalog.complete("%")).hasSize(JobCatalog.MAX_CANDIDATES);
+    }
+
+    private static List<String> values(List<JobCatalog.Candidate> candidates) {
+        return candidates.stream().map(JobCatalog.Candidate::value).toList();
+    }
+
+    private static Job job(String name) {
+        return new Job("hudson.model.FreeStyleProject", name, "http://example.com/job/" + name, "blue");
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.mirum8.jnscli.context;
+
+import com.github.mirum8.jnscli.jenkins.Job;
+import com.github.mirum8.jnscli.model.JobDescriptor;
+import com.github.mirum8.jnscli.settings.SettingsProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JobSearchIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JobsContext jobsContext;
+    private JobSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        SettingsProperties settingsProperties = mock(SettingsProperties.class);
+        when(settingsProperties.directory()).thenReturn(tempDir.toString());
+        jobsContext = new JobsContext(settingsProperties);
+        jobsContext.refreshJobIds(List.of(
+            job("backend"),
+            job("backend/deploy"),
+            job("backend/deploy-staging"),
+            job("backend/build"),
+            job("frontend/Deploy-Docs")), false);
+        index = new JobSearchIndex(jobsContext, tempDir.resolve(JobSearchIndex.RECENT_FILENAME), Clock.fixed(Instant.ofEpochMilli(1_000), ZoneOffset.UTC));
+    }
+
+    @Test
+    void search_ranksExactSegmentBeforePrefixAndSubstring() {
+        assertThat(names(index.search("DEPLOY", 10))).containsExactly("backend/deploy", "frontend/Deploy-Docs", "backend/deploy-staging");
+        assertThat(index.search("deploy", 10)).extracting(JobSearchIndex.Match::kind)
+            .containsExactly(JobSearchIndex.Kind.SEGMENT, JobSearchIndex.Kind.PREFIX, JobSearchIndex.Kind.PREFIX);
+    }
+
+    @Test
+    void search_findsShortFragments() {
+        assertThat(names(index.search("bu", 10))).containsExactly("backend/build");
+    }
+
+    @Test
+    void search_fallsBackToFuzzyMatches() {
+        List<JobSearchIndex.Match> matches = index.search("deplyo-staging", 10);
+
+        assertThat(names(matches)).first().isEqualTo("backend/deploy-staging");
+        assertThat(matches).allMatch(match -> match.kind() == JobSearchIndex.Kind.FUZZY);
+    }
+
+    @Test
+    void search_ranksRecentlyUsedJobsFirst() {
+        index.recordUse(jobsContext.findJobByName("backend/deploy-staging").orElseThrow());
+
+        assertThat(names(index.search("docs", 10))).containsExactly("frontend/Deploy-Docs");
+        assertThat(names(index.search("deploy-", 10))).containsExactly("backend/deploy-staging", "frontend/Deploy-Docs");
+        assertThat(tempDir.resolve(JobSearchIndex.RECENT_FILENAME)).doesNotExist();
+        index.flush();
+        JobSearchIndex reloaded = new JobSearchIndex(jobsContext, tempDir.resolve(JobSearchIndex.RECENT_FILENAME), Clock.systemUTC());
+        assertThat(reloaded.search("staging", 1)).extracting(JobSearchIndex.Match::lastUsedMillis).containsExactly(1_000L);
+    }
+
+    @Test
+    void bestMatches_isSingleForUnambiguousFragment() {
+        assertThat(names(index.bestMatches("deploy", 5))).containsExactly("backend/deploy");
+        assertThat(names(index.bestMatches("deploy-", 5))).containsExactly("frontend/Deploy-Docs", "backend/deploy-staging");
+        assertThat(index.bestMatches("deplyo", 5)).isEmpty();
+    }
+
+    @Test
+    void search_seesNewJobsOfTheMapping() {
+        jobsContext.refreshJobIds(List.of(job("new/deploy-prod")), true);
+
+        assertThat(names(index.search("prod", 10))).containsExactly("new/deploy-prod");
+    }
+
+    private static List<String> names(List<JobSearchIndex.Match> matches) {
+        return matches.stream().map(JobSearchIndex.Match::job).map(JobDescriptor::name).toList();
+    }
+
+    private static Job job(String name) {
+        return new Job("hudson.model.FreeStyleProject", name, "http://example.com/job/" + name, "blue");
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,7 +47,7 @@ class JobsContextTest {
     }
 
     @Test
-    void refreshJobIds_writesJobsToFile() throws IOException {
+    void refreshJobIds_writesJobsToFile() {
         List<Job> jobs = List.of(
             new Job("hudson.model.FreeStyleProject", "job1", "http://example.com/job1", "blue"),
             new Job("org.jenkinsci.plugins.workflow.job.WorkflowJob", "job2", "http://example.com/job2", "red")
@@ -54,29 +55,48 @@ class JobsContextTest {
 
         jobsContext.refreshJobIds(jobs, false);
 
-        List<String> lines = Files.readAllLines(tempDir.resolve(JobsContext.MAPPING_FILENAME));
-        assertEquals(2, lines.size());
+        JobsContext reloaded = new JobsContext(settingsProperties);
+        Optional<JobDescriptor> job1 = reloaded.findJobById(1);
+        assertTrue(job1.isPresent());
+        assertEquals("job1", job1.get().name());
+        assertEquals("http://example.com/job1", job1.get().url());
+        assertEquals(JobType.FREESTYLE, job1.get().type());
+
+        Optional<JobDescriptor> job2 = reloaded.findJobByName("job2");
+        assertTrue(job2.isPresent());
+        assertEquals(2, job2.get().id());
+        assertEquals("http://example.com/job2", job2.get().url());
+        assertEquals(JobType.WORKFLOW, job2.get().type());
+    }
+
+    @Test
+    void refreshJobIds_appendContinuesIds() {
+        jobsContext.refreshJobIds(List.of(new Job("hudson.model.FreeStyleProject", "job1", "http://example.com/job1", "blue")), false);
+        jobsContext.refreshJobIds(List.of(new Job("hudson.model.FreeStyleProject", "folder/job2", "http://example.com/folder/job2", "blue")), true);
+
+        Optional<JobDescriptor> job2 = new JobsContext(settingsProperties).findJobById(2);
+        assertTrue(job2.isPresent());
+        assertEquals("folder/job2", job2.get().name());
+    }
+
+    @Test
+    void refreshJobIds_ignoresTornRecord() throws IOException {
+        jobsContext.refreshJobIds(List.of(new Job("hudson.model.FreeStyleProject", "job1", "http://example.com/job1", "blue")), false);
+        Files.write(tempDir.resolve(JobsContext.MAPPING_FILENAME), new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
 
-        String[] parts1 = lines.get(0).split(";");
-        assertEquals("1", parts1[0]);
-        assertEquals("job1", parts1[1]);
-        assertEquals("http://example.com/job1", parts1[2]);
-        assertEquals(JobType.FREESTYLE.name(), parts1[3]);
+        JobsContext reloaded = new JobsContext(settingsProperties);
+        reloaded.refreshJobIds(List.of(new Job("hudson.model.FreeStyleProject", "job2", "http://example.com/job2", "blue")), true);
 
-        String[] parts2 = lines.get(1).split(";");
-        assertEquals("2", parts2[0]);
-        assertEquals("job2", parts2[1]);
-        assertEquals("http://example.com/job2", parts2[2]);
-        assertEquals(JobType.WORKFLOW.name(), parts2[3]);
+        assertEquals("job2", new JobsContext(settingsProperties).findJobById(2).map(JobDescriptor::name).orElse(null));
     }
 
     @Test
-    void findJobById_returnsCorrectJob() throws IOException {
+    void findJobById_migratesLegacyMapping() throws IOException {
         List<String> lines = List.of(
             "1;job1;http://example.com/job1;FREESTYLE",
             "2;job2;http://example.com/job2;WORKFLOW"
         );
-        Files.write(tempDir.resolve(JobsContext.MAPPING_FILENAME), lines);
+        Files.write(tempDir.resolve(JobsContext.LEGACY_MAPPING_FILENAME), lines);
 
         Optional<JobDescriptor> job1 = jobsContext.findJobById(1);
         assertTrue(job1.isPresent());
@@ -92,12 +112,12 @@ class JobsContextTest {
     }
 
     @Test
-    void findJobByName_returnsCorrectJob() throws IOException {
+    void findJobByName_migratesLegacyMapping() throws IOException {
         List<String> lines = List.of(
             "1;job1;http://example.com/job1;FREESTYLE",
             "2;job2;http://example.com/job2;WORKFLOW"
         );
-        Files.write(tempDir.resolve(JobsContext.MAPPING_FILENAME), lines);
+        Files.write(tempDir.resolve(JobsContext.LEGACY_MAPPING_FILENAME), lines);
 
         Optional<JobDescriptor> job1 = jobsContext.findJobByName("job1");
         assertTrue(job1.isPresent());
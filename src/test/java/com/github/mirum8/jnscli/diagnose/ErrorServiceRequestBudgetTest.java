@@ -0,0 +1,92 @@
+package com.github.mirum8.jnscli.diagnose;
+
+import com.github.mirum8.jnscli.ai.AiService;
+import com.github.mirum8.jnscli.common.JobDescriptorProvider;
+import com.github.mirum8.jnscli.context.JobType;
+import com.github.mirum8.jnscli.history.BuildHistoryService;
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
+import com.github.mirum8.jnscli.http.ResponseCache;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer.Endpoint;
+import com.github.mirum8.jnscli.jenkins.PipelineAPI;
+import com.github.mirum8.jnscli.model.JobDescriptor;
+import com.github.mirum8.jnscli.settings.Settings;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import com.github.mirum8.jnscli.shell.ShellPrinter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Number of Jenkins requests {@code jns error} needs, measured against the stub server.
+ */
+class ErrorServiceRequestBudgetTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private JenkinsStubServer jenkins;
+    private ShellPrinter shellPrinter;
+    private ErrorService errorService;
+
+    @BeforeEach
+    void setUp() {
+        jenkins = JenkinsStubServer.builder().jobs(5).historyDepth(12).failedBuildEvery(5).logSize(1024 * 1024).start();
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.readSettings()).thenReturn(new Settings(jenkins.baseUrl(), "user", "key"));
+        HttpClient httpClient = HttpClient.newHttpClient();
+        ResponseCache responseCache = new ResponseCache(cacheDirectory, ResponseCache.DEFAULT_MAX_SIZE_BYTES);
+        JenkinsAPI jenkinsAPI = new JenkinsAPI(httpClient, new HttpRequestFactory(settingsService), settingsService, responseCache);
+        PipelineAPI pipelineAPI = new PipelineAPI(httpClient, new HttpRequestFactory(settingsService), responseCache);
+        JobDescriptorProvider jobDescriptorProvider = mock(JobDescriptorProvider.class);
+        when(jobDescriptorProvider.get("job-1")).thenReturn(Optional.of(JobDescriptor.builder()
+            .name("job-1")
+            .url(jenkins.jobUrl("job-1"))
+            .type(JobType.WORKFLOW)
+            .build()));
+        shellPrinter = mock(ShellPrinter.class);
+        errorService = new ErrorService(mock(AiService.class), jenkinsAPI, pipelineAPI, settingsService, shellPrinter, jobDescriptorProvider,
+            mock(BuildHistoryService.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jenkins.close();
+    }
+
+    @Test
+    void lastFailedBuild_readsFailedNodeLogWithoutConsoleText() {
+        errorService.getError("job-1", null, false, false);
+
+        verify(shellPrinter).println(contains("ERROR: script returned exit code 1"));
+        assertThat(jenkins.requestCounts()).isEqualTo(Map.of(
+            Endpoint.JOB, 1,
+            Endpoint.WFAPI_DESCRIBE, 1,
+            Endpoint.NODE_DESCRIBE, 1,
+            Endpoint.NODE_LOG, 1));
+    }
+
+    @Test
+    void givenBuild_secondRunIsServedFromCache() {
+        errorService.getError("job-1", 10, false, false);
+        jenkins.resetCounters();
+
+        errorService.getError("job-1", 10, false, false);
+
+        // the finished build and its description are immutable, only the stage endpoints are fetched again
+        assertThat(jenkins.requestCounts()).isEqualTo(Map.of(Endpoint.NODE_DESCRIBE, 1, Endpoint.NODE_LOG, 1));
+    }
+}
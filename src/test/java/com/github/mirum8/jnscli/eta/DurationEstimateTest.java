@@ -0,0 +1,52 @@
+package com.github.mirum8.jnscli.eta;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DurationEstimateTest {
+
+    @Test
+    void of_isEmptyWithoutDurations() {
+        assertThat(DurationEstimate.of(List.of())).isEmpty();
+    }
+
+    @Test
+    void of_computesMedianAndP90() {
+        List<Long> durations = LongStream.rangeClosed(1, 10).map(i -> i * 10_000).boxed().toList();
+
+        DurationEstimate estimate = DurationEstimate.of(durations).orElseThrow();
+
+        assertThat(estimate.medianMillis()).isEqualTo(55_000);
+        assertThat(estimate.p90Millis()).isEqualTo(90_000);
+        assertThat(estimate.samples()).isEqualTo(10);
+    }
+
+    @Test
+    void of_dropsOutliers() {
+        List<Long> durations = List.of(60_000L, 62_000L, 3_600_000L, 58_000L, 61_000L, 1_000L, 59_000L);
+
+        DurationEstimate estimate = DurationEstimate.of(durations).orElseThrow();
+
+        assertThat(estimate.samples()).isEqualTo(5);
+        assertThat(estimate.medianMillis()).isEqualTo(60_000);
+        assertThat(estimate.p90Millis()).isEqualTo(62_000);
+    }
+
+    @Test
+    void of_keepsCloseDurationsWhenMostAreIdentical() {
+        List<Long> durations = List.of(60_000L, 60_000L, 60_000L, 63_000L);
+
+        assertThat(DurationEstimate.of(durations).orElseThrow().samples()).isEqualTo(4);
+    }
+
+    @Test
+    void of_usesOnlyTheLatestDurations() {
+        List<Long> durations = LongStream.range(0, 100).map(i -> i < DurationEstimate.MAX_SAMPLES ? 10_000 : 20_000).boxed().toList();
+
+        assertThat(DurationEstimate.of(durations).orElseThrow().medianMillis()).isEqualTo(10_000);
+    }
+}
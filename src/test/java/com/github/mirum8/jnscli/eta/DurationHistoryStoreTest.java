@@ -0,0 +1,82 @@
+package com.github.mirum8.jnscli.eta;
+
+import com.github.mirum8.jnscli.jenkins.Status;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DurationHistoryStoreTest {
+    private static final String JOB_URL = "http://localhost/job/test";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void load_returnsWhatWasSaved() {
+        DurationHistoryStore store = new DurationHistoryStore(directory);
+        DurationHistory history = new DurationHistory(12, List.of(
+            new BuildDurations(10, Status.SUCCESS, 1_700_000_000_000L, 185_000, List.of(
+                new BuildDurations.Stage("Build", Status.SUCCESS, 120_000),
+                new BuildDurations.Stage("Test", Status.SUCCESS, 65_000))),
+            new BuildDurations(12, Status.FAILURE, 1_699_999_000_000L, 130_000, List.of(
+                new BuildDurations.Stage("Build", Status.SUCCESS, 125_000),
+                new BuildDurations.Stage("Test", Status.FAILED, 5_000)))));
+
+        store.save(JOB_URL, history);
+
+        assertThat(store.load(JOB_URL)).isEqualTo(history);
+    }
+
+    @Test
+    void load_isEmptyForUnknownJob() {
+        assertThat(new DurationHistoryStore(directory).load(JOB_URL)).isEqualTo(DurationHistory.EMPTY);
+    }
+
+    @Test
+    void load_isEmptyForFileOfAnotherFormat() throws IOException {
+        DurationHistoryStore store = new DurationHistoryStore(directory);
+        store.save(JOB_URL, DurationHistory.EMPTY);
+        try (var files = Files.list(directory)) {
+            Files.write(files.findFirst().orElseThrow(), new byte[]{1, 2, 3, 4, 5, 6});
+        }
+
+        assertThat(store.load(JOB_URL)).isEqualTo(DurationHistory.EMPTY);
+    }
+
+    @Test
+    void save_keepsThousandsOfBuildsCompact() throws IOException {
+        DurationHistoryStore store = new DurationHistoryStore(directory);
+        List<BuildDurations> builds = IntStream.rangeClosed(1, 5000)
+            .mapToObj(number -> new BuildDurations(number, Status.SUCCESS, 1_700_000_000_000L + number * 3_600_000L, 600_000 + number,
+                IntStream.rangeClosed(1, 5).mapToObj(stage -> new BuildDurations.Stage("Stage " + stage, Status.SUCCESS, 120_000 + number)).toList()))
+            .toList();
+
+        store.save(JOB_URL, new DurationHistory(5000, builds));
+
+        try (var files = Files.list(directory)) {
+            assertThat(Files.size(files.findFirst().orElseThrow())).isLessThan(200_000);
+        }
+        assertThat(store.load(JOB_URL).builds()).hasSize(5000);
+    }
+
+    @Test
+    void merge_replacesKnownBuildsAndKeepsTheLatest() {
+        DurationHistory history = new DurationHistory(2, List.of(build(1), build(2)));
+
+        DurationHistory merged = history.merge(List.of(build(2), build(3), build(4)), 4, 3);
+
+        assertThat(merged.builds()).extracting(BuildDurations::number).containsExactly(2, 3, 4);
+        assertThat(merged.syncedUpTo()).isEqualTo(4);
+    }
+
+    private static BuildDurations build(int number) {
+        return new BuildDurations(number, Status.SUCCESS, number * 1000L, 100, List.of());
+    }
+}
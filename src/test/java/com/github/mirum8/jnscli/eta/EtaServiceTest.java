@@ -0,0 +1,91 @@
+package com.github.mirum8.jnscli.eta;
+
+import com.github.mirum8.jnscli.common.JobDescriptorProvider;
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
+import com.github.mirum8.jnscli.http.ResponseCache;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer.Endpoint;
+import com.github.mirum8.jnscli.jenkins.PipelineAPI;
+import com.github.mirum8.jnscli.settings.Settings;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import com.github.mirum8.jnscli.shell.ShellPrinter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EtaServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private JenkinsStubServer jenkins;
+    private DurationHistoryStore store;
+    private EtaService etaService;
+
+    @BeforeEach
+    void setUp() {
+        jenkins = JenkinsStubServer.builder().jobs(1).historyDepth(20).lastBuildRunning(true)
+            .buildDuration(Duration.ofMinutes(10)).start();
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.readSettings()).thenReturn(new Settings(jenkins.baseUrl(), "user", "key"));
+        PipelineAPI pipelineAPI = new PipelineAPI(HttpClient.newHttpClient(), new HttpRequestFactory(settingsService),
+            new ResponseCache(directory.resolve("cache"), ResponseCache.DEFAULT_MAX_SIZE_BYTES));
+        store = new DurationHistoryStore(directory.resolve("durations"));
+        etaService = new EtaService(pipelineAPI, store, mock(JobDescriptorProvider.class), mock(ShellPrinter.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jenkins.close();
+    }
+
+    @Test
+    void sync_addsOnlyFinishedBuildsAndResumesBeforeRunningOnes() {
+        EtaService.Synced first = etaService.sync(jenkins.jobUrl("job-1"));
+        EtaService.Synced second = etaService.sync(jenkins.jobUrl("job-1"));
+
+        assertThat(first.history().builds()).extracting(BuildDurations::number).containsExactly(11, 12, 13, 14, 15, 16, 17, 18, 19);
+        assertThat(first.history().syncedUpTo()).isEqualTo(19);
+        assertThat(second.history()).isEqualTo(first.history());
+        assertThat(second.running()).extracting(run -> run.id()).containsExactly(20);
+        assertThat(jenkins.requestCount(Endpoint.WFAPI_RUNS)).isEqualTo(2);
+    }
+
+    @Test
+    void estimate_usesStageDurationsOfEarlierBuilds() {
+        BuildEstimate estimate = etaService.estimate(jenkins.jobUrl("job-1"), 20);
+
+        assertThat(estimate.stages()).extracting(BuildEstimate.StageEstimate::name).containsExactly("Stage 1", "Stage 2", "Stage 3");
+        assertThat(estimate.stage("Stage 1")).hasValueSatisfying(duration -> assertThat(duration.medianMillis()).isEqualTo(60_000));
+    }
+
+    @Test
+    void estimate_fallsBackToStoredHistoryWhenJenkinsFails() {
+        etaService.sync(jenkins.jobUrl("job-1"));
+        jenkins.failNext(Endpoint.WFAPI_RUNS, 10, 500);
+
+        BuildEstimate estimate = etaService.estimate(jenkins.jobUrl("job-1"), 20);
+
+        assertThat(estimate.stages()).hasSize(3);
+    }
+
+    @Test
+    void estimate_isEmptyWhenTheHistoryCannotBeWritten() throws IOException {
+        Files.writeString(directory.resolve("durations"), "not a directory");
+
+        BuildEstimate estimate = etaService.estimate(jenkins.jobUrl("job-1"), 20);
+
+        assertThat(estimate.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.mirum8.jnscli.history;
+
+import com.github.mirum8.jnscli.common.JobDescriptorProvider;
+import com.github.mirum8.jnscli.context.JobType;
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
+import com.github.mirum8.jnscli.http.ResponseCache;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer.Endpoint;
+import com.github.mirum8.jnscli.jenkins.PipelineAPI;
+import com.github.mirum8.jnscli.jenkins.Status;
+import com.github.mirum8.jnscli.model.JobDescriptor;
+import com.github.mirum8.jnscli.settings.Settings;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import com.github.mirum8.jnscli.shell.ShellPrinter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BuildHistoryServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private JenkinsStubServer jenkins;
+    private ShellPrinter shellPrinter;
+    private BuildHistoryService buildHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        jenkins = JenkinsStubServer.builder().jobs(1).historyDepth(20).failedBuildEvery(5).lastBuildRunning(true)
+            .buildDuration(Duration.ofMinutes(10)).start();
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.readSettings()).thenReturn(new Settings(jenkins.baseUrl(), "user", "key"));
+        HttpClient httpClient = HttpClient.newHttpClient();
+        ResponseCache responseCache = new ResponseCache(directory.resolve("cache"), ResponseCache.DEFAULT_MAX_SIZE_BYTES);
+        JenkinsAPI jenkinsAPI = new JenkinsAPI(httpClient, new HttpRequestFactory(settingsService), settingsService, responseCache);
+        PipelineAPI pipelineAPI = new PipelineAPI(httpClient, new HttpRequestFactory(settingsService), responseCache);
+        JobDescriptorProvider jobDescriptorProvider = mock(JobDescriptorProvider.class);
+        when(jobDescriptorProvider.get("job-1")).thenReturn(Optional.of(job()));
+        shellPrinter = mock(ShellPrinter.class);
+        buildHistoryService = new BuildHistoryService(jenkinsAPI, pipelineAPI, new BuildHistoryStore(directory.resolve("history")),
+            jobDescriptorProvider, settingsService, shellPrinter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jenkins.close();
+    }
+
+    @Test
+    void sync_addsFinishedBuildsWithStagesAndResumesBeforeRunningOnes() {
+        BuildHistoryService.Synced first = buildHistoryService.sync(jenkins.jobUrl("job-1"), JobType.WORKFLOW, 500);
+        BuildHistoryService.Synced second = buildHistoryService.sync(jenkins.jobUrl("job-1"), JobType.WORKFLOW, 500);
+
+        assertThat(first.added()).isEqualTo(19);
+        assertThat(first.table().syncedUpTo()).isEqualTo(19);
+        assertThat(first.table().stages(0)).extracting(BuildRecord.StageDuration::name).containsExactly("Stage 1", "Stage 2", "Stage 3");
+        assertThat(second.added()).isZero();
+        assertThat(second.table().records()).isEqualTo(first.table().records());
+        assertThat(jenkins.requestCount(Endpoint.JOB)).isEqualTo(2);
+        assertThat(jenkins.requestCount(Endpoint.WFAPI_DESCRIBE)).isEqualTo(19);
+    }
+
+    @Test
+    void sync_downloadsAtMostDepthBuilds() {
+        BuildHistoryService.Synced synced = buildHistoryService.sync(jenkins.jobUrl("job-1"), JobType.FREESTYLE, 5);
+
+        assertThat(synced.table().records()).extracting(BuildRecord::number).containsExactly(16, 17, 18, 19);
+        assertThat(jenkins.requestCount(Endpoint.WFAPI_DESCRIBE)).isZero();
+    }
+
+    @Test
+    void findLatest_searchesTheWholeHistory() {
+        buildHistoryService.sync(jenkins.jobUrl("job-1"), JobType.WORKFLOW, 500);
+
+        Optional<BuildRecord> failed = buildHistoryService.findLatest(job(), build -> build.number() < 12 && build.failed());
+
+        assertThat(failed).map(BuildRecord::number).hasValue(10);
+    }
+
+    @Test
+    void findLatest_includesRunningBuildsWithoutSyncing() {
+        buildHistoryService.sync(jenkins.jobUrl("job-1"), JobType.WORKFLOW, 500);
+        jenkins.resetCounters();
+
+        Optional<BuildRecord> notSuccessful = buildHistoryService.findLatest(job(), build -> build.result() != Status.SUCCESS);
+
+        assertThat(notSuccessful).map(BuildRecord::number).hasValue(20);
+        assertThat(jenkins.totalRequests()).isEqualTo(1);
+        assertThat(buildHistoryService.sync(jenkins.jobUrl("job-1"), JobType.WORKFLOW, 500).table().syncedUpTo()).isEqualTo(19);
+    }
+
+    @Test
+    void history_printsFailureRateOfMatchingBuilds() {
+        buildHistoryService.sync(jenkins.jobUrl("job-1"), JobType.WORKFLOW, 500);
+
+        buildHistoryService.history("job-1", true, false, List.of("BRANCH=main"), 3);
+
+        verify(shellPrinter).println(contains("Failure rate: 15.8% (3 of 19)"));
+    }
+
+    private JobDescriptor job() {
+        return JobDescriptor.builder()
+            .name("job-1")
+            .url(jenkins.jobUrl("job-1"))
+            .type(JobType.WORKFLOW)
+            .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.mirum8.jnscli.history;
+
+import com.github.mirum8.jnscli.jenkins.Status;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BuildTableTest {
+    private static final String JOB_URL = "http://localhost/job/test";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void records_areReadBackInBuildOrder() {
+        BuildRecord failed = new BuildRecord(12, Status.FAILURE, 1_699_999_000_000L, 130_000, null, Map.of("BRANCH", "main"),
+            List.of(new BuildRecord.StageDuration("Build", Status.SUCCESS, 125_000), new BuildRecord.StageDuration("Test", Status.FAILED, 5_000)));
+        BuildRecord successful = new BuildRecord(10, Status.SUCCESS, 1_700_000_000_000L, 185_000, "user", Map.of("BRANCH", "feature/ü"),
+            List.of());
+
+        BuildTable table = BuildTable.of(12, List.of(failed, successful));
+
+        assertThat(table.records()).containsExactly(successful, failed);
+        assertThat(table.syncedUpTo()).isEqualTo(12);
+    }
+
+    @Test
+    void merge_replacesKnownBuildsAndKeepsTheLatest() {
+        BuildTable table = BuildTable.of(3, List.of(record(1, Status.SUCCESS), record(2, Status.FAILURE), record(3, Status.SUCCESS)));
+
+        BuildTable merged = table.merge(List.of(record(3, Status.FAILURE), record(4, Status.SUCCESS)), 4, 3);
+
+        assertThat(merged.records()).containsExactly(record(2, Status.FAILURE), record(3, Status.FAILURE), record(4, Status.SUCCESS));
+        assertThat(merged.syncedUpTo()).isEqualTo(4);
+    }
+
+    @Test
+    void store_returnsWhatWasSaved() {
+        BuildHistoryStore store = new BuildHistoryStore(directory);
+        BuildTable table = BuildTable.of(4, List.of(record(1, Status.SUCCESS), record(2, Status.ABORTED), record(3, Status.UNSTABLE),
+            record(4, Status.NOT_BUILT)));
+
+        store.save(JOB_URL, table);
+
+        assertThat(store.exists(JOB_URL)).isTrue();
+        assertThat(store.load(JOB_URL).records()).isEqualTo(table.records());
+        assertThat(store.load(JOB_URL).syncedUpTo()).isEqualTo(4);
+    }
+
+    @Test
+    void store_isEmptyForFileOfAnotherFormat() throws IOException {
+        BuildHistoryStore store = new BuildHistoryStore(directory);
+        store.save(JOB_URL, BuildTable.EMPTY);
+        try (var files = Files.list(directory)) {
+            Files.write(files.findFirst().orElseThrow(), new byte[]{1, 2, 3, 4, 5, 6});
+        }
+
+        assertThat(store.load(JOB_URL).size()).isZero();
+    }
+
+    @Test
+    void store_keepsThousandsOfBuildsCompact() throws IOException {
+        BuildHistoryStore store = new BuildHistoryStore(directory);
+        List<BuildRecord> records = IntStream.rangeClosed(1, BuildHistoryStore.MAX_BUILDS)
+            .mapToObj(number -> new BuildRecord(number, number % 5 == 0 ? Status.FAILURE : Status.SUCCESS,
+                1_700_000_000_000L + number * 3_600_000L, 600_000 + number, "user-" + number % 4,
+                Map.of("BRANCH", "main", "ENV", "env-" + number % 3),
+                IntStream.rangeClosed(1, 5).mapToObj(stage -> new BuildRecord.StageDuration("Stage " + stage, Status.SUCCESS, 120_000 + number)).toList()))
+            .toList();
+
+        store.save(JOB_URL, BuildTable.of(BuildHistoryStore.MAX_BUILDS, records));
+
+        try (var files = Files.list(directory)) {
+            assertThat(Files.size(files.findFirst().orElseThrow())).isLessThan(512 * 1024);
+        }
+        assertThat(store.load(JOB_URL).record(BuildHistoryStore.MAX_BUILDS - 1)).isEqualTo(records.getLast());
+    }
+
+    private static BuildRecord record(int number, Status result) {
+        return new BuildRecord(number, result, 1_700_000_000_000L + number, 60_000, "user", Map.of(), List.of());
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.mirum8.jnscli.http;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker("jenkins", 3, Duration.ofMinutes(1));
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.recordFailure();
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(breaker::acquirePermission)
+            .isInstanceOf(CircuitOpenException.class)
+            .hasMessageContaining("jenkins is unavailable after 3 failed requests");
+    }
+
+    @Test
+    void letsOneProbeThroughAfterOpenDuration() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("jenkins", 1, Duration.ofMillis(50));
+        breaker.recordFailure();
+        Thread.sleep(60);
+
+        assertThatCode(breaker::acquirePermission).doesNotThrowAnyException();
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(breaker::acquirePermission).isInstanceOf(CircuitOpenException.class);
+
+        breaker.recordSuccess();
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThatCode(breaker::acquirePermission).doesNotThrowAnyException();
+    }
+
+    @Test
+    void opensAgainWhenProbeFails() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("jenkins", 1, Duration.ofMillis(50));
+        breaker.recordFailure();
+        Thread.sleep(60);
+        breaker.acquirePermission();
+
+        breaker.recordFailure();
+
+        assertThat(breaker.snapshot().state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(breaker::acquirePermission).isInstanceOf(CircuitOpenException.class);
+    }
+
+    @Test
+    void restoresStateFromStore(@TempDir Path directory) {
+        CircuitBreakerStore store = new CircuitBreakerStore(directory);
+        CircuitBreaker breaker = new CircuitBreaker("jenkins:8080", 2, Duration.ofMinutes(1), null, store::write);
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        CircuitBreaker restored = new CircuitBreaker("jenkins:8080", 2, Duration.ofMinutes(1), store.read("jenkins:8080").orElseThrow(), store::write);
+        assertThat(restored.snapshot().state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(restored.snapshot().consecutiveFailures()).isEqualTo(2);
+        assertThatThrownBy(restored::acquirePermission).isInstanceOf(CircuitOpenException.class);
+
+        breaker.recordSuccess();
+        assertThat(store.hosts()).isEmpty();
+        assertThat(store.read("jenkins:8080")).isEmpty();
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.mirum8.jnscli.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimiterTest {
+    private static final HttpProperties.Limiter SETTINGS = new HttpProperties.Limiter(4, 1, 8, Duration.ofSeconds(1));
+
+    @Test
+    void release_increasesLimitByOnePerRoundOfFastResponses() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(SETTINGS);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.release(limiter.acquire(), false);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void release_comparesGivenLatencyWithThreshold() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(SETTINGS);
+
+        limiter.release(limiter.acquire(), Duration.ofMillis(10).toNanos(), false);
+        assertThat(limiter.limit()).isEqualTo(4);
+        limiter.release(limiter.acquire(), Duration.ofSeconds(2).toNanos(), false);
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void release_halvesLimitOnceForABurstOfRejections() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(SETTINGS);
+        long first = limiter.acquire();
+        long second = limiter.acquire();
+
+        limiter.release(first, true);
+        limiter.release(second, true);
+
+        assertThat(limiter.limit()).isEqualTo(2);
+        limiter.release(limiter.acquire(), true);
+        assertThat(limiter.limit()).isEqualTo(1);
+        limiter.release(limiter.acquire(), true);
+        assertThat(limiter.limit()).isEqualTo(1);
+    }
+
+    @Test
+    void acquire_waitsForAPermitAtTheLimit() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new HttpProperties.Limiter(1, 1, 1, Duration.ofSeconds(1)));
+        long start = limiter.acquire();
+
+        CompletableFuture<Long> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(waiting).isNotCompleted();
+        Thread.sleep(100);
+        assertThat(waiting).isNotCompleted();
+        limiter.release(start, false);
+        waiting.get(1, TimeUnit.SECONDS);
+        assertThat(limiter.inFlight()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.mirum8.jnscli.http;
+
+import com.github.mirum8.jnscli.settings.Settings;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HttpRequestFactoryTest {
+    private SettingsService settingsService;
+    private HttpRequestFactory requestFactory;
+
+    @BeforeEach
+    void setUp() {
+        settingsService = mock(SettingsService.class);
+        when(settingsService.readSettings()).thenReturn(new Settings("https://jenkins.example.com", "user", "key"));
+        requestFactory = new HttpRequestFactory(settingsService);
+    }
+
+    @Test
+    void newRequest_doesNotLeakHeadersIntoLaterRequests() {
+        HttpRequest upload = requestFactory.newRequest(HttpMethod.POST, "https://jenkins.example.com/job/a/buildWithParameters")
+            .header("Content-Type", "multipart/form-data; boundary=x")
+            .body(HttpRequest.BodyPublishers.ofString("x"))
+            .build();
+        HttpRequest next = requestFactory.newRequest(HttpMethod.GET, "https://jenkins.example.com/job/a/api/json").build();
+
+        assertThat(upload.headers().firstValue("Content-Type")).isPresent();
+        assertThat(next.headers().firstValue("Content-Type")).isEmpty();
+        assertThat(next.method()).isEqualTo("GET");
+        assertThat(next.bodyPublisher()).isEmpty();
+    }
+
+    @Test
+    void newRequest_usesCredentialsOfCurrentSettings() {
+        HttpRequest request = requestFactory.newRequest(HttpMethod.GET, "https://jenkins.example.com/api/json").build();
+        assertThat(request.headers().firstValue("Authorization")).contains("Basic dXNlcjprZXk=");
+
+        when(settingsService.readSettings()).thenReturn(new Settings("https://jenkins.example.com", "other", "secret"));
+        request = requestFactory.newRequest(HttpMethod.GET, "https://jenkins.example.com/api/json").build();
+        assertThat(request.headers().firstValue("Authorization")).contains("Basic b3RoZXI6c2VjcmV0");
+    }
+
+    @Test
+    void newRequest_appliesTimeoutOfEndpointClass() {
+        assertThat(requestFactory.newRequest(HttpMethod.GET, "https://jenkins.example.com/job/a/1/consoleText").build().timeout())
+            .contains(HttpProperties.Timeouts.DEFAULT.log());
+        assertThat(requestFactory.newRequest(HttpMethod.POST, "https://jenkins.example.com/job/a/build").build().timeout())
+            .contains(HttpProperties.Timeouts.DEFAULT.action());
+        assertThat(requestFactory.newRequestToPath(HttpMethod.GET, "api/json").build().timeout())
+            .contains(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void newRequest_canBeCalledConcurrently() {
+        List<String> urls = IntStream.range(0, 1000).parallel()
+            .mapToObj(i -> requestFactory.newRequest(HttpMethod.GET, "https://jenkins.example.com/job/" + i + "/api/json")
+                .header("X-Index", String.valueOf(i))
+                .build())
+            .map(request -> request.uri().getPath() + " " + request.headers().firstValue("X-Index").orElseThrow())
+            .toList();
+
+        assertThat(urls).allSatisfy(line -> {
+            String[] parts = line.split(" ");
+            assertThat(parts[0]).isEqualTo("/job/" + parts[1] + "/api/json");
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.mirum8.jnscli.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryPolicyTest {
+
+    @Test
+    void buildTrigger_isOnlyRetriedWhenJenkinsCannotHaveQueuedIt() {
+        RetryPolicy policy = RetryPolicy.of(HttpMethod.POST, "http://jenkins/job/app/build");
+
+        assertThat(policy.idempotent()).isFalse();
+        assertThat(policy.retriesOn(new ConnectException())).isTrue();
+        assertThat(policy.retriesOn(new HttpTimeoutException("request timed out"))).isFalse();
+        assertThat(policy.retriesOn(503)).isTrue();
+        assertThat(policy.retriesOn(502)).isFalse();
+        assertThat(policy.retriesOn(504)).isFalse();
+    }
+
+    @Test
+    void stop_isRetriedLikeAnIdempotentRequest() {
+        RetryPolicy policy = RetryPolicy.of(HttpMethod.POST, "http://jenkins/job/app/12/stop");
+
+        assertThat(policy.idempotent()).isTrue();
+        assertThat(policy.retriesOn(new IOException("connection reset"))).isTrue();
+        assertThat(policy.retriesOn(504)).isTrue();
+    }
+
+    @Test
+    void get_isRetriedOnUnavailableStatusesOnly() {
+        RetryPolicy policy = RetryPolicy.of(HttpMethod.GET, "http://jenkins/job/app/api/json");
+
+        assertThat(policy.retriesOn(429)).isTrue();
+        assertThat(policy.retriesOn(502)).isTrue();
+        assertThat(policy.retriesOn(404)).isFalse();
+        assertThat(policy.retriesOn(500)).isFalse();
+    }
+
+    @Test
+    void delay_staysWithinExponentialCap() {
+        RetryPolicy policy = RetryPolicy.of(HttpMethod.GET, "http://jenkins/job/app/api/json");
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.delay(1, null)).get().matches(delay -> delay.compareTo(policy.baseDelay()) <= 0);
+            assertThat(policy.delay(3, null)).get().matches(delay -> delay.compareTo(policy.baseDelay().multipliedBy(4)) <= 0);
+            assertThat(policy.delay(30, null)).get().matches(delay -> delay.compareTo(policy.maxDelay()) <= 0);
+        }
+    }
+
+    @Test
+    void delay_honorsRetryAfter() {
+        RetryPolicy policy = RetryPolicy.of(HttpMethod.GET, "http://jenkins/job/app/api/json");
+
+        assertThat(policy.delay(1, "2")).get()
+            .matches(delay -> delay.compareTo(Duration.ofSeconds(2)) >= 0)
+            .matches(delay -> delay.compareTo(Duration.ofSeconds(2).plus(policy.baseDelay())) <= 0);
+        assertThat(policy.delay(1, "3600")).isEmpty();
+    }
+
+    @Test
+    void parseRetryAfter_acceptsSecondsAndHttpDates() {
+        String inTenSeconds = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusSeconds(10));
+
+        assertThat(RetryPolicy.parseRetryAfter("120")).contains(Duration.ofSeconds(120));
+        assertThat(RetryPolicy.parseRetryAfter(inTenSeconds)).get()
+            .matches(delay -> delay.compareTo(Duration.ofSeconds(8)) > 0 && delay.compareTo(Duration.ofSeconds(10)) <= 0);
+        assertThat(RetryPolicy.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT")).contains(Duration.ZERO);
+        assertThat(RetryPolicy.parseRetryAfter("soon")).isEmpty();
+        assertThat(RetryPolicy.parseRetryAfter(null)).isEmpty();
+    }
+}
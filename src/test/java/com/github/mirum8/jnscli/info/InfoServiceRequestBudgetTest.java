@@ -0,0 +1,95 @@
+package com.github.mirum8.jnscli.info;
+
+import com.github.mirum8.jnscli.common.JobDescriptorProvider;
+import com.github.mirum8.jnscli.context.JobType;
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
+import com.github.mirum8.jnscli.http.ResponseCache;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer.Endpoint;
+import com.github.mirum8.jnscli.jenkins.PipelineAPI;
+import com.github.mirum8.jnscli.model.JobDescriptor;
+import com.github.mirum8.jnscli.settings.Settings;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import com.github.mirum8.jnscli.shell.ShellPrinter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Number of Jenkins requests {@code jns info} needs, measured against the stub server.
+ */
+class InfoServiceRequestBudgetTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private JenkinsStubServer jenkins;
+    private InfoService infoService;
+    private ShellPrinter shellPrinter;
+
+    @BeforeEach
+    void setUp() {
+        jenkins = JenkinsStubServer.builder().jobs(5).historyDepth(50).start();
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.readSettings()).thenReturn(new Settings(jenkins.baseUrl(), "user", "key"));
+        HttpClient httpClient = HttpClient.newHttpClient();
+        ResponseCache responseCache = new ResponseCache(cacheDirectory, ResponseCache.DEFAULT_MAX_SIZE_BYTES);
+        JenkinsAPI jenkinsAPI = new JenkinsAPI(httpClient, new HttpRequestFactory(settingsService), settingsService, responseCache);
+        PipelineAPI pipelineAPI = new PipelineAPI(httpClient, new HttpRequestFactory(settingsService), responseCache);
+        JobDescriptorProvider jobDescriptorProvider = mock(JobDescriptorProvider.class);
+        when(jobDescriptorProvider.get("job-3")).thenReturn(Optional.of(JobDescriptor.builder()
+            .name("job-3")
+            .url(jenkins.jobUrl("job-3"))
+            .type(JobType.WORKFLOW)
+            .build()));
+        shellPrinter = mock(ShellPrinter.class);
+        infoService = new InfoService(jenkinsAPI, shellPrinter, jobDescriptorProvider, settingsService, pipelineAPI);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jenkins.close();
+    }
+
+    @Test
+    void jobInfo_fetchesBuildDetailsInOneRequest() {
+        infoService.info("job-3", null, false, false, false, 5, false);
+
+        assertThat(jenkins.requestCounts()).isEqualTo(Map.of(Endpoint.JOB, 2, Endpoint.WFAPI_RUNS, 1));
+    }
+
+    @Test
+    void jobInfo_fetchesDetailsOfMyBuildsInOneRequest() {
+        infoService.info("job-3", null, false, false, false, 3, true);
+
+        assertThat(jenkins.requestCounts()).isEqualTo(Map.of(Endpoint.JOB, 2, Endpoint.WFAPI_RUNS, 1));
+    }
+
+    @Test
+    void jobInfo_withZeroLimitPrintsNoBuilds() {
+        infoService.info("job-3", null, false, false, false, 0, false);
+
+        verify(shellPrinter).println(contains("No builds found."));
+        assertThat(jenkins.requestCounts()).doesNotContainKey(Endpoint.WFAPI_RUNS);
+    }
+
+    @Test
+    void buildInfo_needsDescribeAndBuildOnly() {
+        infoService.info("job-3", 42, false, false, false, 5, false);
+
+        assertThat(jenkins.requestCounts()).isEqualTo(Map.of(Endpoint.WFAPI_DESCRIBE, 1, Endpoint.BUILD, 1));
+    }
+}
@@ -1,21 +1,27 @@
 package com.github.mirum8.jnscli.jenkins;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.mirum8.jnscli.http.HttpRequestBuilder;
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
+import com.github.mirum8.jnscli.http.ResponseCache;
 import com.github.mirum8.jnscli.settings.Settings;
 import com.github.mirum8.jnscli.settings.SettingsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.ArgumentCaptor;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpClient;
 import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -35,6 +41,9 @@ class JenkinsAPITest {
     private Settings settings;
     private ObjectMapper objectMapper;
 
+    @TempDir
+    Path cacheDirectory;
+
     @BeforeEach
     void setUp() {
         settings = new Settings(BASE_URL, "user", "key");
@@ -44,8 +53,9 @@ class JenkinsAPITest {
         objectMapper = new ObjectMapper();
         jenkinsAPI = new JenkinsAPI(
             httpClient,
-            new HttpRequestBuilder(settingsService),
-            settingsService
+            new HttpRequestFactory(settingsService),
+            settingsService,
+            new ResponseCache(cacheDirectory, ResponseCache.DEFAULT_MAX_SIZE_BYTES)
         );
     }
 
@@ -156,6 +166,72 @@ class JenkinsAPITest {
 
             assertThat(result).isEqualTo(consoleText);
         }
+
+        @Test
+        void shouldStreamProgressiveConsoleTextToSink() throws IOException, InterruptedException {
+            HttpResponse<InputStream> response = mock(HttpResponse.class);
+            when(response.statusCode()).thenReturn(200);
+            when(response.body()).thenReturn(new ByteArrayInputStream("line 2\n".getBytes(StandardCharsets.UTF_8)));
+            when(response.headers()).thenReturn(HttpHeaders.of(
+                Map.of("X-More-Data", List.of("true"), "X-Text-Size", List.of("14")), (s1, s2) -> true));
+            when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(response);
+            ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+            ProgressiveConsoleText result = jenkinsAPI.streamProgressiveConsoleText(JOB_URL, 1, 7, sink);
+
+            assertThat(sink.toString(StandardCharsets.UTF_8)).isEqualTo("line 2\n");
+            assertThat(result).isEqualTo(new ProgressiveConsoleText(true, 14));
+            verify(httpClient).send(argThat(request ->
+                request.uri().toString().equals(JOB_URL + "/1/logText/progressiveText?start=7")
+            ), any());
+        }
+    }
+
+    @Nested
+    class CachedResponses {
+        @Test
+        void shouldServeFinishedBuildFromCache() throws IOException, InterruptedException {
+            mockHttpResponse(200, "{\"number\":1,\"result\":\"SUCCESS\",\"actions\":[]}");
+
+            jenkinsAPI.getJobBuildInfo(JOB_URL, 1);
+            BuildInfo result = jenkinsAPI.getJobBuildInfo(JOB_URL, 1);
+
+            assertThat(result.result()).isEqualTo(Status.SUCCESS);
+            verify(httpClient, times(1)).send(any(), any());
+        }
+
+        @Test
+        void shouldRefetchRunningBuild() throws IOException, InterruptedException {
+            mockHttpResponse(200, "{\"number\":1,\"result\":null,\"actions\":[]}", "ETag", "\"v1\"");
+
+            jenkinsAPI.getJobBuildInfo(JOB_URL, 1);
+            jenkinsAPI.getJobBuildInfo(JOB_URL, 1);
+
+            verify(httpClient, times(2)).send(any(), any());
+        }
+
+        @Test
+        void shouldRevalidateWithETag() throws IOException, InterruptedException {
+            String json = "{\"jobs\":[{\"name\":\"job1\"}]}";
+            mockHttpResponse(200, json, "ETag", "\"v1\"");
+            jenkinsAPI.getJobs();
+
+            mockHttpResponse(304, "");
+            List<Job> result = jenkinsAPI.getJobs();
+
+            assertThat(result).extracting(Job::name).containsExactly("job1");
+            verify(httpClient).send(argThat(request ->
+                request.headers().firstValue("If-None-Match").filter("\"v1\""::equals).isPresent()
+            ), any());
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"UNSTABLE", "NOT_BUILT", "ABORTED"})
+    void shouldReadEveryBuildResult(Status status) throws IOException, InterruptedException {
+        mockHttpResponse(200, "{\"number\":1,\"result\":\"" + status + "\",\"actions\":[]}");
+
+        assertThat(jenkinsAPI.getJobBuildInfo(JOB_URL, 1).result()).isEqualTo(status);
     }
 
     @Test
@@ -199,6 +275,8 @@ class JenkinsAPITest {
         when(response.body()).thenReturn(body);
         if (headerName != null && headerValue != null) {
             when(response.headers()).thenReturn(HttpHeaders.of(Map.of(headerName, List.of(headerValue)), (s1, s2) -> true));
+        } else {
+            when(response.headers()).thenReturn(HttpHeaders.of(Map.of(), (s1, s2) -> true));
         }
         when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(response);
     }
@@ -0,0 +1,83 @@
+package com.github.mirum8.jnscli.jenkins;
+
+import com.github.mirum8.jnscli.http.CircuitBreaker;
+import com.github.mirum8.jnscli.http.CircuitBreakers;
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
+import com.github.mirum8.jnscli.http.ResponseCache;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer.Endpoint;
+import com.github.mirum8.jnscli.settings.Settings;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JenkinsApiUtilsRetryTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private JenkinsStubServer jenkins;
+    private JenkinsAPI jenkinsAPI;
+
+    @BeforeEach
+    void setUp() {
+        jenkins = JenkinsStubServer.builder().jobs(3).historyDepth(10).start();
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.readSettings()).thenReturn(new Settings(jenkins.baseUrl(), "user", "key"));
+        jenkinsAPI = new JenkinsAPI(HttpClient.newHttpClient(), new HttpRequestFactory(settingsService), settingsService,
+            new ResponseCache(cacheDirectory, ResponseCache.DEFAULT_MAX_SIZE_BYTES));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jenkins.close();
+    }
+
+    @Test
+    void get_isRetriedWhileJenkinsIsUnavailable() {
+        jenkins.failNext(Endpoint.JOB, 2, 503);
+
+        assertThat(jenkinsAPI.getWorkflowJob(jenkins.jobUrl("job-1")).name()).isEqualTo("job-1");
+        assertThat(jenkins.requestCount(Endpoint.JOB)).isEqualTo(3);
+    }
+
+    @Test
+    void buildTrigger_isNotRepeatedWhenJenkinsMayHaveQueuedIt() {
+        jenkins.failNext(Endpoint.BUILD_TRIGGER, 1, 502);
+
+        assertThatThrownBy(() -> jenkinsAPI.runJob(jenkins.jobUrl("job-1")))
+            .isInstanceOf(JenkinsAPIException.class)
+            .hasMessageContaining("HTTP: 502");
+        assertThat(jenkins.requestCount(Endpoint.BUILD_TRIGGER)).isEqualTo(1);
+    }
+
+    @Test
+    void buildTrigger_isRepeatedWhenJenkinsRejectedIt() {
+        jenkins.failNext(Endpoint.BUILD_TRIGGER, 1, 503);
+
+        assertThat(jenkinsAPI.runJob(jenkins.jobUrl("job-1"))).isNotNull();
+        assertThat(jenkins.requestCount(Endpoint.BUILD_TRIGGER)).isEqualTo(2);
+    }
+
+    @Test
+    void circuitBreaker_failsFastWhileJenkinsIsDown() {
+        jenkins.failNext(Endpoint.JOB, 100, 503);
+        String jobUrl = jenkins.jobUrl("job-1");
+
+        assertThatThrownBy(() -> jenkinsAPI.getWorkflowJob(jobUrl)).hasMessageContaining("HTTP: 503");
+        assertThatThrownBy(() -> jenkinsAPI.getWorkflowJob(jobUrl)).hasMessageContaining("is unavailable");
+        assertThatThrownBy(() -> jenkinsAPI.getWorkflowJob(jobUrl)).hasMessageContaining("is unavailable");
+
+        assertThat(jenkins.requestCount(Endpoint.JOB)).isEqualTo(5);
+        assertThat(CircuitBreakers.forUrl(jobUrl).snapshot().state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
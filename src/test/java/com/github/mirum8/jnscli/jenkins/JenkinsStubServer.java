@@ -0,0 +1,806 @@
+package com.github.mirum8.jnscli.jenkins;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local Jenkins stand-in for tests: serves the endpoints the CLI uses from a generated set of pipeline jobs,
+ * with injectable latency, jitter, timeouts and failures, and counts the requests per endpoint so that tests can
+ * assert request budgets.
+ * <p>
+ * Jobs are named {@code job-1..job-N}, each with builds {@code 1..historyDepth}. Every {@code failedBuildEvery}-th
+ * build failed in its last stage. Builds triggered through the stub wait {@code queueDelay} in the queue and then run
+ * for {@code buildDuration}, their stages, logs and statuses progress with the wall clock.
+ * <pre>
+ * try (JenkinsStubServer jenkins = JenkinsStubServer.builder().jobs(100).historyDepth(20).start()) {
+ *     ...
+ *     assertThat(jenkins.requestCount(Endpoint.BUILD)).isLessThanOrEqualTo(1);
+ * }
+ * </pre>
+ */
+public class JenkinsStubServer implements AutoCloseable {
+    private static final String WORKFLOW_JOB_CLASS = "org.jenkinsci.plugins.workflow.job.WorkflowJob";
+    private static final Pattern TREE_RANGE = Pattern.compile("(allBuilds|builds)\\[[^{]*]\\{(\\d*),(\\d*)}");
+    private static final int WFAPI_RUNS_LIMIT = 10;
+
+    public enum Endpoint {
+        VIEW_ALL("/view/all/api/json"),
+        JOB("/job/([^/]+)/api/json"),
+        BUILD("/job/([^/]+)/(\\d+)/api/json"),
+        WFAPI_RUNS("/job/([^/]+)/wfapi/runs"),
+        WFAPI_DESCRIBE("/job/([^/]+)/(\\d+)/wfapi/describe"),
+        NODE_DESCRIBE("/job/([^/]+)/(\\d+)/execution/node/([^/]+)/wfapi/describe"),
+        NODE_LOG("/job/([^/]+)/(\\d+)/execution/node/([^/]+)/wfapi/log"),
+        PROGRESSIVE_TEXT("/job/([^/]+)/(\\d+)/logText/progressiveText"),
+        CONSOLE_TEXT("/job/([^/]+)/(\\d+)/consoleText"),
+        BUILD_TRIGGER("/job/([^/]+)/(?:build|buildWithParameters)"),
+        STOP("/job/([^/]+)/(\\d+)/stop"),
+        QUEUE("/queue/api/json"),
+        QUEUE_ITEM("/queue/item/(\\d+)/api/json"),
+        UNKNOWN("");
+
+        private final Pattern pattern;
+
+        Endpoint(String pattern) {
+            this.pattern = Pattern.compile(pattern);
+        }
+    }
+
+    private final Builder config;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Random random;
+
+    private final Map<String, StubJob> jobs = new LinkedHashMap<>();
+    private final List<QueueEntry> queue = new ArrayList<>();
+    private final AtomicInteger nextQueueId = new AtomicInteger(1);
+    private final Map<String, byte[]> logs = new ConcurrentHashMap<>();
+
+    private final Map<Endpoint, AtomicInteger> requestCounts = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Fault> faults = new ConcurrentHashMap<>();
+
+    private JenkinsStubServer(Builder config) throws IOException {
+        this.config = config;
+        this.random = new Random(config.seed);
+        for (Endpoint endpoint : Endpoint.values()) {
+            requestCounts.put(endpoint, new AtomicInteger());
+        }
+        long now = System.currentTimeMillis();
+        for (int i = 1; i <= config.jobs; i++) {
+            StubJob job = new StubJob("job-" + i);
+            for (int number = 1; number <= config.historyDepth; number++) {
+                boolean running = config.lastBuildRunning && number == config.historyDepth;
+                long duration = running ? config.buildDuration.toMillis() : 60_000L * config.stagesPerBuild;
+                long start = running ? now : now - (config.historyDepth - number + 1) * 3_600_000L;
+                job.add(new StubBuild(number, start, duration, isFailed(number)));
+            }
+            jobs.put(job.name, job);
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public String jobUrl(String jobName) {
+        return baseUrl() + "/job/" + jobName;
+    }
+
+    public int requestCount(Endpoint endpoint) {
+        return requestCounts.get(endpoint).get();
+    }
+
+    public Map<Endpoint, Integer> requestCounts() {
+        Map<Endpoint, Integer> counts = new EnumMap<>(Endpoint.class);
+        requestCounts.forEach((endpoint, count) -> {
+            if (count.get() > 0) {
+                counts.put(endpoint, count.get());
+            }
+        });
+        return counts;
+    }
+
+    public int totalRequests() {
+        return requestCounts.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    public void resetCounters() {
+        requestCounts.values().forEach(count -> count.set(0));
+    }
+
+    /**
+     * Answers the next {@code count} requests to the endpoint with the given HTTP status.
+     */
+    public void failNext(Endpoint endpoint, int count, int status) {
+        faults.put(endpoint, new Fault(new AtomicInteger(count), status));
+    }
+
+    /**
+     * Holds the next {@code count} requests to the endpoint for the configured timeout delay before answering them.
+     */
+    public void timeoutNext(Endpoint endpoint, int count) {
+        faults.put(endpoint, new Fault(new AtomicInteger(count), 0));
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream requestBody = exchange.getRequestBody()) {
+            requestBody.transferTo(OutputStream.nullOutputStream());
+            String path = exchange.getRequestURI().getPath().replaceAll("/{2,}", "/");
+            if (path.length() > 1 && path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            Endpoint endpoint = Endpoint.UNKNOWN;
+            Matcher matcher = null;
+            for (Endpoint candidate : Endpoint.values()) {
+                Matcher candidateMatcher = candidate.pattern.matcher(path);
+                if (candidate != Endpoint.UNKNOWN && candidateMatcher.matches()) {
+                    endpoint = candidate;
+                    matcher = candidateMatcher;
+                    break;
+                }
+            }
+            requestCounts.get(endpoint).incrementAndGet();
+
+            delay();
+            Fault fault = faults.get(endpoint);
+            if (fault != null && fault.remaining().getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+                if (fault.status() == 0) {
+                    sleep(config.timeoutDelay);
+                    send(exchange, 504, "text/plain", "Gateway Timeout".getBytes(StandardCharsets.UTF_8));
+                } else {
+                    send(exchange, fault.status(), "text/plain", ("Injected failure " + fault.status()).getBytes(StandardCharsets.UTF_8));
+                }
+                return;
+            }
+            if (config.timeoutRate > 0 && nextDouble() < config.timeoutRate) {
+                sleep(config.timeoutDelay);
+                send(exchange, 504, "text/plain", "Gateway Timeout".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            if (matcher == null) {
+                send(exchange, 404, "text/plain", "Not Found".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            dispatch(exchange, endpoint, matcher);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch(HttpExchange exchange, Endpoint endpoint, Matcher matcher) throws IOException {
+        long now = System.currentTimeMillis();
+        Map<String, String> query = query(exchange);
+        synchronized (this) {
+            advanceQueue(now);
+        }
+        if (endpoint == Endpoint.VIEW_ALL) {
+            sendJson(exchange, viewAll(now));
+            return;
+        }
+        if (endpoint == Endpoint.QUEUE) {
+            sendJson(exchange, Map.of("items", queueItems(now)));
+            return;
+        }
+        if (endpoint == Endpoint.QUEUE_ITEM) {
+            Optional<Map<String, Object>> item = queueItem(Integer.parseInt(matcher.group(1)), now);
+            if (item.isPresent()) {
+                sendJson(exchange, item.get());
+            } else {
+                send(exchange, 404, "text/plain", "Not Found".getBytes(StandardCharsets.UTF_8));
+            }
+            return;
+        }
+        StubJob job = jobs.get(URLDecoder.decode(matcher.group(1), StandardCharsets.UTF_8));
+        if (job == null) {
+            send(exchange, 404, "text/plain", "Not Found".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        switch (endpoint) {
+            case JOB -> sendJson(exchange, job(job, query.getOrDefault("tree", ""), now));
+            case WFAPI_RUNS -> sendJson(exchange, runs(job, query.get("since"), now));
+            case BUILD_TRIGGER -> {
+                int id = enqueue(job, now);
+                exchange.getResponseHeaders().add("Location", baseUrl() + "/queue/item/" + id + "/");
+                send(exchange, 201, "text/plain", new byte[0]);
+            }
+            default -> {
+                Optional<StubBuild> build = job.build(Integer.parseInt(matcher.group(2)));
+                if (build.isEmpty()) {
+                    send(exchange, 404, "text/plain", "Not Found".getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                dispatchBuild(exchange, endpoint, matcher, query, job, build.get(), now);
+            }
+        }
+    }
+
+    private void dispatchBuild(HttpExchange exchange, Endpoint endpoint, Matcher matcher, Map<String, String> query,
+                               StubJob job, StubBuild build, long now) throws IOException {
+        switch (endpoint) {
+            case BUILD -> sendJson(exchange, buildInfo(job, build, now));
+            case WFAPI_DESCRIBE -> sendJson(exchange, describe(build, now));
+            case NODE_DESCRIBE -> sendJson(exchange, nodeDescribe(build, matcher.group(3), now));
+            case NODE_LOG -> sendJson(exchange, nodeLog(job, build, matcher.group(3), now));
+            case CONSOLE_TEXT -> send(exchange, 200, "text/plain;charset=UTF-8", log(job, build, now));
+            case PROGRESSIVE_TEXT -> {
+                byte[] log = log(job, build, now);
+                int start = (int) Math.min(Long.parseLong(query.getOrDefault("start", "0")), log.length);
+                exchange.getResponseHeaders().add("X-Text-Size", String.valueOf(log.length));
+                if (build.status(now) == Status.IN_PROGRESS) {
+                    exchange.getResponseHeaders().add("X-More-Data", "true");
+                }
+                send(exchange, 200, "text/plain;charset=UTF-8", Arrays.copyOfRange(log, start, log.length));
+            }
+            case STOP -> {
+                build.abort(now);
+                send(exchange, 200, "text/plain", new byte[0]);
+            }
+            default -> send(exchange, 404, "text/plain", "Not Found".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private Map<String, Object> viewAll(long now) {
+        Map<String, Object> viewAll = new LinkedHashMap<>();
+        viewAll.put("_class", "hudson.model.Hudson");
+        viewAll.put("jobs", jobs.values().stream()
+            .map(job -> {
+                Map<String, Object> listed = new LinkedHashMap<>(Map.of("_class", WORKFLOW_JOB_CLASS, "name", job.name, "url", jobUrl(job.name) + "/", "color", job.color(now)));
+                job.lastBuild().ifPresent(build -> listed.put("lastBuild", lastBuild(job, build, now)));
+                return listed;
+            })
+            .toList());
+        viewAll.put("url", baseUrl() + "/");
+        viewAll.put("useCrumbs", false);
+        viewAll.put("useSecurity", true);
+        return viewAll;
+    }
+
+    private Map<String, Object> job(StubJob job, String tree, long now) {
+        List<StubBuild> builds = job.buildsNewestFirst();
+        Matcher range = TREE_RANGE.matcher(tree);
+        String buildsField = "builds";
+        if (range.find()) {
+            buildsField = range.group(1);
+            int from = range.group(2).isEmpty() ? 0 : Integer.parseInt(range.group(2));
+            int to = range.group(3).isEmpty() ? builds.size() : Integer.parseInt(range.group(3));
+            builds = builds.subList(Math.min(from, builds.size()), Math.min(to, builds.size()));
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("_class", WORKFLOW_JOB_CLASS);
+        response.put("fullName", job.name);
+        response.put("name", job.name);
+        response.put("url", jobUrl(job.name) + "/");
+        response.put("buildable", true);
+        response.put("color", job.color(now));
+        response.put("healthReport", List.of(Map.of("score", 80)));
+        response.put("lastBuild", job.lastBuild().map(build -> buildReference(job, build)).orElse(null));
+        response.put(buildsField, builds.stream().map(build -> buildInfo(job, build, now)).toList());
+        response.put("property", List.of());
+        response.put("nextBuildNumber", job.nextBuildNumber());
+        response.put("description", "Generated job " + job.name);
+        return response;
+    }
+
+    private Map<String, Object> lastBuild(StubJob job, StubBuild build, long now) {
+        Map<String, Object> lastBuild = new LinkedHashMap<>(buildReference(job, build));
+        Status status = build.status(now);
+        lastBuild.put("timestamp", build.start);
+        lastBuild.put("duration", status == Status.IN_PROGRESS ? 0 : build.elapsed(now));
+        lastBuild.put("estimatedDuration", build.duration);
+        lastBuild.put("building", status == Status.IN_PROGRESS);
+        lastBuild.put("result", status == Status.IN_PROGRESS ? null : status == Status.FAILED ? Status.FAILURE.name() : status.name());
+        return lastBuild;
+    }
+
+    private Map<String, Object> buildReference(StubJob job, StubBuild build) {
+        return Map.of("number", build.number, "url", jobUrl(job.name) + "/" + build.number + "/");
+    }
+
+    private Map<String, Object> buildInfo(StubJob job, StubBuild build, long now) {
+        Map<String, Object> info = new LinkedHashMap<>(buildReference(job, build));
+        info.put("_class", "org.jenkinsci.plugins.workflow.job.WorkflowRun");
+        info.put("displayName", "#" + build.number);
+        info.put("timestamp", build.start);
+        info.put("duration", build.status(now) == Status.IN_PROGRESS ? 0 : build.elapsed(now));
+        info.put("description", null);
+        info.put("actions", List.of(
+            Map.of("_class", "hudson.model.ParametersAction",
+                "parameters", List.of(Map.of("name", "BRANCH", "value", "main"))),
+            Map.of("_class", "hudson.model.CauseAction",
+                "causes", List.of(Map.of(
+                    "_class", "hudson.model.Cause$UserIdCause",
+                    "shortDescription", "Started by user user",
+                    "userId", "user",
+                    "userName", "user")))));
+        Status status = build.status(now);
+        info.put("result", status == Status.IN_PROGRESS ? null : status == Status.FAILED ? Status.FAILURE.name() : status.name());
+        return info;
+    }
+
+    /**
+     * Like Jenkins, the runs stop before the run named by {@code since}.
+     */
+    private List<Map<String, Object>> runs(StubJob job, String since, long now) {
+        return job.buildsNewestFirst().stream()
+            .takeWhile(build -> !("#" + build.number).equals(since))
+            .limit(WFAPI_RUNS_LIMIT)
+            .map(build -> {
+                Map<String, Object> run = new LinkedHashMap<>();
+                run.put("id", String.valueOf(build.number));
+                run.put("name", "#" + build.number);
+                run.put("status", build.status(now).name());
+                run.put("startTimeMillis", build.start);
+                run.put("durationMillis", build.elapsed(now));
+                run.put("stages", stages(build, now));
+                return run;
+            })
+            .toList();
+    }
+
+    private Map<String, Object> describe(StubBuild build, long now) {
+        Map<String, Object> describe = new LinkedHashMap<>();
+        describe.put("id", String.valueOf(build.number));
+        describe.put("name", "#" + build.number);
+        describe.put("status", build.status(now).name());
+        describe.put("startTimeMillis", build.start);
+        describe.put("endTimeMillis", build.status(now) == Status.IN_PROGRESS ? 0 : build.start + build.elapsed(now));
+        describe.put("durationMillis", build.elapsed(now));
+        describe.put("queueDurationMillis", 0);
+        describe.put("pauseDurationMillis", 0);
+        describe.put("stages", stages(build, now));
+        return describe;
+    }
+
+    private List<Map<String, Object>> stages(StubBuild build, long now) {
+        List<Map<String, Object>> stages = new ArrayList<>();
+        long stageDuration = build.duration / config.stagesPerBuild;
+        long elapsed = build.elapsed(now);
+        for (int i = 0; i < config.stagesPerBuild; i++) {
+            long stageStart = i * stageDuration;
+            String status = stageStatus(build, i, elapsed, stageDuration, now);
+            Map<String, Object> stage = new LinkedHashMap<>();
+            stage.put("id", stageId(i));
+            stage.put("name", "Stage " + (i + 1));
+            stage.put("status", status);
+            stage.put("startTimeMillis", Status.NOT_EXECUTED.name().equals(status) ? 0 : build.start + stageStart);
+            stage.put("durationMillis", Math.max(0, Math.min(stageDuration, elapsed - stageStart)));
+            stage.put("pauseDurationMillis", 0);
+            stages.add(stage);
+        }
+        return stages;
+    }
+
+    private String stageStatus(StubBuild build, int stage, long elapsed, long stageDuration, long now) {
+        Status buildStatus = build.status(now);
+        boolean last = stage == config.stagesPerBuild - 1;
+        if (buildStatus == Status.SUCCESS || buildStatus == Status.FAILED) {
+            return last && buildStatus == Status.FAILED ? Status.FAILED.name() : Status.SUCCESS.name();
+        }
+        long stageStart = stage * stageDuration;
+        if (elapsed >= stageStart + stageDuration && !last) {
+            return Status.SUCCESS.name();
+        }
+        if (elapsed >= stageStart) {
+            return buildStatus == Status.ABORTED ? Status.ABORTED.name() : Status.IN_PROGRESS.name();
+        }
+        return Status.NOT_EXECUTED.name();
+    }
+
+    private Map<String, Object> nodeDescribe(StubBuild build, String stageId, long now) {
+        String status = stages(build, now).stream()
+            .filter(stage -> stage.get("id").equals(stageId))
+            .map(stage -> (String) stage.get("status"))
+            .findFirst()
+            .orElse(Status.SUCCESS.name());
+        return Map.of("id", stageId, "status", status,
+            "stageFlowNodes", List.of(Map.of("id", stageId + "1", "status", status)));
+    }
+
+    private Map<String, Object> nodeLog(StubJob job, StubBuild build, String nodeId, long now) {
+        String text = "[" + job.name + " #" + build.number + "] node " + nodeId + "\n"
+            + (build.status(now) == Status.FAILED ? "ERROR: script returned exit code 1\n" : "done\n");
+        return Map.of("nodeId", nodeId, "nodeStatus", build.status(now).name(), "length", text.length(),
+            "hasMore", false, "text", text);
+    }
+
+    /**
+     * Console log of the build, {@code logSize} bytes once it is finished and the elapsed share of it while running.
+     */
+    private byte[] log(StubJob job, StubBuild build, long now) {
+        byte[] full = logs.computeIfAbsent(job.name + "#" + build.number, ignored -> generateLog(job, build));
+        Status status = build.status(now);
+        if (status != Status.IN_PROGRESS || build.duration == 0) {
+            return full;
+        }
+        int length = (int) (full.length * Math.min(1.0, (double) build.elapsed(now) / build.duration));
+        return Arrays.copyOf(full, length);
+    }
+
+    private byte[] generateLog(StubJob job, StubBuild build) {
+        StringBuilder log = new StringBuilder(config.logSize + 128);
+        int line = 0;
+        while (log.length() < config.logSize) {
+            log.append('[').append(job.name).append(" #").append(build.number).append("] line ").append(++line)
+                .append(": compiling module ").append(line % 97).append('\n');
+        }
+        String footer = build.failed ? "ERROR: script returned exit code 1\nFinished: FAILURE\n" : "Finished: SUCCESS\n";
+        log.setLength(Math.max(0, config.logSize - footer.length()));
+        if (!log.isEmpty() && log.charAt(log.length() - 1) != '\n') {
+            log.setCharAt(log.length() - 1, '\n');
+        }
+        return log.append(footer).toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private synchronized int enqueue(StubJob job, long now) {
+        int id = nextQueueId.getAndIncrement();
+        queue.add(new QueueEntry(id, job, now));
+        return id;
+    }
+
+    /**
+     * Starts the builds of the queue items whose quiet period is over, in submission order.
+     */
+    private void advanceQueue(long now) {
+        for (QueueEntry entry : queue) {
+            long leaveTime = entry.submitted + config.queueDelay.toMillis();
+            if (entry.build == null && now >= leaveTime) {
+                StubBuild build = new StubBuild(entry.job.nextBuildNumber(), leaveTime, config.buildDuration.toMillis(), false);
+                entry.job.add(build);
+                entry.build = build;
+            }
+        }
+    }
+
+    private synchronized List<Map<String, Object>> queueItems(long now) {
+        return queue.stream()
+            .filter(entry -> entry.build == null)
+            .map(entry -> queueItem(entry, now))
+            .toList();
+    }
+
+    private synchronized Optional<Map<String, Object>> queueItem(int id, long now) {
+        return queue.stream()
+            .filter(entry -> entry.id == id)
+            .findFirst()
+            .map(entry -> queueItem(entry, now));
+    }
+
+    private Map<String, Object> queueItem(QueueEntry entry, long now) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("_class", entry.build == null ? "hudson.model.Queue$WaitingItem" : "hudson.model.Queue$LeftItem");
+        item.put("id", entry.id);
+        item.put("blocked", false);
+        item.put("buildable", false);
+        item.put("stuck", false);
+        item.put("inQueueSince", entry.submitted);
+        item.put("why", entry.build == null ? "In the quiet period. Expires in " + (entry.submitted + config.queueDelay.toMillis() - now) + " ms" : null);
+        item.put("url", "queue/item/" + entry.id + "/");
+        item.put("task", Map.of("name", entry.job.name, "url", jobUrl(entry.job.name) + "/", "color", entry.job.color(now)));
+        if (entry.build != null) {
+            item.put("executable", buildReference(entry.job, entry.build));
+        }
+        return item;
+    }
+
+    private void sendJson(HttpExchange exchange, Object body) throws IOException {
+        byte[] content;
+        try {
+            content = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        String etag = "\"" + Integer.toHexString(Arrays.hashCode(content)) + "\"";
+        exchange.getResponseHeaders().add("ETag", etag);
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        send(exchange, 200, "application/json;charset=UTF-8", content);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> query = new LinkedHashMap<>();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                query.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private void delay() throws InterruptedException {
+        long jitter = config.jitter.toMillis() > 0 ? (long) (nextDouble() * config.jitter.toMillis()) : 0;
+        sleep(config.latency.plusMillis(jitter));
+    }
+
+    private synchronized double nextDouble() {
+        return random.nextDouble();
+    }
+
+    private static void sleep(Duration duration) throws InterruptedException {
+        if (!duration.isZero()) {
+            Thread.sleep(duration);
+        }
+    }
+
+    private boolean isFailed(int buildNumber) {
+        return config.failedBuildEvery > 0 && buildNumber % config.failedBuildEvery == 0;
+    }
+
+    private static String stageId(int stage) {
+        return String.valueOf(10 * (stage + 1));
+    }
+
+    private record Fault(AtomicInteger remaining, int status) {
+    }
+
+    private static final class QueueEntry {
+        private final int id;
+        private final StubJob job;
+        private final long submitted;
+        private StubBuild build;
+
+        private QueueEntry(int id, StubJob job, long submitted) {
+            this.id = id;
+            this.job = job;
+            this.submitted = submitted;
+        }
+    }
+
+    private static final class StubJob {
+        private final String name;
+        private final List<StubBuild> builds = new ArrayList<>();
+
+        private StubJob(String name) {
+            this.name = name;
+        }
+
+        synchronized void add(StubBuild build) {
+            builds.add(build);
+        }
+
+        synchronized Optional<StubBuild> build(int number) {
+            return builds.stream().filter(build -> build.number == number).findFirst();
+        }
+
+        synchronized Optional<StubBuild> lastBuild() {
+            return builds.isEmpty() ? Optional.empty() : Optional.of(builds.getLast());
+        }
+
+        synchronized List<StubBuild> buildsNewestFirst() {
+            return List.copyOf(builds.reversed());
+        }
+
+        synchronized int nextBuildNumber() {
+            return builds.isEmpty() ? 1 : builds.getLast().number + 1;
+        }
+
+        synchronized String color(long now) {
+            Optional<StubBuild> lastCompleted = builds.reversed().stream()
+                .filter(build -> build.status(now) != Status.IN_PROGRESS)
+                .findFirst();
+            String color = lastCompleted.map(build -> switch (build.status(now)) {
+                case FAILED, FAILURE -> "red";
+                case ABORTED -> "aborted";
+                default -> "blue";
+            }).orElse("notbuilt");
+            boolean running = !builds.isEmpty() && builds.getLast().status(now) == Status.IN_PROGRESS;
+            return running ? color + "_anime" : color;
+        }
+    }
+
+    private static final class StubBuild {
+        private final int number;
+        private final long start;
+        private final long duration;
+        private final boolean failed;
+        private volatile long abortedAt = -1;
+
+        private StubBuild(int number, long start, long duration, boolean failed) {
+            this.number = number;
+            this.start = start;
+            this.duration = duration;
+            this.failed = failed;
+        }
+
+        Status status(long now) {
+            if (abortedAt >= 0) {
+                return Status.ABORTED;
+            }
+            if (now < start + duration) {
+                return Status.IN_PROGRESS;
+            }
+            return failed ? Status.FAILED : Status.SUCCESS;
+        }
+
+        long elapsed(long now) {
+            long end = abortedAt >= 0 ? abortedAt : start + duration;
+            return Math.max(0, Math.min(now, end) - start);
+        }
+
+        void abort(long now) {
+            if (status(now) == Status.IN_PROGRESS) {
+                abortedAt = now;
+            }
+        }
+    }
+
+    public static final class Builder {
+        private int jobs = 10;
+        private int historyDepth = 5;
+        private int stagesPerBuild = 3;
+        private int logSize = 16 * 1024;
+        private int failedBuildEvery = 5;
+        private boolean lastBuildRunning;
+        private Duration latency = Duration.ZERO;
+        private Duration jitter = Duration.ZERO;
+        private double timeoutRate;
+        private Duration timeoutDelay = Duration.ofSeconds(15);
+        private Duration queueDelay = Duration.ZERO;
+        private Duration buildDuration = Duration.ZERO;
+        private long seed = 42;
+
+        private Builder() {
+        }
+
+        public Builder jobs(int jobs) {
+            this.jobs = jobs;
+            return this;
+        }
+
+        public Builder historyDepth(int historyDepth) {
+            this.historyDepth = historyDepth;
+            return this;
+        }
+
+        public Builder stagesPerBuild(int stagesPerBuild) {
+            if (stagesPerBuild < 1) {
+                throw new IllegalArgumentException("A build needs at least one stage");
+            }
+            this.stagesPerBuild = stagesPerBuild;
+            return this;
+        }
+
+        /**
+         * Size of a finished build's console log in bytes.
+         */
+        public Builder logSize(int logSize) {
+            this.logSize = logSize;
+            return this;
+        }
+
+        /**
+         * Every n-th build fails in its last stage, 0 for no failed builds.
+         */
+        public Builder failedBuildEvery(int failedBuildEvery) {
+            this.failedBuildEvery = failedBuildEvery;
+            return this;
+        }
+
+        /**
+         * Whether the last build of every job is still running, for {@link #buildDuration} from the server start.
+         */
+        public Builder lastBuildRunning(boolean lastBuildRunning) {
+            this.lastBuildRunning = lastBuildRunning;
+            return this;
+        }
+
+        /**
+         * Delay added to every response.
+         */
+        public Builder latency(Duration latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Upper bound of a random delay added on top of the latency.
+         */
+        public Builder jitter(Duration jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Share of requests, from 0 to 1, held for the timeout delay before being answered with 504.
+         */
+        public Builder timeoutRate(double timeoutRate) {
+            this.timeoutRate = timeoutRate;
+            return this;
+        }
+
+        public Builder timeoutDelay(Duration timeoutDelay) {
+            this.timeoutDelay = timeoutDelay;
+            return this;
+        }
+
+        /**
+         * How long a triggered build waits in the queue.
+         */
+        public Builder queueDelay(Duration queueDelay) {
+            this.queueDelay = queueDelay;
+            return this;
+        }
+
+        /**
+         * How long a triggered build runs.
+         */
+        public Builder buildDuration(Duration buildDuration) {
+            this.buildDuration = buildDuration;
+            return this;
+        }
+
+        /**
+         * Seed of the jitter and timeout randomness, the same seed gives the same sequence of delays.
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public JenkinsStubServer start() {
+            try {
+                return new JenkinsStubServer(this);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
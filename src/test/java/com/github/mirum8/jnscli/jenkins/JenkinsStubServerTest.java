@@ -0,0 +1,130 @@
+package com.github.mirum8.jnscli.jenkins;
+
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
+import com.github.mirum8.jnscli.http.ResponseCache;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer.Endpoint;
+import com.github.mirum8.jnscli.settings.Settings;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JenkinsStubServerTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private JenkinsStubServer jenkins;
+    private JenkinsAPI jenkinsAPI;
+    private PipelineAPI pipelineAPI;
+
+    private void start(JenkinsStubServer.Builder builder) {
+        jenkins = builder.start();
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.readSettings()).thenReturn(new Settings(jenkins.baseUrl(), "user", "key"));
+        HttpClient httpClient = HttpClient.newHttpClient();
+        ResponseCache responseCache = new ResponseCache(cacheDirectory, ResponseCache.DEFAULT_MAX_SIZE_BYTES);
+        jenkinsAPI = new JenkinsAPI(httpClient, new HttpRequestFactory(settingsService), settingsService, responseCache);
+        pipelineAPI = new PipelineAPI(httpClient, new HttpRequestFactory(settingsService), responseCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jenkins.close();
+    }
+
+    @Test
+    void servesConfiguredJobsAndHistory() {
+        start(JenkinsStubServer.builder().jobs(25).historyDepth(30));
+
+        assertThat(jenkinsAPI.getJobs()).hasSize(25);
+        String jobUrl = jenkins.jobUrl("job-7");
+        assertThat(jenkinsAPI.getWorkflowJob(jobUrl).nextBuildNumber()).isEqualTo(31);
+        assertThat(jenkinsAPI.getJobBuilds(jobUrl, 5)).extracting(BuildInfo::number).containsExactly(30, 29, 28, 27, 26);
+        assertThat(pipelineAPI.getJobRuns(jobUrl)).hasSize(10);
+        assertThat(jenkinsAPI.getJobBuildInfo(jobUrl, 25).result()).isEqualTo(Status.FAILURE);
+        assertThat(pipelineAPI.getJobBuildDescription(jobUrl, 25).stages()).last()
+            .extracting(WorkflowRun.Stage::status).isEqualTo("FAILED");
+    }
+
+    @Test
+    void countsRequestsPerEndpoint() {
+        start(JenkinsStubServer.builder());
+        String jobUrl = jenkins.jobUrl("job-1");
+
+        jenkinsAPI.getWorkflowJob(jobUrl);
+        jenkinsAPI.getWorkflowJob(jobUrl);
+        pipelineAPI.getJobBuildDescription(jobUrl, 1);
+
+        assertThat(jenkins.requestCounts()).isEqualTo(Map.of(Endpoint.JOB, 2, Endpoint.WFAPI_DESCRIBE, 1));
+        assertThat(jenkins.totalRequests()).isEqualTo(3);
+
+        jenkins.resetCounters();
+        assertThat(jenkins.totalRequests()).isZero();
+    }
+
+    @Test
+    void triggeredBuildLeavesTheQueueAndRuns() throws InterruptedException {
+        start(JenkinsStubServer.builder().historyDepth(3).queueDelay(Duration.ofMillis(100)).buildDuration(Duration.ofSeconds(10)));
+        String jobUrl = jenkins.jobUrl("job-1");
+
+        QueueItemLocation location = jenkinsAPI.runJob(jobUrl);
+        assertThat(jenkinsAPI.getQueueItem(location.url()).type()).isEqualTo(QueueItem.QueueItemType.WAITING_ITEM);
+
+        Thread.sleep(150);
+        assertThat(jenkinsAPI.getQueueItem(location.url()).type()).isEqualTo(QueueItem.QueueItemType.LEFT_ITEM);
+        assertThat(pipelineAPI.getJobBuildDescription(jobUrl, 4).status()).isEqualTo(Status.IN_PROGRESS);
+
+        jenkinsAPI.abortJob(jobUrl, 4);
+        assertThat(pipelineAPI.getJobBuildDescription(jobUrl, 4).status()).isEqualTo(Status.ABORTED);
+    }
+
+    @Test
+    void streamsLogFromOffset() {
+        start(JenkinsStubServer.builder().logSize(4096));
+        String jobUrl = jenkins.jobUrl("job-1");
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+        ProgressiveConsoleText first = jenkinsAPI.streamProgressiveConsoleText(jobUrl, 5, 0, sink);
+        ProgressiveConsoleText second = jenkinsAPI.streamProgressiveConsoleText(jobUrl, 5, 1000, sink);
+
+        assertThat(first).isEqualTo(new ProgressiveConsoleText(false, 4096));
+        assertThat(second.nextStart()).isEqualTo(4096);
+        assertThat(sink.size()).isEqualTo(4096 + 3096);
+        assertThat(sink.toString(StandardCharsets.UTF_8)).contains("Finished: FAILURE");
+    }
+
+    @Test
+    void injectsFailures() {
+        start(JenkinsStubServer.builder());
+        String jobUrl = jenkins.jobUrl("job-1");
+        jenkins.failNext(Endpoint.BUILD, 1, 500);
+
+        assertThatThrownBy(() -> jenkinsAPI.getJobBuildInfo(jobUrl, 1))
+            .isInstanceOf(JenkinsAPIException.class)
+            .hasMessageContaining("HTTP: 500");
+        assertThat(jenkinsAPI.getJobBuildInfo(jobUrl, 1).number()).isEqualTo(1);
+    }
+
+    @Test
+    void injectsLatency() {
+        start(JenkinsStubServer.builder().latency(Duration.ofMillis(100)).jitter(Duration.ofMillis(50)));
+
+        long started = System.nanoTime();
+        jenkinsAPI.getJobs();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+    }
+}
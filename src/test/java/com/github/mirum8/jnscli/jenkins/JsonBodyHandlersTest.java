@@ -0,0 +1,62 @@
+package com.github.mirum8.jnscli.jenkins;
+
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
+import com.github.mirum8.jnscli.http.ResponseCache;
+import com.github.mirum8.jnscli.settings.Settings;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import com.github.mirum8.jnscli.trace.CommandTrace;
+import com.github.mirum8.jnscli.trace.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JsonBodyHandlersTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private JenkinsStubServer jenkins;
+    private JenkinsAPI jenkinsAPI;
+
+    @BeforeEach
+    void setUp() {
+        jenkins = JenkinsStubServer.builder().jobs(2000).historyDepth(500).start();
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.readSettings()).thenReturn(new Settings(jenkins.baseUrl(), "user", "key"));
+        jenkinsAPI = new JenkinsAPI(HttpClient.newHttpClient(), new HttpRequestFactory(settingsService), settingsService,
+            new ResponseCache(cacheDirectory, ResponseCache.DEFAULT_MAX_SIZE_BYTES));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jenkins.close();
+    }
+
+    @Test
+    void findJob_stopsReadingAtTheJob() {
+        Tracer.beginCommand("find");
+        assertThat(jenkinsAPI.findJob("job-3")).map(Job::url).contains(jenkins.jobUrl("job-3") + "/");
+        assertThat(jenkinsAPI.findJob("job-1999")).isPresent();
+        assertThat(jenkinsAPI.findJob("missing")).isEmpty();
+        CommandTrace trace = Tracer.endCommand();
+
+        long fullList = trace.requests().get(2).bytes();
+        assertThat(trace.requests().get(0).bytes()).isLessThan(fullList / 2);
+    }
+
+    @Test
+    void getJobBuilds_stopsAfterLimitMatchingBuilds() {
+        assertThat(jenkinsAPI.getJobBuilds(jenkins.jobUrl("job-1"), build -> build.result() == Status.FAILURE, 3))
+            .extracting(BuildInfo::number)
+            .containsExactly(500, 495, 490);
+        assertThat(jenkinsAPI.getJobBuilds(jenkins.jobUrl("job-1"), build -> false, 3)).isEmpty();
+    }
+}
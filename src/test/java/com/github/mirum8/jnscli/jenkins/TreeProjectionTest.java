@@ -0,0 +1,47 @@
+package com.github.mirum8.jnscli.jenkins;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TreeProjectionTest {
+
+    record Leaf(@JsonProperty("_class") String className, String name) {
+    }
+
+    record Marker(@JsonProperty("_class") String className) {
+    }
+
+    record Root(@JsonProperty("_class") String className, String url, List<Leaf> leaves, Marker marker) {
+    }
+
+    @Test
+    void tree_skipsClassAndRecursesIntoNestedRecords() {
+        assertThat(TreeProjection.of(Root.class).tree()).isEqualTo("url,leaves[name],marker");
+    }
+
+    @Test
+    void limit_appendsRangeToListField() {
+        assertThat(TreeProjection.of(Root.class).limit("leaves", 5).tree()).isEqualTo("url,leaves[name]{0,5},marker");
+    }
+
+    @Test
+    void limit_rejectsUnknownField() {
+        assertThatThrownBy(() -> TreeProjection.of(Root.class).limit("missing", 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void apply_encodesTreeAndKeepsExistingQuery() {
+        TreeProjection projection = TreeProjection.of(Leaf.class);
+
+        assertThat(projection.apply("http://jenkins/job/a/api/json")).isEqualTo("http://jenkins/job/a/api/json?tree=name");
+        assertThat(projection.apply("http://jenkins/api/json?depth=1")).isEqualTo("http://jenkins/api/json?depth=1&tree=name");
+        assertThat(TreeProjection.of(Root.class).apply("http://jenkins/api/json"))
+            .isEqualTo("http://jenkins/api/json?tree=url%2Cleaves%5Bname%5D%2Cmarker");
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.mirum8.jnscli.list;
+
+import com.github.mirum8.jnscli.context.JobType;
+import com.github.mirum8.jnscli.jenkins.Job;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPIException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FolderCrawlerTest {
+    private static final Map<String, List<Job>> TREE = Map.of(
+        "a", List.of(folder("b"), job("a-job")),
+        "b", List.of(folder("c"), job("b-job")),
+        "c", List.of(job("c-job")),
+        "d", List.of(job("d-job")));
+
+    @Test
+    void crawl_listsNestedFoldersByPath() {
+        List<String> names = new ArrayList<>();
+
+        new FolderCrawler(TREE::get, Integer.MAX_VALUE).crawl(List.of(folder("a"), folder("d"), job("top")),
+            listed -> listed.forEach(job -> names.add(job.name())));
+
+        assertThat(names.subList(0, 3)).containsExactly("a", "d", "top");
+        assertThat(names).containsExactlyInAnyOrder("a", "d", "top", "a/b", "a/a-job", "a/b/c", "a/b/b-job", "a/b/c/c-job", "d/d-job");
+        assertThat(names.indexOf("a/b")).isLessThan(names.indexOf("a/b/c"));
+    }
+
+    @Test
+    void crawl_stopsAtMaxDepth() {
+        List<String> names = new ArrayList<>();
+
+        new FolderCrawler(TREE::get, 2).crawl(List.of(folder("a")), listed -> listed.forEach(job -> names.add(job.name())));
+
+        assertThat(names).containsExactly("a", "a/b", "a/a-job");
+    }
+
+    @Test
+    void crawl_requestsAtMostParallelismFoldersAtOnce() {
+        List<Job> topLevel = IntStream.range(0, 20).mapToObj(i -> folder("f" + i)).toList();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        new FolderCrawler(url -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return List.of(job("job"));
+        }, Integer.MAX_VALUE, 4).crawl(topLevel, listed -> {
+        });
+
+        assertThat(maxRunning.get()).isBetween(2, 4);
+    }
+
+    @Test
+    void crawl_failsWhenAFolderCannotBeListed() {
+        assertThatThrownBy(() -> new FolderCrawler(url -> {
+            throw new JenkinsAPIException("Error 500");
+        }, Integer.MAX_VALUE).crawl(List.of(folder("a")), listed -> {
+        }))
+            .isInstanceOf(JenkinsAPIException.class);
+    }
+
+    private static Job folder(String name) {
+        return new Job(JobType.FOLDER.getValue(), name, name, null);
+    }
+
+    private static Job job(String name) {
+        return new Job(JobType.WORKFLOW.getValue(), name, name, "blue");
+    }
+}
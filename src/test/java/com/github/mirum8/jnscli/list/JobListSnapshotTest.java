@@ -0,0 +1,37 @@
+package com.github.mirum8.jnscli.list;
+
+import com.github.mirum8.jnscli.jenkins.Job;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobListSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_returnsWhatWasWrittenInOrder() {
+        JobListSnapshot snapshot = new JobListSnapshot(directory.resolve("joblist"));
+        List<Job> jobs = List.of(
+            new Job("org.jenkinsci.plugins.workflow.job.WorkflowJob", "deploy", "http://localhost/job/deploy/", "blue_anime"),
+            new Job("com.cloudbees.hudson.plugins.folder.Folder", "backend", "http://localhost/job/backend/", null),
+            new Job("hudson.model.FreeStyleProject", "docs", "http://localhost/job/docs/", "red"));
+
+        snapshot.write(jobs);
+
+        assertThat(snapshot.read()).hasValueSatisfying(listed -> {
+            assertThat(listed.jobs()).isEqualTo(jobs);
+            assertThat(listed.listedAtMillis()).isPositive();
+        });
+    }
+
+    @Test
+    void read_isEmptyBeforeFirstListing() {
+        assertThat(new JobListSnapshot(directory.resolve("joblist")).read()).isEmpty();
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.mirum8.jnscli.log;
+
+import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
+import com.github.mirum8.jnscli.settings.SettingsProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LogArchiveTest {
+    private static final String JOB_URL = "http://localhost/job/test";
+
+    @TempDir
+    Path tempDir;
+
+    private JenkinsAPI jenkinsAPI;
+    private LogArchive logArchive;
+
+    @BeforeEach
+    void setUp() {
+        jenkinsAPI = mock(JenkinsAPI.class);
+        doAnswer(invocation -> {
+            OutputStream sink = invocation.getArgument(2);
+            sink.write("first\r\nsecond ERROR\nlast".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(jenkinsAPI).streamConsoleText(eq(JOB_URL), eq(1), any());
+        logArchive = new LogArchive(new SettingsProperties(tempDir.toString()), jenkinsAPI);
+    }
+
+    @Test
+    void get_downloadsFinishedBuildOnlyOnce() throws IOException {
+        LogArchive.ArchivedLog first = logArchive.get(JOB_URL, 1, true);
+        LogArchive.ArchivedLog second = logArchive.get(JOB_URL, 1, true);
+
+        assertThat(first.downloaded()).isTrue();
+        assertThat(second.downloaded()).isFalse();
+        assertThat(second.path()).isEqualTo(first.path());
+        verify(jenkinsAPI, times(1)).streamConsoleText(eq(JOB_URL), eq(1), any());
+    }
+
+    @Test
+    void get_doesNotArchiveRunningBuild() throws IOException {
+        LogArchive.ArchivedLog log = logArchive.get(JOB_URL, 1, false);
+
+        assertThat(log.temporary()).isTrue();
+        Files.delete(log.path());
+        assertThat(logArchive.get(JOB_URL, 1, true).downloaded()).isTrue();
+    }
+
+    @Test
+    void forEachLine_readsCompressedLog() throws IOException {
+        LogArchive.ArchivedLog log = logArchive.get(JOB_URL, 1, true);
+        List<String> lines = new ArrayList<>();
+
+        LogArchive.forEachLine(log.path(), (lineNumber, line) -> lines.add(lineNumber + ":" + line));
+
+        assertThat(lines).containsExactly("1:first", "2:second ERROR", "3:last");
+    }
+}
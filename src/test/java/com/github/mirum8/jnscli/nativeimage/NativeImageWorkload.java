@@ -0,0 +1,254 @@
+package com.github.mirum8.jnscli.nativeimage;
+
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * An interactive jns session against a {@link JenkinsStubServer}, offline and repeatable, for the native image builds:
+ * <ul>
+ *     <li>{@code train <binary> <profile>} runs the session once with an image built with {@code --pgo-instrument},
+ *     which writes the execution profile for the optimized build when it exits</li>
+ *     <li>{@code report <target directory> <report file>} measures time to the first prompt and resident memory of
+ *     every build of jns in the target directory and writes them as a Markdown table</li>
+ * </ul>
+ */
+public final class NativeImageWorkload {
+    static final List<String> COMMANDS = List.of(
+        "list",
+        "list -r",
+        "info job-1",
+        "info builds job-2 -l 10",
+        "error job-5",
+        "log job-3",
+        "log grep job-3 module",
+        "find job-1",
+        "sync job-4",
+        "history job-4 -f",
+        "eta job-4",
+        "stats",
+        "cache stats");
+    private static final String PROMPT = "jns:>";
+    private static final int RUNS = 5;
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private NativeImageWorkload() {
+    }
+
+    record Variant(String name, List<String> command) {
+    }
+
+    /**
+     * @param rssAtPromptKb      resident memory when the first prompt is shown
+     * @param rssAfterWorkloadKb resident memory after all {@link #COMMANDS} ran
+     */
+    record Measurement(long timeToPromptMillis, long rssAtPromptKb, long workloadMillis, long rssAfterWorkloadKb) {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        switch (args.length == 3 ? args[0] : "") {
+            case "train" -> train(Path.of(args[1]), Path.of(args[2]));
+            case "report" -> report(Path.of(args[1]), Path.of(args[2]));
+            default -> {
+                System.err.println("Usage: NativeImageWorkload train <binary> <profile> | report <target directory> <report file>");
+                System.exit(2);
+            }
+        }
+    }
+
+    static void train(Path binary, Path profile) throws IOException, InterruptedException {
+        Files.createDirectories(profile.toAbsolutePath().getParent());
+        Files.deleteIfExists(profile);
+        run(List.of(binary.toString(), "-XX:ProfilesDumpFile=" + profile.toAbsolutePath()));
+        if (!Files.exists(profile)) {
+            throw new IllegalStateException(binary + " did not write " + profile + ", was it built with --pgo-instrument?");
+        }
+        System.out.println("Wrote " + profile);
+    }
+
+    static void report(Path targetDirectory, Path reportFile) throws IOException, InterruptedException {
+        List<Variant> variants = variants(targetDirectory);
+        if (variants.isEmpty()) {
+            throw new IllegalStateException("No build of jns found in " + targetDirectory);
+        }
+        StringBuilder report = new StringBuilder()
+            .append("| Build | Time to prompt | RSS at prompt | Workload | RSS after workload |\n")
+            .append("|---|---:|---:|---:|---:|\n");
+        for (Variant variant : variants) {
+            // the first run only fills the file system cache
+            run(variant.command());
+            List<Measurement> measurements = new ArrayList<>();
+            for (int i = 0; i < RUNS; i++) {
+                measurements.add(run(variant.command()));
+            }
+            report.append("| ").append(variant.name())
+                .append(" | ").append(median(measurements, Measurement::timeToPromptMillis)).append(" ms")
+                .append(" | ").append(megabytes(median(measurements, Measurement::rssAtPromptKb)))
+                .append(" | ").append(median(measurements, Measurement::workloadMillis)).append(" ms")
+                .append(" | ").append(megabytes(median(measurements, Measurement::rssAfterWorkloadKb)))
+                .append(" |\n");
+        }
+        report.append("\nMedian of ").append(RUNS).append(" runs, workload: ").append(String.join(", ", COMMANDS)).append('\n');
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        Files.writeString(reportFile, report);
+        System.out.print(report);
+    }
+
+    /**
+     * The JVM build and the native images a build of the project leaves in the target directory.
+     */
+    static List<Variant> variants(Path targetDirectory) throws IOException {
+        List<Variant> variants = new ArrayList<>();
+        try (Stream<Path> files = Files.list(targetDirectory)) {
+            files.filter(file -> file.getFileName().toString().matches("jnscli-.*\\.jar"))
+                .min(Comparator.naturalOrder())
+                .ifPresent(jar -> variants.add(new Variant("JVM",
+                    List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-jar", jar.toString()))));
+        }
+        for (String image : List.of("jns", "jns-pgo", "jns-instrumented")) {
+            Path binary = targetDirectory.resolve(image);
+            if (Files.isRegularFile(binary) && Files.isExecutable(binary)) {
+                variants.add(new Variant("native " + image, List.of(binary.toString())));
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * Starts jns with a fresh home directory, waits for the prompt, runs {@link #COMMANDS} and ends the session.
+     */
+    static Measurement run(List<String> command) throws IOException, InterruptedException {
+        try (JenkinsStubServer jenkins = JenkinsStubServer.builder().jobs(50).historyDepth(30).stagesPerBuild(5).start()) {
+            Path home = Files.createTempDirectory("jns-workload");
+            writeSettings(Files.createDirectories(home.resolve(".config/jns")), jenkins.baseUrl());
+            List<String> arguments = new ArrayList<>();
+            arguments.add(command.getFirst());
+            arguments.add("-Duser.home=" + home);
+            arguments.add("-Dspring.shell.interactive.enabled=true");
+            arguments.addAll(command.subList(1, command.size()));
+
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(arguments).redirectErrorStream(true).start();
+            Output output = new Output(process.getInputStream());
+            try {
+                output.awaitPrompts(1);
+                long timeToPrompt = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                long rssAtPrompt = rssKb(process);
+
+                long workloadStart = System.nanoTime();
+                Writer input = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+                for (String line : COMMANDS) {
+                    input.write(line + "\n");
+                }
+                input.flush();
+                output.awaitPrompts(1 + COMMANDS.size());
+                long workload = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - workloadStart);
+                long rssAfterWorkload = rssKb(process);
+
+                input.close();
+                if (!process.waitFor(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException(arguments.getFirst() + " did not exit at the end of its input");
+                }
+                return new Measurement(timeToPrompt, rssAtPrompt, workload, rssAfterWorkload);
+            } finally {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static void writeSettings(Path directory, String server) throws IOException {
+        Properties settings = new Properties();
+        settings.setProperty("server", server);
+        settings.setProperty("username", "user");
+        settings.setProperty("key", "key");
+        try (Writer writer = Files.newBufferedWriter(directory.resolve("config"))) {
+            settings.store(writer, null);
+        }
+    }
+
+    private static long rssKb(Process process) throws IOException, InterruptedException {
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", Long.toString(process.pid())).start();
+        String rss = new String(ps.getInputStream().readAllBytes(), StandardCharsets.UTF_8).strip();
+        ps.waitFor();
+        return rss.isEmpty() ? -1 : Long.parseLong(rss);
+    }
+
+    private static long median(List<Measurement> measurements, ToLongFunction<Measurement> value) {
+        long[] values = measurements.stream().mapToLong(value).sorted().toArray();
+        return values[values.length / 2];
+    }
+
+    private static String megabytes(long kilobytes) {
+        return String.format("%.1f MB", kilobytes / 1024.0);
+    }
+
+    /**
+     * Collects the output of jns on a virtual thread and counts the prompts in it.
+     */
+    private static final class Output {
+        private final StringBuilder text = new StringBuilder();
+        private boolean closed;
+
+        Output(InputStream stream) {
+            Thread.ofVirtual().name("jns-output").start(() -> read(stream));
+        }
+
+        private void read(InputStream stream) {
+            byte[] buffer = new byte[8192];
+            try (stream) {
+                for (int read; (read = stream.read(buffer)) >= 0; ) {
+                    append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                close();
+            }
+        }
+
+        private synchronized void append(String chunk) {
+            text.append(chunk);
+            notifyAll();
+        }
+
+        private synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+
+        synchronized void awaitPrompts(int prompts) throws InterruptedException {
+            long deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while (count() < prompts) {
+                long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (closed || left <= 0) {
+                    String tail = text.substring(Math.max(0, text.length() - 2000));
+                    throw new IllegalStateException("Expected " + prompts + " prompts, jns printed " + count() + ":\n" + tail);
+                }
+                wait(left);
+            }
+        }
+
+        private int count() {
+            int count = 0;
+            for (int i = text.indexOf(PROMPT); i >= 0; i = text.indexOf(PROMPT, i + PROMPT.length())) {
+                count++;
+            }
+            return count;
+        }
+    }
+}
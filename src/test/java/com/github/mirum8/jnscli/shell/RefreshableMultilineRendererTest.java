@@ -0,0 +1,105 @@
+package com.github.mirum8.jnscli.shell;
+
+import org.jline.terminal.impl.DumbTerminal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshableMultilineRendererTest {
+    private ByteArrayOutputStream output;
+    private RefreshableMultilineRenderer renderer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        output = new ByteArrayOutputStream();
+        renderer = new RefreshableMultilineRenderer(new DumbTerminal(new ByteArrayInputStream(new byte[0]), output));
+    }
+
+    @Test
+    void render_writesOnlyTheChangedSpan() {
+        renderer.render(List.of("header", "| job-1 running", "row 2"));
+        output.reset();
+
+        renderer.render(List.of("header", "/ job-1 running", "row 2"));
+
+        assertThat(written()).isEqualTo("\u001B[2A\u001B[1G/\u001B[2B\r");
+    }
+
+    @Test
+    void render_writesTheRestOfALineThatChangedLength() {
+        renderer.render(List.of("row 1", "status: running"));
+        output.reset();
+
+        renderer.render(List.of("row 1", "status: ok"));
+
+        assertThat(written()).isEqualTo("\u001B[1A\u001B[9Gok\u001B[K\u001B[1B\r");
+    }
+
+    @Test
+    void render_writesNothingForAnUnchangedFrame() {
+        renderer.render(List.of("row 1", "row 2"));
+        output.reset();
+
+        renderer.render(List.of("row 1", "row 2"));
+
+        assertThat(written()).isEmpty();
+    }
+
+    @Test
+    void render_appendsNewLines() {
+        renderer.render(List.of("row 1"));
+        output.reset();
+
+        renderer.render(List.of("row 1", "row 2"));
+
+        assertThat(written()).isEqualTo("\rrow 2\n");
+    }
+
+    @Test
+    void render_erasesLinesThatAreGone() {
+        renderer.render(List.of("row 1", "row 2", "row 3"));
+        output.reset();
+
+        renderer.render(List.of("row 1"));
+
+        assertThat(written()).isEqualTo("\u001B[2A\r\u001B[J");
+    }
+
+    @Test
+    void reset_startsBelowTheRenderedLines() {
+        renderer.render(List.of("row 1"));
+        renderer.reset();
+        output.reset();
+
+        renderer.render(List.of("row 1"));
+
+        assertThat(written()).isEqualTo("row 1\n");
+    }
+
+    @Test
+    void render_doesNotInterleaveConcurrentFrames() {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            IntStream.range(0, 200).forEach(i -> executor.submit(() -> renderer.render(List.of("frame " + i % 2))));
+        }
+        renderer.render(List.of("done"));
+        output.reset();
+
+        renderer.render(List.of("done!"));
+
+        // the last frame is known exactly, so the diff against it is minimal
+        assertThat(written()).isEqualTo("\u001B[1A\u001B[5G!\u001B[1B\r");
+    }
+
+    private String written() {
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
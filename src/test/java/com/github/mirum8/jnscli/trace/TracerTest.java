@@ -0,0 +1,101 @@
+package com.github.mirum8.jnscli.trace;
+
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
+import com.github.mirum8.jnscli.http.ResponseCache;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer;
+import com.github.mirum8.jnscli.settings.Settings;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TracerTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private JenkinsStubServer jenkins;
+    private JenkinsAPI jenkinsAPI;
+
+    @BeforeEach
+    void setUp() {
+        jenkins = JenkinsStubServer.builder().jobs(3).historyDepth(10).logSize(4096).start();
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.readSettings()).thenReturn(new Settings(jenkins.baseUrl(), "user", "key"));
+        jenkinsAPI = new JenkinsAPI(HttpClient.newHttpClient(), new HttpRequestFactory(settingsService), settingsService,
+            new ResponseCache(cacheDirectory, ResponseCache.DEFAULT_MAX_SIZE_BYTES));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jenkins.close();
+    }
+
+    @Test
+    void endCommand_recordsRequestsOfTheCommand() {
+        Tracer.beginCommand("info job-1");
+        jenkinsAPI.getJobBuildInfo(jenkins.jobUrl("job-1"), 3);
+        jenkinsAPI.getJobBuildInfo(jenkins.jobUrl("job-1"), 3);
+        jenkinsAPI.streamConsoleText(jenkins.jobUrl("job-1"), 3, OutputStream.nullOutputStream());
+        CommandTrace trace = Tracer.endCommand();
+
+        assertThat(trace.command()).isEqualTo("info job-1");
+        assertThat(trace.requests()).extracting(RequestEvent::urlTemplate).containsExactly(
+            "/job/{job}/{build}/api/json?tree",
+            "/job/{job}/{build}/api/json?tree",
+            "/job/{job}/{build}/consoleText");
+        assertThat(trace.networkRequests()).isEqualTo(2);
+        assertThat(trace.cacheHits()).isEqualTo(1);
+        assertThat(trace.requests().get(2).bytes()).isGreaterThanOrEqualTo(4096);
+        assertThat(trace.requests().getFirst().parseNanos()).isPositive();
+        assertThat(Tracer.last()).contains(trace);
+    }
+
+    @Test
+    void endCommand_keepsFailedRequestStatus() {
+        jenkins.failNext(JenkinsStubServer.Endpoint.BUILD, 1, 404);
+
+        Tracer.beginCommand("info job-2");
+        try {
+            jenkinsAPI.getJobBuildInfo(jenkins.jobUrl("job-2"), 1);
+        } catch (RuntimeException ignored) {
+            // the status is recorded before the request fails
+        }
+        CommandTrace trace = Tracer.endCommand();
+
+        assertThat(trace.requests()).singleElement().extracting(RequestEvent::status).isEqualTo(404);
+    }
+
+    @Test
+    void endCommand_keepsOnlyTheLatestRequests() {
+        Tracer.beginCommand("watch job-1");
+        for (int i = 0; i < Tracer.MAX_REQUESTS + 5; i++) {
+            Tracer.recordCacheHit(jenkins.jobUrl("job-1") + "/" + i + "/api/json");
+        }
+        CommandTrace trace = Tracer.endCommand();
+
+        assertThat(trace.requests()).hasSize(Tracer.MAX_REQUESTS);
+    }
+
+    @Test
+    void urlTemplates_dropJobNamesNumbersAndQueryValues() {
+        assertThat(UrlTemplates.of("https://ci.example.com/job/team/job/my job/42/wfapi/describe"))
+            .isEqualTo("/job/{job}/job/{job}/{build}/wfapi/describe");
+        assertThat(UrlTemplates.of("https://ci.example.com/job/app/7/execution/node/101/wfapi/log"))
+            .isEqualTo("/job/{job}/{build}/execution/node/{node}/wfapi/log");
+        assertThat(UrlTemplates.of("https://ci.example.com/queue/item/1234/api/json"))
+            .isEqualTo("/queue/item/{id}/api/json");
+        assertThat(UrlTemplates.of("https://ci.example.com/job/app/buildWithParameters?SECRET=x&branch=main"))
+            .isEqualTo("/job/{job}/buildWithParameters?SECRET&branch");
+    }
+}
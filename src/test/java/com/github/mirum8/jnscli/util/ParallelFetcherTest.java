@@ -0,0 +1,69 @@
+package com.github.mirum8.jnscli.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelFetcherTest {
+
+    @Test
+    void fetchOrdered_keepsSourceOrder() {
+        List<Integer> items = IntStream.rangeClosed(1, 20).boxed().toList();
+
+        List<Integer> result = ParallelFetcher.fetchOrdered(items, item -> {
+            Threads.sleepMillis(20 - item);
+            return item * 10;
+        }, value -> true, items.size());
+
+        assertThat(result).containsExactlyElementsOf(items.stream().map(item -> item * 10).toList());
+    }
+
+    @Test
+    void fetchOrdered_stopsIssuingRequestsWhenLimitReached() {
+        List<Integer> items = IntStream.rangeClosed(1, 100).boxed().toList();
+        AtomicInteger calls = new AtomicInteger();
+
+        List<Integer> result = ParallelFetcher.fetchOrdered(items, item -> {
+            calls.incrementAndGet();
+            return item;
+        }, item -> item % 2 == 0, 3, 4);
+
+        assertThat(result).containsExactly(2, 4, 6);
+        assertThat(calls.get()).isLessThanOrEqualTo(6 + 4);
+    }
+
+    @Test
+    void fetchOrdered_boundsConcurrency() {
+        List<Integer> items = IntStream.rangeClosed(1, 30).boxed().toList();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        ParallelFetcher.fetchOrdered(items, item -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Threads.sleepMillis(5);
+            inFlight.decrementAndGet();
+            return item;
+        }, item -> true, items.size(), 3);
+
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void fetchOrdered_rethrowsFetcherException() {
+        List<Integer> items = List.of(1, 2, 3);
+
+        assertThatThrownBy(() -> ParallelFetcher.fetchAll(items, item -> {
+            if (item == 2) {
+                throw new IllegalArgumentException("boom");
+            }
+            return item;
+        }))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("boom");
+    }
+}
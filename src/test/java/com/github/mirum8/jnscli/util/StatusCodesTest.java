@@ -0,0 +1,30 @@
+package com.github.mirum8.jnscli.util;
+
+import com.github.mirum8.jnscli.jenkins.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatusCodesTest {
+
+    @Test
+    void everyStatusHasItsOwnCode() {
+        assertThat(Arrays.stream(Status.values()).map(StatusCodes::code))
+            .doesNotHaveDuplicates()
+            .allMatch(code -> code > 0 && code < 256);
+        for (Status status : Status.values()) {
+            assertThat(StatusCodes.status(StatusCodes.code(status))).isEqualTo(status);
+        }
+    }
+
+    @Test
+    void codesOfStoredFilesDoNotChange() {
+        assertThat(StatusCodes.code(Status.SUCCESS)).isEqualTo(1);
+        assertThat(StatusCodes.code(Status.FAILURE)).isEqualTo(6);
+        assertThat(StatusCodes.code(null)).isZero();
+        assertThat(StatusCodes.status(0)).isNull();
+        assertThat(StatusCodes.status(200)).isNull();
+    }
+}
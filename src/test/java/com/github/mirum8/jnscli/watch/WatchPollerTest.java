@@ -0,0 +1,79 @@
+package com.github.mirum8.jnscli.watch;
+
+import com.github.mirum8.jnscli.http.HttpRequestFactory;
+import com.github.mirum8.jnscli.http.ResponseCache;
+import com.github.mirum8.jnscli.jenkins.JenkinsAPI;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer;
+import com.github.mirum8.jnscli.jenkins.JenkinsStubServer.Endpoint;
+import com.github.mirum8.jnscli.jenkins.PipelineAPI;
+import com.github.mirum8.jnscli.settings.Settings;
+import com.github.mirum8.jnscli.settings.SettingsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WatchPollerTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private JenkinsStubServer jenkins;
+    private JenkinsAPI jenkinsAPI;
+    private PipelineAPI pipelineAPI;
+
+    @BeforeEach
+    void setUp() {
+        jenkins = JenkinsStubServer.builder().jobs(30).historyDepth(5).lastBuildRunning(true)
+            .buildDuration(Duration.ofMinutes(5)).queueDelay(Duration.ofMinutes(1)).start();
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.readSettings()).thenReturn(new Settings(jenkins.baseUrl(), "user", "key"));
+        HttpClient httpClient = HttpClient.newHttpClient();
+        ResponseCache responseCache = new ResponseCache(cacheDirectory, ResponseCache.DEFAULT_MAX_SIZE_BYTES);
+        jenkinsAPI = new JenkinsAPI(httpClient, new HttpRequestFactory(settingsService), settingsService, responseCache);
+        pipelineAPI = new PipelineAPI(httpClient, new HttpRequestFactory(settingsService), responseCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jenkins.close();
+    }
+
+    @Test
+    void poll_batchesRequestsAcrossWatchedJobs() {
+        jenkinsAPI.runJob(jenkins.jobUrl("job-2"));
+        List<WatchedJob> jobs = IntStream.rangeClosed(1, 6)
+            .mapToObj(i -> WatchedJob.of(jenkins.jobUrl("job-" + i)))
+            .toList();
+        WatchPoller poller = new WatchPoller(jenkinsAPI, pipelineAPI, jobs);
+        jenkins.resetCounters();
+
+        WatchPoller.Snapshot snapshot = poller.poll();
+
+        assertThat(jenkins.requestCount(Endpoint.VIEW_ALL)).isEqualTo(1);
+        assertThat(jenkins.requestCount(Endpoint.QUEUE)).isEqualTo(1);
+        assertThat(jenkins.requestCount(Endpoint.WFAPI_DESCRIBE)).isEqualTo(6);
+        assertThat(jenkins.requestCount(Endpoint.JOB)).isZero();
+        assertThat(snapshot.jobs()).allMatch(WatchPoller.JobState::isRunning);
+        assertThat(snapshot.jobs()).extracting(state -> state.stage().name()).containsOnly("Stage 1");
+        assertThat(snapshot.jobs()).filteredOn(WatchPoller.JobState::isQueued)
+            .extracting(state -> state.job().name()).containsExactly("job-2");
+    }
+
+    @Test
+    void of_derivesNameAndParentFromTheJobUrl() {
+        assertThat(WatchedJob.of("http://jenkins/job/team/job/my%20app/"))
+            .isEqualTo(new WatchedJob("my app", "http://jenkins/job/team/job/my%20app", "http://jenkins/job/team"));
+        assertThat(WatchedJob.of("http://jenkins/job/app").parentUrl()).isEqualTo("http://jenkins/view/all");
+    }
+}